@@ -0,0 +1,67 @@
+package com.flowerwine.cxx.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+
+/**
+ * 基准测试入口
+ * 结果以 JSON 格式写入本模块的 target/jmh/&lt;标签&gt;.json（按 jar 所在目录定位，与当前目录无关），
+ * 便于不同提交之间对比；可用 -Djmh.resultDir 指定其他目录
+ *
+ * <pre>
+ * mvn -pl cxx-benchmarks -am package -DskipTests
+ * java -Djmh.label=$(git rev-parse --short HEAD) -jar cxx-benchmarks/target/benchmarks.jar [正则] [JMH 参数]
+ * </pre>
+ * 其余参数按 JMH 命令行解析，如 -p chunkCount=32 -wi 1 -i 3
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        String label = System.getProperty("jmh.label", String.valueOf(System.currentTimeMillis()));
+        String resultDirProperty = System.getProperty("jmh.resultDir");
+        File resultDir = resultDirProperty != null ? new File(resultDirProperty) : defaultResultDir();
+        if (!resultDir.exists() && !resultDir.mkdirs()) {
+            throw new IllegalStateException("无法创建结果目录: " + resultDir);
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(resultDir, label + ".json").getPath());
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(".*Benchmark.*");
+        }
+        new Runner(options.build()).run();
+    }
+
+    /**
+     * 本模块 target 目录下的 jmh 目录：从 jar（target/benchmarks.jar）或 IDE 中的 target/classes 启动时均为 target/jmh
+     */
+    private static File defaultResultDir() {
+        CodeSource codeSource = BenchmarkRunner.class.getProtectionDomain().getCodeSource();
+        if (codeSource != null) {
+            try {
+                File location = new File(codeSource.getLocation().toURI());
+                if (location.getParentFile() != null) {
+                    return new File(location.getParentFile(), "jmh");
+                }
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // 非本地文件，使用默认路径
+            }
+        }
+        return new File("cxx-benchmarks/target/jmh");
+    }
+}
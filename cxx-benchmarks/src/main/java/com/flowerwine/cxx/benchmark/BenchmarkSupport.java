@@ -0,0 +1,72 @@
+package com.flowerwine.cxx.benchmark;
+
+import com.flowerwine.cxx.config.AppProperties;
+import com.flowerwine.cxx.config.FileUploadProperties;
+import com.flowerwine.cxx.storage.BlobStore;
+import com.flowerwine.cxx.storage.LocalDiskBlobStore;
+import com.flowerwine.cxx.storage.StorageLayout;
+import com.flowerwine.cxx.storage.StorageProperties;
+import com.flowerwine.cxx.util.ContentTypeDetector;
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * 基准测试公共工具：临时目录、测试数据和配置
+ */
+final class BenchmarkSupport {
+
+    /** 固定种子，保证每次运行的数据一致 */
+    static final long SEED = 20240101L;
+
+    private BenchmarkSupport() {
+    }
+
+    static Path createTempDir(String prefix) throws IOException {
+        return Files.createTempDirectory("cxx-bench-" + prefix);
+    }
+
+    static void deleteQuietly(Path dir) {
+        if (dir != null) {
+            FileUtils.deleteQuietly(dir.toFile());
+        }
+    }
+
+    static byte[] randomBytes(int size, Random random) {
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        return data;
+    }
+
+    static AppProperties appProperties(Path tempDir) {
+        AppProperties properties = new AppProperties();
+        properties.getFile().setUploadLocation(tempDir.resolve("uploads").toString());
+        properties.getFile().setTempLocation(tempDir.resolve("temp").toString());
+        properties.getFile().setAvatarLocation(tempDir.resolve("avatars").toString());
+        return properties;
+    }
+
+    static LocalDiskBlobStore blobStore(Path root, StorageProperties.FsyncPolicy fsync) throws IOException {
+        StorageProperties.Local config = new StorageProperties.Local();
+        config.setFsync(fsync);
+        return new LocalDiskBlobStore(root, config);
+    }
+
+    /**
+     * 与 application.yml 相同的禁止类型
+     */
+    static ContentTypeDetector contentTypeDetector() {
+        FileUploadProperties properties = new FileUploadProperties();
+        properties.getLargeFile().setForbiddenTypes(new String[]{
+                "application/x-msdownload", "application/x-executable",
+                "application/x-dosexec", "application/x-msdos-program"});
+        return new ContentTypeDetector(properties);
+    }
+
+    static StorageLayout storageLayout(BlobStore blobStore) {
+        return new StorageLayout(new StorageProperties(), blobStore);
+    }
+}
@@ -0,0 +1,81 @@
+package com.flowerwine.cxx.benchmark;
+
+import com.flowerwine.cxx.config.AppProperties;
+import com.flowerwine.cxx.config.KaptchaConfig;
+import com.flowerwine.cxx.service.CaptchaService;
+import com.flowerwine.cxx.util.CaptchaTokenUtil;
+import com.google.code.kaptcha.impl.DefaultKaptcha;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 验证码请求线程开销：按需渲染（原 CaptchaController 方式）与从预渲染池取出对比
+ * 池化场景取出后放回，保持池不为空，只测量请求线程上的工作；
+ * 实际服务中每个验证码只发放一次，渲染由后台线程完成，总渲染量不变
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CaptchaBenchmark {
+
+    private static final int POOL_SIZE = 256;
+
+    private DefaultKaptcha defaultKaptcha;
+    private BlockingQueue<CaptchaService.Captcha> pool;
+
+    @State(Scope.Thread)
+    public static class ResponseBuffer {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        AppProperties appProperties = new AppProperties();
+        defaultKaptcha = new KaptchaConfig(appProperties).defaultKaptcha();
+        CaptchaService captchaService = new CaptchaService(defaultKaptcha, appProperties, new SimpleMeterRegistry(),
+                new CaptchaTokenUtil(appProperties));
+        pool = new ArrayBlockingQueue<>(POOL_SIZE);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool.add(captchaService.render());
+        }
+    }
+
+    @Benchmark
+    public int renderOnDemand(ResponseBuffer buffer) throws IOException {
+        buffer.out.reset();
+        String text = defaultKaptcha.createText();
+        ImageIO.write(defaultKaptcha.createImage(text), "jpg", buffer.out);
+        return buffer.out.size() + text.length();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int renderOnDemandConcurrent(ResponseBuffer buffer) throws IOException {
+        return renderOnDemand(buffer);
+    }
+
+    @Benchmark
+    public int servePooled(ResponseBuffer buffer) throws InterruptedException {
+        buffer.out.reset();
+        CaptchaService.Captcha captcha = pool.take();
+        buffer.out.writeBytes(captcha.image());
+        pool.put(captcha);
+        return buffer.out.size() + captcha.text().length();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int servePooledConcurrent(ResponseBuffer buffer) throws InterruptedException {
+        return servePooled(buffer);
+    }
+}
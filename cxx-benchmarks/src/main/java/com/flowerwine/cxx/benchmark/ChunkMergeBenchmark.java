@@ -0,0 +1,71 @@
+package com.flowerwine.cxx.benchmark;
+
+import com.flowerwine.cxx.config.AppProperties;
+import com.flowerwine.cxx.storage.LocalDiskBlobStore;
+import com.flowerwine.cxx.storage.StorageProperties;
+import com.flowerwine.cxx.util.ChunkFileUploadUtil;
+import com.flowerwine.cxx.util.FileUploadUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分片合并基准：不同分片数量与分片大小下 ChunkFileUploadUtil.mergeChunks 的耗时
+ * 每次调用前重新写入分片（不计入测量），合并结果写入临时目录下的本地存储（不刷盘）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkMergeBenchmark {
+
+    @Param({"4", "32", "128"})
+    private int chunkCount;
+
+    @Param({"65536", "1048576"})
+    private int chunkSize;
+
+    private Path tempDir;
+    private String chunkDir;
+    private byte[] chunkData;
+    private ChunkFileUploadUtil chunkFileUploadUtil;
+
+    private static final String IDENTIFIER = "bench-upload";
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws IOException {
+        tempDir = BenchmarkSupport.createTempDir("merge");
+        chunkDir = tempDir.resolve("chunks").toString();
+        chunkData = BenchmarkSupport.randomBytes(chunkSize, new Random(BenchmarkSupport.SEED));
+        AppProperties appProperties = BenchmarkSupport.appProperties(tempDir);
+        LocalDiskBlobStore blobStore = BenchmarkSupport.blobStore(tempDir.resolve("merged"), StorageProperties.FsyncPolicy.NONE);
+        chunkFileUploadUtil = new ChunkFileUploadUtil(appProperties, new FileUploadUtil(blobStore, BenchmarkSupport.storageLayout(blobStore)), blobStore,
+                BenchmarkSupport.contentTypeDetector());
+    }
+
+    @Setup(Level.Invocation)
+    public void writeChunks() throws IOException {
+        Path dir = Path.of(chunkDir, IDENTIFIER);
+        Files.createDirectories(dir);
+        for (int i = 1; i <= chunkCount; i++) {
+            Files.write(dir.resolve(String.valueOf(i)), chunkData);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        BenchmarkSupport.deleteQuietly(tempDir);
+    }
+
+    @Benchmark
+    public Map<String, Object> mergeChunks() throws IOException {
+        return chunkFileUploadUtil.mergeChunks(chunkDir, IDENTIFIER, "merged.bin", chunkCount);
+    }
+}
@@ -0,0 +1,39 @@
+package com.flowerwine.cxx.benchmark;
+
+import com.flowerwine.cxx.enums.FileType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MIME 类型映射基准：覆盖 FileType.fromMimeType 的各个分支
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileTypeBenchmark {
+
+    private final String[] mimeTypes = {
+            "image/png",
+            "application/pdf",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+            "video/mp4",
+            "audio/mpeg",
+            "application/zip",
+            "application/x-msdownload-executable",
+            "application/octet-stream",
+            null
+    };
+
+    @Benchmark
+    @OperationsPerInvocation(9)
+    public void fromMimeType(Blackhole blackhole) {
+        for (String mimeType : mimeTypes) {
+            blackhole.consume(FileType.fromMimeType(mimeType));
+        }
+    }
+}
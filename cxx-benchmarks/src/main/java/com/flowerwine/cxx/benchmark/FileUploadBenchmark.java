@@ -0,0 +1,62 @@
+package com.flowerwine.cxx.benchmark;
+
+import com.flowerwine.cxx.dto.FileInfoDTO;
+import com.flowerwine.cxx.storage.LocalDiskBlobStore;
+import com.flowerwine.cxx.storage.StorageProperties;
+import com.flowerwine.cxx.util.FileUploadUtil;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单文件上传基准：FileUploadUtil.uploadFile 经本地存储写入临时文件并原子改名，比较不同刷盘策略的开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileUploadBenchmark {
+
+    @Param({"16384", "1048576", "16777216"})
+    private int fileSize;
+
+    @Param({"NONE", "FILE"})
+    private StorageProperties.FsyncPolicy fsync;
+
+    private Path tempDir;
+    private Path uploadPath;
+    private MockMultipartFile multipartFile;
+    private FileUploadUtil fileUploadUtil;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tempDir = BenchmarkSupport.createTempDir("upload");
+        uploadPath = tempDir.resolve("uploads");
+        byte[] content = BenchmarkSupport.randomBytes(fileSize, new Random(BenchmarkSupport.SEED));
+        multipartFile = new MockMultipartFile("file", "sample.bin", "application/octet-stream", content);
+        LocalDiskBlobStore blobStore = BenchmarkSupport.blobStore(uploadPath, fsync);
+        fileUploadUtil = new FileUploadUtil(blobStore, BenchmarkSupport.storageLayout(blobStore));
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUploads() throws IOException {
+        FileUtils.cleanDirectory(uploadPath.resolve("files").toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkSupport.deleteQuietly(tempDir);
+    }
+
+    @Benchmark
+    public FileInfoDTO uploadFile() {
+        return fileUploadUtil.uploadFile(multipartFile, "files");
+    }
+}
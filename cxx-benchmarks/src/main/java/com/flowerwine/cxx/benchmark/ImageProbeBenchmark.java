@@ -0,0 +1,60 @@
+package com.flowerwine.cxx.benchmark;
+
+import com.flowerwine.cxx.util.ImageProbe;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 头像尺寸校验基准：完整解码（原 ImageIO.read 方式）与只读文件头（ImageProbe）的耗时对比，
+ * 配合 -prof gc 可对比每次校验的内存分配
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageProbeBenchmark {
+
+    @Param({"jpg", "png", "gif"})
+    private String format;
+
+    @Param({"1000"})
+    private int size;
+
+    private final ImageProbe imageProbe = new ImageProbe();
+    private byte[] image;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BufferedImage source = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(BenchmarkSupport.SEED);
+        for (int y = 0; y < size; y += 10) {
+            for (int x = 0; x < size; x += 10) {
+                source.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(source, format, out);
+        image = out.toByteArray();
+    }
+
+    @Benchmark
+    public int decode() throws IOException {
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(image));
+        return decoded.getWidth() + decoded.getHeight();
+    }
+
+    @Benchmark
+    public int probe() throws IOException {
+        ImageProbe.ImageInfo info = imageProbe.probe(new ByteArrayInputStream(image));
+        return info.width() + info.height();
+    }
+}
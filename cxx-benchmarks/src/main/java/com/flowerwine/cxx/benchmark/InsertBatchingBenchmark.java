@@ -0,0 +1,133 @@
+package com.flowerwine.cxx.benchmark;
+
+import com.flowerwine.cxx.util.TimeOrderedIds;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 积分流水插入吞吐基准：每次调用在一个事务中写入 rows 条 points_record
+ * <ul>
+ *     <li>identity：自增主键，Hibernate 必须逐条执行 INSERT 并取回生成的主键（改造前）</li>
+ *     <li>batched：TimeOrderedIds 预先生成主键，按 hibernate.jdbc.batch_size 分批 executeBatch（改造后）</li>
+ * </ul>
+ * 数据库为 TCP 模式的 H2（MySQL 兼容模式），每条语句都有一次本机往返；
+ * H2 不会像 MySQL 驱动的 rewriteBatchedStatements 那样改写为多值插入，实际收益以 MySQL 为准会更大
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBatchingBenchmark {
+
+    private static final String TABLE_DDL = """
+            CREATE TABLE points_record (
+                id BIGINT NOT NULL %s PRIMARY KEY,
+                user_id BIGINT NOT NULL,
+                point_action_id BIGINT NOT NULL,
+                points INT NOT NULL,
+                description VARCHAR(255),
+                created_at TIMESTAMP NOT NULL
+            )""";
+
+    @Param({"identity", "batched"})
+    private String strategy;
+
+    /** 每个事务写入的行数，对应私信批量写入器的 batch-size */
+    @Param({"1", "100"})
+    private int rows;
+
+    /** 与 application.yml 中 hibernate.jdbc.batch_size 一致 */
+    @Param({"50"})
+    private int batchSize;
+
+    private Server server;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        connection = DriverManager.getConnection(
+                "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:insert-bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        boolean identity = "identity".equals(strategy);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(TABLE_DDL.formatted(identity ? "AUTO_INCREMENT" : ""));
+        }
+        connection.setAutoCommit(false);
+        String sql = identity
+                ? "INSERT INTO points_record (user_id, point_action_id, points, description, created_at) VALUES (?, ?, ?, ?, ?)"
+                : "INSERT INTO points_record (id, user_id, point_action_id, points, description, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+        insert = identity
+                ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(sql);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        insert.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE points_record");
+        }
+        connection.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public long insert() throws SQLException {
+        long last = "identity".equals(strategy) ? insertIdentity() : insertBatched();
+        connection.commit();
+        return last;
+    }
+
+    private long insertIdentity() throws SQLException {
+        long last = 0;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < rows; i++) {
+            bind(1, i, now);
+            insert.executeUpdate();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                keys.next();
+                last = keys.getLong(1);
+            }
+        }
+        return last;
+    }
+
+    private long insertBatched() throws SQLException {
+        long last = 0;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < rows; i++) {
+            last = TimeOrderedIds.nextId();
+            insert.setLong(1, last);
+            bind(2, i, now);
+            insert.addBatch();
+            if ((i + 1) % batchSize == 0) {
+                insert.executeBatch();
+            }
+        }
+        if (rows % batchSize != 0) {
+            insert.executeBatch();
+        }
+        return last;
+    }
+
+    private void bind(int index, int row, Timestamp now) throws SQLException {
+        insert.setLong(index, row % 1000 + 1);
+        insert.setLong(index + 1, 1);
+        insert.setInt(index + 2, 5);
+        insert.setString(index + 3, "每日签到");
+        insert.setTimestamp(index + 4, now);
+    }
+}
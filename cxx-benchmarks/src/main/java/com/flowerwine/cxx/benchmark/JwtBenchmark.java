@@ -0,0 +1,59 @@
+package com.flowerwine.cxx.benchmark;
+
+import com.flowerwine.cxx.dto.JwtTokenDTO;
+import com.flowerwine.cxx.util.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 基准：令牌生成、解析用户ID和校验，对应每个认证请求的开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private Path tempDir;
+    private JwtUtil jwtUtil;
+    private JwtTokenDTO tokenDTO;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tempDir = BenchmarkSupport.createTempDir("jwt");
+        jwtUtil = new JwtUtil(BenchmarkSupport.appProperties(tempDir));
+        tokenDTO = JwtTokenDTO.builder()
+                .userId(10001L)
+                .email("bench@example.com")
+                .avatar("/avatars/bench.png")
+                .username("bench")
+                .build();
+        token = jwtUtil.generateToken(tokenDTO);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkSupport.deleteQuietly(tempDir);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(tokenDTO);
+    }
+
+    @Benchmark
+    public Long extractUserId() {
+        return jwtUtil.extractUserId(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+}
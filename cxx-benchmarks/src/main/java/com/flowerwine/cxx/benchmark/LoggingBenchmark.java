@@ -0,0 +1,167 @@
+package com.flowerwine.cxx.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.flowerwine.cxx.config.AppProperties;
+import com.flowerwine.cxx.storage.LocalDiskBlobStore;
+import com.flowerwine.cxx.storage.StorageProperties;
+import com.flowerwine.cxx.logging.DebugDiscardingAsyncAppender;
+import com.flowerwine.cxx.logging.LogMdc;
+import com.flowerwine.cxx.util.ChunkFileUploadUtil;
+import com.flowerwine.cxx.util.FileUploadUtil;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 日志管道基准：8 个线程并发上传分片时，不同日志输出方式下单个分片请求的延迟分布
+ * 每次调用模拟一次分片上传请求：JWT 过滤器两条 DEBUG、ChunkFileUploadUtil.uploadChunk 写盘并输出 DEBUG
+ * <ul>
+ *     <li>off：关闭日志，作为基线</li>
+ *     <li>sync：同步文件输出（原 logback-spring.xml 的 FILE 追加器）</li>
+ *     <li>async：异步队列 + 文本格式</li>
+ *     <li>async-json：异步队列 + JSON 格式（structured-log 配置）</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String FILE_LOG_PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] [%X{requestId:-}] %-5level %logger{50} - %msg%n";
+    private static final org.slf4j.Logger AUTH_LOG = LoggerFactory.getLogger("com.flowerwine.cxx.config.JwtAuthenticationFilter");
+
+    @Param({"off", "sync", "async", "async-json"})
+    private String appender;
+
+    @Param({"65536"})
+    private int chunkSize;
+
+    private Path tempDir;
+    private String chunkDir;
+    private MockMultipartFile chunk;
+    private ChunkFileUploadUtil chunkFileUploadUtil;
+    private final AtomicInteger uploadSequence = new AtomicInteger();
+
+    /**
+     * 每个线程一个上传任务，分片编号循环使用，避免目录无限增长
+     */
+    @State(Scope.Thread)
+    public static class Upload {
+        String identifier;
+        int chunkNumber;
+
+        @Setup(Level.Trial)
+        public void setUp(LoggingBenchmark benchmark) {
+            identifier = "bench-" + benchmark.uploadSequence.incrementAndGet();
+            benchmark.chunkFileUploadUtil.initializeUpload(identifier, benchmark.chunkDir);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tempDir = BenchmarkSupport.createTempDir("logging");
+        chunkDir = tempDir.resolve("chunks").toString();
+        chunk = new MockMultipartFile("file", "chunk", "application/octet-stream",
+                BenchmarkSupport.randomBytes(chunkSize, new Random(BenchmarkSupport.SEED)));
+        AppProperties appProperties = BenchmarkSupport.appProperties(tempDir);
+        LocalDiskBlobStore blobStore = BenchmarkSupport.blobStore(tempDir.resolve("files"), StorageProperties.FsyncPolicy.NONE);
+        chunkFileUploadUtil = new ChunkFileUploadUtil(appProperties, new FileUploadUtil(blobStore, BenchmarkSupport.storageLayout(blobStore)), blobStore,
+                BenchmarkSupport.contentTypeDetector());
+        configureLogging(tempDir.resolve("logs"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // 停止上下文会先把异步队列中的日志写完
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+        BenchmarkSupport.deleteQuietly(tempDir);
+    }
+
+    @Benchmark
+    public void uploadChunk(Upload upload) {
+        MDC.put(LogMdc.REQUEST_ID, UUID.randomUUID().toString());
+        try {
+            AUTH_LOG.debug("处理JWT令牌: 用户 {}", "bench-user");
+            AUTH_LOG.debug("成功设置认证信息: 用户 {}", "bench-user");
+            upload.chunkNumber = upload.chunkNumber % 64 + 1;
+            chunkFileUploadUtil.uploadChunk(chunkDir, upload.identifier, upload.chunkNumber, chunk);
+        } finally {
+            MDC.remove(LogMdc.REQUEST_ID);
+        }
+    }
+
+    private void configureLogging(Path logDir) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        if ("off".equals(appender)) {
+            root.setLevel(ch.qos.logback.classic.Level.OFF);
+            return;
+        }
+        // 与改造前一致：项目包 DEBUG
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        context.getLogger("com.flowerwine.cxx").setLevel(ch.qos.logback.classic.Level.DEBUG);
+
+        boolean json = "async-json".equals(appender);
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile(logDir.resolve(json ? "bench.json" : "bench.log").toString());
+        file.setEncoder(json ? jsonEncoder(context) : patternEncoder(context));
+        file.start();
+
+        if ("sync".equals(appender)) {
+            root.addAppender(file);
+            return;
+        }
+        DebugDiscardingAsyncAppender async = new DebugDiscardingAsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC_FILE");
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(1024);
+        async.addAppender(file);
+        async.start();
+        root.addAppender(async);
+    }
+
+    private static Encoder<ILoggingEvent> patternEncoder(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(FILE_LOG_PATTERN);
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+        return encoder;
+    }
+
+    private static Encoder<ILoggingEvent> jsonEncoder(LoggerContext context) {
+        // StructuredLogEncoder 从日志上下文中读取 Spring Environment
+        context.putObject(Environment.class.getName(), new StandardEnvironment());
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("logstash");
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+        return encoder;
+    }
+}
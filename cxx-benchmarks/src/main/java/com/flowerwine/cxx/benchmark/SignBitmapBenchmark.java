@@ -0,0 +1,101 @@
+package com.flowerwine.cxx.benchmark;
+
+import com.flowerwine.cxx.util.SignBitmapUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 签到位图基准：SignService 区间日历与全站月度统计所用的位运算
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignBitmapBenchmark {
+
+    /** 区间跨越的月数 */
+    @Param({"1", "12", "60"})
+    private int months;
+
+    /** 月度统计中参与的用户数 */
+    @Param({"100000"})
+    private int users;
+
+    private LocalDate start;
+    private LocalDate end;
+    private int dayCount;
+    private long[] monthBitmaps;
+    private long[] userBitmaps;
+    private BitSet rangeBits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(BenchmarkSupport.SEED);
+        end = LocalDate.of(2024, 12, 31);
+        start = end.minusMonths(months).plusDays(1);
+        dayCount = (int) ChronoUnit.DAYS.between(start, end) + 1;
+
+        monthBitmaps = new long[months + 1];
+        for (int i = 0; i < monthBitmaps.length; i++) {
+            // 约七成签到率
+            monthBitmaps[i] = random.nextLong() | random.nextLong();
+        }
+        userBitmaps = new long[users];
+        for (int i = 0; i < users; i++) {
+            userBitmaps[i] = random.nextLong() & random.nextLong();
+        }
+        rangeBits = mergeRange();
+    }
+
+    @Benchmark
+    public BitSet mergeMonths() {
+        return mergeRange();
+    }
+
+    @Benchmark
+    public int longestStreak() {
+        return SignBitmapUtil.longestStreak(rangeBits);
+    }
+
+    @Benchmark
+    public int currentStreak() {
+        return SignBitmapUtil.currentStreak(rangeBits, dayCount - 1);
+    }
+
+    @Benchmark
+    public int[] weekdayHistogram() {
+        return SignBitmapUtil.weekdayHistogram(rangeBits, start, dayCount);
+    }
+
+    @Benchmark
+    public String encode() {
+        return SignBitmapUtil.encode(rangeBits);
+    }
+
+    @Benchmark
+    public int[] accumulateMonthlyStats() {
+        int[] dayCounts = new int[31];
+        for (long bitmap : userBitmaps) {
+            SignBitmapUtil.accumulateDays(bitmap, dayCounts);
+        }
+        return dayCounts;
+    }
+
+    private BitSet mergeRange() {
+        BitSet bits = new BitSet(dayCount);
+        YearMonth month = YearMonth.from(start);
+        YearMonth last = YearMonth.from(end);
+        for (int i = 0; !month.isAfter(last); i++, month = month.plusMonths(1)) {
+            SignBitmapUtil.mergeMonth(bits, start, end, month, monthBitmaps[i]);
+        }
+        return bits;
+    }
+}
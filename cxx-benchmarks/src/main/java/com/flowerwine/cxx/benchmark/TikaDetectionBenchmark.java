@@ -0,0 +1,97 @@
+package com.flowerwine.cxx.benchmark;
+
+import com.flowerwine.cxx.util.ContentTypeDetector;
+import org.apache.tika.Tika;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文件类型检测基准：分别测量按文件内容检测和仅按文件名检测的开销，
+ * 以及上传时"写入后重新打开文件检测"与"写入时截取开头部分检测"（ContentTypeDetector.sniff）的差别
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TikaDetectionBenchmark {
+
+    @Param({"png", "pdf", "zip", "txt"})
+    private String kind;
+
+    @Param({"4096", "8388608"})
+    private int fileSize;
+
+    private final Tika tika = new Tika();
+    private final ContentTypeDetector contentTypeDetector = BenchmarkSupport.contentTypeDetector();
+    private Path tempDir;
+    private Path sample;
+    private Path target;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tempDir = BenchmarkSupport.createTempDir("tika");
+        byte[] content = BenchmarkSupport.randomBytes(fileSize, new Random(BenchmarkSupport.SEED));
+        byte[] header = header(kind);
+        System.arraycopy(header, 0, content, 0, header.length);
+        sample = tempDir.resolve("sample." + kind);
+        Files.write(sample, content);
+        target = tempDir.resolve("target." + kind);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkSupport.deleteQuietly(tempDir);
+    }
+
+    @Benchmark
+    public String detectPath() throws IOException {
+        return tika.detect(sample);
+    }
+
+    @Benchmark
+    public String detectFile() throws IOException {
+        return tika.detect(sample.toFile());
+    }
+
+    @Benchmark
+    public String detectFilename() {
+        return tika.detect(sample.getFileName().toString());
+    }
+
+    @Benchmark
+    public String copyThenDetect() throws IOException {
+        // 与上传相同，数据以流的形式写入
+        try (InputStream in = Files.newInputStream(sample)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return tika.detect(target);
+    }
+
+    @Benchmark
+    public String sniffWhileCopying() throws IOException {
+        try (ContentTypeDetector.SniffingInputStream in =
+                     contentTypeDetector.sniff(Files.newInputStream(sample), sample.getFileName().toString(), true)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            return in.detectedType();
+        }
+    }
+
+    private static byte[] header(String kind) {
+        return switch (kind) {
+            case "png" -> new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+            case "pdf" -> "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+            case "zip" -> new byte[]{'P', 'K', 0x03, 0x04};
+            default -> "plain text sample\n".getBytes(StandardCharsets.US_ASCII);
+        };
+    }
+}
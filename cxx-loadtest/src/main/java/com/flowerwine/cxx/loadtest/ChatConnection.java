@@ -0,0 +1,53 @@
+package com.flowerwine.cxx.loadtest;
+
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个虚拟用户的 STOMP 连接，通过 /app/chat 发送私信
+ * WebSocket 会话不支持并发发送，每个压测线程持有自己的连接
+ */
+class ChatConnection implements AutoCloseable {
+
+    static final String ENDPOINT = "STOMP SEND /app/chat";
+
+    private final WebSocketStompClient stompClient;
+    private final StompSession session;
+    private final LatencyRecorder recorder;
+
+    ChatConnection(String wsUrl, LatencyRecorder recorder) throws Exception {
+        this.recorder = recorder;
+        this.stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        this.stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        this.session = stompClient.connectAsync(wsUrl, new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    void send(Long senderId, Long receiverId, String content) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            session.send("/app/chat", Map.of(
+                    "senderId", senderId,
+                    "receiverId", receiverId,
+                    "content", content));
+            success = true;
+        } finally {
+            recorder.record(ENDPOINT, System.nanoTime() - start, success);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (session.isConnected()) {
+            session.disconnect();
+        }
+        stompClient.stop();
+    }
+}
@@ -0,0 +1,268 @@
+package com.flowerwine.cxx.loadtest;
+
+import cn.hutool.core.util.IdUtil;
+import com.flowerwine.cxx.config.FileUploadProperties;
+import com.flowerwine.cxx.dto.JwtTokenDTO;
+import com.flowerwine.cxx.entity.*;
+import com.flowerwine.cxx.enums.UserFileTaskStatusEnum;
+import com.flowerwine.cxx.repository.*;
+import com.flowerwine.cxx.storage.BlobStore;
+import com.flowerwine.cxx.util.JwtUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * 压测种子数据
+ * 按配置规模写入用户、悬赏、竞标、资源任务和私信，数据内容固定种子随机生成
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class DataSeeder {
+
+    /** 每个事务写入的记录数 */
+    private static final int BATCH_SIZE = 1000;
+    private static final String PASSWORD = "loadtest123";
+
+    private final LoadTestProperties properties;
+    private final FileUploadProperties uploadProperties;
+    private final BlobStore blobStore;
+    private final PlatformTransactionManager transactionManager;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final UserPointsRepository userPointsRepository;
+    private final FileInfoRepository fileInfoRepository;
+    private final FileBountyRepository fileBountyRepository;
+    private final FileBidRepository fileBidRepository;
+    private final UserFileTaskRepository userFileTaskRepository;
+    private final PrivateMessageConversationRepository conversationRepository;
+    private final PrivateMessageRepository messageRepository;
+
+    private final Random random = new Random(20240101L);
+
+    public SeedData seed() {
+        LoadTestProperties.Seed seed = properties.getSeed();
+        long start = System.currentTimeMillis();
+
+        List<SeedData.SeedUser> users = seedUsers(seed.getUsers());
+        List<Long> bountyIds = seedBounties(users, seed.getBounties(), seed.getBidsPerBounty());
+        seedTasks(users, seed.getTasks());
+        List<SeedData.SeedConversation> conversations = seedConversations(
+                users, seed.getConversationsPerUser(), seed.getMessagesPerConversation());
+
+        List<String> downloadFiles = seedDownloadFiles(seed.getDownloadFiles(), seed.getDownloadSizeBytes());
+        List<String> downloadPaths = downloadFiles.stream()
+                .map(key -> uploadProperties.getUrlPrefix() + "/" + key)
+                .toList();
+        List<SeedData.SeedDownloadFile> downloadFileRecords = seedDownloadFileRecords(users, downloadFiles);
+
+        log.info("种子数据写入完成: 用户 {}, 悬赏 {}, 资源 {}, 会话 {}, 下载文件 {}, 耗时 {} ms",
+                users.size(), bountyIds.size(), seed.getTasks(), conversations.size(), downloadPaths.size(),
+                System.currentTimeMillis() - start);
+        return new SeedData(users, bountyIds, conversations, downloadPaths, downloadFileRecords);
+    }
+
+    /**
+     * 在存储后端写入下载场景使用的静态文件，返回存储键
+     */
+    private List<String> seedDownloadFiles(int count, int sizeBytes) {
+        byte[] content = new byte[sizeBytes];
+        random.nextBytes(content);
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String key = "loadtest-downloads/download-" + i + ".bin";
+            try {
+                blobStore.put(key, new ByteArrayInputStream(content), content.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException("写入下载文件失败: " + key, e);
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /**
+     * 为下载文件建立文件记录，上传者即有下载权限
+     */
+    private List<SeedData.SeedDownloadFile> seedDownloadFileRecords(List<SeedData.SeedUser> users, List<String> files) {
+        List<SeedData.SeedUser> owners = new ArrayList<>(files.size());
+        List<FileInfo> records = saveInBatches(files.size(), i -> {
+            SeedData.SeedUser owner = pick(users);
+            owners.add(owner);
+            FileInfo fileInfo = fileInfo(i, owner.id());
+            String key = files.get(i);
+            fileInfo.setOriginalName(key.substring(key.lastIndexOf('/') + 1));
+            fileInfo.setFilePath(key);
+            return fileInfo;
+        }, fileInfoRepository::saveAll);
+        List<SeedData.SeedDownloadFile> seeded = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            seeded.add(new SeedData.SeedDownloadFile(records.get(i).getId(), owners.get(i)));
+        }
+        return seeded;
+    }
+
+    private List<SeedData.SeedUser> seedUsers(int count) {
+        // 所有压测用户共用一个密码，避免逐个 BCrypt 编码
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+
+        List<User> users = saveInBatches(count, i -> {
+            User user = new User();
+            user.setUsername("lt_user_" + i);
+            user.setPassword(encodedPassword);
+            user.setStatus(1);
+            return user;
+        }, userRepository::saveAll);
+
+        saveInBatches(count, i -> {
+            UserProfile profile = new UserProfile();
+            profile.setUser(users.get(i));
+            profile.setEmail("lt_user_" + i + "@loadtest.local");
+            profile.setAvatar("/uploads/avatars/default.png");
+            return profile;
+        }, userProfileRepository::saveAll);
+
+        saveInBatches(count, i -> UserPoints.builder()
+                .userId(users.get(i).getId())
+                .points(1_000_000)
+                .totalPoints(1_000_000)
+                .build(), userPointsRepository::saveAll);
+
+        List<SeedData.SeedUser> seedUsers = new ArrayList<>(count);
+        for (User user : users) {
+            String token = jwtUtil.generateToken(JwtTokenDTO.builder()
+                    .userId(user.getId())
+                    .username(user.getUsername())
+                    .email(user.getUsername() + "@loadtest.local")
+                    .build());
+            seedUsers.add(new SeedData.SeedUser(user.getId(), user.getUsername(), token));
+        }
+        return seedUsers;
+    }
+
+    private List<Long> seedBounties(List<SeedData.SeedUser> users, int count, int bidsPerBounty) {
+        List<FileBounty> bounties = saveInBatches(count, i -> {
+            FileBounty bounty = new FileBounty();
+            bounty.setUserId(pick(users).id());
+            bounty.setTitle("压测悬赏 " + i);
+            bounty.setDescription("压测悬赏描述 " + i + "，需要一份课程资料");
+            bounty.setPoints(10 + random.nextInt(200));
+            bounty.setStatus((byte) 1);
+            bounty.setViewCount(random.nextInt(1000));
+            return bounty;
+        }, fileBountyRepository::saveAll);
+
+        int bidCount = count * bidsPerBounty;
+        List<FileInfo> files = saveInBatches(bidCount, i -> fileInfo(i, pick(users).id()), fileInfoRepository::saveAll);
+        saveInBatches(bidCount, i -> {
+            FileBid bid = new FileBid();
+            bid.setBountyId(bounties.get(i / bidsPerBounty).getId());
+            bid.setUserId(files.get(i).getUserId());
+            bid.setFileId(files.get(i).getId());
+            return bid;
+        }, fileBidRepository::saveAll);
+
+        return bounties.stream().map(FileBounty::getId).toList();
+    }
+
+    private void seedTasks(List<SeedData.SeedUser> users, int count) {
+        List<FileInfo> files = saveInBatches(count, i -> fileInfo(i, pick(users).id()), fileInfoRepository::saveAll);
+        saveInBatches(count, i -> UserFileTask.builder()
+                .userId(files.get(i).getUserId())
+                .title("压测资源 " + i)
+                .description("压测资源描述 " + i)
+                .fileId(files.get(i).getId())
+                .isFree(i % 3 == 0 ? 1 : 0)
+                .requiredPoints(i % 3 == 0 ? 0 : 5 + random.nextInt(50))
+                .status(i % 5 == 0 ? UserFileTaskStatusEnum.SUCCESS.getValue() : UserFileTaskStatusEnum.PUBLISHED.getValue())
+                .downloadCount(random.nextInt(5000))
+                .viewCount(random.nextInt(20000))
+                .build(), userFileTaskRepository::saveAll);
+    }
+
+    private List<SeedData.SeedConversation> seedConversations(List<SeedData.SeedUser> users,
+                                                              int perUser, int messagesPerConversation) {
+        // 每个用户与环上其后的若干用户各建立一个会话，不超过半圈以保证两两之间至多一个会话
+        int userCount = users.size();
+        int partners = Math.min(perUser, (userCount - 1) / 2);
+        if (partners <= 0) {
+            return List.of();
+        }
+        int count = userCount * partners;
+        List<PrivateMessageConversation> conversations = saveInBatches(count, i -> {
+            SeedData.SeedUser initiator = users.get(i / partners);
+            SeedData.SeedUser participant = users.get((i / partners + i % partners + 1) % userCount);
+            PrivateMessageConversation conversation = new PrivateMessageConversation();
+            conversation.setConversationId(IdUtil.fastSimpleUUID());
+            conversation.setInitiatorId(initiator.id());
+            conversation.setParticipantId(participant.id());
+            return conversation;
+        }, conversationRepository::saveAll);
+
+        LocalDateTime base = LocalDateTime.now().minusDays(30);
+        saveInBatches(count * messagesPerConversation, i -> {
+            PrivateMessageConversation conversation = conversations.get(i / messagesPerConversation);
+            boolean fromInitiator = random.nextBoolean();
+            PrivateMessage message = new PrivateMessage();
+            message.setConversationKey(conversation.getId());
+            message.setConversationId(conversation.getConversationId());
+            message.setSenderId(fromInitiator ? conversation.getInitiatorId() : conversation.getParticipantId());
+            message.setReceiverId(fromInitiator ? conversation.getParticipantId() : conversation.getInitiatorId());
+            message.setContent("压测消息 " + i);
+            message.setCreatedAt(base.plusMinutes(i));
+            return message;
+        }, messageRepository::saveAll);
+
+        return conversations.stream()
+                .map(c -> new SeedData.SeedConversation(c.getConversationId(), c.getInitiatorId(), c.getParticipantId()))
+                .toList();
+    }
+
+    private FileInfo fileInfo(int index, Long userId) {
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setOriginalName("资料" + index + ".pdf");
+        fileInfo.setFileName("seed-" + index + ".pdf");
+        fileInfo.setFilePath("seed/seed-" + index + ".pdf");
+        fileInfo.setFileType(2);
+        fileInfo.setFileSize(1024L * (1 + random.nextInt(10240)));
+        fileInfo.setUserId(userId);
+        return fileInfo;
+    }
+
+    private SeedData.SeedUser pick(List<SeedData.SeedUser> users) {
+        return users.get(random.nextInt(users.size()));
+    }
+
+    /**
+     * 分批构造并写入实体，每批一个事务
+     */
+    private <T> List<T> saveInBatches(int count, Function<Integer, T> factory, Function<List<T>, List<T>> saver) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<T> saved = new ArrayList<>(count);
+        for (int from = 0; from < count; from += BATCH_SIZE) {
+            List<T> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(count, from + BATCH_SIZE); i++) {
+                batch.add(factory.apply(i));
+            }
+            saved.addAll(transactionTemplate.execute(status -> saver.apply(batch)));
+        }
+        return saved;
+    }
+}
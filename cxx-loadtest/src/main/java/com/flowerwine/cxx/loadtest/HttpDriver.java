@@ -0,0 +1,87 @@
+package com.flowerwine.cxx.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * 压测 HTTP 客户端：附加令牌与接口标注，并记录每次请求的耗时
+ */
+class HttpDriver {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    HttpDriver(String baseUrl, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    HttpResponse<String> get(String endpoint, String path, SeedData.SeedUser user) throws IOException, InterruptedException {
+        return send(endpoint, HttpRequest.newBuilder(uri(path)).GET(), user);
+    }
+
+    HttpResponse<String> post(String endpoint, String path, SeedData.SeedUser user) throws IOException, InterruptedException {
+        return send(endpoint, HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.noBody()), user);
+    }
+
+    /**
+     * 下载：流式读完整个响应体但不保留，耗时包含传输时间，返回读取的字节数
+     */
+    long download(String endpoint, String path, SeedData.SeedUser user) throws IOException, InterruptedException {
+        HttpRequest request = request(HttpRequest.newBuilder(uri(path)).GET(), endpoint, user);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            long bytes;
+            try (InputStream body = response.body()) {
+                bytes = body.transferTo(OutputStream.nullOutputStream());
+            }
+            recorder.record(endpoint, System.nanoTime() - start, response.statusCode() < 400);
+            return bytes;
+        } catch (IOException | RuntimeException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    /**
+     * 发送请求并按接口名记录耗时，状态码 400 及以上记为失败
+     */
+    HttpResponse<String> send(String endpoint, HttpRequest.Builder builder, SeedData.SeedUser user)
+            throws IOException, InterruptedException {
+        HttpRequest request = request(builder, endpoint, user);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            recorder.record(endpoint, System.nanoTime() - start, response.statusCode() < 400);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    private HttpRequest request(HttpRequest.Builder builder, String endpoint, SeedData.SeedUser user) {
+        return builder
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + user.token())
+                .header(SqlCountingFilter.ENDPOINT_HEADER, endpoint)
+                .build();
+    }
+}
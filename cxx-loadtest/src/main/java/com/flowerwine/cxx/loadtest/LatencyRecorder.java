@@ -0,0 +1,95 @@
+package com.flowerwine.cxx.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按接口记录请求耗时，预热阶段不记录
+ */
+class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    void startRecording() {
+        samples.clear();
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+    }
+
+    void record(String endpoint, long elapsedNanos, boolean success) {
+        if (!recording) {
+            return;
+        }
+        Samples s = samples.computeIfAbsent(endpoint, key -> new Samples());
+        s.add(elapsedNanos);
+        if (!success) {
+            s.errors.increment();
+        }
+    }
+
+    /**
+     * 各接口的耗时汇总，按接口名排序
+     */
+    Map<String, Summary> summarize() {
+        Map<String, Summary> result = new TreeMap<>();
+        samples.forEach((endpoint, s) -> result.put(endpoint, s.summarize()));
+        return result;
+    }
+
+    /**
+     * @param count  请求数
+     * @param errors 失败数（非 2xx/3xx 或异常）
+     * @param p50Ms  中位耗时
+     * @param p99Ms  99 分位耗时
+     * @param maxMs  最大耗时
+     * @param meanMs 平均耗时
+     */
+    record Summary(long count, long errors, double p50Ms, double p99Ms, double maxMs, double meanMs) {
+    }
+
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private final LongAdder errors = new LongAdder();
+
+        synchronized void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        synchronized Summary summarize() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            double sum = 0;
+            for (long value : sorted) {
+                sum += value;
+            }
+            return new Summary(size, errors.sum(),
+                    toMillis(percentile(sorted, 0.50)),
+                    toMillis(percentile(sorted, 0.99)),
+                    toMillis(size == 0 ? 0 : sorted[size - 1]),
+                    size == 0 ? 0 : toMillis(sum / size));
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        private static double toMillis(double nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.flowerwine.cxx.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flowerwine.cxx.CxxApplication;
+import com.flowerwine.cxx.repository.FileDownloadRecordRepository;
+import com.flowerwine.cxx.repository.PrivateMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 压测入口
+ * 以 loadtest 配置启动完整应用（H2 内存库），写入种子数据后通过真实的 HTTP/STOMP 接口驱动场景，
+ * 输出各接口的 p50/p99 耗时、吞吐量和 SQL 语句数，并写入 JSON 报告
+ *
+ * <pre>
+ * mvn -pl cxx-loadtest -am package -DskipTests
+ * java -jar cxx-loadtest/target/cxx-loadtest-0.0.1-SNAPSHOT.jar --loadtest.run.concurrency=32 --loadtest.run.duration-seconds=60
+ * </pre>
+ * 平台线程与虚拟线程的上传/下载吞吐量对比见 application-io-bound.yml
+ */
+@Slf4j
+public final class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CxxApplication.class)
+                .profiles("loadtest")
+                .run(args);
+        int exitCode = 0;
+        try {
+            LoadTestProperties properties = context.getBean(LoadTestProperties.class);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            SeedData seedData = context.getBean(DataSeeder.class).seed();
+
+            SqlStatementStats sqlStats = context.getBean(SqlStatementStats.class);
+            PrivateMessageRepository messageRepository = context.getBean(PrivateMessageRepository.class);
+            LatencyRecorder recorder = new LatencyRecorder();
+            ScenarioRunner runner = new ScenarioRunner(port, properties, seedData, recorder);
+
+            // 测量开始时的私信发送数、入库数和下载字节数，用于计算测量阶段的增量
+            long[] baseline = new long[3];
+            long durationMillis = runner.run(() -> {
+                sqlStats.reset();
+                baseline[0] = runner.getSentMessages();
+                baseline[1] = messageRepository.count();
+                baseline[2] = runner.getDownloadedBytes();
+            });
+            long sent = runner.getSentMessages() - baseline[0];
+            long downloaded = runner.getDownloadedBytes() - baseline[2];
+
+            // 等待私信写入队列排空
+            TimeUnit.SECONDS.sleep(2);
+            long stored = messageRepository.count() - baseline[1];
+            log.info("下载审计记录入库: {} 条", context.getBean(FileDownloadRecordRepository.class).count());
+
+            String threading = Threading.VIRTUAL.isActive(context.getEnvironment()) ? "virtual" : "platform";
+            LoadTestReport report = LoadTestReport.of(durationMillis, threading, properties.getRun().getConcurrency(),
+                    runner.getScenarioFailures(), sent, stored, downloaded,
+                    recorder.summarize(), sqlStats.snapshot());
+            report.print(new PrintStream(System.out, true, StandardCharsets.UTF_8));
+
+            Path reportFile = Path.of(properties.getReportDir(), "report-" + System.currentTimeMillis() + ".json");
+            report.writeJson(context.getBean(ObjectMapper.class), reportFile);
+            log.info("压测报告已写入: {}", reportFile.toAbsolutePath());
+        } catch (Exception e) {
+            log.error("压测执行失败", e);
+            exitCode = 1;
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+}
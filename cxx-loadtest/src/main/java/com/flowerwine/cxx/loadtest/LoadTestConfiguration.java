@@ -0,0 +1,26 @@
+package com.flowerwine.cxx.loadtest;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+/**
+ * 压测环境配置
+ */
+@Configuration
+@Profile("loadtest")
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<SqlCountingFilter> sqlCountingFilter(SqlStatementStats stats) {
+        FilterRegistrationBean<SqlCountingFilter> registration = new FilterRegistrationBean<>(new SqlCountingFilter(stats));
+        registration.addUrlPatterns("/*");
+        // 放在安全过滤器之前，认证阶段的查询也计入
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,59 @@
+package com.flowerwine.cxx.loadtest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 压测配置
+ */
+@Data
+@ConfigurationProperties(prefix = "loadtest")
+public class LoadTestProperties {
+
+    /** 上传文件等运行时数据的工作目录 */
+    private String workDir;
+    /** 报告输出目录 */
+    private String reportDir = "target/loadtest";
+
+    private Seed seed = new Seed();
+    private Run run = new Run();
+    /** 场景权重 */
+    private Map<String, Integer> scenarios = new LinkedHashMap<>();
+
+    /**
+     * 种子数据规模
+     */
+    @Data
+    public static class Seed {
+        private int users = 200;
+        private int bounties = 500;
+        private int bidsPerBounty = 5;
+        private int tasks = 1000;
+        private int conversationsPerUser = 3;
+        private int messagesPerConversation = 50;
+        /** 供下载场景使用的静态文件数 */
+        private int downloadFiles = 20;
+        /** 每个下载文件的大小 */
+        private int downloadSizeBytes = 1024 * 1024;
+    }
+
+    /**
+     * 运行参数
+     */
+    @Data
+    public static class Run {
+        /** 并发虚拟用户数 */
+        private int concurrency = 16;
+        /** 预热时长（秒），预热期间的数据不计入报告 */
+        private int warmupSeconds = 5;
+        /** 测量时长（秒） */
+        private int durationSeconds = 30;
+        /** tus 上传文件大小 */
+        private int uploadSizeBytes = 256 * 1024;
+        /** tus 每次 PATCH 的大小 */
+        private int uploadChunkBytes = 64 * 1024;
+    }
+}
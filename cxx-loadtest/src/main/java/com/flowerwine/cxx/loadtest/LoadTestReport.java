@@ -0,0 +1,76 @@
+package com.flowerwine.cxx.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测报告：每个接口的耗时分位、吞吐量和 SQL 语句数
+ *
+ * @param durationMillis     测量时长
+ * @param threading          请求线程模型（platform / virtual）
+ * @param concurrency        并发数
+ * @param scenarioFailures   执行异常的场景数
+ * @param chatMessagesSent   通过 STOMP 发送的私信数
+ * @param chatMessagesStored 测量期间实际入库的私信数
+ * @param downloadMbPerSecond 测量期间下载场景的吞吐量（MB/s）
+ * @param endpoints          各接口统计
+ */
+record LoadTestReport(long durationMillis, String threading, int concurrency, long scenarioFailures,
+                      long chatMessagesSent, long chatMessagesStored, double downloadMbPerSecond,
+                      List<EndpointResult> endpoints) {
+
+    record EndpointResult(String endpoint, long requests, long errors, double throughputPerSecond,
+                          double p50Ms, double p99Ms, double maxMs, double meanMs,
+                          double sqlPerRequest, long sqlMaxPerRequest) {
+    }
+
+    static LoadTestReport of(long durationMillis, String threading, int concurrency, long scenarioFailures,
+                             long chatMessagesSent, long chatMessagesStored, long downloadedBytes,
+                             Map<String, LatencyRecorder.Summary> latencies,
+                             Map<String, SqlStatementStats.Snapshot> sqlStats) {
+        double seconds = Math.max(durationMillis, 1) / 1000.0;
+        List<EndpointResult> endpoints = new ArrayList<>();
+        latencies.forEach((endpoint, summary) -> {
+            SqlStatementStats.Snapshot sql = sqlStats.get(endpoint);
+            endpoints.add(new EndpointResult(endpoint, summary.count(), summary.errors(),
+                    round(summary.count() / seconds),
+                    round(summary.p50Ms()), round(summary.p99Ms()), round(summary.maxMs()), round(summary.meanMs()),
+                    sql == null ? 0 : round(sql.averagePerRequest()),
+                    sql == null ? 0 : sql.maxPerRequest()));
+        });
+        return new LoadTestReport(durationMillis, threading, concurrency, scenarioFailures,
+                chatMessagesSent, chatMessagesStored, round(downloadedBytes / (1024.0 * 1024.0) / seconds), endpoints);
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n压测结果：时长 %.1f 秒，%s 线程，并发 %d，场景异常 %d，私信发送 %d / 入库 %d，下载 %.2f MB/s%n",
+                durationMillis / 1000.0, threading, concurrency, scenarioFailures, chatMessagesSent, chatMessagesStored,
+                downloadMbPerSecond);
+        out.printf("%-58s %8s %6s %9s %9s %9s %9s %8s %7s%n",
+                "endpoint", "requests", "errors", "req/s", "p50(ms)", "p99(ms)", "max(ms)", "sql/req", "sqlMax");
+        for (EndpointResult e : endpoints) {
+            out.printf("%-58s %8d %6d %9.1f %9.2f %9.2f %9.2f %8.1f %7d%n",
+                    e.endpoint(), e.requests(), e.errors(), e.throughputPerSecond(),
+                    e.p50Ms(), e.p99Ms(), e.maxMs(), e.sqlPerRequest(), e.sqlMaxPerRequest());
+        }
+    }
+
+    void writeJson(ObjectMapper objectMapper, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        objectMapper.copy()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), this);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,158 @@
+package com.flowerwine.cxx.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按配置的并发数驱动压测场景
+ * 每个线程循环：随机选取一个种子用户，按权重选择场景执行，直到测量结束
+ */
+@Slf4j
+class ScenarioRunner {
+
+    private final LoadTestProperties properties;
+    private final SeedData seedData;
+    private final LatencyRecorder recorder;
+    private final Scenarios scenarios;
+    private final String wsUrl;
+    private final List<WeightedScenario> weighted = new ArrayList<>();
+    private final AtomicLong scenarioFailures = new AtomicLong();
+    private int totalWeight;
+
+    ScenarioRunner(int port, LoadTestProperties properties, SeedData seedData, LatencyRecorder recorder) {
+        this.properties = properties;
+        this.seedData = seedData;
+        this.recorder = recorder;
+        this.scenarios = new Scenarios(new HttpDriver("http://localhost:" + port, recorder), seedData, properties.getRun());
+        this.wsUrl = "ws://localhost:" + port + "/ws/websocket";
+
+        for (Map.Entry<String, Integer> entry : properties.getScenarios().entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0) {
+                continue;
+            }
+            totalWeight += entry.getValue();
+            weighted.add(new WeightedScenario(entry.getKey(), totalWeight, resolve(entry.getKey())));
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("未配置任何压测场景");
+        }
+    }
+
+    long getScenarioFailures() {
+        return scenarioFailures.get();
+    }
+
+    long getSentMessages() {
+        return scenarios.getSentMessages();
+    }
+
+    long getDownloadedBytes() {
+        return scenarios.getDownloadedBytes();
+    }
+
+    /**
+     * 执行预热和测量，返回测量阶段的实际时长（毫秒）
+     */
+    long run(Runnable onMeasurementStart) throws InterruptedException {
+        LoadTestProperties.Run run = properties.getRun();
+        long warmupEnd = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(run.getWarmupSeconds());
+        long end = warmupEnd + TimeUnit.SECONDS.toMillis(run.getDurationSeconds());
+
+        ExecutorService executor = Executors.newFixedThreadPool(run.getConcurrency());
+        CountDownLatch finished = new CountDownLatch(run.getConcurrency());
+        for (int worker = 0; worker < run.getConcurrency(); worker++) {
+            long seed = 20240101L + worker;
+            executor.execute(() -> {
+                try {
+                    runWorker(seed, end);
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+
+        log.info("预热 {} 秒，并发 {}", run.getWarmupSeconds(), run.getConcurrency());
+        Thread.sleep(Math.max(0, warmupEnd - System.currentTimeMillis()));
+        onMeasurementStart.run();
+        recorder.startRecording();
+        long measureStart = System.currentTimeMillis();
+        log.info("开始测量 {} 秒", run.getDurationSeconds());
+
+        finished.await();
+        recorder.stopRecording();
+        executor.shutdown();
+        return System.currentTimeMillis() - measureStart;
+    }
+
+    private void runWorker(long seed, long end) {
+        ChatConnection chatConnection = null;
+        try {
+            chatConnection = new ChatConnection(wsUrl, recorder);
+        } catch (Exception e) {
+            log.warn("STOMP 连接失败，聊天场景将只执行 HTTP 请求", e);
+        }
+
+        VirtualUser user = new VirtualUser(seed, chatConnection);
+        List<SeedData.SeedUser> users = seedData.users();
+        try {
+            while (System.currentTimeMillis() < end) {
+                user.login(users.get(user.random().nextInt(users.size())));
+                WeightedScenario scenario = pick(user.random().nextInt(totalWeight));
+                try {
+                    scenario.action().execute(user);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    scenarioFailures.incrementAndGet();
+                    log.debug("场景执行失败: {}", scenario.name(), e);
+                }
+            }
+        } finally {
+            if (chatConnection != null) {
+                chatConnection.close();
+            }
+        }
+    }
+
+    private WeightedScenario pick(int value) {
+        for (WeightedScenario scenario : weighted) {
+            if (value < scenario.upperBound()) {
+                return scenario;
+            }
+        }
+        return weighted.get(weighted.size() - 1);
+    }
+
+    private ScenarioAction resolve(String name) {
+        return switch (name) {
+            case "home-page" -> scenarios::homePage;
+            case "bounty-detail" -> scenarios::bountyDetail;
+            case "chat" -> user -> {
+                if (user.chatConnection() != null) {
+                    scenarios.chat(user);
+                }
+            };
+            case "tus-upload" -> scenarios::tusUpload;
+            case "download" -> scenarios::download;
+            case "file-download" -> scenarios::fileDownload;
+            default -> throw new IllegalArgumentException("未知的压测场景: " + name);
+        };
+    }
+
+    @FunctionalInterface
+    private interface ScenarioAction {
+        void execute(VirtualUser user) throws Exception;
+    }
+
+    private record WeightedScenario(String name, int upperBound, ScenarioAction action) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.flowerwine.cxx.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 压测场景，每个场景模拟一次完整的页面访问或操作
+ */
+class Scenarios {
+
+    private final HttpDriver http;
+    private final SeedData seedData;
+    private final Map<Long, SeedData.SeedUser> usersById;
+    private final byte[] uploadContent;
+    private final int uploadChunkBytes;
+    private final AtomicLong uploadSequence = new AtomicLong();
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong downloadedBytes = new AtomicLong();
+
+    Scenarios(HttpDriver http, SeedData seedData, LoadTestProperties.Run run) {
+        this.http = http;
+        this.seedData = seedData;
+        this.usersById = seedData.users().stream()
+                .collect(Collectors.toMap(SeedData.SeedUser::id, Function.identity()));
+        this.uploadContent = new byte[run.getUploadSizeBytes()];
+        new Random(20240101L).nextBytes(uploadContent);
+        this.uploadChunkBytes = run.getUploadChunkBytes();
+    }
+
+    long getSentMessages() {
+        return sentMessages.get();
+    }
+
+    long getDownloadedBytes() {
+        return downloadedBytes.get();
+    }
+
+    /**
+     * 首页：最新/热门资源与悬赏、未读消息数
+     */
+    void homePage(VirtualUser user) throws Exception {
+        http.get("GET /api/user-files/latest", "/api/user-files/latest?limit=10", user.seedUser());
+        http.get("GET /api/user-files/hot", "/api/user-files/hot?limit=10", user.seedUser());
+        http.get("GET /api/bounty/latest", "/api/bounty/latest", user.seedUser());
+        http.get("GET /api/bounty/hot", "/api/bounty/hot", user.seedUser());
+        http.get("GET /api/messages/unread", "/api/messages/unread", user.seedUser());
+    }
+
+    /**
+     * 悬赏详情页：详情与竞标列表
+     */
+    void bountyDetail(VirtualUser user) throws Exception {
+        List<Long> bountyIds = seedData.bountyIds();
+        Long bountyId = bountyIds.get(user.random().nextInt(bountyIds.size()));
+        http.get("GET /api/bounty/{bountyId}", "/api/bounty/" + bountyId, user.seedUser());
+        http.get("GET /api/bounty/{bountyId}/bids", "/api/bounty/" + bountyId + "/bids?page=0&size=10", user.seedUser());
+    }
+
+    /**
+     * 聊天：会话列表、会话历史，并通过 STOMP 发送一条私信
+     */
+    void chat(VirtualUser user) throws Exception {
+        List<SeedData.SeedConversation> conversations = seedData.conversations();
+        if (conversations.isEmpty()) {
+            return;
+        }
+        SeedData.SeedConversation conversation = conversations.get(user.random().nextInt(conversations.size()));
+        SeedData.SeedUser member = usersById.getOrDefault(conversation.initiatorId(), user.seedUser());
+
+        http.get("GET /api/messages/conversations", "/api/messages/conversations?page=0&size=20", member);
+        http.get("GET /api/messages/conversations/{conversationId}/messages",
+                "/api/messages/conversations/" + conversation.conversationId() + "/messages?page=0&size=20", member);
+        user.chatConnection().send(conversation.initiatorId(), conversation.participantId(),
+                "压测消息 " + System.nanoTime());
+        sentMessages.incrementAndGet();
+    }
+
+    /**
+     * 下载：通过静态资源路径完整读取一个种子文件
+     */
+    void download(VirtualUser user) throws Exception {
+        List<String> paths = seedData.downloadPaths();
+        if (paths.isEmpty()) {
+            return;
+        }
+        String path = paths.get(user.random().nextInt(paths.size()));
+        downloadedBytes.addAndGet(http.download("GET /uploads/**", path, user.seedUser()));
+    }
+
+    /**
+     * 文件下载接口：权限检查、记录下载审计并完整读取文件
+     */
+    void fileDownload(VirtualUser user) throws Exception {
+        List<SeedData.SeedDownloadFile> files = seedData.downloadFiles();
+        if (files.isEmpty()) {
+            return;
+        }
+        SeedData.SeedDownloadFile file = files.get(user.random().nextInt(files.size()));
+        downloadedBytes.addAndGet(http.download("GET /api/files/download/{fileId}",
+                "/api/files/download/" + file.fileId(), file.owner()));
+    }
+
+    /**
+     * tus 上传：创建、分块 PATCH、完成后处理
+     */
+    void tusUpload(VirtualUser user) throws Exception {
+        String filename = "loadtest-" + uploadSequence.incrementAndGet() + ".bin";
+        String metadata = "filename " + Base64.getEncoder().encodeToString(filename.getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> created = http.send("POST /api/files/upload", HttpRequest.newBuilder(http.uri("/api/files/upload"))
+                .header("Tus-Resumable", "1.0.0")
+                .header("Upload-Length", String.valueOf(uploadContent.length))
+                .header("Upload-Metadata", metadata)
+                .POST(HttpRequest.BodyPublishers.noBody()), user.seedUser());
+        String location = created.headers().firstValue("Location").orElse(null);
+        if (location == null) {
+            return;
+        }
+        URI uploadUri = http.uri("/api/files/upload").resolve(location);
+
+        for (int offset = 0; offset < uploadContent.length; offset += uploadChunkBytes) {
+            byte[] chunk = Arrays.copyOfRange(uploadContent, offset, Math.min(uploadContent.length, offset + uploadChunkBytes));
+            HttpResponse<String> patched = http.send("PATCH /api/files/upload/{id}", HttpRequest.newBuilder(uploadUri)
+                    .header("Tus-Resumable", "1.0.0")
+                    .header("Upload-Offset", String.valueOf(offset))
+                    .header("Content-Type", "application/offset+octet-stream")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofByteArray(chunk)), user.seedUser());
+            if (patched.statusCode() >= 400) {
+                return;
+            }
+        }
+
+        String path = uploadUri.getPath();
+        String uploadId = path.substring(path.lastIndexOf('/') + 1);
+        http.post("POST /api/files/process/{uploadId}", "/api/files/process/" + uploadId, user.seedUser());
+    }
+}
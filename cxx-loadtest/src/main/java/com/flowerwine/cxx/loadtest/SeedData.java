@@ -0,0 +1,25 @@
+package com.flowerwine.cxx.loadtest;
+
+import java.util.List;
+
+/**
+ * 种子数据中压测场景需要引用的标识
+ *
+ * @param users         压测用户（含访问令牌）
+ * @param bountyIds     悬赏ID
+ * @param conversations 会话
+ * @param downloadPaths 下载场景的文件 URL 路径
+ * @param downloadFiles 与下载文件对应的文件记录，供 /api/files/download 场景使用
+ */
+public record SeedData(List<SeedUser> users, List<Long> bountyIds, List<SeedConversation> conversations,
+                       List<String> downloadPaths, List<SeedDownloadFile> downloadFiles) {
+
+    public record SeedUser(Long id, String username, String token) {
+    }
+
+    public record SeedConversation(String conversationId, Long initiatorId, Long participantId) {
+    }
+
+    public record SeedDownloadFile(Long fileId, SeedUser owner) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.flowerwine.cxx.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 按压测客户端标注的接口名统计每个请求执行的 SQL 语句数
+ * 只统计请求线程内的语句，异步线程（如私信批量写入）不计入
+ */
+@RequiredArgsConstructor
+public class SqlCountingFilter extends OncePerRequestFilter {
+
+    /** 压测客户端在请求头中标注的接口名 */
+    public static final String ENDPOINT_HEADER = "X-Load-Endpoint";
+
+    private final SqlStatementStats stats;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String endpoint = request.getHeader(ENDPOINT_HEADER);
+        if (!StringUtils.hasText(endpoint)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        SqlStatementCounter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stats.record(endpoint, SqlStatementCounter.end());
+        }
+    }
+}
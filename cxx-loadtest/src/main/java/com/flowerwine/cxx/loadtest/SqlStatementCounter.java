@@ -0,0 +1,38 @@
+package com.flowerwine.cxx.loadtest;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 统计当前线程执行的 SQL 语句数
+ * 由 Hibernate 实例化（hibernate.session_factory.statement_inspector），计数存放在线程变量中，
+ * 只有被 SqlCountingFilter 标记的请求线程才会计数
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * 开始在当前线程计数
+     */
+    static void begin() {
+        COUNTER.set(new int[1]);
+    }
+
+    /**
+     * 结束计数并返回本次请求执行的语句数
+     */
+    static int end() {
+        int[] counter = COUNTER.get();
+        COUNTER.remove();
+        return counter == null ? 0 : counter[0];
+    }
+}
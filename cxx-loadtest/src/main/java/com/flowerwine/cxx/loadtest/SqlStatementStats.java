@@ -0,0 +1,54 @@
+package com.flowerwine.cxx.loadtest;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按接口汇总的 SQL 语句数
+ */
+@Component
+@Profile("loadtest")
+public class SqlStatementStats {
+
+    private final Map<String, Tally> tallies = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, int statements) {
+        Tally tally = tallies.computeIfAbsent(endpoint, key -> new Tally());
+        tally.requests.increment();
+        tally.statements.add(statements);
+        tally.max.accumulate(statements);
+    }
+
+    public void reset() {
+        tallies.clear();
+    }
+
+    /**
+     * 各接口的统计快照，按接口名排序
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> result = new TreeMap<>();
+        tallies.forEach((endpoint, tally) -> result.put(endpoint, new Snapshot(
+                tally.requests.sum(), tally.statements.sum(), tally.max.get())));
+        return result;
+    }
+
+    public record Snapshot(long requests, long statements, long maxPerRequest) {
+
+        public double averagePerRequest() {
+            return requests == 0 ? 0 : (double) statements / requests;
+        }
+    }
+
+    private static final class Tally {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    }
+}
@@ -0,0 +1,34 @@
+package com.flowerwine.cxx.loadtest;
+
+import java.util.Random;
+
+/**
+ * 单个压测线程的状态：当前登录用户、随机数源和 STOMP 连接
+ */
+class VirtualUser {
+
+    private final Random random;
+    private final ChatConnection chatConnection;
+    private SeedData.SeedUser seedUser;
+
+    VirtualUser(long seed, ChatConnection chatConnection) {
+        this.random = new Random(seed);
+        this.chatConnection = chatConnection;
+    }
+
+    Random random() {
+        return random;
+    }
+
+    ChatConnection chatConnection() {
+        return chatConnection;
+    }
+
+    SeedData.SeedUser seedUser() {
+        return seedUser;
+    }
+
+    void login(SeedData.SeedUser seedUser) {
+        this.seedUser = seedUser;
+    }
+}
@@ -1,3 +1,6 @@
+-- 完整建表脚本，与 src/main/resources/db/migration 下 Flyway 迁移执行后的结构一致
+-- 应用启动时由 Flyway 自动建表和升级，本脚本仅供手工建库或对照使用
+
 -- 创建数据库
 CREATE DATABASE IF NOT EXISTS file_bounty CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
 
@@ -34,7 +37,8 @@ CREATE TABLE IF NOT EXISTS `user_profile` (
     `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
     UNIQUE KEY `idx_user_id` (`user_id`),
-    KEY `idx_created_at` (`created_at`)
+    KEY `idx_created_at` (`created_at`),
+    KEY `idx_email` (`email`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户资料表';
 
 -- 用户积分表
@@ -53,16 +57,16 @@ CREATE TABLE IF NOT EXISTS `user_points` (
 -- 积分变动记录表
 DROP TABLE IF EXISTS `points_record`;
 CREATE TABLE IF NOT EXISTS `points_record` (
-    `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `id` BIGINT UNSIGNED NOT NULL COMMENT '主键ID',
     `user_id` BIGINT UNSIGNED NOT NULL COMMENT '用户ID',
     `points` INT NOT NULL COMMENT '变动积分数',
     `point_action_id` TINYINT UNSIGNED NOT NULL COMMENT '积分事件ID',
     `description` VARCHAR(255) NOT NULL COMMENT '变动描述',
     `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     PRIMARY KEY (`id`),
-    KEY `idx_user_id` (`user_id`),
     KEY `idx_point_action_id` (`point_action_id`),
-    KEY `idx_created_at` (`created_at`)
+    KEY `idx_created_at` (`created_at`),
+    KEY `idx_user_id_created_at` (`user_id`, `created_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='积分变动记录表';
 
 -- 添加积分事件类型表
@@ -91,8 +95,7 @@ CREATE TABLE IF NOT EXISTS `user_sign_record` (
     `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
     UNIQUE KEY `idx_user_year_month` (`user_id`, `year`, `month`),
-    KEY `idx_user_id` (`user_id`),
-    KEY `idx_year_month` (`year`, `month`)
+    KEY `idx_year_month_bitmap` (`year`, `month`, `sign_bitmap`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户每月签到记录表';
 
 -- 周期签到记录表
@@ -109,10 +112,10 @@ CREATE TABLE IF NOT EXISTS `user_sign_cycle` (
     `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
     UNIQUE KEY `idx_user_cycle` (`user_id`, `cycle_start_date`),
-    KEY `idx_user_id` (`user_id`),
     KEY `idx_status` (`status`),
     KEY `idx_last_sign_date` (`last_sign_date`),
-    KEY `idx_cycle_start_date` (`cycle_start_date`)
+    KEY `idx_cycle_start_date` (`cycle_start_date`),
+    KEY `idx_user_id_status` (`user_id`, `status`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户周期签到记录表';   
 
 -- 连续签到奖励规则表
@@ -160,9 +163,10 @@ CREATE TABLE IF NOT EXISTS `file_bounty` (
     `end_at` DATETIME DEFAULT NULL COMMENT '结束时间',
     `winner_id` BIGINT UNSIGNED DEFAULT NULL COMMENT '中标用户ID',
     PRIMARY KEY (`id`),
-    KEY `idx_user_id` (`user_id`),
-    KEY `idx_status` (`status`),
-    KEY `idx_created_at` (`created_at`)
+    KEY `idx_created_at` (`created_at`),
+    KEY `idx_user_id_winner_id` (`user_id`, `winner_id`),
+    KEY `idx_status_created_at` (`status`, `created_at`),
+    KEY `idx_status_view_count` (`status`, `view_count`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='文件悬赏表';
 
 -- 文件竞标表
@@ -176,50 +180,51 @@ CREATE TABLE IF NOT EXISTS `file_bid` (
     `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
     KEY `idx_bounty_id` (`bounty_id`),
-    KEY `idx_user_id` (`user_id`),
     KEY `idx_file_id` (`file_id`),
-    KEY `idx_created_at` (`created_at`)
+    KEY `idx_created_at` (`created_at`),
+    KEY `idx_user_id_bounty_id` (`user_id`, `bounty_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='文件竞标表';
 
 -- 悬赏下载记录表
 DROP TABLE IF EXISTS `bounty_download_record`;
 CREATE TABLE IF NOT EXISTS `bounty_download_record` (
-    `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `id` BIGINT UNSIGNED NOT NULL COMMENT '主键ID',
     `bounty_id` BIGINT UNSIGNED NOT NULL COMMENT '悬赏ID',
     `user_id` BIGINT UNSIGNED NOT NULL COMMENT '下载用户ID',
     `file_id` BIGINT UNSIGNED NOT NULL COMMENT '文件ID',
     `download_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下载时间',
     PRIMARY KEY (`id`),
-    KEY `idx_bounty_id` (`bounty_id`),
     KEY `idx_user_id` (`user_id`),
     KEY `idx_file_id` (`file_id`),
-    KEY `idx_download_time` (`download_time`)
+    KEY `idx_download_time` (`download_time`),
+    KEY `idx_bounty_id_user_id` (`bounty_id`, `user_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='悬赏下载记录表';
 
 -- 用户文件上传表(非悬赏相关的文件上传)
 DROP TABLE IF EXISTS `user_upload_file`;
 CREATE TABLE IF NOT EXISTS `user_upload_file` (
-    `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `id` BIGINT UNSIGNED NOT NULL COMMENT '主键ID',
     `user_id` BIGINT UNSIGNED NOT NULL COMMENT '上传用户ID',
     `file_id` BIGINT UNSIGNED NOT NULL COMMENT '文件ID',
     `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
     KEY `idx_user_id` (`user_id`),
-    KEY `idx_created_at` (`created_at`)
+    KEY `idx_created_at` (`created_at`),
+    KEY `idx_file_id` (`file_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户文件上传表';
 
 -- 用户文件下载记录表
 DROP TABLE IF EXISTS `file_download_record`;
 CREATE TABLE IF NOT EXISTS `file_download_record` (
-    `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `id` BIGINT UNSIGNED NOT NULL COMMENT '主键ID',
     `file_id` BIGINT UNSIGNED NOT NULL COMMENT '文件ID',
     `user_id` BIGINT UNSIGNED NOT NULL COMMENT '下载用户ID',
     `download_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下载时间',
     PRIMARY KEY (`id`),
-    KEY `idx_file_id` (`file_id`),
     KEY `idx_user_id` (`user_id`),
-    KEY `idx_download_time` (`download_time`)
+    KEY `idx_download_time` (`download_time`),
+    KEY `idx_file_id_user_id` (`file_id`, `user_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户文件下载记录表';
 
 -- 系统消息表
@@ -246,25 +251,30 @@ CREATE TABLE IF NOT EXISTS `private_message_conversation` (
     PRIMARY KEY (`id`),
     UNIQUE KEY `idx_conversation_id` (`conversation_id`),
     UNIQUE KEY `idx_users` (`initiator_id`, `participant_id`),
-    KEY `idx_initiator_id` (`initiator_id`),
-    KEY `idx_participant_id` (`participant_id`)
+    KEY `idx_initiator_id_updated_at` (`initiator_id`, `updated_at`),
+    KEY `idx_participant_id_updated_at` (`participant_id`, `updated_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户会话表';
 
 -- 私信表
+-- 按数值会话键 conversation_key（即 private_message_conversation.id）哈希分区，
+-- 分区键必须包含在主键中，因此主键为 (id, conversation_key)
 DROP TABLE IF EXISTS `private_message`;
 CREATE TABLE IF NOT EXISTS `private_message` (
-    `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT COMMENT '消息ID',
+    `id` BIGINT UNSIGNED NOT NULL COMMENT '消息ID',
+    `conversation_key` BIGINT UNSIGNED NOT NULL COMMENT '会话数值键，对应会话表主键',
     `conversation_id` VARCHAR(32) NOT NULL COMMENT '关联的会话ID',
     `sender_id` BIGINT UNSIGNED NOT NULL COMMENT '发送者ID',
     `receiver_id` BIGINT UNSIGNED NOT NULL COMMENT '接收者ID',
     `content` TEXT NOT NULL COMMENT '消息内容',
     `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    PRIMARY KEY (`id`),
-    KEY `idx_conversation_id` (`conversation_id`),
+    PRIMARY KEY (`id`, `conversation_key`),
+    KEY `idx_conversation_key_id` (`conversation_key`, `id`),
+    KEY `idx_conversation_key_receiver_id` (`conversation_key`, `receiver_id`, `id`),
+    KEY `idx_conversation_id_id` (`conversation_id`, `id`),
     KEY `idx_sender_id` (`sender_id`),
-    KEY `idx_receiver_id` (`receiver_id`),
-    KEY `idx_created_at` (`created_at`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='私信表';
+    KEY `idx_receiver_id` (`receiver_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='私信表'
+PARTITION BY HASH(`conversation_key`) PARTITIONS 16;
 
 -- 私信已读表
 DROP TABLE IF EXISTS `private_message_read`;
@@ -290,7 +300,7 @@ CREATE TABLE IF NOT EXISTS `system_message_read` (
     `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
     UNIQUE KEY `idx_message_user` (`message_id`, `user_id`),
-    KEY `idx_user_id` (`user_id`)
+    KEY `idx_user_id_message_id` (`user_id`, `message_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='系统消息已读表';
 
 -- 管理员表
@@ -309,15 +319,15 @@ CREATE TABLE IF NOT EXISTS `admin_user` (
 -- 文件审核历史表
 DROP TABLE IF EXISTS `file_review_history`;
 CREATE TABLE IF NOT EXISTS `file_review_history` (
-    `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `id` BIGINT UNSIGNED NOT NULL COMMENT '主键ID',
     `file_upload_id` BIGINT UNSIGNED NOT NULL COMMENT '关联的上传文件ID',
     `reviewer_id` BIGINT UNSIGNED NOT NULL COMMENT '审核人ID',
     `comment` VARCHAR(255) DEFAULT NULL COMMENT '审核评论',
     `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     PRIMARY KEY (`id`),
-    KEY `idx_file_upload_id` (`file_upload_id`),
     KEY `idx_reviewer_id` (`reviewer_id`),
-    KEY `idx_created_at` (`created_at`)
+    KEY `idx_created_at` (`created_at`),
+    KEY `idx_file_upload_id_created_at` (`file_upload_id`, `created_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='文件审核历史表';
 
 -- 用户自主上传任务表
@@ -336,9 +346,9 @@ CREATE TABLE IF NOT EXISTS `user_file_task` (
     `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
-    KEY `idx_user_id` (`user_id`),
     KEY `idx_file_id` (`file_id`),
-    KEY `idx_status` (`status`),
-    KEY `idx_is_free` (`is_free`),
-    KEY `idx_created_at` (`created_at`)
+    KEY `idx_created_at` (`created_at`),
+    KEY `idx_user_id_created_at` (`user_id`, `created_at`),
+    KEY `idx_status_created_at` (`status`, `created_at`),
+    KEY `idx_status_is_free_created_at` (`status`, `is_free`, `created_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户自主上传任务表';
@@ -0,0 +1,17 @@
+package com.flowerwine.cxx.annotation;
+
+import com.flowerwine.cxx.util.TimeOrderedIdGenerator;
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.*;
+
+/**
+ * 标记实体主键由进程内时间有序ID生成器分配（见 TimeOrderedIds）
+ * 主键在插入前已确定，Hibernate 可以对这些表使用 JDBC 批量插入（IDENTITY 主键会禁用批量插入）
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface TimeOrderedId {
+}
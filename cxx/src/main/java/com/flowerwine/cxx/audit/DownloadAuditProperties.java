@@ -0,0 +1,32 @@
+package com.flowerwine.cxx.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文件下载审计记录异步写入配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.download-audit")
+public class DownloadAuditProperties {
+
+    /** 内存队列容量，队列满时记录溢出到写前日志 */
+    private int queueCapacity = 10000;
+
+    /** 单批写入的最大记录数 */
+    private int batchSize = 200;
+
+    /** 聚合同一批记录的等待窗口（毫秒） */
+    private long batchWindowMillis = 50;
+
+    /** 写前日志目录，数据库缓慢或不可用时记录追加到此目录，恢复后及重启时重放 */
+    private String walDir = "audit-wal";
+
+    /** 追加写前日志后是否强制刷盘 */
+    private boolean walFsync = true;
+
+    /** 写库失败后重试（重放写前日志）的间隔（毫秒） */
+    private long retryIntervalMillis = 5000;
+}
@@ -0,0 +1,51 @@
+package com.flowerwine.cxx.audit;
+
+import com.flowerwine.cxx.entity.FileDownloadRecord;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一条待写入的文件下载审计记录，主键在入队时分配，写前日志重放时据此去重
+ *
+ * @param id           主键（TimeOrderedIds）
+ * @param fileId       文件ID
+ * @param userId       下载用户ID
+ * @param downloadTime 下载时间
+ */
+public record DownloadAuditRecord(long id, Long fileId, Long userId, LocalDateTime downloadTime) {
+
+    private static final String SEPARATOR = "\t";
+
+    FileDownloadRecord toFileDownloadRecord() {
+        FileDownloadRecord record = new FileDownloadRecord();
+        record.setId(id);
+        record.setFileId(fileId);
+        record.setUserId(userId);
+        record.setDownloadTime(downloadTime);
+        return record;
+    }
+
+    /**
+     * 写前日志中的一行：主键、文件ID、用户ID、下载时间，以制表符分隔
+     */
+    String toLine() {
+        return String.join(SEPARATOR, String.valueOf(id), String.valueOf(fileId), String.valueOf(userId),
+                downloadTime.toString());
+    }
+
+    /**
+     * 解析写前日志中的一行，格式不完整（如崩溃时写了一半）时抛出 IllegalArgumentException
+     */
+    static DownloadAuditRecord fromLine(String line) {
+        String[] parts = line.split(SEPARATOR, -1);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("无效的审计日志行: " + line);
+        }
+        try {
+            return new DownloadAuditRecord(Long.parseLong(parts[0]), Long.valueOf(parts[1]), Long.valueOf(parts[2]),
+                    LocalDateTime.parse(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的审计日志行: " + line, e);
+        }
+    }
+}
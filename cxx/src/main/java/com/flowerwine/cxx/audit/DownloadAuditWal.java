@@ -0,0 +1,190 @@
+package com.flowerwine.cxx.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 下载审计写前日志
+ * 溢出的记录追加到 download-audit.wal；重放时先把该文件改名为 download-audit-时间戳.replay 再按批读取，
+ * 一个文件的全部记录写库成功后才删除。重放中途崩溃时重启后从头重放该文件，已入库的记录按主键跳过
+ * append 可由任意线程调用，nextBatch 只由写入线程调用；追加通道用 ReentrantLock 保护，
+ * 虚拟线程在刷盘时不会固定载体线程
+ */
+@Slf4j
+class DownloadAuditWal implements Closeable {
+
+    private static final String ACTIVE_FILE = "download-audit.wal";
+    private static final String REPLAY_PREFIX = "download-audit-";
+    private static final String REPLAY_SUFFIX = ".replay";
+
+    private final Path dir;
+    private final Path activeFile;
+    private final boolean fsync;
+
+    /** 追加通道，由 lock 保护 */
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+    /** 上一个重放文件名中的时间戳，由 lock 保护 */
+    private long lastReplayStamp;
+    private volatile boolean pending;
+
+    private BufferedReader replayReader;
+    private Path replayFile;
+    /** 已读完的重放文件，所读记录写库成功（即下一次调用 nextBatch）后删除 */
+    private final List<Path> finishedFiles = new ArrayList<>();
+
+    DownloadAuditWal(Path dir, boolean fsync) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.activeFile = dir.resolve(ACTIVE_FILE);
+        this.fsync = fsync;
+        // 上次运行遗留的记录在启动后重放
+        this.pending = Files.exists(activeFile) || !listReplayFiles().isEmpty();
+    }
+
+    /**
+     * 追加一批记录
+     */
+    void append(List<DownloadAuditRecord> records) throws IOException {
+        StringBuilder lines = new StringBuilder(records.size() * 64);
+        for (DownloadAuditRecord record : records) {
+            lines.append(record.toLine()).append('\n');
+        }
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(lines.toString());
+        lock.lock();
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(activeFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            pending = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean hasPending() {
+        return pending;
+    }
+
+    /**
+     * 读取下一批待重放的记录，没有待重放记录时返回空列表
+     * 调用即表示上一批已写库成功
+     */
+    List<DownloadAuditRecord> nextBatch(int maxRecords) throws IOException {
+        for (Path finished : finishedFiles) {
+            Files.deleteIfExists(finished);
+            log.debug("下载审计写前日志重放完成: {}", finished.getFileName());
+        }
+        finishedFiles.clear();
+
+        List<DownloadAuditRecord> batch = new ArrayList<>();
+        while (batch.size() < maxRecords) {
+            if (replayReader == null && !openNextReplayFile()) {
+                break;
+            }
+            String line = replayReader.readLine();
+            if (line == null) {
+                replayReader.close();
+                replayReader = null;
+                finishedFiles.add(replayFile);
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(DownloadAuditRecord.fromLine(line));
+            } catch (IllegalArgumentException e) {
+                log.warn("跳过损坏的下载审计日志行: {} {}", replayFile.getFileName(), e.getMessage());
+            }
+        }
+        return batch;
+    }
+
+    private boolean openNextReplayFile() throws IOException {
+        List<Path> replayFiles = listReplayFiles();
+        replayFiles.removeAll(finishedFiles);
+        if (replayFiles.isEmpty()) {
+            if (!rotateActiveFile()) {
+                return false;
+            }
+            replayFiles = listReplayFiles();
+            replayFiles.removeAll(finishedFiles);
+        }
+        replayFile = replayFiles.get(0);
+        replayReader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8);
+        log.debug("开始重放下载审计写前日志: {}", replayFile.getFileName());
+        return true;
+    }
+
+    /**
+     * 把当前追加文件改名为重放文件，之后的溢出记录写入新的追加文件
+     */
+    private boolean rotateActiveFile() throws IOException {
+        lock.lock();
+        try {
+            if (!Files.exists(activeFile) || Files.size(activeFile) == 0) {
+                pending = !finishedFiles.isEmpty();
+                return false;
+            }
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            // 同一毫秒内再次改名时顺延，不与尚未删除的重放文件重名，文件名顺序仍与写入顺序一致
+            lastReplayStamp = Math.max(System.currentTimeMillis(), lastReplayStamp + 1);
+            Files.move(activeFile, dir.resolve(REPLAY_PREFIX + lastReplayStamp + REPLAY_SUFFIX));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Path> listReplayFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return new ArrayList<>(files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(REPLAY_PREFIX) && name.endsWith(REPLAY_SUFFIX);
+                    })
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            if (replayReader != null) {
+                replayReader.close();
+                replayReader = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
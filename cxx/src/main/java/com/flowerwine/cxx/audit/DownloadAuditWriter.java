@@ -0,0 +1,218 @@
+package com.flowerwine.cxx.audit;
+
+import com.flowerwine.cxx.repository.FileDownloadRecordRepository;
+import com.flowerwine.cxx.util.TimeOrderedIds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 下载审计记录异步写入器
+ * 下载请求只把记录放入有界队列，由单独的写入线程按批写库（JDBC 批量，MySQL 驱动改写为多值插入）。
+ * 队列满（数据库缓慢）或写库失败时记录追加到本地写前日志，队列空闲时及重启后重放。
+ * 只用于纯审计的文件下载记录；悬赏竞标文件的下载次数决定关闭悬赏时的返还积分，由 BountyService 同步写入
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DownloadAuditWriter {
+
+    private final EntityManager entityManager;
+    private final FileDownloadRecordRepository fileDownloadRecordRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final DownloadAuditProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private BlockingQueue<DownloadAuditRecord> queue;
+    private DownloadAuditWal wal;
+    private TransactionTemplate transactionTemplate;
+    private Thread writerThread;
+    private volatile boolean running;
+    private Counter writtenRecords;
+    private Counter spilledRecords;
+
+    /** 写入线程当前正在重放、尚未写库成功的一批记录 */
+    private List<DownloadAuditRecord> replayBatch = List.of();
+
+    @PostConstruct
+    public void start() throws IOException {
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        wal = new DownloadAuditWal(Path.of(properties.getWalDir()), properties.isWalFsync());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        meterRegistry.gauge("audit.download.queue.size", queue, BlockingQueue::size);
+        writtenRecords = Counter.builder("audit.download.written")
+                .description("写入数据库的下载审计记录数")
+                .register(meterRegistry);
+        spilledRecords = Counter.builder("audit.download.spilled")
+                .description("溢出到写前日志的下载审计记录数")
+                .register(meterRegistry);
+        running = true;
+        writerThread = new Thread(this::runWriter, "download-audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        List<DownloadAuditRecord> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.info("关闭前写入剩余下载审计记录: {} 条", remaining.size());
+            if (!write(remaining, false)) {
+                spill(remaining);
+            }
+        }
+        wal.close();
+    }
+
+    /**
+     * 记录一次文件下载
+     */
+    public void recordFileDownload(Long fileId, Long userId) {
+        submit(new DownloadAuditRecord(TimeOrderedIds.nextId(), fileId, userId, LocalDateTime.now()));
+    }
+
+    private void submit(DownloadAuditRecord record) {
+        if (!running || !queue.offer(record)) {
+            spill(List.of(record));
+        }
+    }
+
+    private void runWriter() {
+        List<DownloadAuditRecord> batch = new ArrayList<>(properties.getBatchSize());
+        boolean healthy = true;
+        long nextAttemptMillis = 0;
+        while (running) {
+            try {
+                // 有待重放记录时缩短等待，让空闲时段用于重放
+                long pollMillis = wal.hasPending() ? properties.getBatchWindowMillis() : TimeUnit.SECONDS.toMillis(1);
+                DownloadAuditRecord first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getBatchWindowMillis());
+                    while (batch.size() < properties.getBatchSize()) {
+                        long remaining = deadline - System.nanoTime();
+                        DownloadAuditRecord next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (!batch.isEmpty()) {
+                // 写库失败后直接溢出，由重放探测数据库何时恢复
+                if (!healthy || !write(batch, false)) {
+                    spill(batch);
+                    if (healthy) {
+                        healthy = false;
+                        nextAttemptMillis = System.currentTimeMillis() + properties.getRetryIntervalMillis();
+                        log.warn("下载审计记录写库失败，暂时改为写入写前日志，{} 毫秒后重试", properties.getRetryIntervalMillis());
+                    }
+                }
+                batch.clear();
+            }
+
+            // 正常时只在队列空闲时重放；写库失败后按间隔重放一批，成功即恢复
+            boolean replayDue = healthy ? queue.isEmpty() && wal.hasPending()
+                    : System.currentTimeMillis() >= nextAttemptMillis;
+            if (replayDue && running) {
+                healthy = replayNextBatch();
+                if (!healthy) {
+                    nextAttemptMillis = System.currentTimeMillis() + properties.getRetryIntervalMillis();
+                }
+            }
+            if (Thread.currentThread().isInterrupted() && !running) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 重放写前日志中的一批记录，失败时保留该批下次重试
+     *
+     * @return 是否成功（没有待重放记录也视为成功）
+     */
+    private boolean replayNextBatch() {
+        if (replayBatch.isEmpty()) {
+            try {
+                replayBatch = wal.nextBatch(properties.getBatchSize());
+            } catch (IOException e) {
+                log.error("读取下载审计写前日志失败", e);
+                return false;
+            }
+            if (replayBatch.isEmpty()) {
+                return true;
+            }
+        }
+        if (!write(replayBatch, true)) {
+            return false;
+        }
+        replayBatch = List.of();
+        return true;
+    }
+
+    /**
+     * 在一个事务中写入一批记录
+     *
+     * @param skipExisting 是否跳过已入库的主键（重放写前日志时使用）
+     */
+    private boolean write(List<DownloadAuditRecord> records, boolean skipExisting) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> existing = skipExisting ? existingIds(records) : Set.of();
+                for (DownloadAuditRecord record : records) {
+                    if (existing.contains(record.id())) {
+                        continue;
+                    }
+                    entityManager.persist(record.toFileDownloadRecord());
+                }
+            });
+            writtenRecords.increment(records.size());
+            return true;
+        } catch (Exception e) {
+            log.error("写入下载审计记录失败: {} 条", records.size(), e);
+            return false;
+        }
+    }
+
+    private Set<Long> existingIds(Collection<DownloadAuditRecord> records) {
+        List<Long> ids = records.stream().map(DownloadAuditRecord::id).toList();
+        return new HashSet<>(fileDownloadRecordRepository.findExistingIds(ids));
+    }
+
+    private void spill(List<DownloadAuditRecord> records) {
+        try {
+            wal.append(records);
+            spilledRecords.increment(records.size());
+        } catch (IOException e) {
+            // 写前日志也不可用时只能记入错误日志，供人工补录
+            log.error("下载审计记录溢出失败，记录丢失: {}", records, e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.flowerwine.cxx.config;
 
 import com.flowerwine.cxx.entity.AdminUser;
+import com.flowerwine.cxx.logging.LogMdc;
+import com.flowerwine.cxx.metrics.PlatformMetrics;
 import com.flowerwine.cxx.repository.AdminUserRepository;
 import com.flowerwine.cxx.security.AdminAuthUser;
 import com.flowerwine.cxx.util.JwtUtil;
@@ -9,6 +11,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -29,6 +32,9 @@ public class AdminJwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PlatformMetrics platformMetrics;
+
     @Autowired
     private AdminUserRepository adminUserRepository;
 
@@ -44,7 +50,7 @@ public class AdminJwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
+            if (StringUtils.hasText(jwt) && validateToken(jwt)) {
                 String username = jwtUtil.extractUsername(jwt);
                 log.debug("处理管理员JWT令牌: 用户 {}", username);
                 
@@ -74,6 +80,7 @@ public class AdminJwtAuthenticationFilter extends OncePerRequestFilter {
                     
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    MDC.put(LogMdc.ADMIN_ID, String.valueOf(admin.getId()));
                     log.debug("成功设置管理员认证信息: {}", username);
                 } else {
                     log.warn("JWT有效但管理员不存在: {}", username);
@@ -88,6 +95,13 @@ public class AdminJwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean validateToken(String jwt) {
+        long start = System.nanoTime();
+        boolean valid = jwtUtil.validateToken(jwt);
+        platformMetrics.recordJwtValidation(PlatformMetrics.REALM_ADMIN, valid, System.nanoTime() - start);
+        return valid;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -18,6 +18,7 @@ public class AppProperties {
     private final File file = new File();
     private final Jwt jwt = new Jwt();
     private final Captcha captcha = new Captcha();
+    private final Id id = new Id();
 
     /**
      * 文件相关配置
@@ -93,5 +94,24 @@ public class AppProperties {
         private String backgroundTo = "white";
         /** 是否添加噪点 */
         private boolean noNoise = true;
+        /** 预渲染验证码池容量 */
+        private int poolSize = 500;
+        /** 后台渲染线程数 */
+        private int renderThreads = 1;
+        /** 验证码池为空时请求等待补充的最长时间（毫秒），超时返回 503 */
+        private long takeTimeoutMillis = 200;
+        /** 验证码令牌签名密钥，为空时由 JWT 密钥派生；多实例部署时各实例需一致 */
+        private String tokenSecret;
+        /** 验证码令牌有效期（秒） */
+        private long tokenTtlSeconds = 300;
     }
-}
\ No newline at end of file
+
+    /**
+     * 时间有序主键配置
+     */
+    @Data
+    public static class Id {
+        /** 节点号（0-15），多实例部署时每个实例必须不同 */
+        private int nodeId = 0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.flowerwine.cxx.config;
+
+import com.flowerwine.cxx.logging.MdcTaskDecorator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 异步任务线程池配置
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+@RequiredArgsConstructor
+public class AsyncConfig {
+
+    private final WebSocketProperties webSocketProperties;
+    private final FileUploadProperties uploadProperties;
+
+    /**
+     * 系统消息广播专用线程池，避免大规模推送阻塞业务请求
+     */
+    @Bean(name = "messageBroadcastExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor messageBroadcastExecutor() {
+        WebSocketProperties.ExecutorConfig config = webSocketProperties.getBroadcastExecutor();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getCorePoolSize());
+        executor.setMaxPoolSize(config.getMaxPoolSize());
+        executor.setQueueCapacity(config.getQueueCapacity());
+        executor.setKeepAliveSeconds(config.getKeepAliveSeconds());
+        executor.setThreadNamePrefix("msg-broadcast-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        // 队列满时由提交线程执行，保证广播不丢失
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 虚拟线程模式（spring.threads.virtual.enabled=true 且运行在 Java 21+）下的广播线程池：
+     * 每个任务一个虚拟线程，用并发上限代替线程池大小，超出上限时提交线程等待，与 CallerRunsPolicy 一样不丢广播
+     */
+    @Bean(name = "messageBroadcastExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualMessageBroadcastExecutor() {
+        WebSocketProperties.ExecutorConfig config = webSocketProperties.getBroadcastExecutor();
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("msg-broadcast-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(config.getMaxPoolSize());
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+
+    /**
+     * 私信推送线程池：单线程按事务提交顺序推送，保证同一会话内的顺序；
+     * 队列满时发送线程等待队列空出，不像 CallerRunsPolicy 那样越过已排队的私信先推送
+     */
+    @Bean(name = "privateMessagePushExecutor")
+    public ThreadPoolTaskExecutor privateMessagePushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(webSocketProperties.getPrivateMessage().getQueueCapacity());
+        executor.setThreadNamePrefix("pm-push-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            if (pool.isShutdown()) {
+                // 私信已入库，关闭时只丢失实时推送，客户端可从会话记录中读取
+                log.warn("私信推送线程池已关闭，跳过推送");
+                return;
+            }
+            try {
+                pool.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("等待私信推送队列时被中断，跳过推送");
+            }
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 头像缩略图生成线程池：图片缩放是 CPU 密集任务，固定少量平台线程，队列满时丢弃
+     */
+    @Bean(name = "avatarDerivativeExecutor")
+    public ThreadPoolTaskExecutor avatarDerivativeExecutor() {
+        FileUploadProperties.AvatarDerivativeConfig config = uploadProperties.getAvatarDerivatives();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getThreads());
+        executor.setMaxPoolSize(config.getThreads());
+        executor.setQueueCapacity(config.getQueueCapacity());
+        executor.setThreadNamePrefix("avatar-derivative-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * tus 上传完成处理线程池：移入存储可能是跨设备的大文件复制，不能丢弃，队列满时由提交线程执行
+     */
+    @Bean(name = "tusFinalizeExecutor")
+    public ThreadPoolTaskExecutor tusFinalizeExecutor() {
+        FileUploadProperties.TusFinalizeConfig config = uploadProperties.getTusFinalize();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getThreads());
+        executor.setMaxPoolSize(config.getThreads());
+        executor.setQueueCapacity(config.getQueueCapacity());
+        executor.setThreadNamePrefix("tus-finalize-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
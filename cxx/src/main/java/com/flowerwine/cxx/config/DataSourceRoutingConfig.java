@@ -0,0 +1,91 @@
+package com.flowerwine.cxx.config;
+
+import com.flowerwine.cxx.datasource.ReadYourWritesTracker;
+import com.flowerwine.cxx.datasource.ReplicaDataSourceProperties;
+import com.flowerwine.cxx.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * 读写分离数据源配置
+ * 主库沿用 spring.datasource 配置，副本使用 app.datasource.replica 配置，
+ * 应用使用的数据源按事务路由（见 ReplicaRoutingDataSource）
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties replicaProperties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaProperties.getUrl())
+                .username(replicaProperties.getUsername())
+                .password(replicaProperties.getPassword())
+                .driverClassName(replicaProperties.getDriverClassName())
+                .build();
+        dataSource.setPoolName("replica");
+        // 副本连接只用于只读事务
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaDataSourceProperties replicaProperties,
+                                                       @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                                       MeterRegistry meterRegistry) {
+        return new ReadYourWritesTracker(replicaProperties, replicaDataSource, meterRegistry);
+    }
+
+    /**
+     * 应用（JPA、Flyway、JdbcTemplate）使用的数据源
+     * 延迟获取物理连接，到执行第一条语句时事务的只读标记已经设置好，才能据此选择主库或副本
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 ReplicaDataSourceProperties replicaProperties,
+                                 MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource,
+                replicaDataSource, readYourWritesTracker, replicaProperties.getTransactionPrefixes(), meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * 事务结束即释放连接：开启 open-in-view 时 EntityManager 跨整个请求，
+     * 默认会一直持有第一个事务拿到的连接，后续事务就无法切换主库和副本
+     */
+    @Bean
+    public HibernatePropertiesCustomizer connectionReleaseCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -3,6 +3,8 @@ package com.flowerwine.cxx.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
@@ -17,6 +19,9 @@ public class FileUploadProperties {
     private Map<String, FileTypeConfig> types;
     private ChunkConfig chunk = new ChunkConfig();
     private LargeFileConfig largeFile = new LargeFileConfig();
+    private AvatarDerivativeConfig avatarDerivatives = new AvatarDerivativeConfig();
+    private TusFinalizeConfig tusFinalize = new TusFinalizeConfig();
+    private CleanupConfig cleanup = new CleanupConfig();
 
     @Data
     public static class FileTypeConfig {
@@ -37,7 +42,8 @@ public class FileUploadProperties {
     @Data
     public static class ChunkConfig {
         private long maxChunkSize;
-        private int expirationHours;
+        /** 分片上传无写入多久后过期（小时） */
+        private int expirationHours = 24;
     }
 
     @Data
@@ -46,5 +52,62 @@ public class FileUploadProperties {
         private long minSize;
         private String[] forbiddenTypes;
         private String[] forbiddenExtensions;
+        /** 按文件开头多少字节检测类型，与 Tika 检测时读取的长度一致 */
+        private int sniffLength = 64 * 1024;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 头像缩略图配置：上传后在后台生成固定尺寸的正方形缩略图，与原图存放在同一目录
+     */
+    @Data
+    public static class AvatarDerivativeConfig {
+        /** 缩略图边长（像素） */
+        private List<Integer> sizes = new ArrayList<>(List.of(32, 64, 128));
+        /** 缩略图缓存时间（秒），文件名随内容唯一，可长期缓存 */
+        private long cacheSeconds = 365L * 24 * 3600;
+        /** 生成缩略图的线程数 */
+        private int threads = 2;
+        /** 等待生成的任务上限，超出时丢弃，访问缩略图时会重新提交 */
+        private int queueCapacity = 1000;
+        /** 记住生成失败的原图个数上限，超出时淘汰最久未访问的 */
+        private int failureCacheSize = 10000;
+        /** 生成失败后多久内不再重新提交（分钟） */
+        private int failureRetryMinutes = 60;
+    }
+
+    /**
+     * tus 上传完成后的处理（移入存储、记录文件信息），在后台线程执行，不占用最后一个 PATCH 请求
+     */
+    @Data
+    public static class TusFinalizeConfig {
+        /** 处理线程数 */
+        private int threads = 2;
+        /** 等待处理的上传上限，超出时由提交的请求线程自己处理 */
+        private int queueCapacity = 200;
+        /** 处理结果保留时间（分钟），期间重复调用 /process 直接返回结果 */
+        private int resultRetentionMinutes = 10;
+        /** 已完成记录保留天数，期间按上传 ID 重复处理返回同一文件 */
+        private int completionRetentionDays = 7;
+    }
+
+    /**
+     * 过期的 tus 上传和分片目录清理：按最后写入时间记录在内存时间轮中，小批量持续删除
+     */
+    @Data
+    public static class CleanupConfig {
+        /** tus 上传无写入多久后过期（小时） */
+        private int tusExpirationHours = 24;
+        /** 过期时间轮每格时长（秒），上传最多晚一格被清理 */
+        private int tickSeconds = 60;
+        /** 过期时间轮格数 */
+        private int wheelSize = 512;
+        /** 清理间隔（毫秒） */
+        private long intervalMillis = 1000;
+        /** 每次清理最多删除的上传数 */
+        private int batchSize = 10;
+        /** 每次最多扫描的目录数，扫描用于发现重启前或未经请求记录的上传 */
+        private int scanBatchSize = 200;
+        /** 一遍扫描结束后，隔多久再开始下一遍（分钟） */
+        private int rescanIntervalMinutes = 360;
+    }
+}
@@ -0,0 +1,25 @@
+package com.flowerwine.cxx.config;
+
+import com.flowerwine.cxx.util.TimeOrderedIds;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 时间有序主键生成器配置，启动时设置本实例的节点号
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class IdGeneratorConfig {
+
+    private final AppProperties appProperties;
+
+    @PostConstruct
+    public void configure() {
+        int nodeId = appProperties.getId().getNodeId();
+        TimeOrderedIds.configure(nodeId);
+        log.info("时间有序主键节点号: {}", nodeId);
+    }
+}
@@ -2,6 +2,8 @@
 package com.flowerwine.cxx.config;
 
 import com.flowerwine.cxx.entity.User;
+import com.flowerwine.cxx.logging.LogMdc;
+import com.flowerwine.cxx.metrics.PlatformMetrics;
 import com.flowerwine.cxx.repository.UserRepository;
 import com.flowerwine.cxx.security.AuthUser;
 import com.flowerwine.cxx.util.JwtUtil;
@@ -10,6 +12,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -30,6 +33,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PlatformMetrics platformMetrics;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -39,7 +45,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
+            if (StringUtils.hasText(jwt) && validateToken(jwt)) {
                 String username = jwtUtil.extractUsername(jwt);
                 log.debug("处理JWT令牌: 用户 {}", username);
                 
@@ -64,6 +70,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    MDC.put(LogMdc.USER_ID, String.valueOf(user.getId()));
                     log.debug("成功设置认证信息: 用户 {}", username);
                 }
             }
@@ -74,6 +81,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean validateToken(String jwt) {
+        long start = System.nanoTime();
+        boolean valid = jwtUtil.validateToken(jwt);
+        platformMetrics.recordJwtValidation(PlatformMetrics.REALM_USER, valid, System.nanoTime() - start);
+        return valid;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
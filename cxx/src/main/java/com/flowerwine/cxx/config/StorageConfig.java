@@ -0,0 +1,62 @@
+package com.flowerwine.cxx.config;
+
+import com.flowerwine.cxx.storage.BlobStore;
+import com.flowerwine.cxx.storage.LocalDiskBlobStore;
+import com.flowerwine.cxx.storage.S3BlobStore;
+import com.flowerwine.cxx.storage.StorageProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+
+/**
+ * 上传文件存储后端配置，按 app.storage.type 选择本地磁盘或 S3 兼容对象存储
+ */
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.storage", name = "type", havingValue = "local", matchIfMissing = true)
+    public BlobStore localDiskBlobStore(FileUploadProperties uploadProperties,
+                                        StorageProperties storageProperties) throws IOException {
+        return new LocalDiskBlobStore(Paths.get(uploadProperties.getBaseDir()), storageProperties.getLocal());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.storage", name = "type", havingValue = "s3")
+    public S3Client s3Client(StorageProperties storageProperties) {
+        StorageProperties.S3 config = storageProperties.getS3();
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(config.getRegion()))
+                .forcePathStyle(config.isPathStyleAccess())
+                // 只在接口要求时计算校验和，默认的 aws-chunked 校验和编码部分兼容服务不支持
+                .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED);
+        if (StringUtils.hasText(config.getEndpoint())) {
+            builder.endpointOverride(URI.create(config.getEndpoint()));
+        }
+        // 未配置密钥时使用默认凭证链（环境变量、实例角色等）
+        builder.credentialsProvider(StringUtils.hasText(config.getAccessKey())
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(config.getAccessKey(), config.getSecretKey()))
+                : DefaultCredentialsProvider.create());
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.storage", name = "type", havingValue = "s3")
+    public BlobStore s3BlobStore(S3Client s3Client, StorageProperties storageProperties) {
+        return new S3BlobStore(s3Client, storageProperties.getS3());
+    }
+}
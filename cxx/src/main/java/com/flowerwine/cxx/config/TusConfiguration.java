@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Configuration
@@ -29,16 +30,11 @@ public class TusConfiguration {
             Files.createDirectories(tusPath);
         }
         
-        Path baseUploadPath = Paths.get(uploadProperties.getBaseDir());
-        if (!Files.exists(baseUploadPath)) {
-            Files.createDirectories(baseUploadPath);
-        }
-        
         tusFileUploadService = new TusFileUploadService()
                 .withStoragePath(uploadProperties.getChunkFolder())
                 .withMaxUploadSize(uploadProperties.getLargeFile().getMaxSize())
                 .withThreadLocalCache(false) // 避免内存泄漏
-                .withUploadExpirationPeriod(24 * 60 * 60 * 1000L)
+                .withUploadExpirationPeriod(TimeUnit.HOURS.toMillis(uploadProperties.getCleanup().getTusExpirationHours()))
                 .withUploadUri("/api/files/upload");
         
         return tusFileUploadService;
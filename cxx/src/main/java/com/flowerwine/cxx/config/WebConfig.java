@@ -1,10 +1,15 @@
 package com.flowerwine.cxx.config;
 
+import com.flowerwine.cxx.metrics.SqlBudgetInterceptor;
+import com.flowerwine.cxx.storage.BlobStore;
+import com.flowerwine.cxx.storage.BlobStoreResourceResolver;
+import com.flowerwine.cxx.storage.StorageLayout;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -19,18 +24,28 @@ import java.util.List;
 public class WebConfig implements WebMvcConfigurer {
 
     private final FileUploadProperties uploadProperties;
+    private final BlobStore blobStore;
+    private final StorageLayout storageLayout;
     private final CurrentUserArgumentResolver currentUserArgumentResolver;
     private final CurrentAdminArgumentResolver currentAdminArgumentResolver;
+    private final SqlBudgetInterceptor sqlBudgetInterceptor;
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadProperties.getBaseDir() + "/")
+        // 从存储后端读取，请求路径即存储键；不缓存解析结果，文件删除后立即不可访问
+        registry.addResourceHandler(uploadProperties.getUrlPrefix() + "/**")
                 .setCachePeriod(3600) // 缓存一小时
-                .resourceChain(true);
+                .resourceChain(false)
+                .addResolver(new BlobStoreResourceResolver(blobStore, storageLayout));
     }
 
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // fail 模式下在控制器执行前设置每请求 SQL 语句预算
+        registry.addInterceptor(sqlBudgetInterceptor);
+    }
+
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
         resolvers.add(currentUserArgumentResolver);
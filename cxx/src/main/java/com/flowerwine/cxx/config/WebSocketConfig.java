@@ -1,17 +1,31 @@
 package com.flowerwine.cxx.config;
 
-import org.springframework.context.annotation.Bean;
+import com.flowerwine.cxx.metrics.SqlRequestMetricsChannelInterceptor;
+import com.flowerwine.cxx.websocket.OutboundBackpressureInterceptor;
+import com.flowerwine.cxx.websocket.SessionTrackingDecoratorFactory;
+import com.flowerwine.cxx.websocket.StompAuthChannelInterceptor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
-import org.springframework.web.socket.server.standard.ServerEndpointExporter;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketProperties webSocketProperties;
+    private final SessionTrackingDecoratorFactory sessionTrackingDecoratorFactory;
+    private final OutboundBackpressureInterceptor outboundBackpressureInterceptor;
+    private final SqlRequestMetricsChannelInterceptor sqlRequestMetricsChannelInterceptor;
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
@@ -21,8 +35,63 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic", "/user");
+        WebSocketProperties.BrokerConfig broker = webSocketProperties.getBroker();
+        String[] prefixes = broker.getDestinationPrefixes().toArray(new String[0]);
+
+        if (broker.getMode() == WebSocketProperties.BrokerMode.RELAY) {
+            // 转发到外部 STOMP 代理，订阅关系由代理维护，可水平扩展；
+            // 用户目的地和用户注册表经代理在节点间广播，私信可送达连接在其他节点上的用户
+            log.info("使用外部 STOMP 代理: {}:{}", broker.getRelayHost(), broker.getRelayPort());
+            registry.enableStompBrokerRelay(prefixes)
+                    .setRelayHost(broker.getRelayHost())
+                    .setRelayPort(broker.getRelayPort())
+                    .setClientLogin(broker.getClientLogin())
+                    .setClientPasscode(broker.getClientPasscode())
+                    .setSystemLogin(broker.getSystemLogin())
+                    .setSystemPasscode(broker.getSystemPasscode())
+                    .setVirtualHost(broker.getVirtualHost())
+                    .setSystemHeartbeatSendInterval(broker.getSystemHeartbeatSendInterval())
+                    .setSystemHeartbeatReceiveInterval(broker.getSystemHeartbeatReceiveInterval())
+                    .setUserDestinationBroadcast(broker.getUserDestinationBroadcast())
+                    .setUserRegistryBroadcast(broker.getUserRegistryBroadcast());
+        } else {
+            registry.enableSimpleBroker(prefixes);
+        }
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
     }
-}
\ No newline at end of file
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        WebSocketProperties.ExecutorConfig inbound = webSocketProperties.getInboundChannel();
+        registration.taskExecutor()
+                .corePoolSize(inbound.getCorePoolSize())
+                .maxPoolSize(inbound.getMaxPoolSize())
+                .queueCapacity(inbound.getQueueCapacity())
+                .keepAliveSeconds(inbound.getKeepAliveSeconds());
+        // CONNECT 时按令牌设置会话用户；统计每条入站消息处理中的 SQL 执行情况
+        registration.interceptors(stompAuthChannelInterceptor, sqlRequestMetricsChannelInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        WebSocketProperties.ExecutorConfig outbound = webSocketProperties.getOutboundChannel();
+        registration.taskExecutor()
+                .corePoolSize(outbound.getCorePoolSize())
+                .maxPoolSize(outbound.getMaxPoolSize())
+                .queueCapacity(outbound.getQueueCapacity())
+                .keepAliveSeconds(outbound.getKeepAliveSeconds());
+        // 按会话限制排队消息，避免单个慢客户端占满出站线程
+        registration.interceptors(outboundBackpressureInterceptor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        WebSocketProperties.TransportConfig transport = webSocketProperties.getTransport();
+        registration.setSendBufferSizeLimit(transport.getSendBufferSizeLimit())
+                .setSendTimeLimit(transport.getSendTimeLimit())
+                .setMessageSizeLimit(transport.getMessageSizeLimit())
+                .setTimeToFirstMessage(transport.getTimeToFirstMessage())
+                .addDecoratorFactory(sessionTrackingDecoratorFactory);
+    }
+}
@@ -0,0 +1,94 @@
+package com.flowerwine.cxx.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WebSocket / STOMP 相关配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.websocket")
+public class WebSocketProperties {
+    private BrokerConfig broker = new BrokerConfig();
+    private ExecutorConfig inboundChannel = new ExecutorConfig();
+    private ExecutorConfig outboundChannel = new ExecutorConfig();
+    private ExecutorConfig broadcastExecutor = new ExecutorConfig();
+    private TransportConfig transport = new TransportConfig();
+    private BackpressureConfig backpressure = new BackpressureConfig();
+    private PrivateMessageConfig privateMessage = new PrivateMessageConfig();
+
+    public enum BrokerMode {
+        /** 进程内简单代理，仅适用于单节点 */
+        SIMPLE,
+        /** 转发到外部 STOMP 代理（RabbitMQ、ActiveMQ 等），支持多节点 */
+        RELAY
+    }
+
+    @Data
+    public static class BrokerConfig {
+        private BrokerMode mode = BrokerMode.SIMPLE;
+        /**
+         * 由代理处理的目的地前缀，需为外部代理支持的 STOMP 目的地（RabbitMQ、ActiveMQ 均支持 /topic、/queue，
+         * RabbitMQ 另有 /exchange）；/user 前缀由用户目的地处理器解析为按会话区分的 /queue 目的地，不交给代理
+         */
+        private List<String> destinationPrefixes = new ArrayList<>(List.of("/topic", "/queue", "/exchange"));
+        private String relayHost = "localhost";
+        private int relayPort = 61613;
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+        private String virtualHost;
+        /** 与代理之间系统连接的心跳间隔（毫秒） */
+        private long systemHeartbeatSendInterval = 10000;
+        private long systemHeartbeatReceiveInterval = 10000;
+        /** 外部代理模式下，本节点无法解析的用户目的地广播到该主题，由用户会话所在节点投递 */
+        private String userDestinationBroadcast = "/topic/unresolved-user-destination";
+        /** 外部代理模式下，各节点定期广播本地用户会话的主题 */
+        private String userRegistryBroadcast = "/topic/simp-user-registry";
+    }
+
+    @Data
+    public static class ExecutorConfig {
+        private int corePoolSize = Runtime.getRuntime().availableProcessors() * 2;
+        private int maxPoolSize = Runtime.getRuntime().availableProcessors() * 4;
+        private int queueCapacity = 10000;
+        private int keepAliveSeconds = 60;
+    }
+
+    @Data
+    public static class TransportConfig {
+        /** 单个会话发送缓冲区上限（字节） */
+        private int sendBufferSizeLimit = 512 * 1024;
+        /** 单次发送允许的最长时间（毫秒） */
+        private int sendTimeLimit = 15 * 1000;
+        /** 单条入站消息大小上限（字节） */
+        private int messageSizeLimit = 64 * 1024;
+        /** 建立连接后等待首条消息的最长时间（毫秒） */
+        private int timeToFirstMessage = 60 * 1000;
+    }
+
+    @Data
+    public static class BackpressureConfig {
+        /** 单个会话排队待发送的消息上限，超出后丢弃 */
+        private int maxPendingPerSession = 500;
+        /** 会话连续丢弃消息达到该数量后视为慢消费者并断开 */
+        private int evictAfterDrops = 200;
+        /**
+         * 只保留最新一条的目的地后缀，仅适用于后一条完全覆盖前一条的状态类推送（如未读数）；
+         * 私信和系统消息每条都要送达，不能合并，因此默认不合并任何目的地
+         */
+        private List<String> coalesceDestinationSuffixes = new ArrayList<>();
+    }
+
+    @Data
+    public static class PrivateMessageConfig {
+        /** 已提交、待推送的私信队列容量，队列满时发送线程等待，不丢弃也不打乱顺序 */
+        private int queueCapacity = 10000;
+    }
+}
@@ -0,0 +1,34 @@
+package com.flowerwine.cxx.controller;
+
+import com.flowerwine.cxx.annotation.CurrentAdmin;
+import com.flowerwine.cxx.dto.SignAggregateStatsDTO;
+import com.flowerwine.cxx.security.AdminAuthUser;
+import com.flowerwine.cxx.service.SignService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/sign")
+@RequiredArgsConstructor
+public class AdminSignController {
+
+    private final SignService signService;
+
+    /**
+     * 获取某月全站签到统计
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<SignAggregateStatsDTO> getMonthlyAggregateStats(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            @CurrentAdmin AdminAuthUser admin) {
+
+        log.info("管理员 {} (ID: {}) 查询签到统计: {}-{}", admin.getUsername(), admin.getId(), year, month);
+
+        SignAggregateStatsDTO stats = signService.getMonthlyAggregateStats(year, month);
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,55 @@
+package com.flowerwine.cxx.controller;
+
+import com.flowerwine.cxx.annotation.CurrentAdmin;
+import com.flowerwine.cxx.dto.StorageMigrationStatusDTO;
+import com.flowerwine.cxx.security.AdminAuthUser;
+import com.flowerwine.cxx.storage.StorageLayoutMigrator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/storage")
+@RequiredArgsConstructor
+public class AdminStorageController {
+
+    private final StorageLayoutMigrator storageLayoutMigrator;
+
+    /**
+     * 开始把已有文件迁移到当前存储布局，从上次的进度继续
+     *
+     * @param restart 忽略已保存的进度，从头开始
+     */
+    @PostMapping("/migration/start")
+    public ResponseEntity<StorageMigrationStatusDTO> startMigration(
+            @RequestParam(defaultValue = "false") boolean restart,
+            @CurrentAdmin AdminAuthUser admin) {
+        if (storageLayoutMigrator.start(restart)) {
+            log.info("管理员 {} 开始存储布局迁移", admin.getId());
+        }
+        return ResponseEntity.ok(storageLayoutMigrator.status());
+    }
+
+    /**
+     * 停止迁移，当前批次完成后退出
+     */
+    @PostMapping("/migration/stop")
+    public ResponseEntity<StorageMigrationStatusDTO> stopMigration(@CurrentAdmin AdminAuthUser admin) {
+        storageLayoutMigrator.stop();
+        return ResponseEntity.ok(storageLayoutMigrator.status());
+    }
+
+    /**
+     * 迁移进度
+     */
+    @GetMapping("/migration")
+    public ResponseEntity<StorageMigrationStatusDTO> getMigrationStatus(@CurrentAdmin AdminAuthUser admin) {
+        return ResponseEntity.ok(storageLayoutMigrator.status());
+    }
+}
@@ -0,0 +1,38 @@
+package com.flowerwine.cxx.controller;
+
+import com.flowerwine.cxx.annotation.CurrentAdmin;
+import com.flowerwine.cxx.dto.WebSocketStatsDTO;
+import com.flowerwine.cxx.security.AdminAuthUser;
+import com.flowerwine.cxx.websocket.WebSocketSessionRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+
+@RestController
+@RequestMapping("/api/admin/websocket")
+@RequiredArgsConstructor
+public class AdminWebSocketController {
+
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final WebSocketMessageBrokerStats webSocketMessageBrokerStats;
+
+    /**
+     * 获取 WebSocket 会话与发送队列统计
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<WebSocketStatsDTO> getStats(@CurrentAdmin AdminAuthUser admin) {
+        WebSocketStatsDTO stats = WebSocketStatsDTO.builder()
+                .activeSessions(sessionRegistry.getActiveSessions())
+                .pendingMessages(sessionRegistry.getTotalPending())
+                .maxSessionPending(sessionRegistry.getMaxSessionPending())
+                .droppedMessages(sessionRegistry.getDroppedMessages())
+                .coalescedMessages(sessionRegistry.getCoalescedMessages())
+                .evictedSessions(sessionRegistry.getEvictedSessions())
+                .brokerStats(webSocketMessageBrokerStats.toString())
+                .build();
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,80 @@
+package com.flowerwine.cxx.controller;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import com.flowerwine.cxx.service.AvatarDerivativeService;
+import com.flowerwine.cxx.storage.BlobResource;
+import com.flowerwine.cxx.storage.BlobStat;
+import com.flowerwine.cxx.storage.BlobStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 头像缩略图访问
+ * 带 size 参数的头像请求返回对应尺寸的缩略图并长期缓存，不带参数时返回原图（缓存时间与 /uploads/** 静态资源相同）
+ */
+@RestController
+@RequiredArgsConstructor
+public class AvatarController {
+
+    /** 原图缓存时间，与 WebConfig 中 /uploads/** 一致 */
+    private static final long ORIGINAL_CACHE_SECONDS = 3600;
+    /** 缩略图尚未生成时返回原图的缓存时间，过后浏览器重新请求即可拿到缩略图 */
+    private static final long FALLBACK_CACHE_SECONDS = 60;
+
+    private final AvatarDerivativeService avatarDerivativeService;
+    private final FileUploadProperties uploadProperties;
+    private final BlobStore blobStore;
+
+    @GetMapping("${app.upload.url-prefix}/${app.upload.types.avatar.directory}/{fileName}")
+    public ResponseEntity<Resource> getAvatar(@PathVariable String fileName,
+                                              @RequestParam(value = "size", required = false) Integer size)
+            throws IOException {
+        if (size == null) {
+            BlobStat original = avatarDerivativeService.findOriginal(fileName);
+            return original == null ? ResponseEntity.notFound().build()
+                    : image(original, CacheControl.maxAge(ORIGINAL_CACHE_SECONDS, TimeUnit.SECONDS));
+        }
+        if (size <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "头像尺寸必须大于 0");
+        }
+
+        BlobStat derivative = avatarDerivativeService.findDerivative(fileName, size);
+        if (derivative != null) {
+            return image(derivative, CacheControl
+                    .maxAge(uploadProperties.getAvatarDerivatives().getCacheSeconds(), TimeUnit.SECONDS)
+                    .cachePublic()
+                    .immutable());
+        }
+
+        BlobStat original = avatarDerivativeService.findOriginal(fileName);
+        if (original == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // 历史头像或生成任务被丢弃时补生成，正在生成或最近生成失败的不再重复提交
+        if (avatarDerivativeService.shouldGenerate(fileName)) {
+            avatarDerivativeService.generate(fileName);
+        }
+        return image(original, CacheControl.maxAge(FALLBACK_CACHE_SECONDS, TimeUnit.SECONDS).cachePublic());
+    }
+
+    private ResponseEntity<Resource> image(BlobStat stat, CacheControl cacheControl) {
+        Resource resource = new BlobResource(blobStore, stat);
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .contentType(MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .body(resource);
+    }
+}
@@ -4,6 +4,7 @@ import com.flowerwine.cxx.annotation.CurrentUser;
 import com.flowerwine.cxx.dto.FileInfoDTO;
 import com.flowerwine.cxx.security.AuthUser;
 import com.flowerwine.cxx.service.FileService;
+import com.flowerwine.cxx.service.TusUploadFinalizer;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +25,7 @@ import java.util.Map;
 public class FileController {
 
     private final FileService fileService;
+    private final TusUploadFinalizer tusUploadFinalizer;
 
     /**
      * 初始化分片上传
@@ -129,7 +131,13 @@ public class FileController {
             HttpServletResponse response,
             @CurrentUser AuthUser authUser) throws IOException, TusException {
         
-        return fileService.processUploadedFile(uploadId, response, authUser);
+        FileInfoDTO fileInfoDTO = tusUploadFinalizer.await(uploadId, authUser.getId());
+        if (fileInfoDTO == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // 在响应头中设置文件ID，供前端获取
+        response.setHeader("X-File-Id", fileInfoDTO.getId().toString());
+        return ResponseEntity.ok(fileInfoDTO);
     }
 
     /**
@@ -142,11 +150,11 @@ public class FileController {
     }
 
     /**
-     * 获取文件物理路径（仅内部使用）
+     * 获取文件存储键（仅内部使用）
      */
     @GetMapping("/path/{fileId}")
     public ResponseEntity<String> getFilePath(@PathVariable Long fileId, @CurrentUser AuthUser authUser) {
-        String path = fileService.getPhysicalPath(fileId);
+        String path = fileService.getStorageKey(fileId);
         return ResponseEntity.ok(path);
     }
 
@@ -2,16 +2,19 @@ package com.flowerwine.cxx.controller;
 
 import com.flowerwine.cxx.annotation.CurrentUser;
 import com.flowerwine.cxx.dto.CalendarSignDTO;
+import com.flowerwine.cxx.dto.SignRangeCalendarDTO;
 import com.flowerwine.cxx.dto.SignResultDTO;
 import com.flowerwine.cxx.dto.SignRewardDTO;
 import com.flowerwine.cxx.entity.UserSignCycle;
 import com.flowerwine.cxx.security.AuthUser;
 import com.flowerwine.cxx.service.SignService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -41,6 +44,18 @@ public class SignController {
         return ResponseEntity.ok(calendar);
     }
 
+    /**
+     * 获取用户日期区间内的签到日历及统计，默认当前自然年
+     */
+    @GetMapping("/calendar/range")
+    public ResponseEntity<SignRangeCalendarDTO> getRangeSignCalendar(
+            @CurrentUser AuthUser authUser,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        SignRangeCalendarDTO calendar = signService.getRangeSignCalendar(authUser.getId(), start, end);
+        return ResponseEntity.ok(calendar);
+    }
+
     /**
      * 检查今日是否已签到
      */
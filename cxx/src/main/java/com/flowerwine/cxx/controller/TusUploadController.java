@@ -4,22 +4,27 @@ import com.flowerwine.cxx.annotation.CurrentUser;
 import com.flowerwine.cxx.config.FileUploadProperties;
 import com.flowerwine.cxx.dto.FileInfoDTO;
 import com.flowerwine.cxx.enums.FileType;
+import com.flowerwine.cxx.metrics.PlatformMetrics;
 import com.flowerwine.cxx.security.AuthUser;
-import com.flowerwine.cxx.service.FileService;
+import com.flowerwine.cxx.service.TusUploadFinalizer;
+import com.flowerwine.cxx.task.UploadCleanupTask;
+import com.flowerwine.cxx.util.ContentTypeDetector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.desair.tus.server.TusFileUploadService;
 import me.desair.tus.server.exception.TusException;
 import me.desair.tus.server.upload.UploadInfo;
-import org.apache.commons.io.IOUtils;
-import org.apache.tika.Tika;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
@@ -38,9 +43,11 @@ import java.util.UUID;
 public class TusUploadController {
 
     private final TusFileUploadService tusFileUploadService;
-    private final FileService fileService;
+    private final TusUploadFinalizer tusUploadFinalizer;
+    private final UploadCleanupTask uploadCleanupTask;
     private final FileUploadProperties uploadProperties;
-    private final Tika tika = new Tika();
+    private final PlatformMetrics platformMetrics;
+    private final ContentTypeDetector contentTypeDetector;
 
     /**
      * 处理所有与 tus 协议相关的请求
@@ -71,8 +78,45 @@ public class TusUploadController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        // 处理 tus 请求
-        tusFileUploadService.process(request, response);
+        // 处理 tus 请求，PATCH 为数据传输请求，计入进行中的上传流
+        if ("PATCH".equals(method)) {
+            platformMetrics.getActiveTusPatches().incrementAndGet();
+            SniffedRequest sniffedRequest = sniffFirstPatch(request, uri);
+            try {
+                tusFileUploadService.process(sniffedRequest != null ? sniffedRequest : request, response);
+            } catch (IOException | RuntimeException e) {
+                if (sniffedRequest == null || !sniffedRequest.sniffer.isRejected()) {
+                    throw e;
+                }
+            } finally {
+                platformMetrics.getActiveTusPatches().decrementAndGet();
+            }
+            // tus 写入时读取请求体的异常不一定向外抛出，按检测结果判断
+            if (sniffedRequest != null && sniffedRequest.sniffer.isRejected()) {
+                // 文件头是禁止的类型，丢弃已写入的部分，客户端不再继续上传
+                String mimeType = sniffedRequest.sniffer.detectedType();
+                tusFileUploadService.deleteUpload(uri);
+                uploadCleanupTask.forgetTus(uri.substring(uri.lastIndexOf('/') + 1));
+                log.warn("拒绝上传禁止的文件类型: {}, {}", uri, mimeType);
+                // 清除 tus 已设置的响应头（含 Content-Length: 0），以便写出错误信息
+                response.reset();
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", "检测到危险的文件类型: " + mimeType));
+            }
+            // 最后一个 PATCH 写完数据后提交后台处理，不等待文件移入存储
+            UploadInfo uploadInfo = tusFileUploadService.getUploadInfo(uri);
+            if (isComplete(uploadInfo)) {
+                log.debug("文件上传完成: {}, 大小: {}",
+                        uploadInfo.getMetadata().getOrDefault("filename", "unknown"), uploadInfo.getLength());
+                uploadCleanupTask.forgetTus(uploadInfo.getId().toString());
+                tusUploadFinalizer.submit(uploadInfo, authUser.getId());
+            } else if (uploadInfo != null) {
+                // 记录写入时间，长时间没有继续写入的上传由清理任务删除
+                uploadCleanupTask.recordTusWrite(uploadInfo.getId().toString());
+            }
+        } else {
+            tusFileUploadService.process(request, response);
+        }
         
         // 如果是 HEAD 或 PATCH 请求，到此为止，不需要进一步处理
         if ("HEAD".equals(method) || "PATCH".equals(method)) {
@@ -82,33 +126,96 @@ public class TusUploadController {
         // 检查上传是否完成 (针对 POST 请求的完成通知)
         UploadInfo uploadInfo = tusFileUploadService.getUploadInfo(uri);
 
-        // 显式检查上传是否完成，同时添加日志以便调试
-        if (uploadInfo != null) {
-            // 显式比较 offset 和 length
-            boolean isComplete = uploadInfo.getOffset() != null && 
-                                 uploadInfo.getLength() != null && 
-                                 uploadInfo.getOffset().equals(uploadInfo.getLength());
-            
-            if (isComplete) {
-                Map<String, String> metadata = uploadInfo.getMetadata();
-                String originalFilename = metadata.getOrDefault("filename", "unknown");
-                
-                log.debug("文件上传完成: {}, 大小: {}", originalFilename, uploadInfo.getLength());
-                
-                try {
-                    // 处理上传完成的文件
-                    fileService.processCompletedUpload(uploadInfo, authUser, response);
-                } catch (Exception e) {
-                    log.error("处理上传完成的文件时发生错误", e);
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                            .body(Map.of("error", "处理上传文件时发生错误: " + e.getMessage()));
+        if (isComplete(uploadInfo)) {
+            log.debug("文件上传完成: {}, 大小: {}",
+                    uploadInfo.getMetadata().getOrDefault("filename", "unknown"), uploadInfo.getLength());
+            try {
+                // 处理上传完成的文件，已在后台处理时等待同一个结果
+                FileInfoDTO fileInfoDTO = tusUploadFinalizer.await(uploadInfo.getId().toString(), authUser.getId());
+                if (fileInfoDTO != null) {
+                    response.setHeader("X-File-Id", fileInfoDTO.getId().toString());
                 }
-            } else {
-                log.debug("上传未完成或检测到错误状态");
+            } catch (ResponseStatusException e) {
+                return ResponseEntity.status(e.getStatusCode()).body(Map.of("error", e.getReason()));
+            } catch (Exception e) {
+                log.error("处理上传完成的文件时发生错误", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "处理上传文件时发生错误: " + e.getMessage()));
             }
         }
-        
+
         return ResponseEntity.ok().build();
     }
-    
+
+    /**
+     * 上传的数据是否已全部写入
+     */
+    private static boolean isComplete(UploadInfo uploadInfo) {
+        return uploadInfo != null
+                && uploadInfo.getOffset() != null
+                && uploadInfo.getLength() != null
+                && uploadInfo.getOffset().equals(uploadInfo.getLength());
+    }
+
+    /**
+     * 从偏移 0 开始的 PATCH 带有文件头，包装请求体，在 tus 写入的同时检测类型；
+     * 其余 PATCH 不做处理，返回 null
+     */
+    private SniffedRequest sniffFirstPatch(HttpServletRequest request, String uri) throws IOException, TusException {
+        if (!"0".equals(request.getHeader("Upload-Offset"))) {
+            return null;
+        }
+        UploadInfo uploadInfo = tusFileUploadService.getUploadInfo(uri);
+        if (uploadInfo == null) {
+            return null;
+        }
+        String filename = uploadInfo.getMetadata().get("filename");
+        return new SniffedRequest(request, contentTypeDetector.sniff(request.getInputStream(), filename, true));
+    }
+
+    /**
+     * 请求体经过类型检测的 PATCH 请求
+     */
+    private static class SniffedRequest extends HttpServletRequestWrapper {
+
+        private final ContentTypeDetector.SniffingInputStream sniffer;
+        private final ServletInputStream inputStream;
+
+        SniffedRequest(HttpServletRequest request, ContentTypeDetector.SniffingInputStream sniffer) throws IOException {
+            super(request);
+            this.sniffer = sniffer;
+            ServletInputStream original = request.getInputStream();
+            this.inputStream = new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return sniffer.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return sniffer.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return original.isFinished();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return original.isReady();
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    original.setReadListener(readListener);
+                }
+            };
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return inputStream;
+        }
+    }
 }
\ No newline at end of file
@@ -8,7 +8,6 @@ import com.flowerwine.cxx.entity.User;
 import com.flowerwine.cxx.security.AuthUser;
 import com.flowerwine.cxx.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -26,20 +25,19 @@ public class UserController {
     private final UserService userService;
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody CreateUserDTO createUserDTO, HttpSession session) {
-        return userService.register(createUserDTO, session);
+    public ResponseEntity<?> register(@RequestBody CreateUserDTO createUserDTO) {
+        return userService.register(createUserDTO);
     }
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody CreateUserDTO createUserDTO,
-                                                   HttpServletRequest request,
-                                                   HttpSession session) {
-        return userService.login(createUserDTO, request, session);
+                                                   HttpServletRequest request) {
+        return userService.login(createUserDTO, request);
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, String>> logout(HttpSession session) {
-        session.removeAttribute("user");
+    public ResponseEntity<Map<String, String>> logout() {
+        // JWT 无状态，令牌由客户端删除
         Map<String, String> response = new HashMap<>();
         response.put("message", "注销成功");
         return ResponseEntity.ok(response);
@@ -0,0 +1,153 @@
+package com.flowerwine.cxx.datasource;
+
+import com.flowerwine.cxx.security.AdminAuthUser;
+import com.flowerwine.cxx.security.AuthUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 副本复制延迟与用户最近写入的跟踪
+ * 用户写事务提交后，在 读己之写窗口 + 当前复制延迟 内其只读请求仍走主库，保证能读到自己刚写入的数据；
+ * 副本延迟超过阈值、复制中断或无法检查时，所有读请求回到主库。
+ * 最近写入时间只保存在本实例内存中，多实例部署时需要会话粘滞才能保证跨实例的读己之写
+ */
+@Slf4j
+public class ReadYourWritesTracker {
+
+    private final ReplicaDataSourceProperties properties;
+    private final JdbcTemplate replicaJdbcTemplate;
+
+    /** 用户标识 -> 最近一次写事务提交时间（毫秒） */
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private volatile boolean replicaHealthy = true;
+    private volatile long lagMillis;
+
+    public ReadYourWritesTracker(ReplicaDataSourceProperties properties, DataSource replicaDataSource,
+                                 MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        meterRegistry.gauge("datasource.replica.lag", this, tracker -> tracker.lagMillis / 1000.0);
+        meterRegistry.gauge("datasource.replica.healthy", this, tracker -> tracker.replicaHealthy ? 1 : 0);
+    }
+
+    /**
+     * 当前请求的只读事务是否可以走副本
+     */
+    public boolean replicaAllowed() {
+        if (!replicaHealthy) {
+            return false;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return true;
+        }
+        Long lastWrite = lastWrites.get(user);
+        return lastWrite == null || System.currentTimeMillis() - lastWrite > readYourWritesWindow();
+    }
+
+    /**
+     * 返回当前请求的用户标识，未登录时返回 null
+     */
+    public String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthUser authUser && authUser.getId() != null) {
+            return "user:" + authUser.getId();
+        }
+        if (principal instanceof AdminAuthUser adminAuthUser && adminAuthUser.getId() != null) {
+            return "admin:" + adminAuthUser.getId();
+        }
+        return null;
+    }
+
+    /**
+     * 记录用户的写事务已提交
+     */
+    public void recordWrite(String user) {
+        lastWrites.put(user, System.currentTimeMillis());
+    }
+
+    /**
+     * 定期检查副本复制延迟，并清理已过读己之写窗口的记录
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-millis:5000}")
+    public void checkReplicaLag() {
+        Long lagSeconds;
+        try {
+            lagSeconds = replicationLagSeconds();
+        } catch (DataAccessException e) {
+            markUnhealthy("无法检查副本复制状态: " + e.getMessage());
+            return;
+        }
+        if (lagSeconds == null) {
+            markUnhealthy("副本复制线程未运行");
+            return;
+        }
+        lagMillis = TimeUnit.SECONDS.toMillis(lagSeconds);
+        if (lagSeconds > properties.getMaxLagSeconds()) {
+            markUnhealthy("副本复制延迟 " + lagSeconds + " 秒，超过阈值 " + properties.getMaxLagSeconds() + " 秒");
+        } else {
+            if (!replicaHealthy) {
+                log.info("副本复制延迟恢复为 {} 秒，只读请求恢复走副本", lagSeconds);
+            }
+            replicaHealthy = true;
+        }
+
+        long expiredBefore = System.currentTimeMillis() - readYourWritesWindow();
+        lastWrites.values().removeIf(lastWrite -> lastWrite < expiredBefore);
+    }
+
+    /**
+     * 读取副本的复制延迟（秒）
+     * 副本不是 MySQL 或没有配置复制（如本地用两个独立实例测试）时视为无延迟；复制线程停止时返回 null
+     */
+    private Long replicationLagSeconds() {
+        String product = replicaJdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            return 0L;
+        }
+        List<Map<String, Object>> status;
+        String lagColumn;
+        try {
+            status = replicaJdbcTemplate.queryForList("SHOW REPLICA STATUS");
+            lagColumn = "Seconds_Behind_Source";
+        } catch (DataAccessException e) {
+            // MySQL 8.0.22 之前的版本
+            status = replicaJdbcTemplate.queryForList("SHOW SLAVE STATUS");
+            lagColumn = "Seconds_Behind_Master";
+        }
+        if (status.isEmpty()) {
+            return 0L;
+        }
+        Object lag = status.get(0).get(lagColumn);
+        return lag == null ? null : ((Number) lag).longValue();
+    }
+
+    private long readYourWritesWindow() {
+        return properties.getReadYourWritesMillis() + lagMillis;
+    }
+
+    private void markUnhealthy(String reason) {
+        if (replicaHealthy) {
+            log.warn("{}，只读请求改为走主库", reason);
+        }
+        replicaHealthy = false;
+    }
+}
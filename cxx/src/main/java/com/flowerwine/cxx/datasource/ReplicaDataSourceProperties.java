@@ -0,0 +1,41 @@
+package com.flowerwine.cxx.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 只读副本数据源配置
+ * 连接池参数（maximum-pool-size 等）写在 app.datasource.replica.hikari 下
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /** 是否启用读写分离，关闭时只使用 spring.datasource 主库 */
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName = "com.mysql.cj.jdbc.Driver";
+
+    /** 只有这些前缀的只读事务（事务名为 类名.方法名）走副本，默认仅服务层显式声明的只读事务 */
+    private List<String> transactionPrefixes = new ArrayList<>(List.of("com.flowerwine.cxx.service."));
+
+    /** 复制延迟超过该值（秒）或复制中断时，所有读请求回到主库 */
+    private long maxLagSeconds = 10;
+
+    /** 用户写入后在该时长（毫秒）加上当前复制延迟内，其只读请求仍走主库 */
+    private long readYourWritesMillis = 2000;
+
+    /** 检查副本复制延迟的间隔（毫秒） */
+    private long lagCheckIntervalMillis = 5000;
+}
@@ -0,0 +1,87 @@
+package com.flowerwine.cxx.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按当前事务选择主库或副本的数据源
+ * 服务层的只读事务走副本（副本不可用或用户刚写入过时仍走主库），其余连接走主库；
+ * 写事务提交后记录当前用户的写入时间。
+ * 需要包在 LazyConnectionDataSourceProxy 中，保证取物理连接时事务的只读标记已经设置
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final ReadYourWritesTracker tracker;
+    private final List<String> transactionPrefixes;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker tracker,
+                                    List<String> transactionPrefixes, MeterRegistry meterRegistry) {
+        this.tracker = tracker;
+        this.transactionPrefixes = transactionPrefixes;
+        this.primaryConnections = Counter.builder("datasource.routing")
+                .description("按目标统计的数据库连接获取次数")
+                .tag("target", PRIMARY)
+                .register(meterRegistry);
+        this.replicaConnections = Counter.builder("datasource.routing")
+                .description("按目标统计的数据库连接获取次数")
+                .tag("target", REPLICA)
+                .register(meterRegistry);
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (replicaEligible(TransactionSynchronizationManager.getCurrentTransactionName())
+                    && tracker.replicaAllowed()) {
+                replicaConnections.increment();
+                return REPLICA;
+            }
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            trackWrite();
+        }
+        primaryConnections.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * 仓库默认的只读事务（服务方法未声明事务时由 Spring Data 开启）常处在读取-修改-保存流程中，仍走主库
+     */
+    private boolean replicaEligible(String transactionName) {
+        if (transactionName == null) {
+            return false;
+        }
+        for (String prefix : transactionPrefixes) {
+            if (transactionName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void trackWrite() {
+        String user = tracker.currentUser();
+        if (user == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tracker.recordWrite(user);
+            }
+        });
+    }
+}
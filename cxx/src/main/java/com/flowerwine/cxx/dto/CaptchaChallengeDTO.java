@@ -0,0 +1,15 @@
+package com.flowerwine.cxx.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaptchaChallengeDTO {
+    private String token; // 验证码令牌，注册时与答案一起提交
+    private String image; // 验证码图片（data:image/jpeg;base64,...）
+}
@@ -14,4 +14,5 @@ public class CreateUserDTO {
     private String password;
     private String email;
     private String captcha;
+    private String captchaToken;  // 获取验证码时返回的令牌
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.flowerwine.cxx.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SignAggregateStatsDTO {
+    private Integer year;
+    private Integer month;
+    private Long activeUsers;        // 当月至少签到一次的用户数
+    private Long totalSignIns;       // 当月签到总次数
+    private Long fullMonthUsers;     // 当月全勤用户数
+    private int[] dailyCounts;       // 每日签到人数，下标0为1号
+}
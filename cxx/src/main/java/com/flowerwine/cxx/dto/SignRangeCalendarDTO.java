@@ -0,0 +1,24 @@
+package com.flowerwine.cxx.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SignRangeCalendarDTO {
+    private Long userId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer dayCount;        // 区间总天数
+    private String signBitmap;       // Base64编码的位图，第 i 位表示 startDate + i 天
+    private Integer totalDays;       // 区间内签到总天数
+    private Integer longestStreak;   // 区间内最长连续签到天数
+    private Integer currentStreak;   // 截止区间末尾（或今天）的连续签到天数
+    private int[] weekdayCounts;     // 按星期统计，下标0为周一
+}
@@ -0,0 +1,23 @@
+package com.flowerwine.cxx.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StorageMigrationStatusDTO {
+    private String layout;               // 目标布局
+    private String state;                // IDLE / RUNNING / STOPPING / COMPLETED / FAILED
+    private String phase;                // 当前阶段：files / avatars
+    private Long lastFileId;             // 已完成的最大文件记录 ID
+    private Long lastProfileId;          // 已完成的最大用户资料 ID
+    private Long moved;                  // 累计移动的文件数
+    private Long alreadyMigrated;        // 已在目标位置的文件数
+    private Long missing;                // 两种位置都不存在的文件数
+    private Long failed;                 // 移动失败的文件数
+    private String error;                // 失败原因
+}
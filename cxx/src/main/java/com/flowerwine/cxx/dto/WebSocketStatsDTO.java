@@ -0,0 +1,20 @@
+package com.flowerwine.cxx.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class WebSocketStatsDTO {
+    private Integer activeSessions;      // 当前会话数
+    private Long pendingMessages;        // 所有会话排队待发送消息数
+    private Integer maxSessionPending;    // 单个会话最大排队数
+    private Long droppedMessages;        // 累计丢弃消息数
+    private Long coalescedMessages;      // 累计合并消息数
+    private Long evictedSessions;        // 累计断开的慢消费者数
+    private String brokerStats;          // Spring 内置的代理与线程池统计
+}
@@ -1,5 +1,6 @@
 package com.flowerwine.cxx.entity;
 
+import com.flowerwine.cxx.annotation.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,7 +14,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class BountyDownloadRecord {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
     
     @Column(name = "bounty_id", nullable = false)
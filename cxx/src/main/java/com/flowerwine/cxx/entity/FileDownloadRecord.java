@@ -1,5 +1,6 @@
 package com.flowerwine.cxx.entity;
 
+import com.flowerwine.cxx.annotation.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,7 +14,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class FileDownloadRecord {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
     
     @Column(name = "file_id", nullable = false)
@@ -27,6 +28,9 @@ public class FileDownloadRecord {
     
     @PrePersist
     public void prePersist() {
-        this.downloadTime = LocalDateTime.now();
+        // 异步写入时保留入队时记录的下载时间
+        if (this.downloadTime == null) {
+            this.downloadTime = LocalDateTime.now();
+        }
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.flowerwine.cxx.entity;
 
+import com.flowerwine.cxx.annotation.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,7 +17,7 @@ import java.time.LocalDateTime;
 public class FileReviewHistory {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
     
     @Column(name = "file_upload_id", nullable = false)
@@ -1,5 +1,6 @@
 package com.flowerwine.cxx.entity;
 
+import com.flowerwine.cxx.annotation.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -15,7 +16,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class PointsRecord {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -1,5 +1,6 @@
 package com.flowerwine.cxx.entity;
 
+import com.flowerwine.cxx.annotation.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,15 +9,23 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "private_message")
+@Table(name = "private_message", indexes = {
+        @Index(name = "idx_conversation_key_id", columnList = "conversation_key, id"),
+        @Index(name = "idx_conversation_key_receiver_id", columnList = "conversation_key, receiver_id, id"),
+        @Index(name = "idx_conversation_id_id", columnList = "conversation_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class PrivateMessage {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
     
+    /** 会话数值键，对应会话表主键，用于分区路由和索引查询 */
+    @Column(name = "conversation_key", nullable = false)
+    private Long conversationKey;
+    
     @Column(name = "conversation_id", nullable = false)
     private String conversationId;
     
@@ -34,6 +43,9 @@ public class PrivateMessage {
     
     @PrePersist
     public void prePersist() {
-        this.createdAt = LocalDateTime.now();
+        // 异步批量写入时保留发送时刻
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.flowerwine.cxx.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * tus 上传完成处理记录，按上传 ID 保证每个上传只存储和记录一次
+ */
+@Entity
+@Table(name = "tus_upload_completion")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TusUploadCompletion {
+    @Id
+    @Column(name = "upload_id", length = 64)
+    private String uploadId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** 见 TusUploadStatusEnum */
+    @Column(nullable = false)
+    private Byte status;
+
+    /** 存储文件名，进入处理中时确定，中断后按同一文件名继续 */
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_id")
+    private Long fileId;
+
+    @Builder.Default
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Builder.Default
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
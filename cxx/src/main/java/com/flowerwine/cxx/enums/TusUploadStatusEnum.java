@@ -0,0 +1,30 @@
+package com.flowerwine.cxx.enums;
+
+import lombok.Getter;
+
+/**
+ * tus 上传完成处理状态：已接收 -> 处理中 -> 已完成
+ */
+@Getter
+public enum TusUploadStatusEnum {
+    RECEIVED((byte)0, "已接收"),
+    FINALIZING((byte)1, "处理中"),
+    DONE((byte)2, "已完成");
+
+    private final byte value;
+    private final String description;
+
+    TusUploadStatusEnum(byte value, String description) {
+        this.value = value;
+        this.description = description;
+    }
+
+    public static TusUploadStatusEnum fromValue(byte value) {
+        for (TusUploadStatusEnum status : TusUploadStatusEnum.values()) {
+            if (status.getValue() == value) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("无效的上传处理状态值: " + value);
+    }
+}
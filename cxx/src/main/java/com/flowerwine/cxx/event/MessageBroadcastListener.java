@@ -0,0 +1,63 @@
+package com.flowerwine.cxx.event;
+
+import com.flowerwine.cxx.dto.MessageDTO;
+import com.flowerwine.cxx.entity.PrivateMessage;
+import com.flowerwine.cxx.metrics.PlatformMetrics;
+import com.flowerwine.cxx.service.MessageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 消息广播监听器
+ * 在数据库事务提交后，于专用线程池中通过 WebSocket 推送
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessageBroadcastListener {
+
+    /** 私信推送目的地，客户端订阅 /user/queue/message */
+    public static final String PRIVATE_MESSAGE_DESTINATION = "/queue/message";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MessageService messageService;
+    private final PlatformMetrics platformMetrics;
+
+    @Async("messageBroadcastExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSystemMessageCreated(SystemMessageCreatedEvent event) {
+        try {
+            messagingTemplate.convertAndSend("/topic/system", event.getMessage());
+            platformMetrics.recordFanout(PlatformMetrics.FANOUT_SYSTEM, event.getMessage().getCreatedAt());
+            log.debug("系统消息已广播: {}", event.getMessage().getId());
+        } catch (Exception e) {
+            log.error("系统消息广播失败: {}", event.getMessage().getId(), e);
+        }
+    }
+
+    /**
+     * 私信事务提交后推送给收发双方
+     * 推送线程池只有一个线程，按提交顺序逐条推送，同一会话的私信不会乱序
+     */
+    @Async("privateMessagePushExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPrivateMessageCreated(PrivateMessageCreatedEvent event) {
+        PrivateMessage message = event.getMessage();
+        try {
+            MessageDTO messageDTO = messageService.convertToMessageDTO(message);
+            if (messageDTO == null) {
+                return;
+            }
+            messagingTemplate.convertAndSendToUser(message.getSenderId().toString(), PRIVATE_MESSAGE_DESTINATION, messageDTO);
+            messagingTemplate.convertAndSendToUser(message.getReceiverId().toString(), PRIVATE_MESSAGE_DESTINATION, messageDTO);
+            platformMetrics.recordFanout(PlatformMetrics.FANOUT_PRIVATE, message.getCreatedAt());
+        } catch (Exception e) {
+            log.error("私信推送失败: {}", message.getId(), e);
+        }
+    }
+}
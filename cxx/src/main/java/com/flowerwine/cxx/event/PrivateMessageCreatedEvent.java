@@ -0,0 +1,14 @@
+package com.flowerwine.cxx.event;
+
+import com.flowerwine.cxx.entity.PrivateMessage;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 私信已在发送请求的事务中写入，事务提交后按顺序推送给收发双方
+ */
+@Getter
+@RequiredArgsConstructor
+public class PrivateMessageCreatedEvent {
+    private final PrivateMessage message;
+}
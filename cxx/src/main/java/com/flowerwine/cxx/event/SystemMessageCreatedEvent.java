@@ -0,0 +1,14 @@
+package com.flowerwine.cxx.event;
+
+import com.flowerwine.cxx.dto.SystemMessageDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 系统消息创建事件，事务提交后广播给在线用户
+ */
+@Getter
+@RequiredArgsConstructor
+public class SystemMessageCreatedEvent {
+    private final SystemMessageDTO message;
+}
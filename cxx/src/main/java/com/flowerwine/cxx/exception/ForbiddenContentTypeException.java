@@ -0,0 +1,20 @@
+package com.flowerwine.cxx.exception;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * 上传内容的实际类型在禁止列表中
+ * 继承 IOException，可以从读取上传流的 read 调用中抛出，中止正在进行的写入
+ */
+@Getter
+public class ForbiddenContentTypeException extends IOException {
+
+    private final String mimeType;
+
+    public ForbiddenContentTypeException(String mimeType) {
+        super("检测到危险的文件类型: " + mimeType);
+        this.mimeType = mimeType;
+    }
+}
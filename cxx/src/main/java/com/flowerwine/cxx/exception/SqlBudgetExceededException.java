@@ -0,0 +1,21 @@
+package com.flowerwine.cxx.exception;
+
+import lombok.Getter;
+
+/**
+ * 请求执行的 SQL 语句数超过预算（仅在 fail 模式下抛出，用于测试中暴露 N+1 回归）
+ */
+@Getter
+public class SqlBudgetExceededException extends RuntimeException {
+
+    private final String endpoint;
+    private final int statements;
+    private final int budget;
+
+    public SqlBudgetExceededException(String endpoint, int statements, int budget) {
+        super(String.format("SQL语句数超出预算: %s 执行 %d 条，预算 %d 条", endpoint, statements, budget));
+        this.endpoint = endpoint;
+        this.statements = statements;
+        this.budget = budget;
+    }
+}
@@ -0,0 +1,18 @@
+package com.flowerwine.cxx.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * 异步日志追加器
+ * 队列剩余容量低于 discardingThreshold 时只丢弃 TRACE/DEBUG，
+ * INFO 及以上仍排队等待（logback 默认会连同 INFO 一起丢弃）
+ */
+public class DebugDiscardingAsyncAppender extends AsyncAppender {
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        return event.getLevel().toInt() <= Level.DEBUG_INT;
+    }
+}
@@ -0,0 +1,19 @@
+package com.flowerwine.cxx.logging;
+
+/**
+ * 日志 MDC 字段名，JSON 日志中按同名字段输出
+ */
+public final class LogMdc {
+
+    /** 单次 HTTP 请求标识，来自 X-Request-Id 请求头或自动生成 */
+    public static final String REQUEST_ID = "requestId";
+    /** 链路标识，来自 W3C traceparent 请求头，缺省与 requestId 相同 */
+    public static final String TRACE_ID = "traceId";
+    /** 已认证的用户ID，由 JwtAuthenticationFilter 设置 */
+    public static final String USER_ID = "userId";
+    /** 已认证的管理员ID，由 AdminJwtAuthenticationFilter 设置 */
+    public static final String ADMIN_ID = "adminId";
+
+    private LogMdc() {
+    }
+}
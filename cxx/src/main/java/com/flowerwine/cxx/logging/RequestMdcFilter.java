@@ -0,0 +1,67 @@
+package com.flowerwine.cxx.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * 为每个请求写入 requestId / traceId 到 MDC，并通过 X-Request-Id 响应头返回
+ * 排在所有过滤器之前，认证、SQL 统计等过滤器输出的日志也带有请求标识
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMdcFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    private static final String TRACEPARENT_HEADER = "traceparent";
+
+    /** 只接受短小的安全字符，避免日志注入 */
+    private static final Pattern REQUEST_ID_PATTERN = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    /** traceparent 格式：版本-traceId(32位十六进制)-spanId-标志 */
+    private static final Pattern TRACEPARENT_PATTERN = Pattern.compile("[0-9a-f]{2}-([0-9a-f]{32})-[0-9a-f]{16}-[0-9a-f]{2}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (!StringUtils.hasText(requestId) || !REQUEST_ID_PATTERN.matcher(requestId).matches()) {
+            requestId = randomId();
+        }
+        String traceId = requestId;
+        String traceparent = request.getHeader(TRACEPARENT_HEADER);
+        if (traceparent != null) {
+            var matcher = TRACEPARENT_PATTERN.matcher(traceparent);
+            if (matcher.matches()) {
+                traceId = matcher.group(1);
+            }
+        }
+
+        MDC.put(LogMdc.REQUEST_ID, requestId);
+        MDC.put(LogMdc.TRACE_ID, traceId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(LogMdc.REQUEST_ID);
+            MDC.remove(LogMdc.TRACE_ID);
+            MDC.remove(LogMdc.USER_ID);
+            MDC.remove(LogMdc.ADMIN_ID);
+        }
+    }
+
+    private static String randomId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Long.toHexString(random.nextLong() | Long.MIN_VALUE) + Long.toHexString(random.nextLong() | Long.MIN_VALUE);
+    }
+}
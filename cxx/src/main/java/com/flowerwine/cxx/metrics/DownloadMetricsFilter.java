@@ -0,0 +1,108 @@
+package com.flowerwine.cxx.metrics;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 统计文件下载的字节数与并发流数
+ * 覆盖静态资源目录（/uploads/**）和 /api/files/download/** 两条下载路径
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@RequiredArgsConstructor
+public class DownloadMetricsFilter extends OncePerRequestFilter {
+
+    private static final String DOWNLOAD_API_PREFIX = "/api/files/download/";
+
+    private final PlatformMetrics platformMetrics;
+    private final FileUploadProperties uploadProperties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith(uploadProperties.getUrlPrefix() + "/") && !path.startsWith(DOWNLOAD_API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CountingResponse countingResponse = new CountingResponse(response);
+        platformMetrics.getActiveDownloads().incrementAndGet();
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            platformMetrics.getActiveDownloads().decrementAndGet();
+            platformMetrics.recordDownload(countingResponse.bytesWritten);
+        }
+    }
+
+    /**
+     * 包装响应输出流，累计写出的字节数
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private long bytesWritten;
+        private ServletOutputStream outputStream;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytesWritten++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytesWritten += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
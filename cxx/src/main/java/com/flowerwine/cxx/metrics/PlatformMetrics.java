@@ -0,0 +1,173 @@
+package com.flowerwine.cxx.metrics;
+
+import com.flowerwine.cxx.enums.PointActionEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 业务指标统一入口
+ * 上传/下载字节数、分片与合并、积分流转、签到、JWT 校验和 WebSocket 推送延迟，
+ * 通过 /actuator/prometheus 暴露，作为容量规划的依据
+ */
+@Component
+public class PlatformMetrics {
+
+    public static final String UPLOAD_FORM = "form";
+    public static final String UPLOAD_CHUNK = "chunk";
+    public static final String UPLOAD_TUS = "tus";
+
+    public static final String REALM_USER = "user";
+    public static final String REALM_ADMIN = "admin";
+
+    public static final String FANOUT_SYSTEM = "system";
+    public static final String FANOUT_PRIVATE = "private";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> uploadBytes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> pointsTransfers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> jwtValidation = new ConcurrentHashMap<>();
+    private final Map<String, Timer> fanoutLatency = new ConcurrentHashMap<>();
+    private final Counter uploadChunks;
+    private final Timer mergeDuration;
+    private final AtomicInteger activeTusPatches = new AtomicInteger();
+    private final Counter downloadBytes;
+    private final AtomicInteger activeDownloads = new AtomicInteger();
+    private final DistributionSummary pointsAmount;
+    private final Counter signIns;
+
+    public PlatformMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.uploadChunks = Counter.builder("upload.chunks")
+                .description("已接收的分片数")
+                .register(meterRegistry);
+        this.mergeDuration = Timer.builder("upload.merge.duration")
+                .description("分片合并耗时")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        meterRegistry.gauge("upload.tus.patch.active", activeTusPatches);
+        this.downloadBytes = Counter.builder("download.bytes")
+                .description("下载响应写出的字节数")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        meterRegistry.gauge("download.streams.active", activeDownloads);
+        this.pointsAmount = DistributionSummary.builder("points.transfer.amount")
+                .description("单次积分变动的绝对值")
+                .register(meterRegistry);
+        this.signIns = Counter.builder("sign.ins")
+                .description("签到成功次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录上传字节数，source 为 form / chunk / tus
+     */
+    public void recordUpload(String source, long bytes) {
+        uploadBytes.computeIfAbsent(source, key -> Counter.builder("upload.bytes")
+                        .description("已接收的上传字节数")
+                        .baseUnit("bytes")
+                        .tag("source", key)
+                        .register(meterRegistry))
+                .increment(bytes);
+    }
+
+    public void recordChunk(long bytes) {
+        uploadChunks.increment();
+        recordUpload(UPLOAD_CHUNK, bytes);
+    }
+
+    public Timer getMergeDuration() {
+        return mergeDuration;
+    }
+
+    /**
+     * 进行中的 tus PATCH 请求数，返回值用于结束时递减
+     */
+    public AtomicInteger getActiveTusPatches() {
+        return activeTusPatches;
+    }
+
+    public AtomicInteger getActiveDownloads() {
+        return activeDownloads;
+    }
+
+    public void recordDownload(long bytes) {
+        downloadBytes.increment(bytes);
+    }
+
+    /**
+     * 记录一次积分变动，在事务提交后计数，回滚的变动不计入
+     */
+    public void recordPointsTransfer(Integer pointActionId, int points) {
+        afterCommit(() -> {
+            PointActionEnum action = pointActionId == null ? null : PointActionEnum.getByCode(pointActionId);
+            String actionTag = action == null ? "unknown" : action.name().toLowerCase();
+            String direction = points >= 0 ? "credit" : "debit";
+            pointsTransfers.computeIfAbsent(actionTag + ' ' + direction, key -> Counter.builder("points.transfers")
+                            .description("积分变动次数")
+                            .tag("action", actionTag)
+                            .tag("direction", direction)
+                            .register(meterRegistry))
+                    .increment();
+            pointsAmount.record(Math.abs(points));
+        });
+    }
+
+    public void recordSignIn() {
+        afterCommit(signIns::increment);
+    }
+
+    /**
+     * 记录一次 JWT 校验耗时，realm 为 user / admin
+     */
+    public void recordJwtValidation(String realm, boolean valid, long elapsedNanos) {
+        String outcome = valid ? "valid" : "invalid";
+        jwtValidation.computeIfAbsent(realm + ' ' + outcome, key -> Timer.builder("jwt.validation")
+                        .description("JWT 签名与有效期校验耗时")
+                        .tag("realm", realm)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录消息从创建到推送完成的延迟，type 为 system / private
+     */
+    public void recordFanout(String type, LocalDateTime createdAt) {
+        if (createdAt == null) {
+            return;
+        }
+        Duration latency = Duration.between(createdAt, LocalDateTime.now());
+        fanoutLatency.computeIfAbsent(type, key -> Timer.builder("websocket.fanout.latency")
+                        .description("消息创建到 WebSocket 推送完成的延迟")
+                        .tag("type", key)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(latency.isNegative() ? Duration.ZERO : latency);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
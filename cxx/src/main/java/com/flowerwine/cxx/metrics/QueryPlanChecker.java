@@ -0,0 +1,114 @@
+package com.flowerwine.cxx.metrics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 启动时对关键查询执行 EXPLAIN，检查是否命中索引
+ * 查询与仓库方法一一对应，参数取任意值即可（执行计划只取决于索引和统计信息）。
+ * 没有可用索引的全表扫描记为告警；有可用索引但优化器仍选择全表扫描（通常是表数据量很小）只记为信息。
+ * 仅在 MySQL 上执行
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.query-plan-check", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryPlanChecker {
+
+    private static final List<CriticalQuery> CRITICAL_QUERIES = List.of(
+            new CriticalQuery("FileBidRepository.findByBountyId",
+                    "SELECT * FROM file_bid WHERE bounty_id = 1"),
+            new CriticalQuery("FileBidRepository.findByUserIdAndBountyId",
+                    "SELECT * FROM file_bid WHERE user_id = 1 AND bounty_id = 1"),
+            new CriticalQuery("FileBidRepository.findByFileId",
+                    "SELECT * FROM file_bid WHERE file_id = 1"),
+            new CriticalQuery("UserUploadFileRepository.findByFileId",
+                    "SELECT * FROM user_upload_file WHERE file_id = 1"),
+            new CriticalQuery("PrivateMessageRepository.findByConversationKeyOrderByIdDesc",
+                    "SELECT * FROM private_message WHERE conversation_key = 1 ORDER BY id DESC LIMIT 20"),
+            new CriticalQuery("PrivateMessageRepository.countUnreadMessagesForUser",
+                    "SELECT COUNT(*) FROM private_message WHERE conversation_key = 1 AND receiver_id = 1 "
+                            + "AND sender_id <> 1 AND id > 1"),
+            new CriticalQuery("PrivateMessageConversationRepository.findByUser",
+                    "SELECT * FROM private_message_conversation WHERE initiator_id = 1 OR participant_id = 1 "
+                            + "ORDER BY updated_at DESC LIMIT 20"),
+            new CriticalQuery("UserSignRecordRepository.findByUserIdAndYearBetween",
+                    "SELECT * FROM user_sign_record WHERE user_id = 1 AND year BETWEEN 2024 AND 2025 ORDER BY year, month"),
+            new CriticalQuery("UserSignRecordRepository.findSignBitmapsByYearAndMonth",
+                    "SELECT sign_bitmap FROM user_sign_record WHERE year = 2025 AND month = 1 AND sign_bitmap <> 0"),
+            new CriticalQuery("UserSignCycleRepository.findByUserIdAndStatus",
+                    "SELECT * FROM user_sign_cycle WHERE user_id = 1 AND status = 1"),
+            new CriticalQuery("UserFileTaskRepository.findByStatusIn",
+                    "SELECT * FROM user_file_task WHERE status IN (1, 2) ORDER BY created_at DESC LIMIT 10"),
+            new CriticalQuery("UserFileTaskRepository.findByStatusAndIsFree",
+                    "SELECT * FROM user_file_task WHERE status = 1 AND is_free = 1 ORDER BY created_at DESC LIMIT 10"),
+            new CriticalQuery("PointsRecordRepository.findByUserIdOrderByCreatedAtDesc",
+                    "SELECT * FROM points_record WHERE user_id = 1 ORDER BY created_at DESC LIMIT 10"),
+            new CriticalQuery("FileBountyRepository.findByStatus",
+                    "SELECT * FROM file_bounty WHERE status = 1 ORDER BY created_at DESC LIMIT 5"),
+            new CriticalQuery("FileBountyRepository.findByUserIdAndWinnerId",
+                    "SELECT * FROM file_bounty WHERE user_id = 1 AND winner_id = 1"),
+            new CriticalQuery("BountyDownloadRecordRepository.findByBountyIdAndUserId",
+                    "SELECT * FROM bounty_download_record WHERE bounty_id = 1 AND user_id = 1"),
+            new CriticalQuery("FileDownloadRecordRepository.existsByFileIdAndUserId",
+                    "SELECT id FROM file_download_record WHERE file_id = 1 AND user_id = 1 LIMIT 1"),
+            new CriticalQuery("SystemMessageReadRepository.findTopByUserIdOrderByMessageIdDesc",
+                    "SELECT * FROM system_message_read WHERE user_id = 1 ORDER BY message_id DESC LIMIT 1"),
+            new CriticalQuery("UserProfileRepository.existsByEmail",
+                    "SELECT id FROM user_profile WHERE email = 'a@b.c' LIMIT 1")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            log.debug("数据库为 {}，跳过关键查询执行计划检查", product);
+            return;
+        }
+
+        int missingIndex = 0;
+        for (CriticalQuery query : CRITICAL_QUERIES) {
+            List<Map<String, Object>> plan;
+            try {
+                plan = jdbcTemplate.queryForList("EXPLAIN " + query.sql());
+            } catch (DataAccessException e) {
+                log.warn("关键查询 {} 执行 EXPLAIN 失败: {}", query.name(), e.getMessage());
+                continue;
+            }
+            for (Map<String, Object> row : plan) {
+                if (!"ALL".equals(row.get("type"))) {
+                    continue;
+                }
+                if (row.get("possible_keys") == null) {
+                    missingIndex++;
+                    log.warn("关键查询 {} 在表 {} 上全表扫描且没有可用索引，预估扫描 {} 行: {}",
+                            query.name(), row.get("table"), row.get("rows"), query.sql());
+                } else {
+                    log.info("关键查询 {} 在表 {} 上选择了全表扫描（可用索引 {}，预估 {} 行，数据量小时属正常）",
+                            query.name(), row.get("table"), row.get("possible_keys"), row.get("rows"));
+                }
+            }
+        }
+        if (missingIndex == 0) {
+            log.info("关键查询执行计划检查完成: {} 条查询均有可用索引", CRITICAL_QUERIES.size());
+        } else {
+            log.warn("关键查询执行计划检查完成: {} 处全表扫描缺少索引，请检查 db/migration 中的索引定义", missingIndex);
+        }
+    }
+
+    private record CriticalQuery(String name, String sql) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.flowerwine.cxx.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * fail 模式下在控制器方法执行前为当前请求设置语句预算
+ * 预算在语句执行时检查，超出时异常在控制器内抛出，响应尚未写出，客户端收到错误状态而不是 200
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+
+    private final SqlRequestMetrics sqlRequestMetrics;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            sqlRequestMetrics.enforce(SqlRequestMetrics.endpointOf(handlerMethod));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,44 @@
+package com.flowerwine.cxx.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 每请求 SQL 语句预算配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sql-budget")
+public class SqlBudgetProperties {
+
+    /** 是否代理数据源并统计每个请求的 SQL 执行情况 */
+    private boolean enabled = true;
+
+    /**
+     * 超出预算时的处理方式：log 请求结束后记录告警；fail 在执行超出预算的语句前抛出异常，
+     * 请求以 500 结束、事务回滚（测试环境使用）
+     */
+    private Mode mode = Mode.LOG;
+
+    /** 默认每请求最大语句数，0 表示不限制 */
+    private int defaultMaxStatements = 0;
+
+    /** 按接口单独设置的预算，键为 控制器类名.方法名 或 STOMP 目的地 */
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public enum Mode {
+        LOG,
+        FAIL
+    }
+
+    /**
+     * 获取接口的语句预算，0 表示不限制
+     */
+    public int budgetFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultMaxStatements);
+    }
+}
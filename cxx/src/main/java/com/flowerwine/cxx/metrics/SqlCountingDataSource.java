@@ -0,0 +1,114 @@
+package com.flowerwine.cxx.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 统计 SQL 执行情况的数据源代理
+ * 对连接、语句和结果集做轻量动态代理，在统计上下文开启时累计语句数、读取行数和执行耗时
+ */
+public class SqlCountingDataSource extends DelegatingDataSource {
+
+    public SqlCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrapStatement(CallableStatement.class, statement);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrapStatement(PreparedStatement.class, statement);
+            }
+            if (result instanceof Statement statement) {
+                return wrapStatement(Statement.class, statement);
+            }
+            return result;
+        });
+    }
+
+    private static <S extends Statement> S wrapStatement(Class<S> type, S statement) {
+        return proxy(type, statement, (target, method, args) -> {
+            SqlRequestStats stats = SqlRequestContext.current();
+            if (stats == null) {
+                return invoke(target, method, args);
+            }
+
+            String name = method.getName();
+            Object result;
+            if (name.startsWith("execute")) {
+                stats.checkBudget();
+                long start = System.nanoTime();
+                try {
+                    result = invoke(target, method, args);
+                } finally {
+                    stats.onStatement(System.nanoTime() - start);
+                }
+            } else {
+                result = invoke(target, method, args);
+            }
+
+            if (result instanceof ResultSet resultSet) {
+                return wrapResultSet(resultSet);
+            }
+            return result;
+        });
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet) {
+        return proxy(ResultSet.class, resultSet, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                SqlRequestStats stats = SqlRequestContext.current();
+                if (stats != null) {
+                    stats.onRow();
+                }
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, TargetInvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(
+                SqlCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{type},
+                (InvocationHandler) (proxy, method, args) -> handler.invoke(target, method, args));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TargetInvocationHandler {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,34 @@
+package com.flowerwine.cxx.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * 用 SqlCountingDataSource 包装应用数据源
+ * 路由、代理类数据源不包装，它们的目标数据源已各自包装，避免重复计数
+ */
+@Component
+public class SqlCountingDataSourcePostProcessor implements BeanPostProcessor, EnvironmentAware {
+
+    private boolean enabled = true;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.enabled = environment.getProperty("app.sql-budget.enabled", Boolean.class, true);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource && !(bean instanceof SqlCountingDataSource)
+                && !(bean instanceof AbstractRoutingDataSource) && !(bean instanceof DelegatingDataSource)) {
+            return new SqlCountingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,29 @@
+package com.flowerwine.cxx.metrics;
+
+/**
+ * 当前线程的 SQL 统计上下文
+ * 由 HTTP 过滤器和 STOMP 入站拦截器开启，未开启时数据源代理不做任何统计
+ */
+public final class SqlRequestContext {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private SqlRequestContext() {
+    }
+
+    public static SqlRequestStats begin() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlRequestStats end() {
+        SqlRequestStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+}
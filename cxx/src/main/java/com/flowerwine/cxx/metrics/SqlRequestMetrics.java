@@ -0,0 +1,93 @@
+package com.flowerwine.cxx.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录每个请求的 SQL 统计并检查语句预算
+ * 指标：sql.request.statements / sql.request.rows（分布）和 sql.request.time（计时），
+ * 按 transport（http/stomp）和 endpoint（控制器方法或 STOMP 目的地）打标签
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlRequestMetrics {
+
+    public static final String TRANSPORT_HTTP = "http";
+    public static final String TRANSPORT_STOMP = "stomp";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlBudgetProperties budgetProperties;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * fail 模式下为当前请求设置该接口的语句预算
+     */
+    public void enforce(String endpoint) {
+        if (budgetProperties.getMode() != SqlBudgetProperties.Mode.FAIL) {
+            return;
+        }
+        SqlRequestStats stats = SqlRequestContext.current();
+        if (stats != null) {
+            stats.limit(endpoint, budgetProperties.budgetFor(endpoint));
+        }
+    }
+
+    /**
+     * 控制器方法对应的接口名：控制器类名.方法名
+     */
+    public static String endpointOf(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+
+    public void record(String transport, String endpoint, SqlRequestStats stats) {
+        Meters m = meters.computeIfAbsent(transport + ' ' + endpoint, key -> new Meters(transport, endpoint));
+        m.statements.record(stats.getStatements());
+        m.rows.record(stats.getRows());
+        m.time.record(stats.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+        // fail 模式在执行超出预算的语句前已拒绝，这里只在 log 模式下告警
+        int budget = budgetProperties.budgetFor(endpoint);
+        if (budget > 0 && stats.getStatements() > budget) {
+            log.warn("SQL语句数超出预算: {} 执行 {} 条（预算 {}），读取 {} 行，耗时 {} ms",
+                    endpoint, stats.getStatements(), budget, stats.getRows(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.getElapsedNanos()));
+        }
+    }
+
+    private final class Meters {
+        private final DistributionSummary statements;
+        private final DistributionSummary rows;
+        private final Timer time;
+
+        private Meters(String transport, String endpoint) {
+            statements = DistributionSummary.builder("sql.request.statements")
+                    .description("每个请求执行的SQL语句数")
+                    .tag("transport", transport)
+                    .tag("endpoint", endpoint)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            rows = DistributionSummary.builder("sql.request.rows")
+                    .description("每个请求读取的结果行数")
+                    .tag("transport", transport)
+                    .tag("endpoint", endpoint)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            time = Timer.builder("sql.request.time")
+                    .description("每个请求的SQL执行总耗时")
+                    .tag("transport", transport)
+                    .tag("endpoint", endpoint)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
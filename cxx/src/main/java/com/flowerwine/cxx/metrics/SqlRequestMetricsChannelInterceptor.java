@@ -0,0 +1,45 @@
+package com.flowerwine.cxx.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 统计每条入站 STOMP 消息处理过程中的 SQL 执行情况，按目的地记录
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlRequestMetricsChannelInterceptor implements ExecutorChannelInterceptor {
+
+    private final SqlRequestMetrics sqlRequestMetrics;
+    private final SqlBudgetProperties budgetProperties;
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        if (budgetProperties.isEnabled() && SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+            SqlRequestContext.begin();
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            if (destination != null) {
+                sqlRequestMetrics.enforce(destination);
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        SqlRequestStats stats = SqlRequestContext.end();
+        if (stats == null) {
+            return;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination != null) {
+            sqlRequestMetrics.record(SqlRequestMetrics.TRANSPORT_STOMP, destination, stats);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.flowerwine.cxx.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 统计每个 HTTP 请求的 SQL 执行情况，按处理该请求的控制器方法记录
+ * 排在安全过滤器之前，JWT 认证阶段的查询也计入。
+ * 这里在响应写出之后执行，只记录指标和告警；fail 模式的预算由 SqlBudgetInterceptor 在控制器执行前设置，
+ * 在语句执行时强制
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sql-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlRequestMetricsFilter extends OncePerRequestFilter {
+
+    private final SqlRequestMetrics sqlRequestMetrics;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestContext.begin();
+        SqlRequestStats stats;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stats = SqlRequestContext.end();
+        }
+
+        // 未匹配到控制器方法的请求（静态资源、404 等）不记录
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handlerMethod) {
+            sqlRequestMetrics.record(SqlRequestMetrics.TRANSPORT_HTTP, SqlRequestMetrics.endpointOf(handlerMethod), stats);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.flowerwine.cxx.metrics;
+
+import com.flowerwine.cxx.exception.SqlBudgetExceededException;
+import lombok.Getter;
+
+/**
+ * 单个请求（HTTP 请求或 STOMP 消息）内的 SQL 执行统计，只在所属线程内读写
+ */
+@Getter
+public class SqlRequestStats {
+
+    /** 执行的语句数 */
+    private int statements;
+    /** 读取的结果行数 */
+    private long rows;
+    /** 语句执行耗时（纳秒） */
+    private long elapsedNanos;
+    /** fail 模式下强制执行的语句预算及所属接口，0 表示不限制 */
+    private int budget;
+    private String endpoint;
+
+    /**
+     * fail 模式下设置预算，之后超出预算的语句在执行前被拒绝
+     */
+    void limit(String endpoint, int budget) {
+        this.endpoint = endpoint;
+        this.budget = budget;
+    }
+
+    /**
+     * 执行语句前检查预算：在控制器或消息处理方法内抛出，请求以错误结束，而不是在响应已提交后才发现
+     */
+    void checkBudget() {
+        if (budget > 0 && statements >= budget) {
+            throw new SqlBudgetExceededException(endpoint, statements + 1, budget);
+        }
+    }
+
+    void onStatement(long nanos) {
+        statements++;
+        elapsedNanos += nanos;
+    }
+
+    void onRow() {
+        rows++;
+    }
+}
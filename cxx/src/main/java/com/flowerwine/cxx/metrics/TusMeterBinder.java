@@ -0,0 +1,49 @@
+package com.flowerwine.cxx.metrics;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+/**
+ * tus 进行中上传数
+ * tus-java-server 为每个未完成（或未清理）的上传在存储目录的 uploads 子目录下保留一个目录，
+ * 抓取时统计目录数即为活动上传数
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TusMeterBinder implements MeterBinder {
+
+    private final FileUploadProperties uploadProperties;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Gauge 只弱引用被观测对象，绑定到本 Bean 上避免被回收
+        Gauge.builder("upload.tus.active", this, TusMeterBinder::countUploads)
+                .description("tus 存储中未完成的上传数")
+                .register(registry);
+    }
+
+    private double countUploads() {
+        Path uploadsDir = Paths.get(uploadProperties.getChunkFolder(), "uploads");
+        if (!Files.isDirectory(uploadsDir)) {
+            return 0;
+        }
+        try (Stream<Path> entries = Files.list(uploadsDir)) {
+            return entries.count();
+        } catch (IOException e) {
+            log.debug("统计 tus 上传目录失败: {}", uploadsDir, e);
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.flowerwine.cxx.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 虚拟线程钉住（pinning）诊断
+ * 虚拟线程在 synchronized 块或本地方法中阻塞时无法卸载，会占住载体线程。
+ * 通过 JFR 事件 jdk.VirtualThreadPinned 捕获超过阈值的钉住，
+ * 按来源（jdbc / app / other）计数到 jvm.threads.virtual.pinned，并输出首个相关栈帧
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.flowerwine.";
+    /** JDBC 驱动与连接池，钉住多来自驱动内部的 synchronized */
+    private static final List<String> JDBC_PACKAGES = List.of("com.mysql.", "com.zaxxer.hikari.", "org.h2.", "java.sql.");
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Value("${app.virtual-threads.pinned-threshold:20ms}")
+    private Duration pinnedThreshold;
+
+    private RecordingStream recordingStream;
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(pinnedThreshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("虚拟线程钉住监控已启动，阈值 {} ms", pinnedThreshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String source = "other";
+        RecordedFrame culprit = null;
+        for (RecordedFrame frame : frames) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String className = frame.getMethod().getType().getName();
+            if (JDBC_PACKAGES.stream().anyMatch(className::startsWith)) {
+                source = "jdbc";
+                culprit = frame;
+                break;
+            }
+            if (className.startsWith(APP_PACKAGE)) {
+                source = "app";
+                culprit = frame;
+                break;
+            }
+        }
+        if (culprit == null && !frames.isEmpty()) {
+            culprit = frames.get(0);
+        }
+
+        counters.computeIfAbsent(source, key -> Counter.builder("jvm.threads.virtual.pinned")
+                        .description("超过阈值的虚拟线程钉住次数")
+                        .tag("source", key)
+                        .register(meterRegistry))
+                .increment();
+        log.warn("虚拟线程被钉住 {} ms，来源 {}，位置 {}", event.getDuration().toMillis(), source,
+                culprit != null ? culprit.getMethod().getType().getName() + "." + culprit.getMethod().getName()
+                        + ":" + culprit.getLineNumber() : "未知");
+    }
+}
@@ -0,0 +1,41 @@
+package com.flowerwine.cxx.metrics;
+
+import com.flowerwine.cxx.websocket.WebSocketSessionRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 将 WebSocket 会话登记表的状态绑定为指标
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketMeterBinder implements MeterBinder {
+
+    private final WebSocketSessionRegistry sessionRegistry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("websocket.sessions.active", sessionRegistry, WebSocketSessionRegistry::getActiveSessions)
+                .description("当前 WebSocket 会话数")
+                .register(registry);
+        Gauge.builder("websocket.pending.messages", sessionRegistry, WebSocketSessionRegistry::getTotalPending)
+                .description("所有会话待发送的消息总数")
+                .register(registry);
+        Gauge.builder("websocket.pending.max", sessionRegistry, WebSocketSessionRegistry::getMaxSessionPending)
+                .description("单个会话待发送消息数的最大值")
+                .register(registry);
+        FunctionCounter.builder("websocket.messages.dropped", sessionRegistry, WebSocketSessionRegistry::getDroppedMessages)
+                .description("因背压丢弃的消息数")
+                .register(registry);
+        FunctionCounter.builder("websocket.messages.coalesced", sessionRegistry, WebSocketSessionRegistry::getCoalescedMessages)
+                .description("被合并的消息数")
+                .register(registry);
+        FunctionCounter.builder("websocket.sessions.evicted", sessionRegistry, WebSocketSessionRegistry::getEvictedSessions)
+                .description("被断开的慢消费者会话数")
+                .register(registry);
+    }
+}
@@ -2,12 +2,19 @@ package com.flowerwine.cxx.repository;
 
 import com.flowerwine.cxx.entity.FileDownloadRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface FileDownloadRecordRepository extends JpaRepository<FileDownloadRecord, Long> {
     List<FileDownloadRecord> findByFileIdAndUserId(Long fileId, Long userId);
     boolean existsByFileIdAndUserId(Long fileId, Long userId);
-}
\ No newline at end of file
+
+    /** 已存在的主键，写前日志重放时去重 */
+    @Query("SELECT r.id FROM FileDownloadRecord r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
@@ -1,8 +1,13 @@
 package com.flowerwine.cxx.repository;
 
 import com.flowerwine.cxx.entity.FileInfo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,4 +15,14 @@ import java.util.Optional;
 @Repository
 public interface FileInfoRepository extends JpaRepository<FileInfo, Long> {
     List<FileInfo> findByUserId(Long userId);
+
+    /**
+     * 按主键顺序分批读取，用于存储布局迁移
+     */
+    List<FileInfo> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE FileInfo f SET f.filePath = :filePath WHERE f.id = :id")
+    int updateFilePath(@Param("id") Long id, @Param("filePath") String filePath);
 }
\ No newline at end of file
@@ -8,39 +8,34 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PrivateMessageRepository extends JpaRepository<PrivateMessage, Long> {
+
+    /*
+     * 私信表按 conversation_key 哈希分区，查询均以数值会话键为首个条件，
+     * 命中 (conversation_key, id) 复合索引并裁剪到单个分区
+     */
     
-    Page<PrivateMessage> findByConversationIdOrderByCreatedAtDesc(String conversationId, Pageable pageable);
-    
-    @Query("SELECT pm FROM PrivateMessage pm WHERE pm.conversationId = :conversationId ORDER BY pm.createdAt DESC LIMIT 1")
-    Optional<PrivateMessage> findLatestByConversationId(@Param("conversationId") String conversationId);
-    
-    @Query("SELECT COUNT(pm) FROM PrivateMessage pm WHERE pm.conversationId = :conversationId AND pm.id > :messageId")
-    Long countByConversationIdAndIdGreaterThan(
-        @Param("conversationId") String conversationId, 
-        @Param("messageId") Long messageId
-    );
+    Page<PrivateMessage> findByConversationKeyOrderByIdDesc(Long conversationKey, Pageable pageable);
     
-    @Query("SELECT COUNT(pm) FROM PrivateMessage pm WHERE pm.conversationId = :conversationId AND pm.id > :lastReadId")
-    Long countUnreadMessages(@Param("conversationId") String conversationId, @Param("lastReadId") Long lastReadId);
+    @Query("SELECT pm FROM PrivateMessage pm WHERE pm.conversationKey = :conversationKey ORDER BY pm.id DESC LIMIT 1")
+    Optional<PrivateMessage> findLatestByConversationKey(@Param("conversationKey") Long conversationKey);
 
-    @Query("SELECT COUNT(pm) FROM PrivateMessage pm WHERE pm.conversationId = :conversationId " +
+    @Query("SELECT COUNT(pm) FROM PrivateMessage pm WHERE pm.conversationKey = :conversationKey " +
            "AND pm.receiverId = :userId AND pm.senderId != :userId " +
            "AND pm.id > :lastReadId")
     Long countUnreadMessagesForUser(
-        @Param("conversationId") String conversationId,
+        @Param("conversationKey") Long conversationKey,
         @Param("userId") Long userId,
         @Param("lastReadId") Long lastReadId
     );
 
-    @Query("SELECT COUNT(pm) FROM PrivateMessage pm WHERE pm.conversationId = :conversationId " +
+    @Query("SELECT COUNT(pm) FROM PrivateMessage pm WHERE pm.conversationKey = :conversationKey " +
            "AND pm.receiverId = :userId AND pm.senderId != :userId")
-    Long countMessagesByConversationIdAndReceiverId(
-        @Param("conversationId") String conversationId,
+    Long countMessagesByConversationKeyAndReceiverId(
+        @Param("conversationKey") Long conversationKey,
         @Param("userId") Long userId
     );
-} 
\ No newline at end of file
+}
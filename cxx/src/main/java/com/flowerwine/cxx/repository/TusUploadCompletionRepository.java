@@ -0,0 +1,23 @@
+package com.flowerwine.cxx.repository;
+
+import com.flowerwine.cxx.entity.TusUploadCompletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TusUploadCompletionRepository extends JpaRepository<TusUploadCompletion, String> {
+    List<TusUploadCompletion> findByStatusIn(Collection<Byte> statuses);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TusUploadCompletion c WHERE c.status = :status AND c.updatedAt < :before")
+    int deleteByStatusAndUpdatedAtBefore(@Param("status") Byte status, @Param("before") LocalDateTime before);
+}
@@ -1,12 +1,20 @@
 package com.flowerwine.cxx.repository;
 
 import com.flowerwine.cxx.entity.UserProfile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
     Optional<UserProfile> findByUserId(Long userId);
     boolean existsByEmail(String email);
+
+    /**
+     * 按主键顺序分批读取设置了头像的用户，用于存储布局迁移
+     */
+    List<UserProfile> findByIdGreaterThanAndAvatarIsNotNullOrderByIdAsc(Long id, Pageable pageable);
 }
\ No newline at end of file
@@ -6,11 +6,20 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserSignRecordRepository extends JpaRepository<UserSignRecord, Long> {
     Optional<UserSignRecord> findByUserIdAndYearAndMonth(Long userId, Integer year, Integer month);
+
+    // 一次查询获取用户在连续年份内的所有月签到记录
+    @Query("SELECT usr FROM UserSignRecord usr WHERE usr.userId = ?1 AND usr.year BETWEEN ?2 AND ?3 ORDER BY usr.year, usr.month")
+    List<UserSignRecord> findByUserIdAndYearBetween(Long userId, Integer startYear, Integer endYear);
+
+    // 只取位图列，供管理端聚合统计使用
+    @Query("SELECT usr.signBitmap FROM UserSignRecord usr WHERE usr.year = ?1 AND usr.month = ?2 AND usr.signBitmap <> 0")
+    List<Long> findSignBitmapsByYearAndMonth(Integer year, Integer month);
     
     @Modifying
     @Query("UPDATE UserSignRecord usr SET usr.signBitmap = ?4 WHERE usr.userId = ?1 AND usr.year = ?2 AND usr.month = ?3")
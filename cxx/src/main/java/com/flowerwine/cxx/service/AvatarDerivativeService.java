@@ -0,0 +1,269 @@
+package com.flowerwine.cxx.service;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import com.flowerwine.cxx.storage.BlobStat;
+import com.flowerwine.cxx.storage.BlobStore;
+import com.flowerwine.cxx.storage.StorageLayout;
+import com.flowerwine.cxx.util.ImageProbe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 头像缩略图服务
+ * 头像上传后在后台生成 32/64/128 等固定尺寸的正方形缩略图（居中裁剪），命名为 原文件名_尺寸.扩展名，
+ * 与原图存放在同一存储目录（按存储布局由原图文件名决定）；列表、消息等场景通过 ?size= 参数取缩略图，不再下载原图
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AvatarDerivativeService {
+
+    /** 上传生成的文件名（UUID + 原扩展名）及缩略图文件名，同时防止路径穿越 */
+    private static final Pattern AVATAR_FILE_NAME = Pattern.compile("[A-Za-z0-9_-]+(\\.[A-Za-z0-9]+)?");
+
+    /** 悬赏、资源、竞标、会话列表中的头像尺寸 */
+    public static final int LIST_SIZE = 64;
+    /** 聊天消息气泡中的头像尺寸 */
+    public static final int MESSAGE_SIZE = 32;
+
+    private final FileUploadProperties uploadProperties;
+    private final ImageProbe imageProbe;
+    private final BlobStore blobStore;
+    private final StorageLayout storageLayout;
+
+    /** 正在生成缩略图的原图文件名，避免同一头像被并发访问时重复生成 */
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 生成失败的原图文件名 -> 失败时间（毫秒），按访问顺序淘汰，数量有上限
+     * 无法解码或尺寸超限的历史头像每次访问缩略图都会回退到原图，记住失败后不再反复提交生成任务
+     */
+    private final Map<String, Long> failures = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                    return size() > uploadProperties.getAvatarDerivatives().getFailureCacheSize();
+                }
+            });
+
+    /**
+     * 头像原图访问地址加上缩略图尺寸参数，非本站上传的头像原样返回
+     */
+    public String derivativeUrl(String avatarUrl, int size) {
+        if (avatarUrl == null || avatarUrl.contains("?") || !avatarUrl.startsWith(avatarUrlPrefix())) {
+            return avatarUrl;
+        }
+        return avatarUrl + "?size=" + size;
+    }
+
+    /**
+     * 按请求尺寸查找已生成的缩略图：取不小于请求尺寸的最小缩略图，
+     * 请求尺寸超过最大缩略图时取最大缩略图；文件名非法或缩略图尚未生成时返回 null
+     */
+    public BlobStat findDerivative(String fileName, int requestedSize) throws IOException {
+        if (!AVATAR_FILE_NAME.matcher(fileName).matches()) {
+            return null;
+        }
+        List<Integer> sizes = sortedSizes();
+        if (sizes.isEmpty()) {
+            return null;
+        }
+        int size = sizes.stream().filter(s -> s >= requestedSize).findFirst().orElse(sizes.get(sizes.size() - 1));
+        return storageLayout.find(derivativeKey(fileName, size));
+    }
+
+    /**
+     * 返回头像原图信息，文件名非法或不存在时返回 null
+     */
+    public BlobStat findOriginal(String fileName) throws IOException {
+        if (!AVATAR_FILE_NAME.matcher(fileName).matches()) {
+            return null;
+        }
+        return storageLayout.find(avatarKey(fileName));
+    }
+
+    /**
+     * 访问缩略图时是否需要提交生成任务：正在生成或最近生成失败的头像不再提交
+     */
+    public boolean shouldGenerate(String fileName) {
+        if (inProgress.contains(fileName)) {
+            return false;
+        }
+        Long failedAt = failures.get(fileName);
+        if (failedAt == null) {
+            return true;
+        }
+        long retryMillis = TimeUnit.MINUTES.toMillis(uploadProperties.getAvatarDerivatives().getFailureRetryMinutes());
+        if (System.currentTimeMillis() - failedAt < retryMillis) {
+            return false;
+        }
+        failures.remove(fileName);
+        return true;
+    }
+
+    /**
+     * 在后台线程生成头像的全部缩略图
+     * 上传后调用；访问缩略图时发现尚未生成（历史头像、队列满被丢弃）也会调用
+     */
+    @Async("avatarDerivativeExecutor")
+    public void generate(String fileName) {
+        if (!AVATAR_FILE_NAME.matcher(fileName).matches() || !inProgress.add(fileName)) {
+            return;
+        }
+        try {
+            if (!generateDerivatives(fileName)) {
+                failures.put(fileName, System.currentTimeMillis());
+            }
+        } catch (Exception e) {
+            failures.put(fileName, System.currentTimeMillis());
+            log.warn("生成头像缩略图失败: {}", fileName, e);
+        } finally {
+            inProgress.remove(fileName);
+        }
+    }
+
+    /**
+     * 生成缩略图，原图无法生成缩略图（不是可识别的图片、尺寸超限、无法解码）时返回 false
+     */
+    private boolean generateDerivatives(String fileName) throws IOException {
+        // 布局迁移期间原图可能仍在旧位置，缩略图总是写到当前布局下
+        BlobStat stat = storageLayout.find(avatarKey(fileName));
+        List<Integer> sizes = sortedSizes();
+        if (stat == null || allDerivativesExist(fileName, sizes)) {
+            return true;
+        }
+        String original = stat.key();
+
+        // 先读文件头，超出头像尺寸限制的历史图片不解码
+        ImageProbe.ImageInfo info;
+        try (InputStream inputStream = blobStore.get(original)) {
+            info = imageProbe.probe(inputStream);
+        }
+        FileUploadProperties.Dimensions dimensions = uploadProperties.getTypes().get("avatar").getDimensions();
+        if (info == null || info.width() > dimensions.getWidth() || info.height() > dimensions.getHeight()) {
+            log.warn("头像不是可识别的图片或尺寸超出限制，跳过生成缩略图: {}", fileName);
+            return false;
+        }
+
+        BufferedImage image;
+        try (InputStream inputStream = blobStore.get(original)) {
+            image = ImageIO.read(inputStream);
+        }
+        if (image == null) {
+            log.warn("头像无法解码，跳过生成缩略图: {}", fileName);
+            return false;
+        }
+        // 扩展名为 jpg/jpeg 的原图输出 JPEG，其余（PNG、GIF）输出 PNG，保留透明通道
+        boolean jpeg = jpegDerivative(fileName);
+        int imageType = jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+
+        // 居中裁剪为正方形，再从大到小逐级缩放，每级以上一级为源
+        int side = Math.min(image.getWidth(), image.getHeight());
+        BufferedImage current = image.getSubimage((image.getWidth() - side) / 2, (image.getHeight() - side) / 2,
+                side, side);
+        for (int i = sizes.size() - 1; i >= 0; i--) {
+            int size = sizes.get(i);
+            current = scale(current, Math.min(size, side), imageType);
+            write(current, jpeg ? "jpg" : "png", derivativeKey(fileName, size));
+        }
+        log.debug("头像缩略图已生成: {}, 尺寸 {}", fileName, sizes);
+        return true;
+    }
+
+    private BufferedImage scale(BufferedImage source, int size, int imageType) {
+        BufferedImage target = new BufferedImage(size, size, imageType);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.drawImage(source, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * 缩略图只有几 KB，在内存中编码后一次写入，存储后端保证不会读到写了一半的缩略图
+     */
+    private void write(BufferedImage image, String format, String key) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        if (!ImageIO.write(image, format, out)) {
+            throw new IOException("不支持的图片输出格式: " + format);
+        }
+        blobStore.put(key, new ByteArrayInputStream(out.toByteArray()), out.size());
+    }
+
+    private boolean allDerivativesExist(String fileName, List<Integer> sizes) throws IOException {
+        for (int size : sizes) {
+            if (storageLayout.find(derivativeKey(fileName, size)) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 本站上传头像的文件名，非本站上传的头像地址返回 null
+     */
+    public String avatarFileName(String avatarUrl) {
+        if (avatarUrl == null || !avatarUrl.startsWith(avatarUrlPrefix())) {
+            return null;
+        }
+        String fileName = avatarUrl.substring(avatarUrlPrefix().length());
+        return AVATAR_FILE_NAME.matcher(fileName).matches() ? fileName : null;
+    }
+
+    /**
+     * 头像全部缩略图的文件名
+     */
+    public List<String> derivativeNames(String fileName) {
+        return sortedSizes().stream().map(size -> derivativeName(fileName, size)).toList();
+    }
+
+    private String derivativeName(String fileName, int size) {
+        return FilenameUtils.getBaseName(fileName) + "_" + size + (jpegDerivative(fileName) ? ".jpg" : ".png");
+    }
+
+    private boolean jpegDerivative(String fileName) {
+        String extension = FilenameUtils.getExtension(fileName).toLowerCase();
+        return "jpg".equals(extension) || "jpeg".equals(extension);
+    }
+
+    private List<Integer> sortedSizes() {
+        return uploadProperties.getAvatarDerivatives().getSizes().stream().sorted().toList();
+    }
+
+    private String avatarKey(String fileName) {
+        return storageLayout.key(uploadProperties.getTypes().get("avatar").getDirectory(), fileName);
+    }
+
+    private String derivativeKey(String fileName, int size) {
+        return storageLayout.siblingKey(avatarKey(fileName), derivativeName(fileName, size));
+    }
+
+    private String avatarUrlPrefix() {
+        return uploadProperties.getUrlPrefix() + "/" + uploadProperties.getTypes().get("avatar").getDirectory() + "/";
+    }
+}
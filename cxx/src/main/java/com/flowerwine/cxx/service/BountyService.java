@@ -34,6 +34,7 @@ public class BountyService {
     private final PointsService pointsService;
     private final FileService fileService;
     private final UserProfileService userProfileService;
+    private final AvatarDerivativeService avatarDerivativeService;
     
     /**
      * 发布文件悬赏
@@ -85,6 +86,7 @@ public class BountyService {
     /**
      * 获取悬赏列表
      */
+    @Transactional(readOnly = true)
     public Page<FileBountyDTO> getBountyList(Pageable pageable, Long currentUserId) {
         Page<FileBounty> bountyPage = fileBountyRepository.findAll(pageable);
         List<FileBountyDTO> dtoList = bountyPage.getContent().stream()
@@ -97,6 +99,7 @@ public class BountyService {
     /**
      * 获取我发布的悬赏列表
      */
+    @Transactional(readOnly = true)
     public Page<FileBountyDTO> getMyBountyList(Long userId, Pageable pageable) {
         Page<FileBounty> bountyPage = fileBountyRepository.findByUserId(userId, pageable);
         List<FileBountyDTO> dtoList = bountyPage.getContent().stream()
@@ -124,7 +127,7 @@ public class BountyService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "只能关闭进行中的悬赏");
         }
         
-        // 统计竞标信息和下载记录
+        // 统计竞标信息和下载记录（竞标文件下载记录同步写入，此处已全部可见）
         List<FileBid> bids = fileBidRepository.findByBountyId(bountyId);
         int bidCount = bids.size();
         List<BountyDownloadRecord> downloadRecords = bountyDownloadRecordRepository.findByBountyIdAndUserId(bountyId, userId);
@@ -235,6 +238,7 @@ public class BountyService {
     /**
      * 获取悬赏的竞标列表
      */
+    @Transactional(readOnly = true)
     public Page<FileBidDTO> getBidList(Long bountyId, Pageable pageable, Long currentUserId) {
         // 检查悬赏是否存在
         FileBounty bounty = fileBountyRepository.findById(bountyId)
@@ -252,6 +256,7 @@ public class BountyService {
     /**
      * 获取我参与的竞标列表
      */
+    @Transactional(readOnly = true)
     public Page<FileBidDTO> getMyBidList(Long userId, Pageable pageable) {
         Page<FileBid> bidPage = fileBidRepository.findByUserId(userId, pageable);
         List<FileBidDTO> dtoList = bidPage.getContent().stream()
@@ -284,7 +289,10 @@ public class BountyService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "您没有权限下载此文件");
         }
         
-        // 记录下载
+        // 获取文件信息（包含权限检查），失败时不记录下载
+        FileInfoDTO fileInfo = fileService.getFileInfo(bid.getFileId(), userId, true);
+        
+        // 记录下载：关闭悬赏时按下载次数计算返还积分，与本次请求在同一事务中同步写入
         BountyDownloadRecord record = new BountyDownloadRecord();
         record.setBountyId(bid.getBountyId());
         record.setUserId(userId);
@@ -292,9 +300,7 @@ public class BountyService {
         bountyDownloadRecordRepository.save(record);
         
         log.info("用户 {} 下载竞标 {} 的文件", userId, bidId);
-        
-        // 获取文件信息（包含权限检查）
-        return fileService.getFileInfo(bid.getFileId(), userId, true);
+        return fileInfo;
     }
     
     /**
@@ -402,7 +408,7 @@ public class BountyService {
         String avatar = null;
         try {
             UserProfileDTO profile = userProfileService.getUserProfile(bounty.getUserId());
-            avatar = profile.getAvatar();
+            avatar = avatarDerivativeService.derivativeUrl(profile.getAvatar(), AvatarDerivativeService.LIST_SIZE);
         } catch (Exception e) {
             log.debug("获取用户头像失败: {}", e.getMessage());
         }
@@ -416,7 +422,8 @@ public class BountyService {
             // 获取胜利者头像
             try {
                 UserProfileDTO winnerProfile = userProfileService.getUserProfile(bounty.getWinnerId());
-                winnerAvatar = winnerProfile.getAvatar();
+                winnerAvatar = avatarDerivativeService.derivativeUrl(winnerProfile.getAvatar(),
+                        AvatarDerivativeService.LIST_SIZE);
             } catch (Exception e) {
                 log.debug("获取胜利者头像失败: {}", e.getMessage());
             }
@@ -458,7 +465,7 @@ public class BountyService {
         String avatar = null;
         try {
             UserProfileDTO profile = userProfileService.getUserProfile(bid.getUserId());
-            avatar = profile.getAvatar();
+            avatar = avatarDerivativeService.derivativeUrl(profile.getAvatar(), AvatarDerivativeService.LIST_SIZE);
         } catch (Exception e) {
             log.debug("获取竞标者头像失败: {}", e.getMessage());
         }
@@ -562,6 +569,7 @@ public class BountyService {
     /**
      * 获取最新的进行中悬赏（用于首页轮播）
      */
+    @Transactional(readOnly = true)
     public List<FileBountyDTO> getLatestBounties(Long currentUserId) {
         Pageable pageable = PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<FileBounty> bountyPage = fileBountyRepository.findByStatus(
@@ -577,6 +585,7 @@ public class BountyService {
     /**
      * 获取热门悬赏（根据浏览量排序）
      */
+    @Transactional(readOnly = true)
     public List<FileBountyDTO> getHotBounties(Long currentUserId) {
         // 获取前3个浏览量最高的进行中悬赏
         Pageable pageable = PageRequest.of(0, 4, Sort.by(Sort.Direction.DESC, "viewCount"));
@@ -593,6 +602,7 @@ public class BountyService {
     /**
      * 搜索悬赏
      */
+    @Transactional(readOnly = true)
     public List<FileBountyDTO> searchBounties(String keyword, Long currentUserId) {
         if (keyword == null || keyword.trim().isEmpty()) {
             return List.of();
@@ -617,6 +627,7 @@ public class BountyService {
     /**
      * 获取排序后的悬赏列表（按时间和浏览量）
      */
+    @Transactional(readOnly = true)
     public Page<FileBountyDTO> getSortedBountyList(Pageable pageable, Long currentUserId) {
         // 创建排序条件：先按创建时间排序，再按浏览量排序
         Sort sort = Sort.by(
@@ -0,0 +1,147 @@
+package com.flowerwine.cxx.service;
+
+import com.flowerwine.cxx.config.AppProperties;
+import com.flowerwine.cxx.dto.CaptchaChallengeDTO;
+import com.flowerwine.cxx.util.CaptchaTokenUtil;
+import com.google.code.kaptcha.impl.DefaultKaptcha;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 验证码服务
+ * 后台线程预先渲染验证码（文本 + JPEG 字节）放入有界池，请求直接从池中取出，不在请求线程渲染图片；
+ * 每个验证码只发放一次。池被取空时请求短暂等待补充，超时返回 503，
+ * 验证码接口的 CPU 消耗因此以渲染线程数为上限，不随请求量增长。
+ * 答案签入令牌（见 CaptchaTokenUtil）随图片返回，注册时凭令牌校验，不使用 HttpSession
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CaptchaService {
+
+    private final DefaultKaptcha defaultKaptcha;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+    private final CaptchaTokenUtil captchaTokenUtil;
+
+    private BlockingQueue<Captcha> pool;
+    private final List<Thread> renderThreads = new ArrayList<>();
+    private volatile boolean running;
+    private Counter exhausted;
+
+    /**
+     * 预渲染的验证码
+     *
+     * @param image JPEG 图片字节
+     */
+    public record Captcha(String text, byte[] image) {
+    }
+
+    @PostConstruct
+    public void start() {
+        AppProperties.Captcha config = appProperties.getCaptcha();
+        pool = new ArrayBlockingQueue<>(config.getPoolSize());
+        meterRegistry.gauge("captcha.pool.size", pool, BlockingQueue::size);
+        exhausted = Counter.builder("captcha.pool.exhausted")
+                .description("验证码池为空、等待补充超时的请求数")
+                .register(meterRegistry);
+        running = true;
+        for (int i = 0; i < config.getRenderThreads(); i++) {
+            Thread thread = new Thread(this::runRenderer, "captcha-renderer-" + i);
+            thread.setDaemon(true);
+            // 渲染是后台补充工作，优先让请求线程执行
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+            renderThreads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        renderThreads.forEach(Thread::interrupt);
+    }
+
+    /**
+     * 发放一个验证码：图片和绑定答案的令牌
+     */
+    public CaptchaChallengeDTO issue() {
+        Captcha captcha = take();
+        return CaptchaChallengeDTO.builder()
+                .token(captchaTokenUtil.issue(captcha.text()))
+                .image("data:image/jpeg;base64," + Base64.getEncoder().encodeToString(captcha.image()))
+                .build();
+    }
+
+    /**
+     * 校验验证码答案，每个令牌只能校验一次
+     */
+    public boolean verify(String token, String answer) {
+        return captchaTokenUtil.verify(token, answer);
+    }
+
+    /**
+     * 取出一个验证码，池为空且等待超时时抛出 503
+     */
+    public Captcha take() {
+        Captcha captcha;
+        try {
+            captcha = pool.poll(appProperties.getCaptcha().getTakeTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            captcha = null;
+        }
+        if (captcha == null) {
+            exhausted.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "验证码生成繁忙，请稍后重试");
+        }
+        return captcha;
+    }
+
+    /**
+     * 渲染一个验证码
+     */
+    public Captcha render() throws IOException {
+        String text = defaultKaptcha.createText();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        ImageIO.write(defaultKaptcha.createImage(text), "jpg", out);
+        return new Captcha(text, out.toByteArray());
+    }
+
+    private void runRenderer() {
+        while (running) {
+            try {
+                // 池满时阻塞，取出一个补充一个
+                pool.put(render());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("渲染验证码失败", e);
+                try {
+                    TimeUnit.SECONDS.sleep(1);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
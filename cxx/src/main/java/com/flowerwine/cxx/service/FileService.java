@@ -1,27 +1,31 @@
 package com.flowerwine.cxx.service;
 
+import com.flowerwine.cxx.audit.DownloadAuditWriter;
 import com.flowerwine.cxx.config.FileUploadProperties;
 import com.flowerwine.cxx.controller.TusUploadController;
 import com.flowerwine.cxx.dto.FileInfoDTO;
 import com.flowerwine.cxx.entity.FileBid;
 import com.flowerwine.cxx.entity.FileBounty;
-import com.flowerwine.cxx.entity.FileDownloadRecord;
 import com.flowerwine.cxx.entity.FileInfo;
 import com.flowerwine.cxx.enums.FileType;
+import com.flowerwine.cxx.metrics.PlatformMetrics;
 import com.flowerwine.cxx.repository.*;
-import com.flowerwine.cxx.security.AuthUser;
+import com.flowerwine.cxx.storage.BlobResource;
+import com.flowerwine.cxx.storage.BlobStat;
+import com.flowerwine.cxx.storage.BlobStore;
+import com.flowerwine.cxx.storage.StorageLayout;
+import com.flowerwine.cxx.task.UploadCleanupTask;
 import com.flowerwine.cxx.util.FileUploadUtil;
 import com.flowerwine.cxx.util.ChunkFileUploadUtil;
-import jakarta.servlet.http.HttpServletResponse;
+import com.flowerwine.cxx.util.ContentTypeDetector;
+import com.flowerwine.cxx.util.ImageProbe;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.desair.tus.server.TusFileUploadService;
 import me.desair.tus.server.exception.TusException;
 import me.desair.tus.server.upload.UploadInfo;
 import org.apache.commons.io.FilenameUtils;
-import com.flowerwine.cxx.entity.UserUploadFile;
-import org.apache.tika.Tika;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.HttpStatus;
@@ -29,24 +33,21 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.http.ResponseEntity;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.HttpHeaders;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.io.File;
 import java.util.UUID;
 
 @Slf4j
@@ -57,13 +58,18 @@ public class FileService {
     private final FileUploadUtil fileUploadUtil;
     private final ChunkFileUploadUtil chunkFileUploadUtil;
     private final FileUploadProperties uploadProperties;
-    private final Tika tika = new Tika();
     private final FileInfoRepository fileInfoRepository;
     private final FileBidRepository fileBidRepository;
     private final FileBountyRepository fileBountyRepository;
-    private final FileDownloadRecordRepository fileDownloadRecordRepository;
+    private final DownloadAuditWriter downloadAuditWriter;
     private final TusFileUploadService tusFileUploadService;
-    private final UserUploadFileRepository userUploadFileRepository;
+    private final PlatformMetrics platformMetrics;
+    private final ImageProbe imageProbe;
+    private final AvatarDerivativeService avatarDerivativeService;
+    private final BlobStore blobStore;
+    private final StorageLayout storageLayout;
+    private final ContentTypeDetector contentTypeDetector;
+    private final UploadCleanupTask uploadCleanupTask;
 
     /**
      * 通用文件上传方法
@@ -82,110 +88,112 @@ public class FileService {
         validateFile(file, config);
 
         if ("avatar".equals(fileType)) {
-            validateImageDimensions(file, config.getDimensions());
+            validateImage(file, config);
         }
 
-        FileInfoDTO fileInfo = fileUploadUtil.uploadFile(file, uploadProperties.getBaseDir() + File.separator + config.getDirectory());
+        FileInfoDTO fileInfo = fileUploadUtil.uploadFile(file, config.getDirectory());
+        platformMetrics.recordUpload(PlatformMetrics.UPLOAD_FORM, file.getSize());
 
-        fileInfo.setFileUrl(String.format("%s/%s/%s", uploadProperties.getUrlPrefix(), config.getDirectory(), fileInfo.getFileName()));
+        if ("avatar".equals(fileType)) {
+            // 头像按文件名访问（见 AvatarController），不暴露存储布局
+            fileInfo.setFileUrl(String.format("%s/%s/%s", uploadProperties.getUrlPrefix(), config.getDirectory(), fileInfo.getFileName()));
+            avatarDerivativeService.generate(fileInfo.getFileName());
+        } else {
+            fileInfo.setFileUrl(getFileUrl(storageLayout.key(config.getDirectory(), fileInfo.getFileName())));
+        }
         // 上传文件
         return fileInfo;
     }
 
-    public ResponseEntity<?> processUploadedFile(String uploadId, HttpServletResponse response, AuthUser authUser) throws IOException, TusException {
-        UploadInfo uploadInfo = tusFileUploadService.getUploadInfo(uploadId);
-        if (uploadInfo == null) {
-            return ResponseEntity.notFound().build();
-        }
-        
-        // 使用现有的处理逻辑 
-        FileInfoDTO fileInfoDTO = processCompletedUpload(uploadInfo, authUser, response);
-
-        userUploadFileRepository.save(UserUploadFile.builder()
-            .fileId(fileInfoDTO.getId())
-            .userId(authUser.getId())
-            .build());
-        
-        return ResponseEntity.ok(fileInfoDTO);
-    }
-
     /**
-     * 处理上传完成的文件
+     * 将已完成的 tus 上传移入存储，返回检测到的 MIME 类型
+     * tus 数据文件与存储目录在同一文件系统时直接改名，不再复制一遍；跨设备或对象存储时流式复制。
+     * 数据文件已不在而存储中已有同样大小的文件时，视为上次处理移动后中断，直接按存储中的文件检测类型。
+     * 记录文件信息和删除 tus 上传由 TusUploadFinalizer 完成
+     *
+     * @param key 存储键，重复处理同一上传时使用同一个
+     * @return MIME 类型，无法获取上传内容时返回 null
      */
-    public FileInfoDTO processCompletedUpload(UploadInfo uploadInfo, AuthUser authUser,
-                                              HttpServletResponse response) throws IOException, TusException {
-
-        // 解析元数据
-        Map<String, String> metadata = uploadInfo.getMetadata();
-        String originalFilename = metadata.getOrDefault("filename", "unknown");
-        long fileSize = uploadInfo.getLength();
-
-        // 获取上传的文件 - uploadInfo.getId().toString() 来传递 uploadUri
+    public String storeCompletedUpload(UploadInfo uploadInfo, String key) throws IOException, TusException {
         String uploadUri = uploadInfo.getId().toString();
-
-        try (InputStream inputStream = tusFileUploadService.getUploadedBytes(uploadUri)) {
-            if (inputStream == null) {
-                log.error("无法获取上传文件的内容: {}", uploadUri);
-                return null;
+        long fileSize = uploadInfo.getLength();
+        String fileName = key.substring(key.lastIndexOf('/') + 1);
+
+        String mimeType;
+        Path dataFile = tusDataFile(uploadInfo);
+        BlobStat stored = dataFile == null ? blobStore.stat(key) : null;
+        if (dataFile != null) {
+            // 只读开头部分检测类型，随后整个数据文件移入存储
+            try (InputStream inputStream = Files.newInputStream(dataFile)) {
+                mimeType = contentTypeDetector.detect(inputStream, fileName);
             }
-
-            // 生成唯一文件名
-            String extension = getFileExtension(originalFilename);
-            String fileName = UUID.randomUUID().toString().replace("-", "") +
-                    (extension.isEmpty() ? "" : "." + extension);
-
-            // 确定存储路径
-            String storagePath = uploadProperties.getBaseDir();
-            Path targetPath = Paths.get(storagePath, fileName);
-
-            // 确保目录存在
-            Files.createDirectories(targetPath.getParent());
-
-            // 保存文件
-            Files.copy(inputStream, targetPath, StandardCopyOption.REPLACE_EXISTING);
-
-            // 检测文件类型
-            String mimeType;
-            try {
-                mimeType = tika.detect(targetPath);
-            } catch (Exception e) {
-                log.warn("无法检测文件类型: {}, 使用默认类型", fileName, e);
-                mimeType = "application/octet-stream";
+            rejectForbiddenUpload(uploadUri, mimeType);
+            blobStore.moveIn(key, dataFile);
+        } else if (stored != null && stored.size() == fileSize) {
+            try (InputStream inputStream = blobStore.get(key)) {
+                mimeType = contentTypeDetector.detect(inputStream, fileName);
             }
-
-            // 保存文件信息到数据库
-            FileInfoDTO fileInfo = saveFileInfo(
-                    authUser.getId(),
-                    originalFilename,
-                    fileName,
-                    fileName,
-                    FileType.fromMimeType(mimeType).getValue(),
-                    fileSize
-            );
-
-            // 在响应头中设置文件ID，供前端获取
-            if (response != null) {
-                response.setHeader("X-File-Id", fileInfo.getId().toString());
+            log.info("上传数据已在存储中，继续处理: {}, {}", uploadUri, key);
+            return mimeType;
+        } else {
+            // 拼接上传（concatenation）没有单独的数据文件，读取 tus 拼接后的流，写入的同时检测类型
+            try (InputStream inputStream = tusFileUploadService.getUploadedBytes(uploadUri)) {
+                if (inputStream == null) {
+                    log.error("无法获取上传文件的内容: {}", uploadUri);
+                    return null;
+                }
+                ContentTypeDetector.SniffingInputStream sniffed = contentTypeDetector.sniff(inputStream, fileName, true);
+                try {
+                    blobStore.put(key, sniffed, fileSize);
+                } catch (IOException | RuntimeException e) {
+                    if (!sniffed.isRejected()) {
+                        throw e;
+                    }
+                }
+                mimeType = sniffed.detectedType();
+                rejectForbiddenUpload(uploadUri, mimeType);
             }
+        }
+        platformMetrics.recordUpload(PlatformMetrics.UPLOAD_TUS, fileSize);
+        log.debug("上传已移入存储: {}, 存储键={}", uploadUri, key);
+        return mimeType;
+    }
 
-            log.debug("文件已保存: 原始名={}, 存储名={}, ID={}, 路径={}",
-                    originalFilename, fileName, fileInfo.getId(), targetPath);
+    /**
+     * tus 磁盘存储中已完成上传的数据文件（存储目录/uploads/上传ID/data），不存在或长度不符时返回 null
+     */
+    private Path tusDataFile(UploadInfo uploadInfo) throws IOException {
+        Path dataFile = Paths.get(uploadProperties.getChunkFolder(), "uploads", uploadInfo.getId().toString(), "data");
+        if (!Files.isRegularFile(dataFile) || Files.size(dataFile) != uploadInfo.getLength()) {
+            return null;
+        }
+        return dataFile;
+    }
 
-            // 清理 tus 临时文件 - 同样使用 uploadUri
+    private void rejectForbiddenUpload(String uploadUri, String mimeType) throws IOException, TusException {
+        if (contentTypeDetector.isForbidden(mimeType)) {
             tusFileUploadService.deleteUpload(uploadUri);
-
-            return fileInfo;  // 返回文件信息
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "检测到危险的文件类型: " + mimeType);
         }
     }
 
     /**
-     * 获取文件扩展名
+     * 存储用的文件名：随机 UUID 加原文件的扩展名
+     */
+    public String newStoredFileName(String originalFilename) {
+        String extension = getFileExtension(originalFilename);
+        return UUID.randomUUID().toString().replace("-", "") + (extension.isEmpty() ? "" : "." + extension);
+    }
+
+    /**
+     * 获取文件扩展名，只保留字母数字扩展名（文件名同时作为存储键）
      */
     private String getFileExtension(String filename) {
         if (filename == null || !filename.contains(".")) {
             return "";
         }
-        return filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
+        String extension = filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
+        return extension.matches("[a-z0-9]{1,16}") ? extension : "";
     }
 
     /**
@@ -226,11 +234,19 @@ public class FileService {
     }
 
     /**
-     * 验证图片尺寸
+     * 验证图片真实格式和尺寸
+     * 只读取文件头，不解码像素
      */
-    private void validateImageDimensions(MultipartFile file, FileUploadProperties.Dimensions dimensions) 
-            throws IOException {
-        BufferedImage image = ImageIO.read(file.getInputStream());
+    private void validateImage(MultipartFile file, FileUploadProperties.FileTypeConfig config) {
+        ImageProbe.ImageInfo image;
+        try (InputStream inputStream = file.getInputStream()) {
+            image = imageProbe.probe(inputStream);
+        } catch (IOException e) {
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST,
+                "无法读取图片文件: " + e.getMessage()
+            );
+        }
         if (image == null) {
             throw new ResponseStatusException(
                 HttpStatus.BAD_REQUEST, 
@@ -238,8 +254,19 @@ public class FileService {
             );
         }
 
-        int width = image.getWidth();
-        int height = image.getHeight();
+        // 声明的 Content-Type 已在 validateFile 中校验，这里按文件内容再校验一次
+        if (config.getAllowedTypes() != null && config.getAllowedTypes().length > 0
+                && !Arrays.asList(config.getAllowedTypes()).contains(image.mimeType())) {
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST,
+                String.format("不支持的图片格式: %s，仅支持: %s",
+                    image.mimeType(),
+                    String.join(", ", config.getAllowedTypes())));
+        }
+
+        FileUploadProperties.Dimensions dimensions = config.getDimensions();
+        int width = image.width();
+        int height = image.height();
 
         // 检查最小尺寸
         if (dimensions.getMinWidth() != null && width < dimensions.getMinWidth()) {
@@ -281,15 +308,7 @@ public class FileService {
                 "头像上传配置不存在"
             );
         }
-        
-        try {
-            validateImageDimensions(file, config.getDimensions());
-        } catch (IOException e) {
-            throw new ResponseStatusException(
-                HttpStatus.BAD_REQUEST,
-                "无法读取图片文件: " + e.getMessage()
-            );
-        }
+
 
         return uploadFile(file, "avatar");
     }
@@ -340,9 +359,8 @@ public class FileService {
 
         // 尝试通过文件名判断MIME类型
         try {
-            String mimeType = tika.detect(filename);
-            if (config.getForbiddenTypes() != null && 
-                Arrays.asList(config.getForbiddenTypes()).contains(mimeType)) {
+            String mimeType = contentTypeDetector.detect(filename);
+            if (contentTypeDetector.isForbidden(mimeType)) {
                 throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
                     "不允许上传此类型的文件: " + mimeType
@@ -371,6 +389,7 @@ public class FileService {
             identifier,
             uploadProperties.getChunkFolder()
         );
+        uploadCleanupTask.recordChunkWrite(identifier);
 
         // 返回上传信息
         return Map.of(
@@ -396,26 +415,32 @@ public class FileService {
             );
         }
 
+        // 第一个分片包含文件头，此时即可拒绝禁止的类型，不必等其余分片上传完
+        if (chunkNumber == 1) {
+            rejectForbiddenChunk(identifier, file);
+        }
+
         chunkFileUploadUtil.uploadChunk(
             uploadProperties.getChunkFolder(),
             identifier,
             chunkNumber,
             file
         );
+        uploadCleanupTask.recordChunkWrite(identifier);
+        platformMetrics.recordChunk(file.getSize());
     }
 
-    /**
-     * 验证合并后的文件
-     */
-    private void validateMergedFile(File file) throws IOException {
-        FileUploadProperties.LargeFileConfig config = uploadProperties.getLargeFile();
-        
-        // 检查实际文件的MIME类型
-        String mimeType = tika.detect(file);
-        if (config.getForbiddenTypes() != null && 
-            Arrays.asList(config.getForbiddenTypes()).contains(mimeType)) {
-            // 删除文件并抛出异常
-            file.delete();
+    private void rejectForbiddenChunk(String identifier, MultipartFile file) {
+        String mimeType;
+        try (InputStream inputStream = file.getInputStream()) {
+            mimeType = contentTypeDetector.detect(inputStream, null);
+        } catch (IOException e) {
+            log.warn("无法检测分片类型: {}", identifier, e);
+            return;
+        }
+        if (contentTypeDetector.isForbidden(mimeType)) {
+            chunkFileUploadUtil.cleanupChunks(uploadProperties.getChunkFolder(), identifier);
+            uploadCleanupTask.forgetChunk(identifier);
             throw new ResponseStatusException(
                 HttpStatus.BAD_REQUEST,
                 "检测到危险的文件类型: " + mimeType
@@ -430,43 +455,32 @@ public class FileService {
             String identifier,
             String filename,
             int totalChunks) throws IOException {
-        Map<String, Object> result = chunkFileUploadUtil.mergeChunks(
+        // 合并后的文件使用生成的文件名存储，原文件名只用于扩展名
+        String fileName = newStoredFileName(filename);
+
+        Timer.Sample mergeSample = Timer.start();
+        Map<String, Object> result = new HashMap<>(chunkFileUploadUtil.mergeChunks(
             uploadProperties.getChunkFolder(),
             identifier,
-            uploadProperties.getBaseDir(),
-            filename,
+            storageLayout.key("", fileName),
             totalChunks
-        );
-
-        // 合并后进行最终的文件类型验证
-        try {
-            validateMergedFile(new File((String) result.get("filePath")));
-        } catch (IOException e) {
-            // 如果验证失败，清理已合并的文件
-            fileUploadUtil.deleteFile((String) result.get("filePath"));
-            throw new ResponseStatusException(
-                HttpStatus.BAD_REQUEST,
-                "文件类型验证失败: " + e.getMessage()
-            );
-        }
+        ));
+        // 合并完成或类型被拒绝时分片目录都已删除
+        uploadCleanupTask.forgetChunk(identifier);
+        result.put("originalFilename", filename);
+        // 文件类型已在合并写入时检测，禁止的类型不会写入存储
+        mergeSample.stop(platformMetrics.getMergeDuration());
 
         return result;
     }
 
-    /**
-     * 定时清理过期的分片目录
-     * 每天凌晨2点执行
-     */
-    @Scheduled(cron = "0 0 2 * * ?")
-    public void cleanupExpiredChunkDirs() {
-        chunkFileUploadUtil.cleanupExpiredChunkDirs();
-    }
-
     /**
      * 删除文件
+     *
+     * @param key 存储键（FileInfo.filePath）
      */
-    public boolean deleteFile(String filePath) {
-        return fileUploadUtil.deleteFile(filePath);
+    public boolean deleteFile(String key) {
+        return fileUploadUtil.deleteFile(key);
     }
 
     /**
@@ -520,7 +534,7 @@ public class FileService {
     }
 
     public String getFileUrl(String filePath) {
-        return "/uploads/" + filePath;
+        return uploadProperties.getUrlPrefix() + "/" + filePath;
     }
 
     /**
@@ -550,9 +564,9 @@ public class FileService {
     }
 
     /**
-     * 获取文件物理路径
+     * 获取文件存储键（相对于存储根目录或对象存储桶）
      */
-    public String getPhysicalPath(Long fileId) {
+    public String getStorageKey(Long fileId) {
         FileInfo fileInfo = fileInfoRepository.findById(fileId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "文件不存在"));
@@ -561,14 +575,10 @@ public class FileService {
     }
 
     /**
-     * 记录文件下载
+     * 记录文件下载，审计记录异步批量写入，不占用下载请求的数据库时间
      */
-    @Transactional
     public void recordDownload(Long fileId, Long userId) {
-        FileDownloadRecord record = new FileDownloadRecord();
-        record.setFileId(fileId);
-        record.setUserId(userId);
-        fileDownloadRecordRepository.save(record);
+        downloadAuditWriter.recordFileDownload(fileId, userId);
     }
 
     /**
@@ -582,23 +592,24 @@ public class FileService {
                     .body("您没有权限下载此文件");
         }
         
-        // 获取物理路径
-        String physicalPath = getPhysicalPath(fileId);
+        // 获取存储键
+        String storageKey = getStorageKey(fileId);
         
         try {
-            Path filePath = Paths.get(physicalPath);
-            if (!Files.exists(filePath)) {
+            // 布局迁移期间记录可能尚未更新，按存储布局在两种位置中查找
+            BlobStat stat = storageLayout.find(storageKey);
+            if (stat == null) {
                 return ResponseEntity.notFound().build();
             }
             
             // 记录下载
             recordDownload(fileId, userId);
             
-            Resource resource = new UrlResource(filePath.toUri());
-            String contentType = Files.probeContentType(filePath);
-            if (contentType == null) {
-                contentType = "application/octet-stream";
-            }
+            // 支持 Range 请求（断点续传），只读取请求的范围
+            Resource resource = new BlobResource(blobStore, stat);
+            String contentType = MediaTypeFactory.getMediaType(storageKey)
+                    .map(MediaType::toString)
+                    .orElse("application/octet-stream");
             
             String contentDisposition = "attachment; filename=\"" + 
                     URLEncoder.encode(fileInfo.getOriginalFilename(), StandardCharsets.UTF_8) + "\"";
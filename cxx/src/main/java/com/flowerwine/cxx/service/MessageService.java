@@ -7,19 +7,22 @@ import com.flowerwine.cxx.dto.SystemMessageDTO;
 import com.flowerwine.cxx.dto.UserProfileDTO;
 import com.flowerwine.cxx.dto.UnreadCountDTO;
 import com.flowerwine.cxx.entity.*;
+import com.flowerwine.cxx.event.PrivateMessageCreatedEvent;
+import com.flowerwine.cxx.event.SystemMessageCreatedEvent;
 import com.flowerwine.cxx.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -29,14 +32,14 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class MessageService {
     
-    private final UserRepository userRepository;
-    private final UserProfileRepository userProfileRepository;
     private final SystemMessageRepository systemMessageRepository;
     private final SystemMessageReadRepository systemMessageReadRepository;
     private final PrivateMessageConversationRepository conversationRepository;
     private final PrivateMessageRepository messageRepository;
     private final PrivateMessageReadRepository messageReadRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserSummaryCache userSummaryCache;
+    private final AvatarDerivativeService avatarDerivativeService;
     
     /**
      * 获取系统消息列表，并更新已读状态
@@ -78,8 +81,13 @@ public class MessageService {
      */
     @Transactional
     public Page<MessageDTO> getConversationMessages(String conversationId, Long userId, int page, int size) {
-        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<PrivateMessage> messages = messageRepository.findByConversationIdOrderByCreatedAtDesc(conversationId, pageRequest);
+        // 将会话标识解析为数值会话键，按分区键路由查询
+        Optional<PrivateMessageConversation> conversation = conversationRepository.findByConversationId(conversationId);
+        if (conversation.isEmpty()) {
+            return Page.empty(PageRequest.of(page, size));
+        }
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Page<PrivateMessage> messages = messageRepository.findByConversationKeyOrderByIdDesc(conversation.get().getId(), pageRequest);
         
         // 如果有消息，更新最后读取记录
         if (messages.hasContent()) {
@@ -88,12 +96,8 @@ public class MessageService {
             // 获取用户在该会话中的已读记录
             Optional<PrivateMessageRead> lastRead = messageReadRepository.findByUserIdAndConversationId(userId, conversationId);
             
-            // 如果是新记录或者当前消息比已读记录更新，才更新记录
-            if (lastRead.isEmpty() || 
-                messageRepository.findById(lastRead.get().getMessageId())
-                    .map(existing -> existing.getCreatedAt().isBefore(latestMessage.getCreatedAt()))
-                    .orElse(true)) {
-                
+            // 如果是新记录或者当前消息比已读记录更新，才更新记录（消息ID随写入单调递增）
+            if (lastRead.isEmpty() || lastRead.get().getMessageId() < latestMessage.getId()) {
                 PrivateMessageRead readStatus = lastRead.orElse(new PrivateMessageRead());
                 readStatus.setUserId(userId);
                 readStatus.setConversationId(conversationId);
@@ -106,24 +110,16 @@ public class MessageService {
     }
     
     /**
-     * 获取用户信息，包括用户资料
+     * 获取用户信息，包括用户资料（走用户摘要缓存）
      */
     private UserProfileDTO getUserInfo(Long userId) {
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            return null;
-        }
-        UserProfile profile = userProfileRepository.findByUserId(userId).orElseThrow(() -> new RuntimeException("用户资料不存在"));
-        return UserProfileDTO.builder()
-                .userId(user.getId())
-                .username(user.getUsername())
-                .avatar(profile.getAvatar())
-                .build();
+        return userSummaryCache.get(userId);
     }
     
     /**
      * 获取用户的会话列表
      */
+    @Transactional(readOnly = true)
     public Page<ConversationDTO> getUserConversations(Long userId, int page, int size) {
         PageRequest pageRequest = PageRequest.of(page, size);
         Page<PrivateMessageConversation> conversations = conversationRepository.findByUser(userId, pageRequest);
@@ -141,7 +137,7 @@ public class MessageService {
             }
             
             // 获取最新消息
-            Optional<PrivateMessage> latestMessageOpt = messageRepository.findLatestByConversationId(conversation.getConversationId());
+            Optional<PrivateMessage> latestMessageOpt = messageRepository.findLatestByConversationKey(conversation.getId());
             MessageDTO lastMessage = latestMessageOpt.map(this::convertToMessageDTO).orElse(null);
             if (latestMessageOpt.isPresent() && lastMessage == null) {
                 // 如果有最新消息但转换失败（用户不存在），跳过这个会话
@@ -153,13 +149,13 @@ public class MessageService {
             Optional<PrivateMessageRead> readStatus = messageReadRepository.findByUserIdAndConversationId(userId, conversation.getConversationId());
             if (readStatus.isPresent()) {
                 unreadCount = messageRepository.countUnreadMessagesForUser(
-                    conversation.getConversationId(), 
+                    conversation.getId(),
                     userId,
                     readStatus.get().getMessageId()
                 );
             } else {
-                unreadCount = messageRepository.countMessagesByConversationIdAndReceiverId(
-                    conversation.getConversationId(), 
+                unreadCount = messageRepository.countMessagesByConversationKeyAndReceiverId(
+                    conversation.getId(),
                     userId
                 );
             }
@@ -168,7 +164,8 @@ public class MessageService {
                     .conversationId(conversation.getConversationId())
                     .partnerId(partnerId)
                     .partnerUsername(partner.getUsername())
-                    .partnerAvatar(partner.getAvatar())
+                    .partnerAvatar(avatarDerivativeService.derivativeUrl(partner.getAvatar(),
+                            AvatarDerivativeService.LIST_SIZE))
                     .lastMessage(lastMessage)
                     .unreadCount(unreadCount)
                     .build();
@@ -181,9 +178,10 @@ public class MessageService {
     
     /**
      * 发送私信
+     * 私信在当前事务中写入，返回前已持久化；提交后交给调度器聚合，批量推送给收发双方
      */
     @Transactional
-    public MessageDTO sendPrivateMessage(Long senderId, Long receiverId, String content) {
+    public void sendPrivateMessage(Long senderId, Long receiverId, String content) {
         // 查找或创建会话
         Optional<PrivateMessageConversation> existingConversation = conversationRepository.findByTwoUsers(senderId, receiverId);
         PrivateMessageConversation conversation;
@@ -194,38 +192,23 @@ public class MessageService {
             conversation.setConversationId(conversationId);
             conversation.setInitiatorId(senderId);
             conversation.setParticipantId(receiverId);
-            conversationRepository.save(conversation);
+            conversation = conversationRepository.save(conversation);
         } else {
             conversation = existingConversation.get();
         }
         
         // 创建私信
         PrivateMessage message = new PrivateMessage();
+        message.setConversationKey(conversation.getId());
         message.setConversationId(conversation.getConversationId());
         message.setSenderId(senderId);
         message.setReceiverId(receiverId);
         message.setContent(content);
+        message.setCreatedAt(LocalDateTime.now());
         message = messageRepository.save(message);
-        
-        // 转换为DTO并发送
-        MessageDTO messageDTO = convertToMessageDTO(message);
-        if (messageDTO != null) {
-            // 发送消息给发送者
-            messagingTemplate.convertAndSendToUser(
-                senderId.toString(),
-                "/message",
-                messageDTO
-            );
 
-            // 发送消息给接收者
-            messagingTemplate.convertAndSendToUser(
-                receiverId.toString(),
-                "/message",
-                messageDTO
-            );
-        }
-        
-        return messageDTO;
+        // 事务提交后再推送，不推送未提交的私信
+        eventPublisher.publishEvent(new PrivateMessageCreatedEvent(message));
     }
     
     /**
@@ -241,9 +224,9 @@ public class MessageService {
     }
     
     /**
-     * 转换私信消息为DTO
+     * 转换私信消息为DTO，发送者或接收者不存在时返回null
      */
-    private MessageDTO convertToMessageDTO(PrivateMessage message) {
+    public MessageDTO convertToMessageDTO(PrivateMessage message) {
         UserProfileDTO sender = getUserInfo(message.getSenderId());
         UserProfileDTO receiver = getUserInfo(message.getReceiverId());
         
@@ -257,10 +240,12 @@ public class MessageService {
                 .conversationId(message.getConversationId())
                 .senderId(message.getSenderId())
                 .senderUsername(sender.getUsername())
-                .senderAvatar(sender.getAvatar())
+                .senderAvatar(avatarDerivativeService.derivativeUrl(sender.getAvatar(),
+                        AvatarDerivativeService.MESSAGE_SIZE))
                 .receiverId(message.getReceiverId())
                 .receiverUsername(receiver.getUsername())
-                .receiverAvatar(receiver.getAvatar())
+                .receiverAvatar(avatarDerivativeService.derivativeUrl(receiver.getAvatar(),
+                        AvatarDerivativeService.MESSAGE_SIZE))
                 .content(message.getContent())
                 .createdAt(message.getCreatedAt())
                 .build();
@@ -269,6 +254,7 @@ public class MessageService {
     /**
      * 获取用户的所有未读消息数量
      */
+    @Transactional(readOnly = true)
     public UnreadCountDTO getUnreadMessageCounts(Long userId) {
         // 1. 获取未读系统消息数量
         Long systemUnreadCount = getUnreadSystemMessageCount(userId);
@@ -311,14 +297,14 @@ public class MessageService {
                     
                     if (readStatus.isEmpty()) {
                         // 如果没有阅读记录，统计该会话中所有发给当前用户的消息
-                        return messageRepository.countMessagesByConversationIdAndReceiverId(
-                            conversation.getConversationId(), 
+                        return messageRepository.countMessagesByConversationKeyAndReceiverId(
+                            conversation.getId(),
                             userId
                         );
                     } else {
                         // 统计大于最后读取ID的消息
                         return messageRepository.countUnreadMessagesForUser(
-                            conversation.getConversationId(),
+                            conversation.getId(),
                             userId,
                             readStatus.get().getMessageId()
                         );
@@ -355,7 +341,7 @@ public class MessageService {
         }
         
         // 4. 获取最新消息
-        Optional<PrivateMessage> latestMessageOpt = messageRepository.findLatestByConversationId(conversation.getConversationId());
+        Optional<PrivateMessage> latestMessageOpt = messageRepository.findLatestByConversationKey(conversation.getId());
         MessageDTO lastMessage = latestMessageOpt.map(this::convertToMessageDTO).orElse(null);
         
         // 5. 获取未读消息数量
@@ -363,13 +349,13 @@ public class MessageService {
         Optional<PrivateMessageRead> readStatus = messageReadRepository.findByUserIdAndConversationId(userId, conversation.getConversationId());
         if (readStatus.isPresent()) {
             unreadCount = messageRepository.countUnreadMessagesForUser(
-                conversation.getConversationId(), 
+                conversation.getId(),
                 userId,
                 readStatus.get().getMessageId()
             );
         } else {
-            unreadCount = messageRepository.countMessagesByConversationIdAndReceiverId(
-                conversation.getConversationId(), 
+            unreadCount = messageRepository.countMessagesByConversationKeyAndReceiverId(
+                conversation.getId(),
                 userId
             );
         }
@@ -379,14 +365,15 @@ public class MessageService {
                 .conversationId(conversation.getConversationId())
                 .partnerId(partnerId)
                 .partnerUsername(partner.getUsername())
-                .partnerAvatar(partner.getAvatar())
+                .partnerAvatar(avatarDerivativeService.derivativeUrl(partner.getAvatar(),
+                        AvatarDerivativeService.LIST_SIZE))
                 .lastMessage(lastMessage)
                 .unreadCount(unreadCount)
                 .build();
     }
 
     /**
-     * 创建系统消息并通过WebSocket发送给所有在线用户
+     * 创建系统消息，事务提交后通过WebSocket异步广播给所有在线用户
      */
     @Transactional
     public SystemMessageDTO createSystemMessage(String title, String content) {
@@ -399,8 +386,8 @@ public class MessageService {
         // 转换为DTO
         SystemMessageDTO messageDTO = convertToSystemMessageDTO(message);
         
-        // 通过WebSocket广播消息
-        messagingTemplate.convertAndSend("/topic/system", messageDTO);
+        // 事务提交后由广播线程池推送，不阻塞当前请求
+        eventPublisher.publishEvent(new SystemMessageCreatedEvent(messageDTO));
         
         return messageDTO;
     }
@@ -408,6 +395,7 @@ public class MessageService {
     /**
      * 获取所有系统消息（管理员使用）
      */
+    @Transactional(readOnly = true)
     public Page<SystemMessageDTO> getAllSystemMessages(PageRequest pageRequest) {
         Page<SystemMessage> messages = systemMessageRepository.findAllByOrderByCreatedAtDesc(pageRequest);
         return messages.map(this::convertToSystemMessageDTO);
@@ -5,6 +5,7 @@ import com.flowerwine.cxx.entity.PointsRecord;
 import com.flowerwine.cxx.entity.UserPoints;
 import com.flowerwine.cxx.entity.User;
 import com.flowerwine.cxx.enums.PointActionEnum;
+import com.flowerwine.cxx.metrics.PlatformMetrics;
 import com.flowerwine.cxx.repository.PointsRecordRepository;
 import com.flowerwine.cxx.repository.UserPointsRepository;
 import com.flowerwine.cxx.repository.UserRepository;
@@ -22,6 +23,7 @@ public class PointsService {
     private final UserPointsRepository userPointsRepository;
     private final PointsRecordRepository pointsRecordRepository;
     private final UserRepository userRepository;
+    private final PlatformMetrics platformMetrics;
 
     /**
      * 获取用户积分信息
@@ -75,11 +77,13 @@ public class PointsService {
             .description(description)
             .build();
         pointsRecordRepository.save(record);
+        platformMetrics.recordPointsTransfer(pointActionId, points);
     }
 
     /**
      * 获取用户积分变动记录
      */
+    @Transactional(readOnly = true)
     public Page<PointsRecord> getPointsRecords(Long userId, Pageable pageable) {
         return pointsRecordRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
     }
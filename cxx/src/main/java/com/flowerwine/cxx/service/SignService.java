@@ -1,6 +1,8 @@
 package com.flowerwine.cxx.service;
 
 import com.flowerwine.cxx.dto.CalendarSignDTO;
+import com.flowerwine.cxx.dto.SignAggregateStatsDTO;
+import com.flowerwine.cxx.dto.SignRangeCalendarDTO;
 import com.flowerwine.cxx.dto.SignResultDTO;
 import com.flowerwine.cxx.dto.SignRewardDTO;
 import com.flowerwine.cxx.entity.PointAction;
@@ -9,10 +11,12 @@ import com.flowerwine.cxx.entity.UserSignCycle;
 import com.flowerwine.cxx.entity.UserSignRecord;
 import com.flowerwine.cxx.enums.PointActionEnum;
 import com.flowerwine.cxx.enums.SignStatusEnum;
+import com.flowerwine.cxx.metrics.PlatformMetrics;
 import com.flowerwine.cxx.repository.PointActionRepository;
 import com.flowerwine.cxx.repository.SignRewardRuleRepository;
 import com.flowerwine.cxx.repository.UserSignCycleRepository;
 import com.flowerwine.cxx.repository.UserSignRecordRepository;
+import com.flowerwine.cxx.util.SignBitmapUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -21,7 +25,9 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,11 +38,18 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class SignService {
+    /** 区间日历最大跨度（天） */
+    private static final int MAX_RANGE_DAYS = 366 * 5;
+    /** 按月查询允许的年份范围 */
+    private static final int MIN_YEAR = 1970;
+    private static final int MAX_YEAR = 9999;
+
     private final UserSignRecordRepository userSignRecordRepository;
     private final UserSignCycleRepository userSignCycleRepository;
     private final SignRewardRuleRepository signRewardRuleRepository;
     private final PointActionRepository pointActionRepository;
     private final PointsService pointsService;
+    private final PlatformMetrics platformMetrics;
 
     /**
      * 用户签到
@@ -68,6 +81,7 @@ public class SignService {
 
         // 5. 处理签到积分奖励
         int totalPoints = processSignReward(userId, signCycle.getCurrentSignDay());
+        platformMetrics.recordSignIn();
 
         // 6. 构建返回结果
         return SignResultDTO.builder()
@@ -177,6 +191,7 @@ public class SignService {
     /**
      * 获取用户某月签到日历
      */
+    @Transactional(readOnly = true)
     public CalendarSignDTO getMonthlySignCalendar(Long userId, Integer year, Integer month) {
         // 如果未指定年月，默认当前年月
         if (year == null || month == null) {
@@ -184,6 +199,7 @@ public class SignService {
             year = today.getYear();
             month = today.getMonthValue();
         }
+        validateYearMonth(year, month);
         
         // 查询数据库中的签到记录
         UserSignRecord record = userSignRecordRepository
@@ -212,9 +228,122 @@ public class SignService {
             .build();
     }
 
+    /**
+     * 获取用户任意日期区间的签到日历及统计
+     * 一次查询取出区间内所有月记录，拼接为连续位图后通过位运算统计
+     */
+    @Transactional(readOnly = true)
+    public SignRangeCalendarDTO getRangeSignCalendar(Long userId, LocalDate startDate, LocalDate endDate) {
+        // 如果未指定区间，默认当前自然年
+        LocalDate today = LocalDate.now();
+        if (startDate == null) {
+            startDate = today.withDayOfYear(1);
+        }
+        if (endDate == null) {
+            endDate = startDate.withDayOfYear(startDate.lengthOfYear());
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "结束日期不能早于开始日期");
+        }
+
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days > MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("查询区间不能超过 %d 天", MAX_RANGE_DAYS));
+        }
+        int dayCount = (int) days;
+
+        // 拼接区间位图
+        YearMonth startMonth = YearMonth.from(startDate);
+        YearMonth endMonth = YearMonth.from(endDate);
+        BitSet rangeBits = new BitSet(dayCount);
+        List<UserSignRecord> records = userSignRecordRepository
+                .findByUserIdAndYearBetween(userId, startDate.getYear(), endDate.getYear());
+        for (UserSignRecord record : records) {
+            YearMonth yearMonth = YearMonth.of(record.getYear(), record.getMonth());
+            if (yearMonth.isBefore(startMonth) || yearMonth.isAfter(endMonth)) {
+                continue;
+            }
+            SignBitmapUtil.mergeMonth(rangeBits, startDate, endDate, yearMonth, record.getSignBitmap());
+        }
+
+        // 当前连续签到截止到区间末尾与今天中较早的一天
+        LocalDate streakEnd = endDate.isAfter(today) ? today : endDate;
+        int lastIndex = (int) ChronoUnit.DAYS.between(startDate, streakEnd);
+
+        return SignRangeCalendarDTO.builder()
+            .userId(userId)
+            .startDate(startDate)
+            .endDate(endDate)
+            .dayCount(dayCount)
+            .signBitmap(SignBitmapUtil.encode(rangeBits))
+            .totalDays(rangeBits.cardinality())
+            .longestStreak(SignBitmapUtil.longestStreak(rangeBits))
+            .currentStreak(SignBitmapUtil.currentStreak(rangeBits, lastIndex))
+            .weekdayCounts(SignBitmapUtil.weekdayHistogram(rangeBits, startDate, dayCount))
+            .build();
+    }
+
+    /**
+     * 管理员查看某月全站签到统计
+     * 只读取位图列，并行扫描累加每日签到人数
+     */
+    @Transactional(readOnly = true)
+    public SignAggregateStatsDTO getMonthlyAggregateStats(Integer year, Integer month) {
+        if (year == null || month == null) {
+            LocalDate today = LocalDate.now();
+            year = today.getYear();
+            month = today.getMonthValue();
+        }
+        validateYearMonth(year, month);
+        YearMonth yearMonth = YearMonth.of(year, month);
+        int daysInMonth = yearMonth.lengthOfMonth();
+
+        List<Long> bitmaps = userSignRecordRepository.findSignBitmapsByYearAndMonth(year, month);
+
+        int[] dailyCounts = bitmaps.parallelStream()
+                .collect(() -> new int[daysInMonth],
+                        (counts, bitmap) -> SignBitmapUtil.accumulateDays(bitmap, counts),
+                        (left, right) -> {
+                            for (int i = 0; i < left.length; i++) {
+                                left[i] += right[i];
+                            }
+                        });
+        long fullMonthUsers = bitmaps.parallelStream()
+                .filter(bitmap -> SignBitmapUtil.isFullMonth(bitmap, yearMonth))
+                .count();
+        long totalSignIns = 0;
+        for (int count : dailyCounts) {
+            totalSignIns += count;
+        }
+
+        return SignAggregateStatsDTO.builder()
+            .year(year)
+            .month(month)
+            .activeUsers((long) bitmaps.size())
+            .totalSignIns(totalSignIns)
+            .fullMonthUsers(fullMonthUsers)
+            .dailyCounts(dailyCounts)
+            .build();
+    }
+
+    /**
+     * 校验查询的年月，超出范围时返回 400 而不是由 YearMonth 抛出 DateTimeException
+     */
+    private void validateYearMonth(int year, int month) {
+        if (month < 1 || month > 12) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "月份必须在 1 到 12 之间");
+        }
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("年份必须在 %d 到 %d 之间", MIN_YEAR, MAX_YEAR));
+        }
+    }
+
     /**
      * 检查今日是否已签到
      */
+    @Transactional(readOnly = true)
     public boolean isTodaySigned(Long userId) {
         LocalDate today = LocalDate.now();
         UserSignRecord record = userSignRecordRepository
@@ -231,6 +360,7 @@ public class SignService {
     /**
      * 获取用户当前签到周期状态
      */
+    @Transactional(readOnly = true)
     public UserSignCycle getCurrentCycleStatus(Long userId) {
         return userSignCycleRepository
                 .findByUserIdAndStatus(userId, 1)
@@ -240,6 +370,7 @@ public class SignService {
     /**
      * 获取签到奖励规则
      */
+    @Transactional(readOnly = true)
     public List<SignRewardDTO> getSignRewards() {
         List<SignRewardDTO> rewards = new ArrayList<>();
         
@@ -0,0 +1,331 @@
+package com.flowerwine.cxx.service;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import com.flowerwine.cxx.dto.FileInfoDTO;
+import com.flowerwine.cxx.entity.TusUploadCompletion;
+import com.flowerwine.cxx.entity.UserUploadFile;
+import com.flowerwine.cxx.enums.FileType;
+import com.flowerwine.cxx.enums.TusUploadStatusEnum;
+import com.flowerwine.cxx.repository.TusUploadCompletionRepository;
+import com.flowerwine.cxx.repository.UserUploadFileRepository;
+import com.flowerwine.cxx.storage.StorageLayout;
+import lombok.extern.slf4j.Slf4j;
+import me.desair.tus.server.TusFileUploadService;
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.upload.UploadInfo;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * tus 上传完成处理
+ * 最后一个 PATCH 写完数据后只提交处理任务，文件移入存储和记录文件信息在后台线程执行，
+ * PATCH 响应不再等待大文件复制。
+ * 每个上传在 tus_upload_completion 中按 已接收 -> 处理中 -> 已完成 记录状态：文件信息、用户上传记录
+ * 和“已完成”在同一事务中写入，同一上传只存储和记录一次；处理中断时按记录的存储文件名继续，
+ * 重启后继续未完成的处理。完成结果在内存中保留一段时间，重复调用 /process 直接返回。
+ * 处理记录和内存中的结果都带有上传用户，其他用户提交或查询同一上传时按上传不存在处理
+ */
+@Slf4j
+@Service
+public class TusUploadFinalizer {
+
+    /** 锁分段数，同一上传 ID 总落在同一分段 */
+    private static final int LOCK_STRIPES = 64;
+
+    private final FileService fileService;
+    private final TusFileUploadService tusFileUploadService;
+    private final TusUploadCompletionRepository completionRepository;
+    private final UserUploadFileRepository userUploadFileRepository;
+    private final StorageLayout storageLayout;
+    private final FileUploadProperties uploadProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+
+    /** 上传 ID -> 处理中或已完成的结果，完成后保留一段时间 */
+    private final Map<String, Finalization> finalizations = new ConcurrentHashMap<>();
+    /** 按上传 ID 分段的锁，保证检查结果和记录“已接收”对同一上传只执行一次 */
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private record Finalization(CompletableFuture<FileInfoDTO> result, Long userId, long submittedAt) {
+    }
+
+    public TusUploadFinalizer(FileService fileService,
+                              TusFileUploadService tusFileUploadService,
+                              TusUploadCompletionRepository completionRepository,
+                              UserUploadFileRepository userUploadFileRepository,
+                              StorageLayout storageLayout,
+                              FileUploadProperties uploadProperties,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("tusFinalizeExecutor") Executor executor) {
+        this.fileService = fileService;
+        this.tusFileUploadService = tusFileUploadService;
+        this.completionRepository = completionRepository;
+        this.userUploadFileRepository = userUploadFileRepository;
+        this.storageLayout = storageLayout;
+        this.uploadProperties = uploadProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 启动时继续上次停止前已接收但未完成的处理
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<TusUploadCompletion> pending = completionRepository.findByStatusIn(List.of(
+                TusUploadStatusEnum.RECEIVED.getValue(), TusUploadStatusEnum.FINALIZING.getValue()));
+        for (TusUploadCompletion completion : pending) {
+            try {
+                UploadInfo uploadInfo = tusFileUploadService.getUploadInfo(completion.getUploadId());
+                if (uploadInfo == null) {
+                    log.warn("上传已不存在，放弃处理: {}", completion.getUploadId());
+                    completionRepository.delete(completion);
+                    continue;
+                }
+                log.info("继续处理未完成的上传: {}", completion.getUploadId());
+                submit(uploadInfo, completion.getUserId());
+            } catch (IOException | TusException e) {
+                log.warn("继续处理上传失败: {}", completion.getUploadId(), e);
+            }
+        }
+    }
+
+    /**
+     * 提交已完成上传的处理，已提交过时返回同一个结果
+     *
+     * @throws ResponseStatusException 上传已由其他用户提交（404）
+     */
+    public CompletableFuture<FileInfoDTO> submit(UploadInfo uploadInfo, Long userId) {
+        String uploadId = uploadInfo.getId().toString();
+        Finalization finalization = finalizations.get(uploadId);
+        if (finalization != null) {
+            checkOwner(finalization.userId(), userId);
+            return finalization.result();
+        }
+        ReentrantLock lock = lockFor(uploadId);
+        lock.lock();
+        try {
+            finalization = finalizations.get(uploadId);
+            if (finalization != null) {
+                checkOwner(finalization.userId(), userId);
+                return finalization.result();
+            }
+            // 先记录已接收，进程在处理完成前退出时，启动后继续处理
+            TusUploadCompletion completion = completionRepository.findById(uploadId).orElse(null);
+            if (completion != null) {
+                checkOwner(completion.getUserId(), userId);
+            } else {
+                completionRepository.save(TusUploadCompletion.builder()
+                        .uploadId(uploadId)
+                        .userId(userId)
+                        .status(TusUploadStatusEnum.RECEIVED.getValue())
+                        .build());
+            }
+            Finalization submitted = new Finalization(
+                    CompletableFuture.supplyAsync(() -> finalizeUpload(uploadInfo, userId), executor),
+                    userId, System.currentTimeMillis());
+            finalizations.put(uploadId, submitted);
+            // 失败时移除，重试时重新处理
+            submitted.result().whenComplete((fileInfo, e) -> {
+                if (e != null) {
+                    finalizations.remove(uploadId, submitted);
+                }
+            });
+            return submitted.result();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 等待上传处理完成并返回文件信息；处理尚未提交时（如 POST 完成的上传）在此提交
+     *
+     * @return 文件信息，上传不存在且没有处理记录时返回 null
+     * @throws ResponseStatusException 上传属于其他用户（404）
+     */
+    public FileInfoDTO await(String uploadId, Long userId) throws IOException, TusException {
+        Finalization finalization = finalizations.get(uploadId);
+        CompletableFuture<FileInfoDTO> result;
+        if (finalization != null) {
+            checkOwner(finalization.userId(), userId);
+            result = finalization.result();
+        } else {
+            // 结果已不在内存中（保留期已过或重启），已完成的按记录返回
+            FileInfoDTO completed = findCompleted(uploadId, userId);
+            if (completed != null) {
+                return completed;
+            }
+            UploadInfo uploadInfo = tusFileUploadService.getUploadInfo(uploadId);
+            if (uploadInfo == null) {
+                return null;
+            }
+            if (uploadInfo.getOffset() == null || !uploadInfo.getOffset().equals(uploadInfo.getLength())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "上传尚未完成");
+            }
+            result = submit(uploadInfo, userId);
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ResponseStatusException responseStatusException) {
+                throw responseStatusException;
+            }
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            if (e.getCause() instanceof TusException tusException) {
+                throw tusException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 清理保留期已过的处理结果
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis()
+                - TimeUnit.MINUTES.toMillis(uploadProperties.getTusFinalize().getResultRetentionMinutes());
+        finalizations.values().removeIf(finalization ->
+                finalization.result().isDone() && finalization.submittedAt() < cutoff);
+    }
+
+    /**
+     * 删除保留期已过的已完成记录
+     */
+    @Scheduled(cron = "0 30 * * * *")
+    public void purgeCompleted() {
+        LocalDateTime before = LocalDateTime.now()
+                .minusDays(uploadProperties.getTusFinalize().getCompletionRetentionDays());
+        int deleted = completionRepository.deleteByStatusAndUpdatedAtBefore(TusUploadStatusEnum.DONE.getValue(), before);
+        if (deleted > 0) {
+            log.info("已删除过期的上传完成记录: {} 条", deleted);
+        }
+    }
+
+    private FileInfoDTO findCompleted(String uploadId, Long userId) {
+        ReentrantLock lock = lockFor(uploadId);
+        lock.lock();
+        try {
+            TusUploadCompletion completion = completionRepository.findById(uploadId).orElse(null);
+            if (completion == null) {
+                return null;
+            }
+            checkOwner(completion.getUserId(), userId);
+            if (TusUploadStatusEnum.fromValue(completion.getStatus()) != TusUploadStatusEnum.DONE) {
+                return null;
+            }
+            FileInfoDTO fileInfo = fileService.getFileInfo(completion.getFileId(), completion.getUserId(), false);
+            finalizations.put(uploadId, new Finalization(CompletableFuture.completedFuture(fileInfo),
+                    completion.getUserId(), System.currentTimeMillis()));
+            return fileInfo;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 已接收 -> 处理中：确定存储文件名；移入存储；处理中 -> 已完成：文件信息、用户上传记录和状态同一事务写入
+     */
+    private FileInfoDTO finalizeUpload(UploadInfo uploadInfo, Long userId) {
+        String uploadId = uploadInfo.getId().toString();
+        try {
+            TusUploadCompletion completion = completionRepository.findById(uploadId).orElseGet(() ->
+                    TusUploadCompletion.builder().uploadId(uploadId).userId(userId).build());
+            if (completion.getStatus() != null
+                    && TusUploadStatusEnum.fromValue(completion.getStatus()) == TusUploadStatusEnum.DONE) {
+                return fileService.getFileInfo(completion.getFileId(), completion.getUserId(), false);
+            }
+            String originalFilename = uploadInfo.getMetadata().getOrDefault("filename", "unknown");
+            if (completion.getFileName() == null) {
+                completion.setFileName(fileService.newStoredFileName(originalFilename));
+            }
+            completion.setStatus(TusUploadStatusEnum.FINALIZING.getValue());
+            TusUploadCompletion finalizing = completionRepository.save(completion);
+
+            String key = storageLayout.key("", finalizing.getFileName());
+            String mimeType;
+            try {
+                mimeType = fileService.storeCompletedUpload(uploadInfo, key);
+            } catch (ResponseStatusException e) {
+                // 禁止的类型，上传已删除
+                completionRepository.delete(finalizing);
+                throw e;
+            }
+            if (mimeType == null) {
+                completionRepository.delete(finalizing);
+                return null;
+            }
+
+            FileInfoDTO fileInfo = transactionTemplate.execute(status -> {
+                FileInfoDTO saved = fileService.saveFileInfo(
+                        finalizing.getUserId(),
+                        originalFilename,
+                        finalizing.getFileName(),
+                        key,
+                        FileType.fromMimeType(mimeType).getValue(),
+                        uploadInfo.getLength());
+                userUploadFileRepository.save(UserUploadFile.builder()
+                        .fileId(saved.getId())
+                        .userId(finalizing.getUserId())
+                        .build());
+                finalizing.setStatus(TusUploadStatusEnum.DONE.getValue());
+                finalizing.setFileId(saved.getId());
+                completionRepository.save(finalizing);
+                return saved;
+            });
+            log.debug("文件已保存: 原始名={}, 存储键={}, ID={}", originalFilename, key, fileInfo.getId());
+
+            // 清理 tus 上传（数据文件已移走，只剩元数据），失败时由过期清理处理
+            try {
+                tusFileUploadService.deleteUpload(uploadId);
+            } catch (IOException | TusException e) {
+                log.warn("删除已完成的 tus 上传失败: {}", uploadId, e);
+            }
+            return fileInfo;
+        } catch (IOException e) {
+            log.error("处理上传完成的文件失败: {}", uploadId, e);
+            throw new UncheckedIOException(e);
+        } catch (TusException e) {
+            log.error("处理上传完成的文件失败: {}", uploadId, e);
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * 其他用户的上传按不存在处理，不暴露上传 ID 是否有效
+     */
+    private static void checkOwner(Long ownerId, Long userId) {
+        if (!Objects.equals(ownerId, userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "上传不存在");
+        }
+    }
+
+    private ReentrantLock lockFor(String uploadId) {
+        return locks[Math.floorMod(uploadId.hashCode(), locks.length)];
+    }
+}
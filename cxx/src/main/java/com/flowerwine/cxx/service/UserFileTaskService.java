@@ -40,6 +40,7 @@ public class UserFileTaskService {
     private final FileService fileService;
     private final UserProfileService userProfileService;
     private final PointsService pointsService;
+    private final AvatarDerivativeService avatarDerivativeService;
 
     /**
      * 创建用户文件任务
@@ -107,6 +108,7 @@ public class UserFileTaskService {
     /**
      * 获取我的文件任务列表
      */
+    @Transactional(readOnly = true)
     public Page<UserFileTaskDTO> getMyUserFileTasks(Long userId, Pageable pageable) {
         Page<UserFileTask> taskPage = userFileTaskRepository.findByUserId(userId, pageable);
         List<UserFileTaskDTO> dtoList = taskPage.getContent().stream()
@@ -119,6 +121,7 @@ public class UserFileTaskService {
     /**
      * 获取公开的文件任务列表（已发布和发布成功的）
      */
+    @Transactional(readOnly = true)
     public Page<UserFileTaskDTO> getPublicUserFileTasks(Pageable pageable, Long currentUserId) {
         // 使用数据库层面的 IN 条件，一次性查询多种状态
         List<Byte> publicStatuses = Arrays.asList(
@@ -138,6 +141,7 @@ public class UserFileTaskService {
     /**
      * 获取免费的文件任务列表
      */
+    @Transactional(readOnly = true)
     public Page<UserFileTaskDTO> getFreeUserFileTasks(Pageable pageable, Long currentUserId) {
         // 获取已发布和发布成功的免费任务
         byte publishedStatus = UserFileTaskStatusEnum.PUBLISHED.getValue();
@@ -155,6 +159,7 @@ public class UserFileTaskService {
     /**
      * 搜索文件任务
      */
+    @Transactional(readOnly = true)
     public Page<UserFileTaskDTO> searchUserFileTasks(String keyword, Pageable pageable, Long currentUserId) {
         List<Byte> statuses = Arrays.asList(
             UserFileTaskStatusEnum.PUBLISHED.getValue(), 
@@ -173,6 +178,7 @@ public class UserFileTaskService {
     /**
      * 获取所有待审核的文件任务
      */
+    @Transactional(readOnly = true)
     public Page<UserFileTaskDTO> getPendingReviewTasks(Pageable pageable, Long currentUserId) {
         byte reviewingStatus = UserFileTaskStatusEnum.REVIEWING.getValue();
         Page<UserFileTask> taskPage = userFileTaskRepository.findByStatus(reviewingStatus, pageable);
@@ -359,7 +365,7 @@ public class UserFileTaskService {
         String avatar = null;
         try {
             var profile = userProfileService.getUserProfile(task.getUserId());
-            avatar = profile.getAvatar();
+            avatar = avatarDerivativeService.derivativeUrl(profile.getAvatar(), AvatarDerivativeService.LIST_SIZE);
         } catch (Exception e) {
             log.debug("获取用户头像失败: {}", e.getMessage());
         }
@@ -419,6 +425,7 @@ public class UserFileTaskService {
     /**
      * 按状态获取任务（管理员专用）
      */
+    @Transactional(readOnly = true)
     public Page<UserFileTaskDTO> getTasksByStatus(Byte status, Pageable pageable, Long adminId) {
         Page<UserFileTask> taskPage = userFileTaskRepository.findByStatus(status, pageable);
         
@@ -432,6 +439,7 @@ public class UserFileTaskService {
     /**
      * 获取所有任务（管理员专用）
      */
+    @Transactional(readOnly = true)
     public Page<UserFileTaskDTO> getAllTasks(Pageable pageable, Long adminId) {
         Page<UserFileTask> taskPage = userFileTaskRepository.findAll(pageable);
         
@@ -445,6 +453,7 @@ public class UserFileTaskService {
     /**
      * 管理员查看任务详情
      */
+    @Transactional(readOnly = true)
     public UserFileTaskDTO getTaskDetailForAdmin(Long taskId, Long adminId) {
         UserFileTask task = userFileTaskRepository.findById(taskId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "文件任务不存在"));
@@ -476,6 +485,7 @@ public class UserFileTaskService {
     /**
      * 通用查询文件任务方法
      */
+    @Transactional(readOnly = true)
     public Page<UserFileTaskDTO> queryUserFileTasks(
             UserUploadFileQueryDTO queryDTO,
             Pageable pageable, 
@@ -541,6 +551,7 @@ public class UserFileTaskService {
     /**
      * 获取最新发布的资源列表
      */
+    @Transactional(readOnly = true)
     public List<UserFileTaskDTO> getLatestResources(int limit, Long currentUserId) {
         // 获取已发布和发布成功的任务
         byte publishedStatus = UserFileTaskStatusEnum.PUBLISHED.getValue();
@@ -559,6 +570,7 @@ public class UserFileTaskService {
     /**
      * 获取热门资源列表（按下载量排序）
      */
+    @Transactional(readOnly = true)
     public List<UserFileTaskDTO> getHotResources(int limit, Long currentUserId) {
         // 获取已发布和发布成功的任务
         byte publishedStatus = UserFileTaskStatusEnum.PUBLISHED.getValue();
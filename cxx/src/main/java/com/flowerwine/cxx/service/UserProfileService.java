@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Optional;
@@ -20,6 +21,7 @@ public class UserProfileService {
 
     private final UserProfileRepository userProfileRepository;
     private final UserRepository userRepository;
+    private final UserSummaryCache userSummaryCache;
 
     /**
      * 将实体转换为 DTO
@@ -92,13 +94,16 @@ public class UserProfileService {
         }
         
         UserProfile savedProfile = userProfileRepository.save(profile);
+        userSummaryCache.evict(profileDTO.getUserId());
 
         return convertToDTO(savedProfile);
     }
     
     /**
      * 获取指定用户的公开资料
+     * 列表转换时在调用方的事务中查询并忽略“资料不存在”，该异常不能把调用方的事务标记为只能回滚
      */
+    @Transactional(readOnly = true, noRollbackFor = ResponseStatusException.class)
     public UserProfileDTO getUserProfile(Long userId) {
         UserProfile profile = userProfileRepository.findByUserId(userId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "用户资料不存在"));
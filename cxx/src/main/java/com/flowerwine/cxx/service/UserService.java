@@ -15,7 +15,6 @@ import com.flowerwine.cxx.repository.PointsRecordRepository;
 import com.flowerwine.cxx.security.AuthUser;
 import com.flowerwine.cxx.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -39,18 +38,17 @@ public class UserService {
     private final PointsRecordRepository pointsRecordRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final CaptchaService captchaService;
 
     private static final int INITIAL_POINTS = 100;
 
-    public ResponseEntity<?> register(CreateUserDTO createUserDTO, HttpSession session) {
-        // 验证验证码
-        String captcha = (String) session.getAttribute("captcha");
-        if (captcha == null || !captcha.equalsIgnoreCase(createUserDTO.getCaptcha())) {
+    public ResponseEntity<?> register(CreateUserDTO createUserDTO) {
+        // 验证验证码（令牌只能使用一次，失败后需重新获取验证码）
+        if (!captchaService.verify(createUserDTO.getCaptchaToken(), createUserDTO.getCaptcha())) {
             Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("message", "验证码不正确");
+            errorResponse.put("message", "验证码不正确或已过期");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
-        session.removeAttribute("captcha");
 
         // 验证用户名是否存在
         if (userRepository.existsByUsername(createUserDTO.getUsername())) {
@@ -141,7 +139,7 @@ public class UserService {
     /**
      * 修改登录方法，使用 UserProfileDTO 返回用户信息
      */
-    public ResponseEntity<?> login(CreateUserDTO userDTO, HttpServletRequest request, HttpSession session) {
+    public ResponseEntity<?> login(CreateUserDTO userDTO, HttpServletRequest request) {
         Optional<User> optionalUser = userRepository.findByUsername(userDTO.getUsername());
         if (optionalUser.isEmpty()) {
             Map<String, Object> errorResponse = new HashMap<>();
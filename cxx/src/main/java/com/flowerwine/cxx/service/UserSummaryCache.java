@@ -0,0 +1,90 @@
+package com.flowerwine.cxx.service;
+
+import com.flowerwine.cxx.dto.UserProfileDTO;
+import com.flowerwine.cxx.entity.UserProfile;
+import com.flowerwine.cxx.repository.UserProfileRepository;
+import com.flowerwine.cxx.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户摘要缓存（用户ID、用户名、头像）
+ * 消息等高频场景只需要这几项信息，缓存后避免每条消息都查询用户和资料表
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSummaryCache {
+
+    /** 缓存有效期（毫秒） */
+    private static final long TTL_MILLIS = 5 * 60 * 1000L;
+    /** 缓存条目上限，超出后整体清空重新加载 */
+    private static final int MAX_ENTRIES = 10000;
+
+    private final UserRepository userRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+
+    private record Entry(UserProfileDTO summary, long expiresAt) {
+    }
+
+    /**
+     * 获取用户摘要，用户不存在时返回null
+     */
+    public UserProfileDTO get(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(userId);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.summary();
+        }
+
+        UserProfileDTO summary = load(userId);
+        if (summary != null) {
+            if (cache.size() >= MAX_ENTRIES) {
+                cache.clear();
+            }
+            cache.put(userId, new Entry(summary, now + TTL_MILLIS));
+        }
+        return summary;
+    }
+
+    /**
+     * 用户资料变更后移除缓存
+     */
+    public void evict(Long userId) {
+        cache.remove(userId);
+    }
+
+    private UserProfileDTO load(Long userId) {
+        // 缓存条目有效期较长，在独立的只读事务中加载：事务名不属于服务层，启用读写分离时也从主库读取，
+        // 避免缓存副本上尚未同步的旧资料
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> loadFromDatabase(userId));
+    }
+
+    private UserProfileDTO loadFromDatabase(Long userId) {
+        // 资料表与用户表一对一关联，一次查询即可取到用户名和头像
+        Optional<UserProfile> profile = userProfileRepository.findByUserId(userId);
+        if (profile.isEmpty()) {
+            if (userRepository.existsById(userId)) {
+                throw new RuntimeException("用户资料不存在");
+            }
+            return null;
+        }
+        return UserProfileDTO.builder()
+                .userId(userId)
+                .username(profile.get().getUser().getUsername())
+                .avatar(profile.get().getAvatar())
+                .build();
+    }
+}
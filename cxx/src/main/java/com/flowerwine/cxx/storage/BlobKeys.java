@@ -0,0 +1,49 @@
+package com.flowerwine.cxx.storage;
+
+/**
+ * 存储键工具
+ * 键由 / 分隔的若干段组成，每段只允许字母、数字、下划线、连字符和点，不允许 . 和 .. 段，防止路径穿越
+ */
+public final class BlobKeys {
+
+    private BlobKeys() {
+    }
+
+    /**
+     * 键是否合法
+     */
+    public static boolean isValid(String key) {
+        if (key == null || key.isEmpty() || key.length() > 512) {
+            return false;
+        }
+        for (String segment : key.split("/", -1)) {
+            if (segment.isEmpty() || ".".equals(segment) || "..".equals(segment)
+                    || !segment.chars().allMatch(BlobKeys::isAllowed)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 校验键，非法时抛出 IllegalArgumentException
+     */
+    public static String validate(String key) {
+        if (!isValid(key)) {
+            throw new IllegalArgumentException("非法的存储键: " + key);
+        }
+        return key;
+    }
+
+    /**
+     * 拼接目录与文件名，目录为空时只返回文件名
+     */
+    public static String join(String directory, String name) {
+        return directory == null || directory.isEmpty() ? name : directory + "/" + name;
+    }
+
+    private static boolean isAllowed(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == '-' || c == '.';
+    }
+}
@@ -0,0 +1,109 @@
+package com.flowerwine.cxx.storage;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+
+/**
+ * 存储对象的 Spring Resource 适配，用于下载和静态资源响应
+ * Range 请求时 Spring 先 skip 到起始位置再读取，这里的输入流在首次读取前累加 skip 的字节数，
+ * 然后按偏移范围读取（见 BlobStore#get(String, long, long)），对象存储上不会下载被跳过的部分。
+ * 读取从偏移处到对象末尾，Spring 复制完区域长度后即关闭输入流，对象存储据此中止剩余部分的传输
+ */
+public class BlobResource extends AbstractResource {
+
+    private final BlobStore blobStore;
+    private final BlobStat stat;
+
+    public BlobResource(BlobStore blobStore, BlobStat stat) {
+        this.blobStore = blobStore;
+        this.stat = stat;
+    }
+
+    public BlobStat getStat() {
+        return stat;
+    }
+
+    @Override
+    public String getDescription() {
+        return "blob [" + stat.key() + "]";
+    }
+
+    @Override
+    public String getFilename() {
+        String key = stat.key();
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return stat.size();
+    }
+
+    @Override
+    public long lastModified() {
+        return stat.lastModified() != null ? stat.lastModified().toEpochMilli() : 0;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new RangeInputStream();
+    }
+
+    /**
+     * 首次读取时才打开的输入流
+     */
+    private class RangeInputStream extends InputStream {
+
+        private long offset;
+        private InputStream delegate;
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (delegate != null) {
+                return delegate.skip(n);
+            }
+            long skipped = Math.max(0, Math.min(n, stat.size() - offset));
+            offset += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return open().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return open().read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (delegate != null) {
+                delegate.close();
+            }
+        }
+
+        private InputStream open() throws IOException {
+            if (delegate == null) {
+                try {
+                    delegate = offset == 0
+                            ? blobStore.get(stat.key())
+                            : blobStore.get(stat.key(), offset, stat.size() - offset);
+                } catch (NoSuchFileException e) {
+                    throw new FileNotFoundException(getDescription() + " 不存在");
+                }
+            }
+            return delegate;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.flowerwine.cxx.storage;
+
+import java.time.Instant;
+
+/**
+ * 存储对象的元信息
+ *
+ * @param size 字节数
+ */
+public record BlobStat(String key, long size, Instant lastModified) {
+}
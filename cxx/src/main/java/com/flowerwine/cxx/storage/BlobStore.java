@@ -0,0 +1,65 @@
+package com.flowerwine.cxx.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 上传文件存储后端
+ * 键为以 / 分隔的相对路径（见 BlobKeys），所有读写都以流方式进行，不把整个文件读入内存；
+ * 写入是原子的，读者要么读到旧内容，要么读到完整的新内容
+ */
+public interface BlobStore {
+
+    /**
+     * 写入对象，已存在时覆盖
+     *
+     * @param length 内容字节数，实际读到的字节数不符时写入失败
+     */
+    void put(String key, InputStream content, long length) throws IOException;
+
+    /**
+     * 把本地文件写入为对象，源文件保留
+     */
+    void put(String key, Path source) throws IOException;
+
+    /**
+     * 读取对象，不存在时抛出 NoSuchFileException
+     */
+    InputStream get(String key) throws IOException;
+
+    /**
+     * 读取对象从 offset 开始的 length 个字节，供 Range 请求使用
+     */
+    InputStream get(String key, long offset, long length) throws IOException;
+
+    /**
+     * 对象元信息，不存在时返回 null
+     */
+    BlobStat stat(String key) throws IOException;
+
+    /**
+     * 删除对象，不存在时不报错
+     *
+     * @return 对象是否被删除；无法区分时（S3）返回 true
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * 把本地文件移入存储，完成后源文件不再存在；调用方不再使用源文件时代替 put(key, Path) 使用，
+     * 本地存储在同一文件系统内只需改名
+     */
+    void moveIn(String key, Path source) throws IOException;
+
+    /**
+     * 把对象移动到新键，目标已存在时覆盖；源对象不存在时抛出 NoSuchFileException
+     */
+    void move(String sourceKey, String targetKey) throws IOException;
+
+    /**
+     * 对象是否存在
+     */
+    default boolean exists(String key) throws IOException {
+        return stat(key) != null;
+    }
+}
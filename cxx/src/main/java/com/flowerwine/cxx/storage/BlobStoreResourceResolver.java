@@ -0,0 +1,49 @@
+package com.flowerwine.cxx.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * /uploads/** 静态资源解析：请求路径即存储键，从 BlobStore 读取，不依赖本地目录；
+ * 布局迁移期间旧地址按 StorageLayout 在另一种布局下查找
+ */
+@Slf4j
+public class BlobStoreResourceResolver implements ResourceResolver {
+
+    private final BlobStore blobStore;
+    private final StorageLayout storageLayout;
+
+    public BlobStoreResourceResolver(BlobStore blobStore, StorageLayout storageLayout) {
+        this.blobStore = blobStore;
+        this.storageLayout = storageLayout;
+    }
+
+    @Override
+    @Nullable
+    public Resource resolveResource(@Nullable HttpServletRequest request, String requestPath,
+                                    List<? extends Resource> locations, ResourceResolverChain chain) {
+        if (!BlobKeys.isValid(requestPath)) {
+            return null;
+        }
+        try {
+            BlobStat stat = storageLayout.find(requestPath);
+            return stat != null ? new BlobResource(blobStore, stat) : null;
+        } catch (IOException e) {
+            log.warn("读取存储对象信息失败: {}", requestPath, e);
+            return null;
+        }
+    }
+
+    @Override
+    @Nullable
+    public String resolveUrlPath(String resourcePath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        return BlobKeys.isValid(resourcePath) ? resourcePath : null;
+    }
+}
@@ -0,0 +1,270 @@
+package com.flowerwine.cxx.storage;
+
+import com.sun.nio.file.ExtendedOpenOption;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.BoundedInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本地磁盘存储，键即根目录下的相对路径
+ * 写入先写同目录下的临时文件，按刷盘策略 fsync 后原子改名；已创建过的目录记录在内存中，
+ * 每次写入不再重复检查和创建目录。可选对大文件使用直接 I/O，避免一次性写入的大文件挤占页缓存
+ */
+@Slf4j
+public class LocalDiskBlobStore implements BlobStore {
+
+    private static final String TEMP_PREFIX = ".blob_";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path root;
+    private final StorageProperties.Local config;
+    private final boolean directIo;
+
+    /** 已确认存在的目录 */
+    private final Set<Path> knownDirectories = ConcurrentHashMap.newKeySet();
+
+    public LocalDiskBlobStore(Path root, StorageProperties.Local config) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.config = config;
+        Files.createDirectories(this.root);
+        knownDirectories.add(this.root);
+        this.directIo = config.isDirectIo() && probeDirectIo();
+    }
+
+    /**
+     * 键对应的本地文件路径
+     */
+    public Path resolve(String key) {
+        return root.resolve(BlobKeys.validate(key));
+    }
+
+    @Override
+    public void put(String key, InputStream content, long length) throws IOException {
+        Path target = resolve(key);
+        Path tempFile = createTempFile(target.getParent());
+        try {
+            long written = directIo && length >= config.getDirectIoThreshold()
+                    ? writeDirect(content, tempFile)
+                    : writeBuffered(content, tempFile);
+            if (written != length) {
+                throw new IOException(String.format("写入长度不符: %s, 预期 %d, 实际 %d", key, length, written));
+            }
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (config.getFsync() == StorageProperties.FsyncPolicy.FILE_AND_DIRECTORY) {
+                forceDirectory(target.getParent());
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(source)) {
+            put(key, inputStream, Files.size(source));
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public InputStream get(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+            return new BoundedInputStream(Channels.newInputStream(channel), length);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public BlobStat stat(String key) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            return attributes.isRegularFile()
+                    ? new BlobStat(key, attributes.size(), attributes.lastModifiedTime().toInstant())
+                    : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    /**
+     * 源文件与根目录在同一文件系统时原子改名，不复制数据；跨文件系统时改名失败（EXDEV），
+     * 退化为写临时文件再改名的流式复制，之后删除源文件
+     */
+    @Override
+    public void moveIn(String key, Path source) throws IOException {
+        Path target = resolve(key);
+        ensureDirectory(target.getParent());
+        try {
+            if (config.getFsync() != StorageProperties.FsyncPolicy.NONE) {
+                try (FileChannel channel = FileChannel.open(source, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+            }
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            log.debug("源文件与存储目录不在同一文件系统，改为复制: {}", source);
+            put(key, source);
+            Files.delete(source);
+            return;
+        }
+        if (config.getFsync() == StorageProperties.FsyncPolicy.FILE_AND_DIRECTORY) {
+            forceDirectory(target.getParent());
+        }
+    }
+
+    /**
+     * 同一文件系统内原子改名，不复制数据
+     */
+    @Override
+    public void move(String sourceKey, String targetKey) throws IOException {
+        Path source = resolve(sourceKey);
+        Path target = resolve(targetKey);
+        ensureDirectory(target.getParent());
+        Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (config.getFsync() == StorageProperties.FsyncPolicy.FILE_AND_DIRECTORY) {
+            forceDirectory(target.getParent());
+            forceDirectory(source.getParent());
+        }
+    }
+
+    private long writeBuffered(InputStream content, Path tempFile) throws IOException {
+        long written = 0;
+        byte[] buffer = new byte[config.getBufferSize()];
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
+                written += read;
+            }
+            if (config.getFsync() != StorageProperties.FsyncPolicy.NONE) {
+                channel.force(true);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 直接 I/O 写入：缓冲区按文件系统块大小对齐，整块部分以 O_DIRECT 写入，
+     * 不足一块的尾部关闭直接 I/O 后追加
+     */
+    private long writeDirect(InputStream content, Path tempFile) throws IOException {
+        int blockSize = (int) Files.getFileStore(tempFile).getBlockSize();
+        int chunkSize = Math.max(blockSize, config.getBufferSize() / blockSize * blockSize);
+        ByteBuffer aligned = ByteBuffer.allocateDirect(chunkSize + blockSize).alignedSlice(blockSize);
+        byte[] buffer = new byte[chunkSize];
+
+        long written = 0;
+        int tail;
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, ExtendedOpenOption.DIRECT)) {
+            while (true) {
+                int read = content.readNBytes(buffer, 0, chunkSize);
+                if (read < chunkSize) {
+                    tail = read;
+                    break;
+                }
+                aligned.clear();
+                aligned.put(buffer, 0, read).flip();
+                while (aligned.hasRemaining()) {
+                    channel.write(aligned);
+                }
+                written += read;
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, tail);
+            long position = written;
+            while (byteBuffer.hasRemaining()) {
+                position += channel.write(byteBuffer, position);
+            }
+            // 直接 I/O 不经过页缓存，但文件大小等元数据仍需刷盘
+            if (config.getFsync() != StorageProperties.FsyncPolicy.NONE) {
+                channel.force(true);
+            }
+        }
+        return written + tail;
+    }
+
+    private Path createTempFile(Path directory) throws IOException {
+        ensureDirectory(directory);
+        try {
+            return Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+        } catch (NoSuchFileException e) {
+            // 目录在记录后被外部删除
+            knownDirectories.remove(directory);
+            ensureDirectory(directory);
+            return Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+        }
+    }
+
+    private void ensureDirectory(Path directory) throws IOException {
+        if (knownDirectories.contains(directory)) {
+            return;
+        }
+        Files.createDirectories(directory);
+        if (config.getFsync() == StorageProperties.FsyncPolicy.FILE_AND_DIRECTORY) {
+            forceDirectory(directory.getParent());
+        }
+        knownDirectories.add(directory);
+    }
+
+    private void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * 检查根目录所在文件系统是否支持 O_DIRECT（tmpfs 等不支持）
+     */
+    private boolean probeDirectIo() {
+        Path probe = null;
+        try {
+            probe = Files.createTempFile(root, TEMP_PREFIX, TEMP_SUFFIX);
+            try (FileChannel ignored = FileChannel.open(probe, StandardOpenOption.WRITE, ExtendedOpenOption.DIRECT)) {
+                return true;
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("存储目录不支持直接 I/O，已关闭: {}, {}", root, e.getMessage());
+            return false;
+        } finally {
+            if (probe != null) {
+                try {
+                    Files.deleteIfExists(probe);
+                } catch (IOException e) {
+                    log.debug("删除直接 I/O 探测文件失败: {}", probe, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.flowerwine.cxx.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * S3 兼容对象存储（AWS S3、MinIO 等）
+ * 小文件单次 PUT 流式上传；超过分段阈值的文件分段上传，每次只在内存中保留一个分段，
+ * 失败时中止分段上传，不留下残余分段。范围读取使用 Range 请求，只传输需要的字节。
+ * 读取对象返回的输入流未读完就关闭时（Range 响应只复制区域长度、客户端断开）中止连接，
+ * 不再读完对象剩余部分以复用连接
+ */
+@Slf4j
+public class S3BlobStore implements BlobStore {
+
+    /** 单次 CopyObject 的大小上限 */
+    private static final long MAX_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+    /** 分段复制的分段大小 */
+    private static final long COPY_PART_SIZE = 512L * 1024 * 1024;
+
+    private final S3Client client;
+    private final StorageProperties.S3 config;
+
+    public S3BlobStore(S3Client client, StorageProperties.S3 config) {
+        this.client = client;
+        this.config = config;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long length) throws IOException {
+        String objectKey = objectKey(key);
+        if (length <= config.getMultipartThreshold()) {
+            try {
+                client.putObject(request -> request.bucket(config.getBucket()).key(objectKey).contentLength(length),
+                        RequestBody.fromInputStream(content, length));
+            } catch (S3Exception e) {
+                throw new IOException("写入对象失败: " + objectKey, e);
+            }
+            return;
+        }
+        putMultipart(objectKey, content, length);
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        long length = Files.size(source);
+        if (length <= config.getMultipartThreshold()) {
+            String objectKey = objectKey(key);
+            try {
+                client.putObject(request -> request.bucket(config.getBucket()).key(objectKey).contentLength(length),
+                        RequestBody.fromFile(source));
+            } catch (S3Exception e) {
+                throw new IOException("写入对象失败: " + objectKey, e);
+            }
+            return;
+        }
+        try (InputStream inputStream = Files.newInputStream(source)) {
+            put(key, inputStream, length);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        String objectKey = objectKey(key);
+        try {
+            return new ObjectInputStream(client.getObject(request -> request.bucket(config.getBucket()).key(objectKey)));
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (S3Exception e) {
+            throw new IOException("读取对象失败: " + objectKey, e);
+        }
+    }
+
+    @Override
+    public InputStream get(String key, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        String objectKey = objectKey(key);
+        String range = "bytes=" + offset + "-" + (offset + length - 1);
+        try {
+            return new ObjectInputStream(
+                    client.getObject(request -> request.bucket(config.getBucket()).key(objectKey).range(range)));
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (S3Exception e) {
+            throw new IOException("读取对象失败: " + objectKey + " " + range, e);
+        }
+    }
+
+    @Override
+    public BlobStat stat(String key) throws IOException {
+        String objectKey = objectKey(key);
+        try {
+            HeadObjectResponse response = client.headObject(request -> request.bucket(config.getBucket()).key(objectKey));
+            return new BlobStat(key, response.contentLength(), response.lastModified());
+        } catch (NoSuchKeyException e) {
+            return null;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return null;
+            }
+            throw new IOException("读取对象信息失败: " + objectKey, e);
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        String objectKey = objectKey(key);
+        try {
+            client.deleteObject(request -> request.bucket(config.getBucket()).key(objectKey));
+            return true;
+        } catch (S3Exception e) {
+            throw new IOException("删除对象失败: " + objectKey, e);
+        }
+    }
+
+    /**
+     * 上传后删除本地文件
+     */
+    @Override
+    public void moveIn(String key, Path source) throws IOException {
+        put(key, source);
+        Files.delete(source);
+    }
+
+    /**
+     * 服务端复制后删除源对象；超过单次复制上限（5GB）时分段复制，数据不经过本机
+     */
+    @Override
+    public void move(String sourceKey, String targetKey) throws IOException {
+        BlobStat source = stat(sourceKey);
+        if (source == null) {
+            throw new NoSuchFileException(sourceKey);
+        }
+        String sourceObject = objectKey(sourceKey);
+        String targetObject = objectKey(targetKey);
+        try {
+            if (source.size() <= MAX_COPY_SIZE) {
+                client.copyObject(request -> request
+                        .sourceBucket(config.getBucket()).sourceKey(sourceObject)
+                        .destinationBucket(config.getBucket()).destinationKey(targetObject));
+            } else {
+                copyMultipart(sourceObject, targetObject, source.size());
+            }
+            client.deleteObject(request -> request.bucket(config.getBucket()).key(sourceObject));
+        } catch (S3Exception e) {
+            throw new IOException("移动对象失败: " + sourceObject + " -> " + targetObject, e);
+        }
+    }
+
+    private void copyMultipart(String sourceObject, String targetObject, long size) throws IOException {
+        String uploadId = client.createMultipartUpload(request -> request.bucket(config.getBucket()).key(targetObject))
+                .uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += COPY_PART_SIZE, partNumber++) {
+                int currentPart = partNumber;
+                String range = "bytes=" + offset + "-" + (Math.min(offset + COPY_PART_SIZE, size) - 1);
+                String eTag = client.uploadPartCopy(request -> request
+                                .sourceBucket(config.getBucket()).sourceKey(sourceObject)
+                                .destinationBucket(config.getBucket()).destinationKey(targetObject)
+                                .uploadId(uploadId).partNumber(currentPart).copySourceRange(range))
+                        .copyPartResult().eTag();
+                parts.add(CompletedPart.builder().partNumber(currentPart).eTag(eTag).build());
+            }
+            client.completeMultipartUpload(request -> request.bucket(config.getBucket()).key(targetObject)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build()));
+        } catch (RuntimeException e) {
+            abortMultipart(targetObject, uploadId);
+            throw e;
+        }
+    }
+
+    private void putMultipart(String objectKey, InputStream content, long length) throws IOException {
+        String uploadId;
+        try {
+            uploadId = client.createMultipartUpload(request -> request.bucket(config.getBucket()).key(objectKey))
+                    .uploadId();
+        } catch (S3Exception e) {
+            throw new IOException("创建分段上传失败: " + objectKey, e);
+        }
+
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            byte[] buffer = new byte[config.getPartSize()];
+            long remaining = length;
+            int partNumber = 1;
+            while (remaining > 0) {
+                int size = (int) Math.min(buffer.length, remaining);
+                int read = content.readNBytes(buffer, 0, size);
+                if (read < size) {
+                    throw new IOException(String.format("写入长度不符: %s, 预期 %d, 实际 %d",
+                            objectKey, length, length - remaining + read));
+                }
+                int currentPart = partNumber;
+                String eTag = client.uploadPart(request -> request.bucket(config.getBucket()).key(objectKey)
+                                .uploadId(uploadId).partNumber(currentPart).contentLength((long) read),
+                        RequestBody.fromByteBuffer(ByteBuffer.wrap(buffer, 0, read)))
+                        .eTag();
+                parts.add(CompletedPart.builder().partNumber(currentPart).eTag(eTag).build());
+                remaining -= read;
+                partNumber++;
+            }
+            client.completeMultipartUpload(request -> request.bucket(config.getBucket()).key(objectKey)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build()));
+        } catch (IOException | RuntimeException e) {
+            abortMultipart(objectKey, uploadId);
+            if (e instanceof S3Exception) {
+                throw new IOException("分段上传失败: " + objectKey, e);
+            }
+            throw e;
+        }
+    }
+
+    private void abortMultipart(String objectKey, String uploadId) {
+        try {
+            client.abortMultipartUpload(request -> request.bucket(config.getBucket()).key(objectKey).uploadId(uploadId));
+        } catch (RuntimeException e) {
+            log.warn("中止分段上传失败: {}, uploadId={}", objectKey, uploadId, e);
+        }
+    }
+
+    private String objectKey(String key) {
+        return config.getKeyPrefix() + BlobKeys.validate(key);
+    }
+
+    /**
+     * 记录已读取的字节数，未读完响应体就关闭时中止请求
+     * HTTP 客户端关闭未读完的响应时会先读完剩余内容以复用连接，大文件上只读取开头一段时代价很高
+     */
+    private static class ObjectInputStream extends FilterInputStream {
+
+        private final ResponseInputStream<GetObjectResponse> response;
+        /** 响应体剩余字节数，长度未知时为 -1 */
+        private long remaining;
+        private boolean eof;
+
+        ObjectInputStream(ResponseInputStream<GetObjectResponse> response) {
+            super(response);
+            this.response = response;
+            Long contentLength = response.response().contentLength();
+            this.remaining = contentLength != null ? contentLength : -1;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            consumed(b < 0 ? -1 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            consumed(read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (remaining > 0) {
+                remaining = Math.max(0, remaining - skipped);
+            }
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!eof && remaining != 0) {
+                response.abort();
+            }
+            super.close();
+        }
+
+        private void consumed(long count) {
+            if (count < 0) {
+                eof = true;
+            } else if (remaining > 0) {
+                remaining = Math.max(0, remaining - count);
+            }
+        }
+    }
+}
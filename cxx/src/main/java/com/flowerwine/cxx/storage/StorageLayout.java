@@ -0,0 +1,107 @@
+package com.flowerwine.cxx.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 存储目录布局
+ * 百万级文件放在同一目录下时，查找、备份和清理在 ext4/xfs 上都很慢。HASHED 布局把文件放到
+ * 目录/xx/yy/文件名 下，xx/yy 取文件名 MD5 的前两个字节，共 65536 个子目录；
+ * 子目录只由文件名决定，按文件名访问的场景（头像）不需要额外记录路径。
+ * 迁移完成前旧文件仍在平铺位置，读取时用 find 在两种位置中查找
+ */
+@Component
+@RequiredArgsConstructor
+public class StorageLayout {
+
+    private final StorageProperties storageProperties;
+    private final BlobStore blobStore;
+
+    /**
+     * 新文件的存储键
+     *
+     * @param directory 目录，为空时放在根目录
+     */
+    public String key(String directory, String fileName) {
+        return storageProperties.getLayout() == StorageProperties.Layout.HASHED
+                ? hashed(directory, fileName)
+                : BlobKeys.join(directory, fileName);
+    }
+
+    /**
+     * 同一目录下另一个文件的存储键（如头像缩略图与原图）
+     */
+    public String siblingKey(String key, String fileName) {
+        int slash = key.lastIndexOf('/');
+        return slash < 0 ? fileName : key.substring(0, slash + 1) + fileName;
+    }
+
+    /**
+     * 已有文件在当前布局下应处的存储键，已符合当前布局时原样返回
+     */
+    public String targetKey(String key) {
+        String flat = flatKey(key);
+        int slash = flat.lastIndexOf('/');
+        return key(slash < 0 ? "" : flat.substring(0, slash), flat.substring(slash + 1));
+    }
+
+    /**
+     * 查找文件：先查给定的键，不存在时再查另一种布局下的位置，都不存在时返回 null
+     */
+    public BlobStat find(String key) throws IOException {
+        BlobStat stat = blobStore.stat(key);
+        if (stat != null) {
+            return stat;
+        }
+        return blobStore.stat(alternateKey(key));
+    }
+
+    /**
+     * 同一文件在另一种布局下的存储键
+     */
+    public String alternateKey(String key) {
+        return isHashed(key) ? flatKey(key) : hashedKey(key);
+    }
+
+    /**
+     * 存储键是否为 HASHED 布局
+     */
+    public boolean isHashed(String key) {
+        String[] segments = key.split("/");
+        int n = segments.length;
+        if (n < 3) {
+            return false;
+        }
+        String hash = fanOut(segments[n - 1]);
+        return segments[n - 3].equals(hash.substring(0, 2)) && segments[n - 2].equals(hash.substring(2, 4));
+    }
+
+    private String flatKey(String key) {
+        if (!isHashed(key)) {
+            return key;
+        }
+        String[] segments = key.split("/");
+        int n = segments.length;
+        String directory = String.join("/", Arrays.copyOf(segments, n - 3));
+        return BlobKeys.join(directory, segments[n - 1]);
+    }
+
+    private String hashedKey(String key) {
+        int slash = key.lastIndexOf('/');
+        return hashed(slash < 0 ? "" : key.substring(0, slash), key.substring(slash + 1));
+    }
+
+    private String hashed(String directory, String fileName) {
+        String hash = fanOut(fileName);
+        return BlobKeys.join(directory, hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + fileName);
+    }
+
+    private String fanOut(String fileName) {
+        return DigestUtils.md5DigestAsHex(fileName.getBytes(StandardCharsets.UTF_8));
+    }
+}
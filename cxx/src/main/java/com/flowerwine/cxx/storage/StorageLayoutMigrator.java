@@ -0,0 +1,357 @@
+package com.flowerwine.cxx.storage;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import com.flowerwine.cxx.dto.StorageMigrationStatusDTO;
+import com.flowerwine.cxx.entity.FileInfo;
+import com.flowerwine.cxx.entity.UserProfile;
+import com.flowerwine.cxx.repository.FileInfoRepository;
+import com.flowerwine.cxx.repository.UserProfileRepository;
+import com.flowerwine.cxx.service.AvatarDerivativeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 存储布局迁移：把已有文件移动到当前布局（StorageProperties.layout）下
+ * 在线运行：迁移期间新文件直接按新布局写入，读取经 StorageLayout.find 在两种位置中查找，
+ * 文件先移动、再更新 FileInfo.filePath，任一步中断都不影响访问。
+ * 按主键顺序分批读取记录，每批内多线程并行移动，整批完成后把进度写入进度文件，重启后从该位置继续；
+ * 进度只推进到本轮第一个失败记录之前，之后的批次照常处理，下次启动时从失败处重新扫描，失败的文件得到重试。
+ * 已移动的文件再次处理时只更新记录，重复执行是安全的
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageLayoutMigrator {
+
+    private static final String FILES_PHASE = "files";
+    private static final String AVATARS_PHASE = "avatars";
+    private static final String LAST_FILE_ID = "lastFileId";
+    private static final String LAST_PROFILE_ID = "lastProfileId";
+
+    private final StorageProperties storageProperties;
+    private final StorageLayout storageLayout;
+    private final BlobStore blobStore;
+    private final FileInfoRepository fileInfoRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final AvatarDerivativeService avatarDerivativeService;
+    private final FileUploadProperties uploadProperties;
+    private final MeterRegistry meterRegistry;
+
+    private Counter moved;
+    private Counter alreadyMigrated;
+    private Counter missing;
+    private Counter failed;
+
+    private Thread migrationThread;
+    private volatile boolean stopRequested;
+    private volatile String state = "IDLE";
+    private volatile String phase;
+    private volatile String error;
+    private volatile long lastFileId;
+    private volatile long lastProfileId;
+
+    @PostConstruct
+    public void init() {
+        moved = counter("moved", "移动到新布局的文件数");
+        alreadyMigrated = counter("already_migrated", "已在新布局位置的文件数");
+        missing = counter("missing", "两种布局位置都不存在的文件数");
+        failed = counter("failed", "移动失败的文件数");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void autoStart() {
+        if (storageProperties.getMigration().isAutoStart()) {
+            start(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        Thread thread = migrationThread;
+        if (thread != null && thread.isAlive()) {
+            stopRequested = true;
+            thread.join();
+        }
+    }
+
+    /**
+     * 在后台开始迁移，已在运行时不做任何事
+     *
+     * @param restart 忽略进度文件，从头开始
+     * @return 是否启动了新的迁移
+     */
+    public synchronized boolean start(boolean restart) {
+        if (migrationThread != null && migrationThread.isAlive()) {
+            return false;
+        }
+        stopRequested = false;
+        error = null;
+        state = "RUNNING";
+        migrationThread = new Thread(() -> run(restart), "storage-migration");
+        migrationThread.setDaemon(true);
+        migrationThread.start();
+        return true;
+    }
+
+    /**
+     * 请求停止，当前批次完成并保存进度后退出
+     */
+    public synchronized void stop() {
+        if (migrationThread != null && migrationThread.isAlive()) {
+            stopRequested = true;
+            state = "STOPPING";
+        }
+    }
+
+    public StorageMigrationStatusDTO status() {
+        return StorageMigrationStatusDTO.builder()
+                .layout(storageProperties.getLayout().name())
+                .state(state)
+                .phase(phase)
+                .lastFileId(lastFileId)
+                .lastProfileId(lastProfileId)
+                .moved((long) moved.count())
+                .alreadyMigrated((long) alreadyMigrated.count())
+                .missing((long) missing.count())
+                .failed((long) failed.count())
+                .error(error)
+                .build();
+    }
+
+    private void run(boolean restart) {
+        StorageProperties.Migration config = storageProperties.getMigration();
+        Path checkpoint = Path.of(config.getCheckpointFile());
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(config.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "storage-migration-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            loadCheckpoint(checkpoint, restart);
+            log.info("开始存储布局迁移: 目标布局 {}, 文件记录从 ID {} 之后, 头像从用户资料 ID {} 之后",
+                    storageProperties.getLayout(), lastFileId, lastProfileId);
+
+            // 本轮扫描位置；lastFileId、lastProfileId 是写入进度文件的位置，遇到失败后不再推进
+            phase = FILES_PHASE;
+            long fileCursor = lastFileId;
+            boolean filesFailed = false;
+            List<FileInfo> files;
+            while (!stopRequested && !(files = fileInfoRepository.findByIdGreaterThanOrderByIdAsc(
+                    fileCursor, PageRequest.of(0, config.getBatchSize()))).isEmpty()) {
+                List<Callable<Boolean>> tasks = new ArrayList<>(files.size());
+                for (FileInfo fileInfo : files) {
+                    tasks.add(() -> migrateFile(fileInfo));
+                }
+                List<Future<Boolean>> results = executor.invokeAll(tasks);
+                for (int i = 0; i < files.size() && !filesFailed; i++) {
+                    if (succeeded(results.get(i))) {
+                        lastFileId = files.get(i).getId();
+                    } else {
+                        filesFailed = true;
+                    }
+                }
+                fileCursor = files.get(files.size() - 1).getId();
+                saveCheckpoint(checkpoint);
+            }
+
+            phase = AVATARS_PHASE;
+            long profileCursor = lastProfileId;
+            boolean avatarsFailed = false;
+            List<UserProfile> profiles;
+            while (!stopRequested && !(profiles = userProfileRepository.findByIdGreaterThanAndAvatarIsNotNullOrderByIdAsc(
+                    profileCursor, PageRequest.of(0, config.getBatchSize()))).isEmpty()) {
+                List<Callable<Boolean>> tasks = new ArrayList<>(profiles.size());
+                for (UserProfile profile : profiles) {
+                    tasks.add(() -> migrateAvatar(profile.getAvatar()));
+                }
+                List<Future<Boolean>> results = executor.invokeAll(tasks);
+                for (int i = 0; i < profiles.size() && !avatarsFailed; i++) {
+                    if (succeeded(results.get(i))) {
+                        lastProfileId = profiles.get(i).getId();
+                    } else {
+                        avatarsFailed = true;
+                    }
+                }
+                profileCursor = profiles.get(profiles.size() - 1).getId();
+                saveCheckpoint(checkpoint);
+            }
+
+            if (filesFailed || avatarsFailed) {
+                error = String.format("部分文件移动失败，进度停在文件记录 ID %d、用户资料 ID %d 之后，重新启动迁移时重试",
+                        lastFileId, lastProfileId);
+                log.warn(error);
+            }
+            state = stopRequested ? "IDLE" : "COMPLETED";
+            log.info("存储布局迁移{}: 移动 {}, 已迁移 {}, 缺失 {}, 失败 {}", stopRequested ? "已停止" : "完成",
+                    (long) moved.count(), (long) alreadyMigrated.count(), (long) missing.count(), (long) failed.count());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state = "IDLE";
+        } catch (Exception e) {
+            log.error("存储布局迁移失败", e);
+            error = e.getMessage();
+            state = "FAILED";
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 任务抛出的异常已在任务内记录，这里只判断结果
+     */
+    private static boolean succeeded(Future<Boolean> result) throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return 是否处理完毕（已移动、已在新位置或无需处理），移动或更新记录失败时返回 false
+     */
+    private boolean migrateFile(FileInfo fileInfo) {
+        String key = fileInfo.getFilePath();
+        if (key == null || !BlobKeys.isValid(key)) {
+            log.debug("文件记录的路径不是存储键，跳过: id={}, filePath={}", fileInfo.getId(), key);
+            missing.increment();
+            return true;
+        }
+        String target = storageLayout.targetKey(key);
+        if (target.equals(key)) {
+            alreadyMigrated.increment();
+            return true;
+        }
+        try {
+            if (moveBlob(key, target)) {
+                fileInfoRepository.updateFilePath(fileInfo.getId(), target);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("移动文件失败: {} -> {}", key, target, e);
+            failed.increment();
+            return false;
+        }
+    }
+
+    /**
+     * 头像按文件名访问，数据库中的地址不变，只移动原图和已生成的缩略图
+     *
+     * @return 原图是否处理完毕，移动失败时返回 false
+     */
+    private boolean migrateAvatar(String avatarUrl) {
+        String fileName = avatarDerivativeService.avatarFileName(avatarUrl);
+        if (fileName == null) {
+            return true;
+        }
+        String target = storageLayout.key(uploadProperties.getTypes().get("avatar").getDirectory(), fileName);
+        String source = storageLayout.alternateKey(target);
+        try {
+            moveBlob(source, target);
+        } catch (IOException | RuntimeException e) {
+            log.warn("移动头像失败: {} -> {}", source, target, e);
+            failed.increment();
+            return false;
+        }
+        for (String derivativeName : avatarDerivativeService.derivativeNames(fileName)) {
+            String derivativeTarget = storageLayout.siblingKey(target, derivativeName);
+            try {
+                String derivativeSource = storageLayout.siblingKey(source, derivativeName);
+                if (blobStore.exists(derivativeSource)) {
+                    blobStore.move(derivativeSource, derivativeTarget);
+                }
+            } catch (IOException e) {
+                // 缩略图缺失时访问会重新生成
+                log.debug("移动头像缩略图失败: {}", derivativeTarget, e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 把文件从 source 移动到 target
+     *
+     * @return 文件是否已在 target（本次移动或之前已移动），两处都不存在时返回 false
+     * @throws IOException 移动失败
+     */
+    private boolean moveBlob(String source, String target) throws IOException {
+        if (blobStore.exists(source)) {
+            blobStore.move(source, target);
+            moved.increment();
+            return true;
+        }
+        if (blobStore.exists(target)) {
+            alreadyMigrated.increment();
+            return true;
+        }
+        missing.increment();
+        return false;
+    }
+
+    private void loadCheckpoint(Path checkpoint, boolean restart) throws IOException {
+        lastFileId = 0;
+        lastProfileId = 0;
+        if (restart || !Files.exists(checkpoint)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(checkpoint)) {
+            properties.load(inputStream);
+        }
+        // 进度属于迁移到另一种布局的那一轮，重新开始
+        if (!storageProperties.getLayout().name().equals(properties.getProperty("layout"))) {
+            return;
+        }
+        lastFileId = Long.parseLong(properties.getProperty(LAST_FILE_ID, "0"));
+        lastProfileId = Long.parseLong(properties.getProperty(LAST_PROFILE_ID, "0"));
+    }
+
+    /**
+     * 先写临时文件再原子改名，中断时不会留下写了一半的进度文件
+     */
+    private void saveCheckpoint(Path checkpoint) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("layout", storageProperties.getLayout().name());
+        properties.setProperty(LAST_FILE_ID, Long.toString(lastFileId));
+        properties.setProperty(LAST_PROFILE_ID, Long.toString(lastProfileId));
+        Path absolute = checkpoint.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path tempFile = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+            properties.store(outputStream, "storage layout migration checkpoint");
+        }
+        Files.move(tempFile, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Counter counter(String result, String description) {
+        return Counter.builder("storage.migration.files")
+                .tag("result", result)
+                .description(description)
+                .register(meterRegistry);
+    }
+}
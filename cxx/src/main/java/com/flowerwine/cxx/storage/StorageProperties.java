@@ -0,0 +1,88 @@
+package com.flowerwine.cxx.storage;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 上传文件存储后端配置
+ * 存储键为相对路径（如 avatars/xxx.png），与 /uploads/** 访问地址中的路径一致
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.storage")
+public class StorageProperties {
+
+    /** local: 本地磁盘（app.upload.base-dir）; s3: S3 兼容对象存储 */
+    private String type = "local";
+
+    /** 新文件的目录布局 */
+    private Layout layout = Layout.HASHED;
+
+    private Migration migration = new Migration();
+
+    private Local local = new Local();
+
+    private S3 s3 = new S3();
+
+    @Data
+    public static class Local {
+        /** 写入后的刷盘策略 */
+        private FsyncPolicy fsync = FsyncPolicy.FILE;
+        /** 大文件绕过页缓存直接写盘（O_DIRECT），文件系统不支持时自动关闭 */
+        private boolean directIo = false;
+        /** 不小于该大小（字节）的文件才使用直接 I/O，小文件仍走页缓存 */
+        private long directIoThreshold = 64L * 1024 * 1024;
+        /** 写入缓冲区大小（字节） */
+        private int bufferSize = 1024 * 1024;
+    }
+
+    @Data
+    public static class S3 {
+        /** 服务地址，MinIO 等兼容服务填写，AWS S3 留空 */
+        private String endpoint;
+        private String region = "us-east-1";
+        private String bucket;
+        private String accessKey;
+        private String secretKey;
+        /** 路径风格访问（endpoint/bucket/key），MinIO 需要开启 */
+        private boolean pathStyleAccess = true;
+        /** 对象键前缀，多个环境共用一个桶时区分 */
+        private String keyPrefix = "";
+        /** 超过该大小（字节）的文件使用分段上传，单次 PUT 上限为 5GB */
+        private long multipartThreshold = 64L * 1024 * 1024;
+        /** 分段大小（字节），不小于 5MB */
+        private int partSize = 16 * 1024 * 1024;
+    }
+
+    /**
+     * 已有文件迁移到当前布局的配置（见 StorageLayoutMigrator）
+     */
+    @Data
+    public static class Migration {
+        /** 并行移动文件的线程数 */
+        private int threads = 4;
+        /** 每批读取的记录数，每批完成后保存一次进度 */
+        private int batchSize = 500;
+        /** 进度文件，中断后从记录的位置继续 */
+        private String checkpointFile = "storage-migration.properties";
+        /** 启动后自动开始迁移，关闭时由管理接口触发 */
+        private boolean autoStart = false;
+    }
+
+    public enum Layout {
+        /** 目录/文件名，所有文件在同一目录下 */
+        FLAT,
+        /** 目录/xx/yy/文件名，xx/yy 由文件名哈希得到，每个目录下最多 256 个子目录 */
+        HASHED
+    }
+
+    public enum FsyncPolicy {
+        /** 不主动刷盘，由操作系统回写 */
+        NONE,
+        /** 改名前刷文件数据 */
+        FILE,
+        /** 刷文件数据，改名后再刷所在目录，掉电后目录项也不丢失 */
+        FILE_AND_DIRECTORY
+    }
+}
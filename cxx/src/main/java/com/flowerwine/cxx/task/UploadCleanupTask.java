@@ -0,0 +1,318 @@
+package com.flowerwine.cxx.task;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.desair.tus.server.TusFileUploadService;
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.upload.UploadInfo;
+import org.apache.commons.io.FileUtils;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 过期上传清理：tus 上传（分片目录/uploads/上传ID）和分片上传（分片目录/标识）
+ * 上传的写入请求记录最后写入时间，挂在内存时间轮（UploadExpiryIndex）上，到期的上传每秒小批量删除，
+ * 不再每天集中遍历整个目录。删除前再按目录内文件的最新修改时间确认，仍有写入的上传不会被删除。
+ * 重启前的上传由后台扫描发现：每次只读取一小批目录项，一遍扫完后隔一段时间再扫
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+public class UploadCleanupTask {
+
+    /** tus 磁盘存储在存储目录下保存上传数据的子目录 */
+    private static final String TUS_UPLOADS_DIR = "uploads";
+    private static final Pattern TUS_UPLOAD_ID =
+            Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    /** 分片上传标识（见 FileService.initializeChunkUpload），同时排除 tus 的 uploads、locks 目录 */
+    private static final Pattern CHUNK_IDENTIFIER = Pattern.compile("[0-9a-f]{32}");
+
+    private final FileUploadProperties uploadProperties;
+    private final TusFileUploadService tusFileUploadService;
+    private final MeterRegistry meterRegistry;
+
+    private UploadExpiryIndex index;
+    /** 已到期、等待删除的上传，只由清理线程访问 */
+    private final Deque<UploadExpiryIndex.Key> due = new ArrayDeque<>();
+    private final Map<UploadExpiryIndex.Kind, Counter> reclaimedBytes = new EnumMap<>(UploadExpiryIndex.Kind.class);
+    private final Map<UploadExpiryIndex.Kind, Counter> deletedUploads = new EnumMap<>(UploadExpiryIndex.Kind.class);
+
+    /** 本遍待扫描的目录类型 */
+    private final Deque<UploadExpiryIndex.Kind> scanQueue = new ArrayDeque<>();
+    private UploadExpiryIndex.Kind scanKind;
+    private DirectoryStream<Path> scanStream;
+    private Iterator<Path> scanIterator;
+    private long nextScanAt;
+
+    @PostConstruct
+    public void init() {
+        FileUploadProperties.CleanupConfig config = uploadProperties.getCleanup();
+        index = new UploadExpiryIndex(TimeUnit.SECONDS.toMillis(config.getTickSeconds()), config.getWheelSize(),
+                System.currentTimeMillis());
+        for (UploadExpiryIndex.Kind kind : UploadExpiryIndex.Kind.values()) {
+            reclaimedBytes.put(kind, Counter.builder("upload.cleanup.reclaimed.bytes")
+                    .description("清理过期上传释放的字节数")
+                    .baseUnit("bytes")
+                    .tag("kind", kind.tag())
+                    .register(meterRegistry));
+            deletedUploads.put(kind, Counter.builder("upload.cleanup.deleted")
+                    .description("清理的过期上传数")
+                    .tag("kind", kind.tag())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("upload.cleanup.tracked", index, UploadExpiryIndex::size)
+                .description("过期索引中记录的上传数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录 tus 上传的写入
+     */
+    public void recordTusWrite(String uploadId) {
+        index.touch(new UploadExpiryIndex.Key(UploadExpiryIndex.Kind.TUS, uploadId),
+                System.currentTimeMillis(), ttlMillis(UploadExpiryIndex.Kind.TUS));
+    }
+
+    /**
+     * 记录分片上传的写入
+     */
+    public void recordChunkWrite(String identifier) {
+        index.touch(new UploadExpiryIndex.Key(UploadExpiryIndex.Kind.CHUNK, identifier),
+                System.currentTimeMillis(), ttlMillis(UploadExpiryIndex.Kind.CHUNK));
+    }
+
+    /**
+     * tus 上传已完成或已删除，不再跟踪
+     */
+    public void forgetTus(String uploadId) {
+        index.forget(new UploadExpiryIndex.Key(UploadExpiryIndex.Kind.TUS, uploadId));
+    }
+
+    /**
+     * 分片上传已合并或已删除，不再跟踪
+     */
+    public void forgetChunk(String identifier) {
+        index.forget(new UploadExpiryIndex.Key(UploadExpiryIndex.Kind.CHUNK, identifier));
+    }
+
+    /**
+     * 推进时间轮，删除一批到期的上传，再扫描一批目录
+     */
+    @Scheduled(fixedDelayString = "${app.upload.cleanup.interval-millis:1000}")
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        index.advance(now, due);
+        int budget = uploadProperties.getCleanup().getBatchSize();
+        while (budget > 0 && !due.isEmpty()) {
+            UploadExpiryIndex.Key key = due.poll();
+            if (!index.isExpired(key, now)) {
+                // 进入待删除后又有写入
+                index.reschedule(key);
+                continue;
+            }
+            if (delete(key, now)) {
+                budget--;
+            }
+        }
+        scan(now);
+    }
+
+    /**
+     * 删除到期的上传，目录内仍有较新的写入时按文件时间重新记录
+     *
+     * @return 是否进行了删除（成功或失败都计入本批数量）
+     */
+    private boolean delete(UploadExpiryIndex.Key key, long now) {
+        Path dir = directory(key);
+        try {
+            long lastWrite = lastModified(dir);
+            if (lastWrite < 0) {
+                index.forget(key);
+                return false;
+            }
+            long ttl = ttlMillis(key.kind());
+            if (lastWrite + ttl > now) {
+                index.touch(key, lastWrite, ttl);
+                return false;
+            }
+            long bytes = directorySize(dir);
+            if (key.kind() == UploadExpiryIndex.Kind.TUS) {
+                deleteTusUpload(key.id());
+            }
+            FileUtils.deleteDirectory(dir.toFile());
+            index.forget(key);
+            reclaimedBytes.get(key.kind()).increment(bytes);
+            deletedUploads.get(key.kind()).increment();
+            log.info("已清理过期上传: {} {}, {} 字节", key.kind().tag(), key.id(), bytes);
+            return true;
+        } catch (IOException | TusException e) {
+            // 不再跟踪，下一遍扫描时重新发现
+            index.forget(key);
+            log.warn("清理过期上传失败: {} {}", key.kind().tag(), key.id(), e);
+            return true;
+        }
+    }
+
+    /**
+     * 经 tus 删除，与进行中的请求共用上传锁；元数据无法读取时只删除目录
+     */
+    private void deleteTusUpload(String uploadId) throws IOException, TusException {
+        UploadInfo uploadInfo;
+        try {
+            uploadInfo = tusFileUploadService.getUploadInfo(uploadId);
+        } catch (IOException e) {
+            log.debug("tus 上传元数据无法读取: {}", uploadId, e);
+            return;
+        }
+        if (uploadInfo != null) {
+            tusFileUploadService.deleteUpload(uploadId);
+        }
+    }
+
+    /**
+     * 扫描一批目录项，把尚未记录的上传按文件修改时间加入索引
+     */
+    private void scan(long now) {
+        int budget = uploadProperties.getCleanup().getScanBatchSize();
+        try {
+            while (budget > 0) {
+                if (scanIterator == null) {
+                    if (scanQueue.isEmpty()) {
+                        if (now < nextScanAt) {
+                            return;
+                        }
+                        scanQueue.add(UploadExpiryIndex.Kind.CHUNK);
+                        scanQueue.add(UploadExpiryIndex.Kind.TUS);
+                        nextScanAt = Long.MAX_VALUE;
+                    }
+                    scanKind = scanQueue.poll();
+                    Path root = root(scanKind);
+                    if (Files.isDirectory(root)) {
+                        scanStream = Files.newDirectoryStream(root);
+                        scanIterator = scanStream.iterator();
+                    } else if (scanQueue.isEmpty()) {
+                        finishScan(now);
+                    }
+                    continue;
+                }
+                if (!scanIterator.hasNext()) {
+                    closeScan();
+                    if (scanQueue.isEmpty()) {
+                        finishScan(now);
+                    }
+                    continue;
+                }
+                Path dir = scanIterator.next();
+                budget--;
+                register(scanKind, dir);
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            log.warn("扫描上传目录失败", e);
+            closeScan();
+            scanQueue.clear();
+            finishScan(now);
+        }
+    }
+
+    private void register(UploadExpiryIndex.Kind kind, Path dir) throws IOException {
+        String name = dir.getFileName().toString();
+        Pattern pattern = kind == UploadExpiryIndex.Kind.TUS ? TUS_UPLOAD_ID : CHUNK_IDENTIFIER;
+        if (!pattern.matcher(name).matches()) {
+            return;
+        }
+        UploadExpiryIndex.Key key = new UploadExpiryIndex.Key(kind, name);
+        if (index.contains(key)) {
+            return;
+        }
+        long lastWrite = lastModified(dir);
+        if (lastWrite >= 0) {
+            index.touch(key, lastWrite, ttlMillis(kind));
+        }
+    }
+
+    private void finishScan(long now) {
+        nextScanAt = now + TimeUnit.MINUTES.toMillis(uploadProperties.getCleanup().getRescanIntervalMinutes());
+    }
+
+    private void closeScan() {
+        if (scanStream != null) {
+            try {
+                scanStream.close();
+            } catch (IOException e) {
+                log.debug("关闭目录扫描失败", e);
+            }
+        }
+        scanStream = null;
+        scanIterator = null;
+    }
+
+    /**
+     * 目录及其中文件的最新修改时间（tus 追加写入数据文件时目录本身的时间不变），目录不存在时返回 -1
+     */
+    private long lastModified(Path dir) throws IOException {
+        try {
+            long latest = Files.getLastModifiedTime(dir).toMillis();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) {
+                    latest = Math.max(latest, Files.getLastModifiedTime(file).toMillis());
+                }
+            }
+            return latest;
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+    }
+
+    private long directorySize(Path dir) throws IOException {
+        long size = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.isRegularFile()) {
+                    size += attributes.size();
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // 目录已被删除
+        }
+        return size;
+    }
+
+    private Path root(UploadExpiryIndex.Kind kind) {
+        Path chunkFolder = Paths.get(uploadProperties.getChunkFolder());
+        return kind == UploadExpiryIndex.Kind.TUS ? chunkFolder.resolve(TUS_UPLOADS_DIR) : chunkFolder;
+    }
+
+    private Path directory(UploadExpiryIndex.Key key) {
+        return root(key.kind()).resolve(key.id());
+    }
+
+    private long ttlMillis(UploadExpiryIndex.Kind kind) {
+        return TimeUnit.HOURS.toMillis(kind == UploadExpiryIndex.Kind.TUS
+                ? uploadProperties.getCleanup().getTusExpirationHours()
+                : uploadProperties.getChunk().getExpirationHours());
+    }
+}
@@ -0,0 +1,135 @@
+package com.flowerwine.cxx.task;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 上传过期索引：按最后写入时间把上传挂在时间轮上
+ * 每格对应一个刻度，到期时刻落在同一刻度的上传放在同一格；推进时只检查经过的格子，不遍历全部上传。
+ * 再次写入只更新记录，到期刻度变化时挂到新的格子，旧格子里的引用在经过时按记录判断后丢弃；
+ * 到期时刻超过一圈的上传在经过时保留，等下一圈再判断。
+ * 写入记录可由任意线程调用，推进只由清理线程调用
+ */
+final class UploadExpiryIndex {
+
+    enum Kind {
+        TUS("tus"),
+        CHUNK("chunk");
+
+        private final String tag;
+
+        Kind(String tag) {
+            this.tag = tag;
+        }
+
+        String tag() {
+            return tag;
+        }
+    }
+
+    record Key(Kind kind, String id) {
+    }
+
+    private record Entry(long lastWrite, long deadline) {
+    }
+
+    private final long tickMillis;
+    private final List<Set<Key>> slots;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    /** 下一个要检查的刻度，只由清理线程推进 */
+    private volatile long cursor;
+
+    UploadExpiryIndex(long tickMillis, int wheelSize, long now) {
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(ConcurrentHashMap.newKeySet());
+        }
+        this.cursor = now / tickMillis;
+    }
+
+    /**
+     * 记录一次写入；比已记录的写入更早时忽略（如扫描读到的修改时间晚于请求线程的记录）
+     */
+    void touch(Key key, long lastWrite, long ttlMillis) {
+        long deadline = lastWrite + ttlMillis;
+        Entry[] previous = new Entry[1];
+        Entry current = entries.compute(key, (k, existing) -> {
+            previous[0] = existing;
+            return existing != null && existing.lastWrite() >= lastWrite ? existing : new Entry(lastWrite, deadline);
+        });
+        if (previous[0] == null || current != previous[0] && tick(previous[0].deadline()) != tick(deadline)) {
+            slot(deadline).add(key);
+        }
+    }
+
+    void forget(Key key) {
+        entries.remove(key);
+    }
+
+    boolean contains(Key key) {
+        return entries.containsKey(key);
+    }
+
+    boolean isExpired(Key key, long now) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.deadline() <= now;
+    }
+
+    /**
+     * 未到期的上传重新挂到到期时刻所在的格子（推进时与写入并发，引用可能已被移出）
+     */
+    void reschedule(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            slot(entry.deadline()).add(key);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * 推进到 now，把已整格经过的格子里到期的上传放入 due；停顿超过一圈时每格只检查一次
+     */
+    void advance(long now, Deque<Key> due) {
+        long target = now / tickMillis - 1;
+        long first = Math.max(cursor, target - slots.size() + 1);
+        for (long tick = first; tick <= target; tick++) {
+            int index = (int) Math.floorMod(tick, (long) slots.size());
+            Iterator<Key> iterator = slots.get(index).iterator();
+            while (iterator.hasNext()) {
+                Key key = iterator.next();
+                Entry entry = entries.get(key);
+                if (entry == null) {
+                    iterator.remove();
+                } else if (entry.deadline() <= now) {
+                    iterator.remove();
+                    due.add(key);
+                } else if (Math.floorMod(tick(entry.deadline()), (long) slots.size()) != index) {
+                    // 再次写入后已挂到别的格子
+                    iterator.remove();
+                }
+            }
+        }
+        cursor = Math.max(cursor, target + 1);
+    }
+
+    /**
+     * 到期时刻所在的格子；已经过的刻度放到下一个要检查的格子，不等一圈
+     */
+    private Set<Key> slot(long deadline) {
+        long tick = Math.max(tick(deadline), cursor);
+        return slots.get((int) Math.floorMod(tick, (long) slots.size()));
+    }
+
+    private long tick(long time) {
+        return time / tickMillis;
+    }
+}
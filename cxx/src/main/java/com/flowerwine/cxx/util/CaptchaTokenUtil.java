@@ -0,0 +1,133 @@
+package com.flowerwine.cxx.util;
+
+import com.flowerwine.cxx.config.AppProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 无状态验证码令牌
+ * 令牌格式为 随机ID.过期时间.ID签名.答案签名，答案签名是对 ID、过期时间和（忽略大小写的）答案计算的 HMAC-SHA256，
+ * 服务端不保存答案，提交的答案正确且令牌未过期、未被篡改时签名才能对上，任意实例都可以校验。
+ * 每个令牌只能校验一次（不论答案是否正确），已使用的 ID 按过期时间分桶保存在内存中，过期后整桶丢弃。
+ * ID 签名只覆盖 ID 和过期时间、与答案无关，记录已使用前先校验它并限制过期时间不超过有效期，
+ * 伪造的 ID 或过期时间不会进入已使用集合；
+ * 多实例部署时已使用集合是各实例独立的，令牌有效期应保持较短
+ */
+@Component
+public class CaptchaTokenUtil {
+
+    /** 已使用集合的分桶时长 */
+    private static final long BUCKET_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final AppProperties appProperties;
+    private final SecretKeySpec signingKey;
+    /** ID 签名密钥，由签名密钥派生 */
+    private final SecretKeySpec idKey;
+    private final SecureRandom random = new SecureRandom();
+
+    /** 过期时间所在桶 -> 该桶内已使用的令牌 ID */
+    private final Map<Long, Set<String>> usedIds = new ConcurrentHashMap<>();
+
+    public CaptchaTokenUtil(AppProperties appProperties) {
+        this.appProperties = appProperties;
+        // 未单独配置时由 JWT 密钥派生，不直接复用同一把密钥
+        String secret = appProperties.getCaptcha().getTokenSecret();
+        byte[] keyBytes = StringUtils.hasText(secret)
+                ? secret.getBytes(StandardCharsets.UTF_8)
+                : hmac(new SecretKeySpec(appProperties.getJwt().getSecret().getBytes(StandardCharsets.UTF_8),
+                        "HmacSHA256"), "captcha-token");
+        this.signingKey = new SecretKeySpec(keyBytes, "HmacSHA256");
+        this.idKey = new SecretKeySpec(hmac(signingKey, "captcha-token-id"), "HmacSHA256");
+    }
+
+    /**
+     * 为验证码答案签发令牌
+     */
+    public String issue(String answer) {
+        byte[] idBytes = new byte[16];
+        random.nextBytes(idBytes);
+        String id = ENCODER.encodeToString(idBytes);
+        long expiresAt = System.currentTimeMillis() + ttlMillis();
+        return id + "." + expiresAt + "." + signId(id, expiresAt) + "." + sign(id, expiresAt, answer);
+    }
+
+    /**
+     * 校验令牌和答案，令牌格式错误、已过期、已使用或答案错误时返回 false
+     */
+    public boolean verify(String token, String answer) {
+        if (token == null || answer == null) {
+            return false;
+        }
+        String[] parts = token.split("\\.");
+        if (parts.length != 4) {
+            return false;
+        }
+        long expiresAt;
+        byte[] idSignature;
+        byte[] signature;
+        try {
+            expiresAt = Long.parseLong(parts[1]);
+            idSignature = DECODER.decode(parts[2]);
+            signature = DECODER.decode(parts[3]);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (expiresAt < now || expiresAt > now + ttlMillis()) {
+            return false;
+        }
+        // 只有本服务签发的 ID 才记录，已使用集合的大小受签发速率和有效期限制
+        if (!MessageDigest.isEqual(idSignature, DECODER.decode(signId(parts[0], expiresAt)))) {
+            return false;
+        }
+        // 先标记已使用再比对答案，同一令牌不能反复尝试
+        if (!markUsed(parts[0], expiresAt, now)) {
+            return false;
+        }
+        return MessageDigest.isEqual(signature, DECODER.decode(sign(parts[0], expiresAt, answer)));
+    }
+
+    private boolean markUsed(String id, long expiresAt, long now) {
+        long currentBucket = now / BUCKET_MILLIS;
+        usedIds.keySet().removeIf(bucket -> bucket < currentBucket);
+        return usedIds.computeIfAbsent(expiresAt / BUCKET_MILLIS, bucket -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    private long ttlMillis() {
+        return TimeUnit.SECONDS.toMillis(appProperties.getCaptcha().getTokenTtlSeconds());
+    }
+
+    private String signId(String id, long expiresAt) {
+        return ENCODER.encodeToString(hmac(idKey, id + "." + expiresAt));
+    }
+
+    private String sign(String id, long expiresAt, String answer) {
+        return ENCODER.encodeToString(hmac(signingKey, id + "." + expiresAt + "." + answer.toLowerCase(Locale.ROOT)));
+    }
+
+    private static byte[] hmac(SecretKeySpec key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 不可用", e);
+        }
+    }
+}
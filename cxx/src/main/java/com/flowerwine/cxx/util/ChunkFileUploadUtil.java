@@ -1,24 +1,27 @@
 package com.flowerwine.cxx.util;
 
 import com.flowerwine.cxx.config.AppProperties;
+import com.flowerwine.cxx.storage.BlobStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.tika.Tika;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,8 +36,9 @@ import java.util.UUID;
 public class ChunkFileUploadUtil {
 
     private final AppProperties appProperties;
-    private final Tika tika = new Tika();
     private final FileUploadUtil fileUploadUtil;
+    private final BlobStore blobStore;
+    private final ContentTypeDetector contentTypeDetector;
 
     /**
      * 初始化分片上传
@@ -120,12 +124,13 @@ public class ChunkFileUploadUtil {
 
     /**
      * 合并文件分片
+     *
+     * @param key 合并后文件的存储键
      */
     public Map<String, Object> mergeChunks(
             String chunkDir,
             String identifier, 
-            String targetDir,
-            String filename,
+            String key,
             int totalChunks) throws IOException {
             
         validateChunkDir(chunkDir, identifier);
@@ -140,15 +145,11 @@ public class ChunkFileUploadUtil {
                 );
             }
             
-            // 确保分片按顺序排列
-            uploadedChunks.sort(Integer::compareTo);
-            
             // 合并文件
-            Map<String, Object> fileInfo = mergeChunksToFile(
+            Map<String, Object> fileInfo = mergeChunksToBlob(
                 chunkDir,
                 identifier, 
-                targetDir,
-                filename, 
+                key,
                 totalChunks
             );
             
@@ -210,78 +211,64 @@ public class ChunkFileUploadUtil {
         return new File(String.format("%s/%d", chunkDirPath, chunkNumber));
     }
 
-    private Map<String, Object> mergeChunksToFile(
+    /**
+     * 按顺序把分片拼接成一个流写入存储后端，不在本地生成合并文件，也不把分片整个读入内存；
+     * 写入的同时按开头部分检测类型，禁止的类型在写入开头部分后即中止并清理分片
+     */
+    private Map<String, Object> mergeChunksToBlob(
             String chunkDir,
             String identifier, 
-            String targetDir,
-            String filename, 
+            String key,
             int totalChunks) throws IOException {
-            
-        // 确保目标目录存在
-        File uploadDir = new File(targetDir);
-        if (!uploadDir.exists() && !uploadDir.mkdirs()) {
-            throw new ResponseStatusException(
-                HttpStatus.INTERNAL_SERVER_ERROR,
-                "无法创建目标目录"
-            );
-        }
 
-        // 生成目标文件路径
-        String filePath = targetDir + File.separator + filename;
-        File mergedFile = new File(filePath);
-
-        // 合并文件
-        if (mergedFile.exists()) {
-            mergedFile.delete();
-        }
-        mergedFile.createNewFile();
-
-        // 逐个合并分片
+        long totalSize = 0;
+        List<File> chunkFiles = new ArrayList<>(totalChunks);
         for (int i = 1; i <= totalChunks; i++) {
             File chunkFile = getChunkFile(chunkDir, identifier, i);
-            Files.write(
-                mergedFile.toPath(),
-                Files.readAllBytes(chunkFile.toPath()),
-                StandardOpenOption.APPEND
-            );
+            totalSize += chunkFile.length();
+            chunkFiles.add(chunkFile);
         }
 
-        // 返回文件信息
-        Map<String, Object> fileInfo = new HashMap<>();
-        fileInfo.put("fileName", filename);
-        fileInfo.put("filePath", filePath);
-        fileInfo.put("fileSize", mergedFile.length());
+        Enumeration<InputStream> chunkStreams = new Enumeration<>() {
+            private int next;
 
-        return fileInfo;
-    }
+            @Override
+            public boolean hasMoreElements() {
+                return next < chunkFiles.size();
+            }
 
-    /**
-     * 清理过期的分片目录
-     * 过期时间默认为24小时
-     */
-    public void cleanupExpiredChunkDirs() {
-        try {
-            File chunksBaseDir = new File(appProperties.getFile().getTempLocation() + File.separator + "chunks");
-            if (!chunksBaseDir.exists() || !chunksBaseDir.isDirectory()) {
-                return;
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return new FileInputStream(chunkFiles.get(next++));
+                } catch (FileNotFoundException e) {
+                    throw new UncheckedIOException(e);
+                }
             }
-            
-            File[] chunkDirs = chunksBaseDir.listFiles();
-            if (chunkDirs == null) {
-                return;
+        };
+        ContentTypeDetector.SniffingInputStream merged =
+                contentTypeDetector.sniff(new SequenceInputStream(chunkStreams), key, true);
+        try (merged) {
+            blobStore.put(key, merged, totalSize);
+        } catch (IOException | RuntimeException e) {
+            // 存储客户端可能把读取流时的异常包装成其他异常，按检测结果判断
+            if (merged.isRejected()) {
+                cleanupChunks(chunkDir, identifier);
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "检测到危险的文件类型: " + merged.detectedType());
             }
-            
-            // 超过24小时的分片目录将被删除
-            long cutoffTime = System.currentTimeMillis() - (24 * 60 * 60 * 1000);
-            
-            for (File dir : chunkDirs) {
-                if (dir.isDirectory() && dir.lastModified() < cutoffTime) {
-                    FileUtils.deleteDirectory(dir);
-                    log.info("已清理过期分片目录: {}", dir.getName());
-                }
+            if (e instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
             }
-        } catch (IOException e) {
-            log.error("清理过期分片目录失败", e);
+            throw e;
         }
+
+        // 返回文件信息
+        Map<String, Object> fileInfo = new HashMap<>();
+        fileInfo.put("fileName", key.substring(key.lastIndexOf('/') + 1));
+        fileInfo.put("filePath", key);
+        fileInfo.put("fileSize", totalSize);
+        fileInfo.put("mimeType", merged.detectedType());
+
+        return fileInfo;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package com.flowerwine.cxx.util;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import com.flowerwine.cxx.exception.ForbiddenContentTypeException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.Tika;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * 文件类型检测
+ * Tika 初始化时加载整个 MIME 类型库，实例线程安全，全局共用一个。
+ * 只按文件开头的有限字节检测：上传时用 sniff 包装写入存储的流，边写边截取开头部分，
+ * 写入完成后不再重新打开文件；开头部分读满即可判断，禁止的类型在其余数据写入前中止
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentTypeDetector {
+
+    private static final String DEFAULT_TYPE = "application/octet-stream";
+
+    private final FileUploadProperties uploadProperties;
+    private final Tika tika = new Tika();
+
+    /**
+     * 仅按文件名检测
+     */
+    public String detect(String fileName) {
+        return tika.detect(fileName);
+    }
+
+    /**
+     * 按流开头部分检测，最多读取 sniffLength 字节，调用方负责关闭输入流
+     *
+     * @param fileName 文件名，内容无法判断时按扩展名判断，可为 null
+     */
+    public String detect(InputStream inputStream, String fileName) throws IOException {
+        byte[] head = inputStream.readNBytes(sniffLength());
+        return detect(head, head.length, fileName);
+    }
+
+    /**
+     * 包装上传流，读取时截取开头部分检测类型
+     *
+     * @param rejectForbidden 检测到禁止的类型时从 read 抛出 ForbiddenContentTypeException
+     */
+    public SniffingInputStream sniff(InputStream inputStream, String fileName, boolean rejectForbidden) {
+        return new SniffingInputStream(inputStream, fileName, rejectForbidden);
+    }
+
+    /**
+     * 是否为禁止上传的类型（大文件配置中的 forbidden-types）
+     */
+    public boolean isForbidden(String mimeType) {
+        String[] forbiddenTypes = uploadProperties.getLargeFile().getForbiddenTypes();
+        return forbiddenTypes != null && Arrays.asList(forbiddenTypes).contains(mimeType);
+    }
+
+    private String detect(byte[] head, int length, String fileName) {
+        try {
+            return tika.detect(new ByteArrayInputStream(head, 0, length), fileName);
+        } catch (IOException e) {
+            log.warn("无法检测文件类型: {}, 使用默认类型", fileName, e);
+            return DEFAULT_TYPE;
+        }
+    }
+
+    private int sniffLength() {
+        return uploadProperties.getLargeFile().getSniffLength();
+    }
+
+    /**
+     * 透传读取的数据，同时把开头 sniffLength 字节复制到缓冲区；缓冲区读满或流结束时检测一次类型
+     */
+    public class SniffingInputStream extends FilterInputStream {
+
+        private final String fileName;
+        private final boolean rejectForbidden;
+        private final byte[] head = new byte[sniffLength()];
+        private int headLength;
+        private String detectedType;
+        private boolean rejected;
+
+        private SniffingInputStream(InputStream in, String fileName, boolean rejectForbidden) {
+            super(in);
+            this.fileName = fileName;
+            this.rejectForbidden = rejectForbidden;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (rejected) {
+                throw new ForbiddenContentTypeException(detectedType);
+            }
+            int b = super.read();
+            if (b == -1) {
+                detectOnce();
+            } else if (detectedType == null) {
+                capture(new byte[]{(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (rejected) {
+                throw new ForbiddenContentTypeException(detectedType);
+            }
+            int read = super.read(b, off, len);
+            if (read == -1) {
+                detectOnce();
+            } else if (detectedType == null) {
+                capture(b, off, read);
+            }
+            return read;
+        }
+
+        /**
+         * 跳过的数据也要经过缓冲区，否则开头部分不完整
+         */
+        @Override
+        public long skip(long n) throws IOException {
+            if (detectedType != null) {
+                return super.skip(n);
+            }
+            return readNBytes((int) Math.min(n, head.length)).length;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        /**
+         * 检测到的类型；尚未读满开头部分时按已读取的部分检测
+         */
+        public String detectedType() {
+            if (detectedType == null) {
+                detectedType = detect(head, headLength, fileName);
+            }
+            return detectedType;
+        }
+
+        /**
+         * 是否因检测到禁止的类型而中止了读取
+         */
+        public boolean isRejected() {
+            return rejected;
+        }
+
+        private void capture(byte[] b, int off, int len) throws IOException {
+            int count = Math.min(len, head.length - headLength);
+            System.arraycopy(b, off, head, headLength, count);
+            headLength += count;
+            if (headLength == head.length) {
+                detectOnce();
+            }
+        }
+
+        private void detectOnce() throws IOException {
+            if (detectedType == null) {
+                rejected = rejectForbidden && isForbidden(detectedType());
+            }
+            if (rejected) {
+                throw new ForbiddenContentTypeException(detectedType);
+            }
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.flowerwine.cxx.util;
 
 import com.flowerwine.cxx.dto.FileInfoDTO;
 import com.flowerwine.cxx.enums.FileType;
+import com.flowerwine.cxx.storage.BlobStore;
+import com.flowerwine.cxx.storage.StorageLayout;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FilenameUtils;
 import org.springframework.http.HttpStatus;
@@ -11,14 +14,9 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -26,84 +24,67 @@ import java.util.UUID;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class FileUploadUtil {
 
+    private final BlobStore blobStore;
+    private final StorageLayout storageLayout;
+
     /**
      * 上传单个文件
      * 
      * @param file 要上传的文件
-     * @param uploadPath 上传目录的基础路径
+     * @param directory 存储目录（存储键前缀），为空时存放在根目录
      * @return 文件信息，包括文件路径、文件名等
      */
-    public FileInfoDTO uploadFile(MultipartFile file, String uploadPath) {
-        Path tempFile = null;
-        try {
-            // 获取原始文件名和扩展名
-            String originalFilename = file.getOriginalFilename();
-            String extension = FilenameUtils.getExtension(originalFilename);
-
-            // 生成新的文件名
-            String newFileName = generateFileName(extension);
-
-            // 确保目录存在
-            Path uploadDir = Paths.get(uploadPath);
-            if (!Files.exists(uploadDir)) {
-                Files.createDirectories(uploadDir);
-            }
-
-            // 先将文件保存到临时目录
-            tempFile = Files.createTempFile("upload_", "_tmp");
-            file.transferTo(tempFile);
-
-            log.debug("文件已成功上传到临时目录: {}", tempFile);
-
-            // 移动到目标位置
-            Path targetPath = uploadDir.resolve(newFileName);
-            Files.move(tempFile, targetPath, StandardCopyOption.REPLACE_EXISTING);
-
-            // 创建返回对象
-            FileInfoDTO fileInfoDTO = new FileInfoDTO();
-            fileInfoDTO.setOriginalFilename(originalFilename);
-            fileInfoDTO.setFileName(newFileName);
-            fileInfoDTO.setFileSize(file.getSize());
-            fileInfoDTO.setFileType(FileType.fromMimeType(file.getContentType()).getValue());
-
-            log.info("文件上传成功: {}, 保存为: {}", originalFilename, targetPath);
-            return fileInfoDTO;
-
+    public FileInfoDTO uploadFile(MultipartFile file, String directory) {
+        // 获取原始文件名和扩展名
+        String originalFilename = file.getOriginalFilename();
+        String extension = FilenameUtils.getExtension(originalFilename);
+
+        // 生成新的文件名
+        String newFileName = generateFileName(extension);
+        String key = storageLayout.key(directory, newFileName);
+
+        // 存储后端先写临时对象再原子替换，不需要再经过本地临时文件
+        try (InputStream inputStream = file.getInputStream()) {
+            blobStore.put(key, inputStream, file.getSize());
         } catch (IOException e) {
             log.error("文件上传失败", e);
             throw new ResponseStatusException(
                     HttpStatus.INTERNAL_SERVER_ERROR,
                     "文件上传失败: " + e.getMessage());
-        } finally {
-            // 清理临时文件
-            if (tempFile != null) {
-                try {
-                    Files.deleteIfExists(tempFile);
-                } catch (IOException e) {
-                    log.warn("清理临时文件失败: {}", tempFile, e);
-                }
-            }
         }
+
+        // 创建返回对象
+        FileInfoDTO fileInfoDTO = new FileInfoDTO();
+        fileInfoDTO.setOriginalFilename(originalFilename);
+        fileInfoDTO.setFileName(newFileName);
+        fileInfoDTO.setFileSize(file.getSize());
+        fileInfoDTO.setFileType(FileType.fromMimeType(file.getContentType()).getValue());
+
+        log.info("文件上传成功: {}, 保存为: {}", originalFilename, key);
+        return fileInfoDTO;
     }
 
     /**
      * 删除文件
+     *
+     * @param key 存储键
      */
-    public boolean deleteFile(String filePath) {
+    public boolean deleteFile(String key) {
         try {
-            Path path = Paths.get(filePath);
-            return Files.deleteIfExists(path);
-        } catch (IOException e) {
-            log.error("删除文件失败: {}", filePath, e);
+            return blobStore.delete(key);
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("删除文件失败: {}", key, e);
             return false;
         }
     }
 
     private String generateFileName(String extension) {
         String uuid = UUID.randomUUID().toString().replace("-", "");
-        return extension == null || extension.isEmpty() ? uuid : uuid + "." + extension;
+        // 扩展名来自客户端，只保留字母数字扩展名，文件名同时作为存储键
+        return extension == null || !extension.matches("[A-Za-z0-9]{1,16}") ? uuid : uuid + "." + extension;
     }
 
     private String getTodayPath() {
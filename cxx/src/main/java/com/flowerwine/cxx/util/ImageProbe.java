@@ -0,0 +1,143 @@
+package com.flowerwine.cxx.util;
+
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 图片头信息探测
+ * 只解析 JPEG、PNG、GIF 的文件头取得真实格式和宽高，不解码像素，
+ * 内存占用与图片尺寸无关，可在解码前拦截声明尺寸巨大的图片（解压炸弹）
+ */
+@Component
+public class ImageProbe {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * 图片格式与尺寸
+     *
+     * @param mimeType 按文件内容识别的 MIME 类型
+     */
+    public record ImageInfo(String mimeType, int width, int height) {
+    }
+
+    /**
+     * 读取图片头信息，不是 JPEG、PNG、GIF 或文件头不完整时返回 null
+     * 调用方负责关闭输入流
+     */
+    public ImageInfo probe(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream, 512));
+        try {
+            int first = in.readUnsignedByte();
+            int second = in.readUnsignedByte();
+            if (first == 0xFF && second == 0xD8) {
+                return probeJpeg(in);
+            }
+            if (first == (PNG_SIGNATURE[0] & 0xFF) && second == PNG_SIGNATURE[1]) {
+                return probePng(in);
+            }
+            if (first == 'G' && second == 'I') {
+                return probeGif(in);
+            }
+            return null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * PNG：签名后第一个块必须是 IHDR，依次为宽、高（大端 4 字节）
+     */
+    private ImageInfo probePng(DataInputStream in) throws IOException {
+        for (int i = 2; i < PNG_SIGNATURE.length; i++) {
+            if (in.readUnsignedByte() != (PNG_SIGNATURE[i] & 0xFF)) {
+                return null;
+            }
+        }
+        in.readInt();
+        if (in.readInt() != 0x49484452) {
+            return null;
+        }
+        return dimensions("image/png", in.readInt(), in.readInt());
+    }
+
+    /**
+     * GIF：GIF87a/GIF89a 后为逻辑屏幕宽、高（小端 2 字节）
+     */
+    private ImageInfo probeGif(DataInputStream in) throws IOException {
+        byte[] header = new byte[4];
+        in.readFully(header);
+        if (header[0] != 'F' || header[1] != '8' || (header[2] != '7' && header[2] != '9') || header[3] != 'a') {
+            return null;
+        }
+        int width = in.readUnsignedByte() | in.readUnsignedByte() << 8;
+        int height = in.readUnsignedByte() | in.readUnsignedByte() << 8;
+        return dimensions("image/gif", width, height);
+    }
+
+    /**
+     * JPEG：逐个跳过标记段，直到帧头（SOF）取得高、宽；遇到扫描数据（SOS）前没有帧头视为无效
+     */
+    private ImageInfo probeJpeg(DataInputStream in) throws IOException {
+        while (true) {
+            int marker = in.readUnsignedByte();
+            if (marker != 0xFF) {
+                return null;
+            }
+            // 标记前可以有填充的 0xFF
+            while (marker == 0xFF) {
+                marker = in.readUnsignedByte();
+            }
+            // 没有长度字段的独立标记
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                return null;
+            }
+            int length = in.readUnsignedShort();
+            if (length < 2) {
+                return null;
+            }
+            if (isStartOfFrame(marker)) {
+                in.readUnsignedByte();
+                int height = in.readUnsignedShort();
+                int width = in.readUnsignedShort();
+                return dimensions("image/jpeg", width, height);
+            }
+            skipFully(in, length - 2);
+        }
+    }
+
+    /**
+     * SOF0-SOF15，排除 DHT(C4)、JPG(C8)、DAC(CC)
+     */
+    private boolean isStartOfFrame(int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    private ImageInfo dimensions(String mimeType, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        return new ImageInfo(mimeType, width, height);
+    }
+
+    private void skipFully(DataInputStream in, int count) throws IOException {
+        int remaining = count;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                // skipBytes 在流末尾返回 0，读一个字节区分流末尾和暂时不可跳过
+                in.readUnsignedByte();
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.flowerwine.cxx.util;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.BitSet;
+
+/**
+ * 签到位图工具类
+ * 将按月存储的64位签到位图拼接为连续的日期位图，并基于位运算完成统计
+ */
+public final class SignBitmapUtil {
+
+    private SignBitmapUtil() {
+    }
+
+    /**
+     * 将某月的签到位图拼接到区间位图中
+     *
+     * @param rangeBits   区间位图，第 i 位表示 start + i 天
+     * @param start       区间起始日期
+     * @param end         区间结束日期（包含）
+     * @param yearMonth   位图所属年月
+     * @param monthBitmap 月签到位图，第 d-1 位表示该月第 d 天
+     */
+    public static void mergeMonth(BitSet rangeBits, LocalDate start, LocalDate end,
+                                  YearMonth yearMonth, long monthBitmap) {
+        // 截掉超出当月天数的无效位
+        long bitmap = monthBitmap & lowMask(yearMonth.lengthOfMonth());
+
+        // 截掉区间之外的天
+        LocalDate monthStart = yearMonth.atDay(1);
+        if (YearMonth.from(start).equals(yearMonth)) {
+            bitmap &= ~lowMask(start.getDayOfMonth() - 1);
+        }
+        if (YearMonth.from(end).equals(yearMonth)) {
+            bitmap &= lowMask(end.getDayOfMonth());
+        }
+        if (bitmap == 0) {
+            return;
+        }
+
+        // 月初在区间位图中的偏移，可能为负（月初早于区间起点）
+        int offset = (int) ChronoUnit.DAYS.between(start, monthStart);
+        while (bitmap != 0) {
+            int bit = Long.numberOfTrailingZeros(bitmap);
+            rangeBits.set(offset + bit);
+            bitmap &= bitmap - 1;
+        }
+    }
+
+    /**
+     * 区间内最长连续签到天数
+     */
+    public static int longestStreak(BitSet rangeBits) {
+        int longest = 0;
+        int from = rangeBits.nextSetBit(0);
+        while (from >= 0) {
+            int to = rangeBits.nextClearBit(from);
+            longest = Math.max(longest, to - from);
+            from = rangeBits.nextSetBit(to);
+        }
+        return longest;
+    }
+
+    /**
+     * 截止到指定位置的连续签到天数
+     * 若截止当天未签到，则从前一天开始计算（当天还有机会签到）
+     */
+    public static int currentStreak(BitSet rangeBits, int lastIndex) {
+        if (lastIndex < 0) {
+            return 0;
+        }
+        int end = rangeBits.get(lastIndex) ? lastIndex : lastIndex - 1;
+        if (end < 0 || !rangeBits.get(end)) {
+            return 0;
+        }
+        int previousClear = rangeBits.previousClearBit(end);
+        return end - previousClear;
+    }
+
+    /**
+     * 按星期统计签到天数，下标0为周一，6为周日
+     */
+    public static int[] weekdayHistogram(BitSet rangeBits, LocalDate start, int dayCount) {
+        int[] histogram = new int[7];
+        int firstWeekday = start.getDayOfWeek().getValue() - 1;
+        for (int weekday = 0; weekday < 7; weekday++) {
+            // 构造周期为7的掩码，与区间位图求交集后计数
+            BitSet mask = new BitSet(dayCount);
+            int first = Math.floorMod(weekday - firstWeekday, 7);
+            for (int i = first; i < dayCount; i += 7) {
+                mask.set(i);
+            }
+            mask.and(rangeBits);
+            histogram[weekday] = mask.cardinality();
+        }
+        return histogram;
+    }
+
+    /**
+     * 将区间位图编码为Base64字符串（小端序，第 i 位表示 start + i 天）
+     */
+    public static String encode(BitSet rangeBits) {
+        return Base64.getEncoder().encodeToString(rangeBits.toByteArray());
+    }
+
+    /**
+     * 统计某月位图在每一天的签到情况，累加到 dayCounts 中
+     */
+    public static void accumulateDays(long monthBitmap, int[] dayCounts) {
+        long bitmap = monthBitmap;
+        while (bitmap != 0) {
+            int bit = Long.numberOfTrailingZeros(bitmap);
+            if (bit < dayCounts.length) {
+                dayCounts[bit]++;
+            }
+            bitmap &= bitmap - 1;
+        }
+    }
+
+    /**
+     * 某月是否全勤
+     */
+    public static boolean isFullMonth(long monthBitmap, YearMonth yearMonth) {
+        long mask = lowMask(yearMonth.lengthOfMonth());
+        return (monthBitmap & mask) == mask;
+    }
+
+    /**
+     * 低 n 位全为1的掩码
+     */
+    private static long lowMask(int n) {
+        if (n <= 0) {
+            return 0L;
+        }
+        return n >= 64 ? -1L : (1L << n) - 1;
+    }
+}
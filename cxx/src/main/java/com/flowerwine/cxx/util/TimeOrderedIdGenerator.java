@@ -0,0 +1,24 @@
+package com.flowerwine.cxx.util;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Hibernate 主键生成器，配合 @TimeOrderedId 使用
+ */
+public class TimeOrderedIdGenerator implements IdentifierGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return TimeOrderedIds.nextId();
+    }
+
+    /**
+     * 允许调用方预先分配主键（如下载审计记录入队时即分配，写前日志重放时按主键去重），
+     * 主键为空时才由本生成器分配
+     */
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+}
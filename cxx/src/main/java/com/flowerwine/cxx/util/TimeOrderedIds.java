@@ -0,0 +1,61 @@
+package com.flowerwine.cxx.util;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内时间有序ID
+ * 位布局（共53位，JavaScript Number 可精确表示，前端无需改为字符串）：
+ * <pre>
+ * | 41位 毫秒时间戳（自 2024-01-01 起，约69年） | 4位 节点号 | 8位 毫秒内序号 |
+ * </pre>
+ * 每个节点每毫秒最多 256 个ID，序号用尽时借用下一毫秒；时钟回拨时沿用上次的时间戳，保证单调递增。
+ * 生成的ID远大于原自增主键，按ID排序与按创建时间排序一致
+ */
+public final class TimeOrderedIds {
+
+    /** 2024-01-01T00:00:00Z */
+    public static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 4;
+    private static final int SEQUENCE_BITS = 8;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    private static volatile long nodeId;
+    /** 上一次分配的 (时间戳 << 8 | 序号)，序号溢出时自然进位到时间戳 */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedIds() {
+    }
+
+    /**
+     * 设置节点号，多实例部署时每个实例必须不同
+     */
+    public static void configure(long node) {
+        if (node < 0 || node > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点号必须在 0-" + MAX_NODE_ID + " 之间: " + node);
+        }
+        nodeId = node;
+    }
+
+    public static long nextId() {
+        long next;
+        long previous;
+        do {
+            previous = LAST.get();
+            long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            next = Math.max(now, previous + 1);
+        } while (!LAST.compareAndSet(previous, next));
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << TIMESTAMP_SHIFT) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * 从ID中取出生成时间
+     */
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS);
+    }
+}
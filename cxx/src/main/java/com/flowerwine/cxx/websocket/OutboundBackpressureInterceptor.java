@@ -0,0 +1,100 @@
+package com.flowerwine.cxx.websocket;
+
+import com.flowerwine.cxx.config.WebSocketProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 出站通道拦截器
+ * 为每个会话限制排队消息数，合并可覆盖的推送（如未读数），丢弃过多消息并交由登记表断开慢消费者
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboundBackpressureInterceptor implements ExecutorChannelInterceptor {
+
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final WebSocketProperties webSocketProperties;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        WebSocketSessionRegistry.SessionState state = trackedState(message);
+        if (state == null) {
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        boolean coalescable = isCoalescable(destination);
+        if (coalescable && state.getLatest().put(destination, message) != null) {
+            // 已有同目的地消息在排队，发送时会取用这条最新的
+            sessionRegistry.recordCoalesced();
+            return null;
+        }
+
+        int maxPending = webSocketProperties.getBackpressure().getMaxPendingPerSession();
+        if (state.getPending().incrementAndGet() > maxPending) {
+            state.getPending().decrementAndGet();
+            if (coalescable) {
+                state.getLatest().remove(destination, message);
+            }
+            sessionRegistry.recordDropped(state);
+            return null;
+        }
+        return message;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        WebSocketSessionRegistry.SessionState state = trackedState(message);
+        if (state == null) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (isCoalescable(destination)) {
+            Message<?> latest = state.getLatest().remove(destination);
+            if (latest != null) {
+                return latest;
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        WebSocketSessionRegistry.SessionState state = trackedState(message);
+        if (state == null) {
+            return;
+        }
+        state.getPending().decrementAndGet();
+        if (ex == null) {
+            sessionRegistry.recordDelivered(state);
+        }
+    }
+
+    /**
+     * 只对发往已登记会话的 MESSAGE 帧做限流，心跳和连接应答直接放行
+     */
+    private WebSocketSessionRegistry.SessionState trackedState(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        return sessionRegistry.getState(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+    }
+
+    private boolean isCoalescable(String destination) {
+        if (destination == null) {
+            return false;
+        }
+        for (String suffix : webSocketProperties.getBackpressure().getCoalesceDestinationSuffixes()) {
+            if (destination.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.flowerwine.cxx.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+/**
+ * 在连接建立和关闭时登记 WebSocket 会话
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionTrackingDecoratorFactory implements WebSocketHandlerDecoratorFactory {
+
+    private final WebSocketSessionRegistry sessionRegistry;
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessionRegistry.register(session);
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessionRegistry.unregister(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+}
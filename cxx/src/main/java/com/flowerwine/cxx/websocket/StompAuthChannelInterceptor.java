@@ -0,0 +1,65 @@
+package com.flowerwine.cxx.websocket;
+
+import com.flowerwine.cxx.metrics.PlatformMetrics;
+import com.flowerwine.cxx.util.JwtUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Collections;
+
+/**
+ * STOMP 连接认证：CONNECT 帧带有 Authorization: Bearer 令牌时，以用户 ID 作为会话用户
+ * 会话用户用于解析 /user/queue/... 目的地，外部代理模式下各节点据此在用户注册表中广播会话，
+ * 私信可以送达连接在其他节点上的用户。未带令牌或令牌无效时按匿名连接处理，仍可订阅公共主题
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String AUTHORIZATION = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    private final PlatformMetrics platformMetrics;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+        String bearerToken = accessor.getFirstNativeHeader(AUTHORIZATION);
+        if (!StringUtils.hasText(bearerToken) || !bearerToken.startsWith(BEARER_PREFIX)) {
+            return message;
+        }
+        String jwt = bearerToken.substring(BEARER_PREFIX.length());
+        long start = System.nanoTime();
+        boolean valid = jwtUtil.validateToken(jwt);
+        platformMetrics.recordJwtValidation(PlatformMetrics.REALM_USER, valid, System.nanoTime() - start);
+        if (!valid) {
+            log.debug("STOMP 连接令牌无效，按匿名连接处理: {}", accessor.getSessionId());
+            return message;
+        }
+        try {
+            Long userId = jwtUtil.extractUserId(jwt);
+            if (userId != null) {
+                accessor.setUser(new UsernamePasswordAuthenticationToken(userId.toString(), null,
+                        Collections.singletonList(new SimpleGrantedAuthority("USER"))));
+            }
+        } catch (Exception e) {
+            log.debug("STOMP 连接令牌缺少用户 ID: {}", accessor.getSessionId(), e);
+        }
+        return message;
+    }
+}
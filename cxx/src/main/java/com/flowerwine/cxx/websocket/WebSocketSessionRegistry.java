@@ -0,0 +1,130 @@
+package com.flowerwine.cxx.websocket;
+
+import com.flowerwine.cxx.config.WebSocketProperties;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebSocket 会话登记表
+ * 记录每个会话的待发送消息数、丢弃次数，并负责断开慢消费者
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebSocketSessionRegistry {
+
+    private final WebSocketProperties webSocketProperties;
+
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private final AtomicLong coalescedMessages = new AtomicLong();
+    private final AtomicLong evictedSessions = new AtomicLong();
+
+    /**
+     * 单个会话的发送状态
+     */
+    @Getter
+    public static class SessionState {
+        private final WebSocketSession session;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger consecutiveDrops = new AtomicInteger();
+        /** 可合并目的地 -> 最新一条待发送消息 */
+        private final Map<String, Message<?>> latest = new ConcurrentHashMap<>();
+
+        SessionState(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+
+    public void register(WebSocketSession session) {
+        sessions.put(session.getId(), new SessionState(session));
+    }
+
+    public void unregister(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public SessionState getState(String sessionId) {
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    public void recordCoalesced() {
+        coalescedMessages.incrementAndGet();
+    }
+
+    /**
+     * 记录一次丢弃，连续丢弃过多时断开会话
+     */
+    public void recordDropped(SessionState state) {
+        droppedMessages.incrementAndGet();
+        int drops = state.getConsecutiveDrops().incrementAndGet();
+        if (drops >= webSocketProperties.getBackpressure().getEvictAfterDrops()) {
+            evict(state);
+        }
+    }
+
+    /**
+     * 消息成功发出后重置连续丢弃计数
+     */
+    public void recordDelivered(SessionState state) {
+        state.getConsecutiveDrops().set(0);
+    }
+
+    private void evict(SessionState state) {
+        WebSocketSession session = state.getSession();
+        if (sessions.remove(session.getId()) == null) {
+            return;
+        }
+        evictedSessions.incrementAndGet();
+        log.warn("WebSocket 会话消费过慢，已断开: {}, 待发送: {}", session.getId(), state.getPending().get());
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("关闭慢消费者会话失败: {}", session.getId(), e);
+        }
+    }
+
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    public long getTotalPending() {
+        long total = 0;
+        for (SessionState state : sessions.values()) {
+            total += state.getPending().get();
+        }
+        return total;
+    }
+
+    public int getMaxSessionPending() {
+        int max = 0;
+        for (SessionState state : sessions.values()) {
+            max = Math.max(max, state.getPending().get());
+        }
+        return max;
+    }
+
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+
+    public long getCoalescedMessages() {
+        return coalescedMessages.get();
+    }
+
+    public long getEvictedSessions() {
+        return evictedSessions.get();
+    }
+}
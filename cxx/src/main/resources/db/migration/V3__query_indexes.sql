@@ -0,0 +1,138 @@
+-- 按仓库查询建立复合索引，替换被复合索引前缀覆盖的单列索引
+-- 每张表一条 ALTER，InnoDB 在线建立二级索引，不阻塞读写
+-- 由 ddl-auto 建表后基线化的数据库没有这些单列索引，删除部分按 information_schema.STATISTICS 中
+-- 实际存在的索引拼接，经预处理语句执行
+
+-- PointsRecordRepository.findByUserIdOrderByCreatedAtDesc
+SET @drops = (SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`, ') SEPARATOR '')
+              FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'points_record'
+                AND INDEX_NAME IN ('idx_user_id'));
+SET @ddl = CONCAT('ALTER TABLE `points_record` ', IFNULL(@drops, ''),
+                  'ADD INDEX `idx_user_id_created_at` (`user_id`, `created_at`)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- FileBidRepository.findByUserIdAndBountyId / existsByUserIdAndBountyId / findByUserId
+SET @drops = (SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`, ') SEPARATOR '')
+              FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'file_bid'
+                AND INDEX_NAME IN ('idx_user_id'));
+SET @ddl = CONCAT('ALTER TABLE `file_bid` ', IFNULL(@drops, ''),
+                  'ADD INDEX `idx_user_id_bounty_id` (`user_id`, `bounty_id`)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- UserUploadFileRepository.findByFileId
+ALTER TABLE `user_upload_file`
+    ADD INDEX `idx_file_id` (`file_id`);
+
+-- UserSignRecordRepository：按用户查询由唯一索引覆盖；全站月度统计只读位图列，建覆盖索引
+SET @drops = (SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`, ') SEPARATOR '')
+              FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_sign_record'
+                AND INDEX_NAME IN ('idx_user_id', 'idx_year_month'));
+SET @ddl = CONCAT('ALTER TABLE `user_sign_record` ', IFNULL(@drops, ''),
+                  'ADD INDEX `idx_year_month_bitmap` (`year`, `month`, `sign_bitmap`)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- UserSignCycleRepository.findByUserIdAndStatus
+SET @drops = (SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`, ') SEPARATOR '')
+              FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_sign_cycle'
+                AND INDEX_NAME IN ('idx_user_id'));
+SET @ddl = CONCAT('ALTER TABLE `user_sign_cycle` ', IFNULL(@drops, ''),
+                  'ADD INDEX `idx_user_id_status` (`user_id`, `status`)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- UserFileTaskRepository：按状态（及是否免费）、按用户分页，均按创建时间倒序
+SET @drops = (SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`, ') SEPARATOR '')
+              FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_file_task'
+                AND INDEX_NAME IN ('idx_user_id', 'idx_status', 'idx_is_free'));
+SET @ddl = CONCAT('ALTER TABLE `user_file_task` ', IFNULL(@drops, ''),
+                  'ADD INDEX `idx_user_id_created_at` (`user_id`, `created_at`), ',
+                  'ADD INDEX `idx_status_created_at` (`status`, `created_at`), ',
+                  'ADD INDEX `idx_status_is_free_created_at` (`status`, `is_free`, `created_at`)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- FileBountyRepository.findByStatus（最新按创建时间、热门按浏览量）/ findByUserIdAndWinnerId
+SET @drops = (SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`, ') SEPARATOR '')
+              FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'file_bounty'
+                AND INDEX_NAME IN ('idx_user_id', 'idx_status'));
+SET @ddl = CONCAT('ALTER TABLE `file_bounty` ', IFNULL(@drops, ''),
+                  'ADD INDEX `idx_user_id_winner_id` (`user_id`, `winner_id`), ',
+                  'ADD INDEX `idx_status_created_at` (`status`, `created_at`), ',
+                  'ADD INDEX `idx_status_view_count` (`status`, `view_count`)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- BountyDownloadRecordRepository.findByBountyIdAndUserId / countByBountyIdAndUserId
+SET @drops = (SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`, ') SEPARATOR '')
+              FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'bounty_download_record'
+                AND INDEX_NAME IN ('idx_bounty_id'));
+SET @ddl = CONCAT('ALTER TABLE `bounty_download_record` ', IFNULL(@drops, ''),
+                  'ADD INDEX `idx_bounty_id_user_id` (`bounty_id`, `user_id`)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- FileDownloadRecordRepository.findByFileIdAndUserId / existsByFileIdAndUserId
+SET @drops = (SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`, ') SEPARATOR '')
+              FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'file_download_record'
+                AND INDEX_NAME IN ('idx_file_id'));
+SET @ddl = CONCAT('ALTER TABLE `file_download_record` ', IFNULL(@drops, ''),
+                  'ADD INDEX `idx_file_id_user_id` (`file_id`, `user_id`)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- FileReviewHistoryRepository.findByFileUploadIdOrderByCreatedAtDesc
+SET @drops = (SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`, ') SEPARATOR '')
+              FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'file_review_history'
+                AND INDEX_NAME IN ('idx_file_upload_id'));
+SET @ddl = CONCAT('ALTER TABLE `file_review_history` ', IFNULL(@drops, ''),
+                  'ADD INDEX `idx_file_upload_id_created_at` (`file_upload_id`, `created_at`)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- PrivateMessageConversationRepository.findByUser：两侧各一个索引，按 updated_at 排序
+SET @drops = (SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`, ') SEPARATOR '')
+              FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'private_message_conversation'
+                AND INDEX_NAME IN ('idx_initiator_id', 'idx_participant_id'));
+SET @ddl = CONCAT('ALTER TABLE `private_message_conversation` ', IFNULL(@drops, ''),
+                  'ADD INDEX `idx_initiator_id_updated_at` (`initiator_id`, `updated_at`), ',
+                  'ADD INDEX `idx_participant_id_updated_at` (`participant_id`, `updated_at`)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- SystemMessageReadRepository.findTopByUserIdOrderByMessageIdDesc / 未读数中的 MAX(message_id)
+SET @drops = (SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`, ') SEPARATOR '')
+              FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'system_message_read'
+                AND INDEX_NAME IN ('idx_user_id'));
+SET @ddl = CONCAT('ALTER TABLE `system_message_read` ', IFNULL(@drops, ''),
+                  'ADD INDEX `idx_user_id_message_id` (`user_id`, `message_id`)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- UserProfileRepository.existsByEmail（注册时校验）
+ALTER TABLE `user_profile`
+    ADD INDEX `idx_email` (`email`);
@@ -0,0 +1,13 @@
+-- tus 上传完成处理记录：按上传 ID 保证同一上传只存储和记录一次，重启后继续未完成的处理
+
+CREATE TABLE IF NOT EXISTS `tus_upload_completion` (
+    `upload_id` VARCHAR(64) NOT NULL COMMENT 'tus 上传ID',
+    `user_id` BIGINT UNSIGNED NOT NULL COMMENT '上传用户ID',
+    `status` TINYINT NOT NULL COMMENT '状态：0 已接收，1 处理中，2 已完成',
+    `file_name` VARCHAR(255) DEFAULT NULL COMMENT '存储文件名，进入处理中时确定',
+    `file_id` BIGINT UNSIGNED DEFAULT NULL COMMENT '文件ID，完成后记录',
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`upload_id`),
+    KEY `idx_status_updated_at` (`status`, `updated_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='tus上传完成处理表';
@@ -0,0 +1,68 @@
+-- 私信表分区：补充数值会话键 conversation_key，建立 (会话, id) 复合索引并按会话键哈希分区
+-- 原 sql/upgrade/private_message_sharding.sql。新建库的基线结构已包含这些变更，
+-- 由 ddl-auto 建表或未执行升级脚本的库基线化后在此补齐；每一步按 information_schema 判断，已完成的步骤跳过
+-- 数据量较大时重建分区耗时较长，建议在低峰期升级
+
+-- 1. 增加会话数值键列
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'private_message'
+                 AND COLUMN_NAME = 'conversation_key') = 0,
+              'ALTER TABLE `private_message` ADD COLUMN `conversation_key` BIGINT UNSIGNED NULL COMMENT ''会话数值键，对应会话表主键'' AFTER `id`',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 2. 回填会话数值键（ddl-auto 补列时已有行的值为 0，同样按会话表修正）
+UPDATE `private_message` pm
+    JOIN `private_message_conversation` c ON c.`conversation_id` = pm.`conversation_id`
+SET pm.`conversation_key` = c.`id`
+WHERE NOT (pm.`conversation_key` <=> c.`id`);
+
+-- 会话已不存在的孤立消息无法路由，直接清理
+DELETE pm FROM `private_message` pm
+    LEFT JOIN `private_message_conversation` c ON c.`conversation_id` = pm.`conversation_id`
+WHERE c.`id` IS NULL;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'private_message'
+                 AND COLUMN_NAME = 'conversation_key' AND IS_NULLABLE = 'YES') > 0,
+              'ALTER TABLE `private_message` MODIFY COLUMN `conversation_key` BIGINT UNSIGNED NOT NULL COMMENT ''会话数值键，对应会话表主键''',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 3. 调整索引：分区键需包含在主键中
+SET @pk = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'private_message'
+                AND INDEX_NAME = 'PRIMARY' AND COLUMN_NAME = 'conversation_key') = 0,
+             'DROP PRIMARY KEY, ADD PRIMARY KEY (`id`, `conversation_key`)',
+             NULL);
+SET @drops = (SELECT GROUP_CONCAT(DISTINCT CONCAT('DROP INDEX `', INDEX_NAME, '`') SEPARATOR ', ')
+              FROM information_schema.STATISTICS
+              WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'private_message'
+                AND INDEX_NAME IN ('idx_conversation_id', 'idx_created_at'));
+SET @adds = (SELECT GROUP_CONCAT(CONCAT('ADD INDEX `', wanted.name, '` ', wanted.cols) SEPARATOR ', ')
+             FROM (SELECT 'idx_conversation_key_id' AS name, '(`conversation_key`, `id`)' AS cols
+                   UNION ALL
+                   SELECT 'idx_conversation_key_receiver_id', '(`conversation_key`, `receiver_id`, `id`)'
+                   UNION ALL
+                   SELECT 'idx_conversation_id_id', '(`conversation_id`, `id`)') wanted
+             WHERE wanted.name NOT IN (SELECT INDEX_NAME FROM information_schema.STATISTICS
+                                       WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'private_message'));
+SET @changes = CONCAT_WS(', ', @pk, @drops, @adds);
+SET @ddl = IF(@changes = '', 'DO 0', CONCAT('ALTER TABLE `private_message` ', @changes));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 4. 按会话键哈希分区
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.PARTITIONS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'private_message'
+                 AND PARTITION_NAME IS NOT NULL) = 0,
+              'ALTER TABLE `private_message` PARTITION BY HASH(`conversation_key`) PARTITIONS 16',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
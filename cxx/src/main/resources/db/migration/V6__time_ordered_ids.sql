@@ -0,0 +1,59 @@
+-- 时间有序主键：积分流水、私信、下载记录、审核历史、上传记录改为应用生成主键（TimeOrderedIds），取消自增属性，
+-- 使 Hibernate 可以批量插入。原 sql/upgrade/time_ordered_ids.sql，只修改仍带自增属性的表。
+-- 已有数据的主键保持不变：新主键（时间戳左移 12 位）远大于任何现存自增值，
+-- 按主键排序仍与按创建时间排序一致，无需回填或重排
+-- 升级前先停止所有旧版本实例，避免旧实例继续依赖自增主键插入
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'points_record'
+                 AND COLUMN_NAME = 'id' AND EXTRA LIKE '%auto_increment%') > 0,
+              'ALTER TABLE `points_record` MODIFY COLUMN `id` BIGINT UNSIGNED NOT NULL COMMENT ''主键ID''',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'private_message'
+                 AND COLUMN_NAME = 'id' AND EXTRA LIKE '%auto_increment%') > 0,
+              'ALTER TABLE `private_message` MODIFY COLUMN `id` BIGINT UNSIGNED NOT NULL COMMENT ''消息ID''',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'file_download_record'
+                 AND COLUMN_NAME = 'id' AND EXTRA LIKE '%auto_increment%') > 0,
+              'ALTER TABLE `file_download_record` MODIFY COLUMN `id` BIGINT UNSIGNED NOT NULL COMMENT ''主键ID''',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'bounty_download_record'
+                 AND COLUMN_NAME = 'id' AND EXTRA LIKE '%auto_increment%') > 0,
+              'ALTER TABLE `bounty_download_record` MODIFY COLUMN `id` BIGINT UNSIGNED NOT NULL COMMENT ''主键ID''',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'file_review_history'
+                 AND COLUMN_NAME = 'id' AND EXTRA LIKE '%auto_increment%') > 0,
+              'ALTER TABLE `file_review_history` MODIFY COLUMN `id` BIGINT UNSIGNED NOT NULL COMMENT ''主键ID''',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_upload_file'
+                 AND COLUMN_NAME = 'id' AND EXTRA LIKE '%auto_increment%') > 0,
+              'ALTER TABLE `user_upload_file` MODIFY COLUMN `id` BIGINT UNSIGNED NOT NULL COMMENT ''主键ID''',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,109 @@
+package com.flowerwine.cxx.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 下载审计写前日志：追加、改名重放、崩溃后重放、损坏行
+ */
+class DownloadAuditWalTests {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+
+    @TempDir
+    Path dir;
+
+    private static DownloadAuditRecord file(long id) {
+        return new DownloadAuditRecord(id, 100 + id, 200 + id, TIME);
+    }
+
+    @Test
+    void replaysAppendedRecordsAndDeletesFinishedFile() throws IOException {
+        try (DownloadAuditWal wal = new DownloadAuditWal(dir, false)) {
+            assertFalse(wal.hasPending());
+            wal.append(List.of(file(1), file(2)));
+            wal.append(List.of(file(3)));
+            assertTrue(wal.hasPending());
+
+            assertEquals(List.of(file(1), file(2), file(3)), wal.nextBatch(10));
+            // 下一次调用表示上一批已写库，删除读完的文件
+            assertEquals(List.of(), wal.nextBatch(10));
+            assertFalse(wal.hasPending());
+        }
+        assertEquals(List.of(), listFiles());
+    }
+
+    @Test
+    void batchesRespectMaxRecords() throws IOException {
+        try (DownloadAuditWal wal = new DownloadAuditWal(dir, false)) {
+            wal.append(List.of(file(1), file(2), file(3), file(4), file(5)));
+
+            assertEquals(List.of(file(1), file(2)), wal.nextBatch(2));
+            assertEquals(List.of(file(3), file(4)), wal.nextBatch(2));
+            assertEquals(List.of(file(5)), wal.nextBatch(2));
+            assertEquals(List.of(), wal.nextBatch(2));
+        }
+    }
+
+    @Test
+    void recordsAppendedDuringReplayFollowInNewFile() throws IOException {
+        try (DownloadAuditWal wal = new DownloadAuditWal(dir, false)) {
+            wal.append(List.of(file(1), file(2)));
+            assertEquals(List.of(file(1)), wal.nextBatch(1));
+
+            // 重放文件已改名，新记录写入新的追加文件，读完当前文件后接着重放
+            wal.append(List.of(file(3)));
+            assertEquals(List.of(file(2), file(3)), wal.nextBatch(10));
+            assertEquals(List.of(), wal.nextBatch(10));
+        }
+        assertEquals(List.of(), listFiles());
+    }
+
+    @Test
+    void restartReplaysUnfinishedFileWithSameIds() throws IOException {
+        try (DownloadAuditWal wal = new DownloadAuditWal(dir, false)) {
+            wal.append(List.of(file(1), file(2)));
+            assertEquals(List.of(file(1)), wal.nextBatch(1));
+        }
+
+        // 重放中途退出：重启后从头重放该文件，主键不变，已入库的记录由写入器按主键跳过
+        try (DownloadAuditWal wal = new DownloadAuditWal(dir, true)) {
+            assertTrue(wal.hasPending());
+            assertEquals(List.of(file(1), file(2)), wal.nextBatch(10));
+            assertEquals(List.of(), wal.nextBatch(10));
+        }
+    }
+
+    @Test
+    void skipsTornAndInvalidLines() throws IOException {
+        String valid = file(1).toLine();
+        String torn = file(2).toLine();
+        Files.writeString(dir.resolve("download-audit.wal"),
+                valid + "\n\nx\t2\t3\t" + TIME + "\n1\t2\t3\t4\t" + TIME + "\n" + torn.substring(0, torn.length() - 5),
+                StandardCharsets.UTF_8);
+
+        try (DownloadAuditWal wal = new DownloadAuditWal(dir, false)) {
+            assertTrue(wal.hasPending());
+            assertEquals(List.of(file(1)), wal.nextBatch(10));
+        }
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return new ArrayList<>(files.toList());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.flowerwine.cxx.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 私信推送线程池：队列满时提交线程等待，推送顺序与提交顺序一致
+ */
+class AsyncConfigTests {
+
+    @Test
+    void privateMessagePushKeepsSubmissionOrderWhenQueueIsFull() throws InterruptedException {
+        WebSocketProperties webSocketProperties = new WebSocketProperties();
+        webSocketProperties.getPrivateMessage().setQueueCapacity(2);
+        ThreadPoolTaskExecutor executor =
+                new AsyncConfig(webSocketProperties, new FileUploadProperties()).privateMessagePushExecutor();
+        List<Integer> pushed = new ArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // 第一条阻塞推送线程，后续提交很快填满队列
+            executor.execute(() -> {
+                awaitQuietly(release);
+                pushed.add(0);
+            });
+            Thread releaser = new Thread(() -> {
+                sleepQuietly(200);
+                release.countDown();
+            });
+            releaser.start();
+            for (int i = 1; i < 50; i++) {
+                int index = i;
+                executor.execute(() -> pushed.add(index));
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.getThreadPoolExecutor().awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(IntStream.range(0, 50).boxed().toList(), pushed);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.flowerwine.cxx.config;
+
+import com.flowerwine.cxx.dto.JwtTokenDTO;
+import com.flowerwine.cxx.event.MessageBroadcastListener;
+import com.flowerwine.cxx.metrics.PlatformMetrics;
+import com.flowerwine.cxx.metrics.SqlBudgetProperties;
+import com.flowerwine.cxx.metrics.SqlRequestMetrics;
+import com.flowerwine.cxx.metrics.SqlRequestMetricsChannelInterceptor;
+import com.flowerwine.cxx.util.JwtUtil;
+import com.flowerwine.cxx.websocket.OutboundBackpressureInterceptor;
+import com.flowerwine.cxx.websocket.SessionTrackingDecoratorFactory;
+import com.flowerwine.cxx.websocket.StompAuthChannelInterceptor;
+import com.flowerwine.cxx.websocket.WebSocketSessionRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * 外部代理模式：两个节点经嵌入式 STOMP 代理（Artemis）转发，
+ * 一个节点发出的私信和系统消息送达连接在另一个节点上的客户端
+ */
+class WebSocketRelayTests {
+
+    private static final long USER_ID = 42L;
+
+    private static EmbeddedActiveMQ broker;
+    private static ConfigurableApplicationContext sender;
+    private static ConfigurableApplicationContext receiver;
+
+    @BeforeAll
+    static void start() throws Exception {
+        int stompPort = freePort();
+        Configuration configuration = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp",
+                        "tcp://127.0.0.1:" + stompPort + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/");
+        broker = new EmbeddedActiveMQ().setConfiguration(configuration);
+        broker.start();
+
+        sender = startNode(stompPort);
+        receiver = startNode(stompPort);
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        if (sender != null) {
+            sender.close();
+        }
+        if (receiver != null) {
+            receiver.close();
+        }
+        if (broker != null) {
+            broker.stop();
+        }
+    }
+
+    @Test
+    void privateMessageReachesUserOnAnotherNode() throws Exception {
+        String token = receiver.getBean(JwtUtil.class).generateToken(JwtTokenDTO.builder()
+                .userId(USER_ID)
+                .username("relay-user")
+                .build());
+        BlockingQueue<Map<String, Object>> received = new LinkedBlockingQueue<>();
+        WebSocketStompClient client = stompClient();
+        try {
+            StompSession session = connect(client, receiver, token);
+            session.subscribe("/user" + MessageBroadcastListener.PRIVATE_MESSAGE_DESTINATION, collect(received));
+
+            SimpMessagingTemplate template = sender.getBean(SimpMessagingTemplate.class);
+            Map<String, Object> message = awaitDelivery(received, () -> template.convertAndSendToUser(
+                    String.valueOf(USER_ID), MessageBroadcastListener.PRIVATE_MESSAGE_DESTINATION,
+                    Map.of("content", "hello")));
+            assertEquals("hello", message.get("content"));
+        } finally {
+            client.stop();
+        }
+    }
+
+    @Test
+    void systemBroadcastReachesAnonymousSessionOnAnotherNode() throws Exception {
+        BlockingQueue<Map<String, Object>> received = new LinkedBlockingQueue<>();
+        WebSocketStompClient client = stompClient();
+        try {
+            StompSession session = connect(client, receiver, null);
+            session.subscribe("/topic/system", collect(received));
+
+            SimpMessagingTemplate template = sender.getBean(SimpMessagingTemplate.class);
+            Map<String, Object> message = awaitDelivery(received,
+                    () -> template.convertAndSend("/topic/system", Map.of("title", "notice")));
+            assertEquals("notice", message.get("title"));
+        } finally {
+            client.stop();
+        }
+    }
+
+    /**
+     * 代理端订阅异步建立，按间隔重发直到收到
+     */
+    private static Map<String, Object> awaitDelivery(BlockingQueue<Map<String, Object>> received, Runnable send)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        Map<String, Object> message = null;
+        while (message == null && System.nanoTime() < deadline) {
+            send.run();
+            message = received.poll(300, TimeUnit.MILLISECONDS);
+        }
+        assertNotNull(message, "消息未经代理送达另一节点");
+        return message;
+    }
+
+    private static ConfigurableApplicationContext startNode(int stompPort) {
+        // 以命令行参数传入，覆盖 application.yml 中的端口和代理模式
+        return new SpringApplicationBuilder(RelayNode.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--app.websocket.broker.mode=relay",
+                "--app.websocket.broker.relay-host=127.0.0.1",
+                "--app.websocket.broker.relay-port=" + stompPort);
+    }
+
+    private static WebSocketStompClient stompClient() {
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        return client;
+    }
+
+    private static StompSession connect(WebSocketStompClient client, ConfigurableApplicationContext node, String token)
+            throws Exception {
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        StompHeaders connectHeaders = new StompHeaders();
+        if (token != null) {
+            connectHeaders.add("Authorization", "Bearer " + token);
+        }
+        return client.connectAsync("ws://127.0.0.1:" + port + "/ws/websocket", new WebSocketHttpHeaders(),
+                connectHeaders, new StompSessionHandlerAdapter() {
+                }).get(10, TimeUnit.SECONDS);
+    }
+
+    private static StompFrameHandler collect(BlockingQueue<Map<String, Object>> received) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((Map<String, Object>) payload);
+            }
+        };
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * 只包含 WebSocket 相关配置的节点，不连接数据库
+     */
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({
+            PropertyPlaceholderAutoConfiguration.class,
+            ConfigurationPropertiesAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            WebSocketServletAutoConfiguration.class
+    })
+    @Import({
+            WebSocketConfig.class,
+            WebSocketProperties.class,
+            WebSocketSessionRegistry.class,
+            SessionTrackingDecoratorFactory.class,
+            OutboundBackpressureInterceptor.class,
+            SqlRequestMetricsChannelInterceptor.class,
+            SqlRequestMetrics.class,
+            SqlBudgetProperties.class,
+            StompAuthChannelInterceptor.class,
+            JwtUtil.class,
+            AppProperties.class,
+            PlatformMetrics.class
+    })
+    static class RelayNode {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.flowerwine.cxx.controller;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import com.flowerwine.cxx.service.AvatarDerivativeService;
+import com.flowerwine.cxx.storage.BlobStat;
+import com.flowerwine.cxx.storage.BlobStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 头像缩略图访问：拒绝非正尺寸，缩略图缺失时按需补生成
+ */
+class AvatarControllerTests {
+
+    private final AvatarDerivativeService avatarDerivativeService = mock(AvatarDerivativeService.class);
+    private final AvatarController avatarController = new AvatarController(avatarDerivativeService,
+            new FileUploadProperties(), mock(BlobStore.class));
+
+    @Test
+    void rejectsNonPositiveSize() throws IOException {
+        for (int size : new int[]{0, -64}) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> avatarController.getAvatar("a.png", size));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+        verify(avatarDerivativeService, never()).findDerivative(anyString(), anyInt());
+    }
+
+    @Test
+    void missingDerivativeIsQueuedOnlyWhenServiceAllows() throws IOException {
+        when(avatarDerivativeService.findOriginal("a.png"))
+                .thenReturn(new BlobStat("avatars/a.png", 10, Instant.now()));
+
+        when(avatarDerivativeService.shouldGenerate("a.png")).thenReturn(false);
+        assertEquals(HttpStatus.OK, avatarController.getAvatar("a.png", 64).getStatusCode());
+        verify(avatarDerivativeService, never()).generate("a.png");
+
+        when(avatarDerivativeService.shouldGenerate("a.png")).thenReturn(true);
+        assertEquals(HttpStatus.OK, avatarController.getAvatar("a.png", 64).getStatusCode());
+        verify(avatarDerivativeService).generate("a.png");
+    }
+}
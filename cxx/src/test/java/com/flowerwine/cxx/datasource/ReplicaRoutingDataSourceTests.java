@@ -0,0 +1,168 @@
+package com.flowerwine.cxx.datasource;
+
+import com.flowerwine.cxx.security.AuthUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 读写分离路由：两个独立的内存数据库分别作主库和副本（与本地用两个 MySQL 实例测试相同，没有复制关系），
+ * 按查询到的库名判断连接来自哪个连接池
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private static final String SERVICE_METHOD = "com.flowerwine.cxx.service.BountyService.getBountyList";
+    private static final String REPOSITORY_METHOD =
+            "org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReplicaDataSourceProperties properties = new ReplicaDataSourceProperties();
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReadYourWritesTracker tracker;
+    private DataSourceTransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        tracker = new ReadYourWritesTracker(properties, replica, meterRegistry);
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, replica, tracker,
+                properties.getTransactionPrefixes(), meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS instance (name VARCHAR(16))");
+        jdbcTemplate.execute("DELETE FROM instance");
+        jdbcTemplate.update("INSERT INTO instance VALUES (?)", name);
+        return dataSource;
+    }
+
+    /** 在指定名称的事务中查询，返回连接所属的库 */
+    private String instanceIn(String transactionName, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setName(transactionName);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM instance", String.class));
+    }
+
+    private void writeIn(String transactionName) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setName(transactionName);
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update("UPDATE instance SET name = name"));
+    }
+
+    private static void loginAs(long userId) {
+        AuthUser user = AuthUser.builder().id(userId).username("u" + userId).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private double connections(String target) {
+        return meterRegistry.get("datasource.routing").tag("target", target).counter().count();
+    }
+
+    @Test
+    void serviceReadOnlyTransactionUsesReplica() {
+        assertEquals("replica", instanceIn(SERVICE_METHOD, true));
+        assertEquals(1, connections(ReplicaRoutingDataSource.REPLICA));
+    }
+
+    @Test
+    void writesAndOtherReadsUsePrimary() {
+        assertEquals("primary", instanceIn(SERVICE_METHOD, false));
+        // Spring Data 仓库默认的只读事务
+        assertEquals("primary", instanceIn(REPOSITORY_METHOD, true));
+        // 没有事务
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM instance", String.class));
+        assertEquals(0, connections(ReplicaRoutingDataSource.REPLICA));
+    }
+
+    @Test
+    void userReadsOwnWritesFromPrimary() throws InterruptedException {
+        properties.setReadYourWritesMillis(200);
+        loginAs(1);
+        assertEquals("replica", instanceIn(SERVICE_METHOD, true));
+
+        writeIn("com.flowerwine.cxx.service.BountyService.createBounty");
+        assertEquals("primary", instanceIn(SERVICE_METHOD, true));
+
+        // 其他用户和未登录请求不受影响
+        loginAs(2);
+        assertEquals("replica", instanceIn(SERVICE_METHOD, true));
+        SecurityContextHolder.clearContext();
+        assertEquals("replica", instanceIn(SERVICE_METHOD, true));
+
+        // 窗口过后回到副本
+        loginAs(1);
+        Thread.sleep(300);
+        assertEquals("replica", instanceIn(SERVICE_METHOD, true));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinUser() {
+        loginAs(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setName("com.flowerwine.cxx.service.BountyService.createBounty");
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE instance SET name = name");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", instanceIn(SERVICE_METHOD, true));
+    }
+
+    @Test
+    void independentInstancesCountAsNoLag() {
+        // 副本不是 MySQL 或没有配置复制时视为无延迟
+        tracker.checkReplicaLag();
+        assertEquals("replica", instanceIn(SERVICE_METHOD, true));
+    }
+
+    @Test
+    void unreachableReplicaSendsReadsToPrimary() {
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+        replica.setUrl("jdbc:h2:mem:replica;IFEXISTS=TRUE");
+        tracker.checkReplicaLag();
+
+        assertEquals("primary", instanceIn(SERVICE_METHOD, true));
+        assertEquals(0, connections(ReplicaRoutingDataSource.REPLICA));
+
+        // 恢复后重新走副本
+        replica.setUrl("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+        database("replica");
+        tracker.checkReplicaLag();
+        assertEquals("replica", instanceIn(SERVICE_METHOD, true));
+    }
+}
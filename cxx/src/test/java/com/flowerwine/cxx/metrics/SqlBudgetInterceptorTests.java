@@ -0,0 +1,116 @@
+package com.flowerwine.cxx.metrics;
+
+import com.flowerwine.cxx.exception.GlobalExceptionHandler;
+import com.flowerwine.cxx.exception.SqlBudgetExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * fail 模式的语句预算：超出接口预算的语句在执行前被拒绝，请求以 500 结束；预算内的请求正常返回
+ */
+class SqlBudgetInterceptorTests {
+
+    private static final String ENDPOINT = "ItemController.list";
+
+    private final DriverManagerDataSource target =
+            new DriverManagerDataSource("jdbc:h2:mem:sqlbudget;DB_CLOSE_DELAY=-1", "sa", "");
+    private final SqlBudgetProperties budgetProperties = new SqlBudgetProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        budgetProperties.setMode(SqlBudgetProperties.Mode.FAIL);
+        budgetProperties.getEndpoints().put(ENDPOINT, 3);
+        SqlRequestMetrics sqlRequestMetrics = new SqlRequestMetrics(meterRegistry, budgetProperties);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SqlCountingDataSource(target));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ItemController(jdbcTemplate))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addInterceptors(new SqlBudgetInterceptor(sqlRequestMetrics))
+                .addFilters(new SqlRequestMetricsFilter(sqlRequestMetrics))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(target).execute("SHUTDOWN");
+    }
+
+    private MvcResult list(int queries) throws Exception {
+        return mockMvc.perform(get("/items").param("queries", String.valueOf(queries))).andReturn();
+    }
+
+    private double recordedStatements() {
+        return meterRegistry.get("sql.request.statements").tag("endpoint", ENDPOINT).summary().max();
+    }
+
+    @Test
+    void withinBudgetSucceeds() throws Exception {
+        MvcResult result = list(3);
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals("3", result.getResponse().getContentAsString());
+        assertNull(result.getResolvedException());
+        assertEquals(3, recordedStatements());
+    }
+
+    @Test
+    void overBudgetFailsBeforeExtraStatementRuns() throws Exception {
+        MvcResult result = list(4);
+
+        assertEquals(500, result.getResponse().getStatus());
+        SqlBudgetExceededException e = assertInstanceOf(SqlBudgetExceededException.class,
+                result.getResolvedException());
+        assertEquals(ENDPOINT, e.getEndpoint());
+        assertEquals(4, e.getStatements());
+        assertEquals(3, e.getBudget());
+        // 第 4 条在执行前被拒绝
+        assertEquals(3, recordedStatements());
+    }
+
+    @Test
+    void logModeOnlyRecords() throws Exception {
+        budgetProperties.setMode(SqlBudgetProperties.Mode.LOG);
+
+        MvcResult result = list(5);
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(5, recordedStatements());
+    }
+
+    @RestController
+    static class ItemController {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        ItemController(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        /** 逐条查询，模拟 N+1 */
+        @GetMapping("/items")
+        int list(@RequestParam int queries) {
+            int total = 0;
+            for (int i = 0; i < queries; i++) {
+                total += jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.flowerwine.cxx.service;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import com.flowerwine.cxx.storage.BlobStat;
+import com.flowerwine.cxx.storage.BlobStore;
+import com.flowerwine.cxx.storage.LocalDiskBlobStore;
+import com.flowerwine.cxx.storage.StorageLayout;
+import com.flowerwine.cxx.storage.StorageProperties;
+import com.flowerwine.cxx.util.ImageProbe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 头像缩略图：按请求尺寸选取缩略图，超过最大尺寸时取最大缩略图；生成失败的原图在重试间隔内不再提交
+ */
+class AvatarDerivativeServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final FileUploadProperties uploadProperties = new FileUploadProperties();
+    private BlobStore blobStore;
+    private StorageLayout storageLayout;
+    private AvatarDerivativeService avatarDerivativeService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        FileUploadProperties.Dimensions dimensions = new FileUploadProperties.Dimensions();
+        dimensions.setWidth(1000);
+        dimensions.setHeight(1000);
+        FileUploadProperties.FileTypeConfig avatar = new FileUploadProperties.FileTypeConfig();
+        avatar.setDirectory("avatars");
+        avatar.setDimensions(dimensions);
+        uploadProperties.setTypes(Map.of("avatar", avatar));
+        uploadProperties.setUrlPrefix("/uploads");
+
+        StorageProperties storageProperties = new StorageProperties();
+        blobStore = new LocalDiskBlobStore(tempDir, storageProperties.getLocal());
+        storageLayout = new StorageLayout(storageProperties, blobStore);
+        avatarDerivativeService = new AvatarDerivativeService(uploadProperties, new ImageProbe(), blobStore,
+                storageLayout);
+    }
+
+    private void storeAvatar(String fileName, byte[] content) throws IOException {
+        blobStore.put(storageLayout.key("avatars", fileName), new ByteArrayInputStream(content), content.length);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] broken() {
+        return "not an image".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void picksSmallestDerivativeNotBelowRequestedSize() throws IOException {
+        storeAvatar("a.png", png(300, 200));
+        avatarDerivativeService.generate("a.png");
+
+        assertTrue(avatarDerivativeService.findDerivative("a.png", 32).key().endsWith("a_32.png"));
+        assertTrue(avatarDerivativeService.findDerivative("a.png", 40).key().endsWith("a_64.png"));
+        assertTrue(avatarDerivativeService.findDerivative("a.png", 128).key().endsWith("a_128.png"));
+        assertTrue(avatarDerivativeService.shouldGenerate("a.png"));
+    }
+
+    @Test
+    void sizeAboveLargestServesLargestDerivative() throws IOException {
+        storeAvatar("a.png", png(300, 300));
+        assertNull(avatarDerivativeService.findDerivative("a.png", 512));
+
+        avatarDerivativeService.generate("a.png");
+
+        BlobStat derivative = avatarDerivativeService.findDerivative("a.png", 512);
+        assertTrue(derivative.key().endsWith("a_128.png"));
+        assertEquals(128, ImageIO.read(blobStore.get(derivative.key())).getWidth());
+    }
+
+    @Test
+    void failedOriginalIsNotResubmitted() throws IOException {
+        storeAvatar("bad.png", broken());
+        storeAvatar("huge.png", png(1200, 10));
+        assertTrue(avatarDerivativeService.shouldGenerate("bad.png"));
+
+        avatarDerivativeService.generate("bad.png");
+        avatarDerivativeService.generate("huge.png");
+
+        assertFalse(avatarDerivativeService.shouldGenerate("bad.png"));
+        assertFalse(avatarDerivativeService.shouldGenerate("huge.png"));
+        assertNull(avatarDerivativeService.findDerivative("bad.png", 64));
+
+        // 重试间隔过后重新提交
+        uploadProperties.getAvatarDerivatives().setFailureRetryMinutes(0);
+        assertTrue(avatarDerivativeService.shouldGenerate("bad.png"));
+    }
+
+    @Test
+    void failureCacheIsBounded() throws IOException {
+        uploadProperties.getAvatarDerivatives().setFailureCacheSize(2);
+        for (String fileName : new String[]{"b1.png", "b2.png", "b3.png"}) {
+            storeAvatar(fileName, broken());
+            avatarDerivativeService.generate(fileName);
+        }
+
+        // 最早失败的被淘汰，访问时会重新提交
+        assertTrue(avatarDerivativeService.shouldGenerate("b1.png"));
+        assertFalse(avatarDerivativeService.shouldGenerate("b2.png"));
+        assertFalse(avatarDerivativeService.shouldGenerate("b3.png"));
+    }
+}
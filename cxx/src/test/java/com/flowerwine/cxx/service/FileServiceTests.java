@@ -0,0 +1,148 @@
+package com.flowerwine.cxx.service;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import com.flowerwine.cxx.metrics.PlatformMetrics;
+import com.flowerwine.cxx.storage.BlobStore;
+import com.flowerwine.cxx.storage.LocalDiskBlobStore;
+import com.flowerwine.cxx.storage.StorageLayout;
+import com.flowerwine.cxx.storage.StorageProperties;
+import com.flowerwine.cxx.util.ContentTypeDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.desair.tus.server.TusFileUploadService;
+import me.desair.tus.server.upload.UploadId;
+import me.desair.tus.server.upload.UploadInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * tus 上传完成后移入存储：数据文件改名移入而不是复制，中断后按存储中的文件继续，拼接上传流式写入
+ */
+class FileServiceTests {
+
+    private static final String UPLOAD_ID = "u1";
+    private static final String KEY = "ab/cd/stored.png";
+    private static final byte[] PNG = Arrays.copyOf(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n',
+            0, 0, 0, 13, 'I', 'H', 'D', 'R', 0, 0, 0, 1, 0, 0, 0, 1, 8, 2, 0, 0, 0}, 4096);
+
+    @TempDir
+    Path tempDir;
+
+    private final TusFileUploadService tusFileUploadService = mock(TusFileUploadService.class);
+    private final FileUploadProperties uploadProperties = new FileUploadProperties();
+    private BlobStore blobStore;
+    private FileService fileService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        uploadProperties.setChunkFolder(tempDir.resolve("chunks").toString());
+        uploadProperties.getLargeFile().setForbiddenTypes(new String[]{"application/x-msdownload"});
+        StorageProperties storageProperties = new StorageProperties();
+        blobStore = new LocalDiskBlobStore(tempDir.resolve("store"), storageProperties.getLocal());
+        fileService = new FileService(null, null, uploadProperties, null, null, null, null,
+                tusFileUploadService, new PlatformMetrics(new SimpleMeterRegistry()), null, null,
+                blobStore, new StorageLayout(storageProperties, blobStore),
+                new ContentTypeDetector(uploadProperties), null);
+    }
+
+    private static UploadInfo uploadInfo(long length) {
+        UploadInfo uploadInfo = new UploadInfo();
+        uploadInfo.setId(new UploadId(UPLOAD_ID));
+        uploadInfo.setLength(length);
+        uploadInfo.setOffset(length);
+        return uploadInfo;
+    }
+
+    private Path writeDataFile(byte[] content) throws IOException {
+        Path dataFile = tempDir.resolve("chunks").resolve("uploads").resolve(UPLOAD_ID).resolve("data");
+        Files.createDirectories(dataFile.getParent());
+        Files.write(dataFile, content);
+        return dataFile;
+    }
+
+    private Path storedFile() {
+        return tempDir.resolve("store").resolve(KEY);
+    }
+
+    @Test
+    void dataFileIsMovedNotCopied() throws Exception {
+        Path dataFile = writeDataFile(PNG);
+        Object fileKey = Files.readAttributes(dataFile, BasicFileAttributes.class).fileKey();
+
+        assertEquals("image/png", fileService.storeCompletedUpload(uploadInfo(PNG.length), KEY));
+
+        assertFalse(Files.exists(dataFile));
+        assertArrayEquals(PNG, Files.readAllBytes(storedFile()));
+        // 同一文件系统内改名，存储中的文件就是原来的数据文件
+        if (fileKey != null) {
+            assertEquals(fileKey, Files.readAttributes(storedFile(), BasicFileAttributes.class).fileKey());
+        }
+        verify(tusFileUploadService, never()).getUploadedBytes(anyString());
+    }
+
+    @Test
+    void resumesFromStoredFileWhenDataFileIsGone() throws Exception {
+        blobStore.put(KEY, new ByteArrayInputStream(PNG), PNG.length);
+
+        assertEquals("image/png", fileService.storeCompletedUpload(uploadInfo(PNG.length), KEY));
+
+        assertArrayEquals(PNG, Files.readAllBytes(storedFile()));
+        verify(tusFileUploadService, never()).getUploadedBytes(anyString());
+    }
+
+    @Test
+    void dataFileWithWrongLengthIsNotMoved() throws Exception {
+        Path dataFile = writeDataFile(Arrays.copyOf(PNG, 100));
+        when(tusFileUploadService.getUploadedBytes(UPLOAD_ID)).thenReturn(new ByteArrayInputStream(PNG));
+
+        assertEquals("image/png", fileService.storeCompletedUpload(uploadInfo(PNG.length), KEY));
+
+        assertTrue(Files.exists(dataFile));
+        assertArrayEquals(PNG, Files.readAllBytes(storedFile()));
+    }
+
+    @Test
+    void concatenatedUploadIsStreamedIntoStorage() throws Exception {
+        when(tusFileUploadService.getUploadedBytes(UPLOAD_ID)).thenReturn(new ByteArrayInputStream(PNG));
+
+        assertEquals("image/png", fileService.storeCompletedUpload(uploadInfo(PNG.length), KEY));
+
+        assertArrayEquals(PNG, Files.readAllBytes(storedFile()));
+    }
+
+    @Test
+    void forbiddenTypeIsRejectedBeforeMove() throws Exception {
+        byte[] executable = new byte[4096];
+        executable[0] = 'M';
+        executable[1] = 'Z';
+        Path dataFile = writeDataFile(executable);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> fileService.storeCompletedUpload(uploadInfo(executable.length), KEY));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        assertFalse(Files.exists(storedFile()));
+        assertTrue(Files.exists(dataFile));
+        verify(tusFileUploadService).deleteUpload(UPLOAD_ID);
+    }
+}
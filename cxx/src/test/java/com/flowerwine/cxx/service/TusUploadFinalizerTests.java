@@ -0,0 +1,223 @@
+package com.flowerwine.cxx.service;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import com.flowerwine.cxx.dto.FileInfoDTO;
+import com.flowerwine.cxx.entity.TusUploadCompletion;
+import com.flowerwine.cxx.entity.UserUploadFile;
+import com.flowerwine.cxx.enums.FileType;
+import com.flowerwine.cxx.enums.TusUploadStatusEnum;
+import com.flowerwine.cxx.repository.TusUploadCompletionRepository;
+import com.flowerwine.cxx.repository.UserUploadFileRepository;
+import com.flowerwine.cxx.storage.BlobStore;
+import com.flowerwine.cxx.storage.StorageLayout;
+import com.flowerwine.cxx.storage.StorageProperties;
+import me.desair.tus.server.TusFileUploadService;
+import me.desair.tus.server.upload.UploadId;
+import me.desair.tus.server.upload.UploadInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * tus 上传完成处理的状态记录：已接收 -> 处理中 -> 已完成，重复提交、重启后继续、其他用户访问和失败重试
+ */
+class TusUploadFinalizerTests {
+
+    private static final String UPLOAD_ID = "u1";
+    private static final Long OWNER = 1L;
+    private static final Long OTHER = 2L;
+    private static final Long FILE_ID = 42L;
+
+    private final FileService fileService = mock(FileService.class);
+    private final TusFileUploadService tusFileUploadService = mock(TusFileUploadService.class);
+    private final TusUploadCompletionRepository completionRepository = mock(TusUploadCompletionRepository.class);
+    private final UserUploadFileRepository userUploadFileRepository = mock(UserUploadFileRepository.class);
+    private final StorageLayout storageLayout = new StorageLayout(new StorageProperties(), mock(BlobStore.class));
+
+    /** 处理记录表，保存时按状态记下变化过程 */
+    private final Map<String, TusUploadCompletion> completions = new HashMap<>();
+    private final List<TusUploadStatusEnum> transitions = new ArrayList<>();
+    private final FileInfoDTO fileInfo = FileInfoDTO.builder().id(FILE_ID).fileName("stored.png").build();
+
+    private TusUploadFinalizer finalizer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(completionRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(completions.get(invocation.<String>getArgument(0))));
+        when(completionRepository.save(any(TusUploadCompletion.class))).thenAnswer(invocation -> {
+            TusUploadCompletion completion = invocation.getArgument(0);
+            transitions.add(TusUploadStatusEnum.fromValue(completion.getStatus()));
+            completions.put(completion.getUploadId(), completion);
+            return completion;
+        });
+        doAnswer(invocation -> completions.remove(
+                        invocation.<TusUploadCompletion>getArgument(0).getUploadId()))
+                .when(completionRepository).delete(any(TusUploadCompletion.class));
+
+        when(fileService.newStoredFileName(anyString())).thenReturn("stored.png");
+        when(fileService.storeCompletedUpload(any(UploadInfo.class), anyString())).thenReturn("image/png");
+        when(fileService.saveFileInfo(eq(OWNER), anyString(), anyString(), anyString(), any(), anyLong()))
+                .thenReturn(fileInfo);
+        when(fileService.getFileInfo(FILE_ID, OWNER, false)).thenReturn(fileInfo);
+
+        finalizer = newFinalizer();
+    }
+
+    /** 处理在调用线程上同步执行；重新创建相当于重启，内存中的结果丢失，处理记录保留 */
+    private TusUploadFinalizer newFinalizer() {
+        return new TusUploadFinalizer(fileService, tusFileUploadService, completionRepository,
+                userUploadFileRepository, storageLayout, new FileUploadProperties(),
+                mock(PlatformTransactionManager.class), Runnable::run);
+    }
+
+    private static UploadInfo uploadInfo(long offset) {
+        UploadInfo uploadInfo = new UploadInfo();
+        uploadInfo.setId(new UploadId(UPLOAD_ID));
+        uploadInfo.setLength(100L);
+        uploadInfo.setOffset(offset);
+        uploadInfo.setEncodedMetadata("filename cGljLnBuZw==");
+        return uploadInfo;
+    }
+
+    @Test
+    void completesThroughReceivedFinalizingDone() throws Exception {
+        assertEquals(fileInfo, finalizer.submit(uploadInfo(100), OWNER).join());
+
+        assertEquals(List.of(TusUploadStatusEnum.RECEIVED, TusUploadStatusEnum.FINALIZING, TusUploadStatusEnum.DONE),
+                transitions);
+        TusUploadCompletion completion = completions.get(UPLOAD_ID);
+        assertEquals(FILE_ID, completion.getFileId());
+        assertEquals("stored.png", completion.getFileName());
+        verify(fileService).storeCompletedUpload(any(UploadInfo.class), eq(storageLayout.key("", "stored.png")));
+        verify(fileService).saveFileInfo(OWNER, "pic.png", "stored.png", storageLayout.key("", "stored.png"),
+                FileType.IMAGE.getValue(), 100L);
+        verify(userUploadFileRepository).save(any(UserUploadFile.class));
+        verify(tusFileUploadService).deleteUpload(UPLOAD_ID);
+    }
+
+    @Test
+    void repeatedSubmitReturnsSameResult() throws Exception {
+        CompletableFuture<FileInfoDTO> first = finalizer.submit(uploadInfo(100), OWNER);
+        CompletableFuture<FileInfoDTO> second = finalizer.submit(uploadInfo(100), OWNER);
+
+        assertSame(first, second);
+        assertEquals(fileInfo, finalizer.await(UPLOAD_ID, OWNER));
+        verify(fileService, times(1)).storeCompletedUpload(any(UploadInfo.class), anyString());
+        verify(fileService, times(1)).saveFileInfo(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void doneRecordIsReturnedAfterRestart() throws Exception {
+        finalizer.submit(uploadInfo(100), OWNER).join();
+
+        TusUploadFinalizer restarted = newFinalizer();
+        assertEquals(fileInfo, restarted.await(UPLOAD_ID, OWNER));
+        verify(fileService, times(1)).storeCompletedUpload(any(UploadInfo.class), anyString());
+        verify(tusFileUploadService, never()).getUploadInfo(anyString());
+    }
+
+    @Test
+    void interruptedFinalizationResumesWithRecordedFileName() throws Exception {
+        completions.put(UPLOAD_ID, TusUploadCompletion.builder()
+                .uploadId(UPLOAD_ID)
+                .userId(OWNER)
+                .status(TusUploadStatusEnum.FINALIZING.getValue())
+                .fileName("earlier.png")
+                .build());
+        when(completionRepository.findByStatusIn(any())).thenAnswer(invocation -> List.copyOf(completions.values()));
+        when(tusFileUploadService.getUploadInfo(UPLOAD_ID)).thenReturn(uploadInfo(100));
+
+        finalizer.resumePending();
+
+        assertEquals(TusUploadStatusEnum.DONE.getValue(), completions.get(UPLOAD_ID).getStatus());
+        verify(fileService).storeCompletedUpload(any(UploadInfo.class), eq(storageLayout.key("", "earlier.png")));
+        verify(fileService, never()).newStoredFileName(anyString());
+    }
+
+    @Test
+    void pendingRecordOfVanishedUploadIsDropped() throws Exception {
+        completions.put(UPLOAD_ID, TusUploadCompletion.builder()
+                .uploadId(UPLOAD_ID)
+                .userId(OWNER)
+                .status(TusUploadStatusEnum.RECEIVED.getValue())
+                .build());
+        when(completionRepository.findByStatusIn(any())).thenAnswer(invocation -> List.copyOf(completions.values()));
+
+        finalizer.resumePending();
+
+        assertTrue(completions.isEmpty());
+        verify(fileService, never()).storeCompletedUpload(any(UploadInfo.class), anyString());
+    }
+
+    @Test
+    void otherUserSeesNotFound() throws Exception {
+        finalizer.submit(uploadInfo(100), OWNER).join();
+
+        ResponseStatusException submitted = assertThrows(ResponseStatusException.class,
+                () -> finalizer.submit(uploadInfo(100), OTHER));
+        assertEquals(HttpStatus.NOT_FOUND, submitted.getStatusCode());
+        ResponseStatusException awaited = assertThrows(ResponseStatusException.class,
+                () -> finalizer.await(UPLOAD_ID, OTHER));
+        assertEquals(HttpStatus.NOT_FOUND, awaited.getStatusCode());
+        // 重启后按处理记录判断
+        ResponseStatusException restarted = assertThrows(ResponseStatusException.class,
+                () -> newFinalizer().await(UPLOAD_ID, OTHER));
+        assertEquals(HttpStatus.NOT_FOUND, restarted.getStatusCode());
+    }
+
+    @Test
+    void forbiddenTypeDropsRecordAndAllowsRetry() throws Exception {
+        when(fileService.storeCompletedUpload(any(UploadInfo.class), anyString()))
+                .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "检测到危险的文件类型"))
+                .thenReturn("image/png");
+        when(tusFileUploadService.getUploadInfo(UPLOAD_ID)).thenReturn(uploadInfo(100));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> finalizer.await(UPLOAD_ID, OWNER));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        assertTrue(completions.isEmpty());
+
+        // 失败的结果不保留，再次调用重新处理
+        assertEquals(fileInfo, finalizer.await(UPLOAD_ID, OWNER));
+        verify(fileService, times(2)).storeCompletedUpload(any(UploadInfo.class), anyString());
+    }
+
+    @Test
+    void unfinishedUploadIsConflict() throws Exception {
+        when(tusFileUploadService.getUploadInfo(UPLOAD_ID)).thenReturn(uploadInfo(40));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> finalizer.await(UPLOAD_ID, OWNER));
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        assertTrue(transitions.isEmpty());
+    }
+
+    @Test
+    void unknownUploadIsNull() throws Exception {
+        assertNull(finalizer.await(UPLOAD_ID, OWNER));
+    }
+}
@@ -0,0 +1,68 @@
+package com.flowerwine.cxx.service;
+
+import com.flowerwine.cxx.repository.UserProfileRepository;
+import com.flowerwine.cxx.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户资料查询的事务边界：在调用方的只读事务中查询不存在的资料时，调用方事务仍能正常提交
+ */
+class UserProfileServiceTests {
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:profile;DB_CLOSE_DELAY=-1", "sa", "");
+    private final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    private final UserProfileRepository userProfileRepository = mock(UserProfileRepository.class);
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSource).execute("SHUTDOWN");
+    }
+
+    /** 与容器中一样按 @Transactional 注解加上事务代理 */
+    private UserProfileService transactionalService() {
+        UserProfileService target = new UserProfileService(userProfileRepository, mock(UserRepository.class),
+                mock(UserSummaryCache.class));
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        return (UserProfileService) proxyFactory.getProxy();
+    }
+
+    @Test
+    void missingProfileDoesNotRollBackCaller() {
+        when(userProfileRepository.findByUserId(1L)).thenReturn(Optional.empty());
+        UserProfileService userProfileService = transactionalService();
+
+        TransactionTemplate caller = new TransactionTemplate(transactionManager);
+        caller.setReadOnly(true);
+        // 列表转换时逐行查询资料并忽略不存在的，提交时不应抛出 UnexpectedRollbackException
+        String result = caller.execute(status -> {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> userProfileService.getUserProfile(1L));
+            assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+            assertFalse(status.isRollbackOnly());
+            return "listed";
+        });
+
+        assertEquals("listed", result);
+    }
+}
@@ -0,0 +1,65 @@
+package com.flowerwine.cxx.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 存储键校验：路径穿越和非法字符
+ */
+class BlobKeysTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "file.txt",
+            "avatars/3f/a1/20240101_abc-DEF.png",
+            "a/b/c/d",
+            "..hidden",
+            "name..ext"
+    })
+    void acceptsPlainKeys(String key) {
+        assertTrue(BlobKeys.isValid(key));
+        assertEquals(key, BlobKeys.validate(key));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "..",
+            ".",
+            "../etc/passwd",
+            "avatars/../secret",
+            "avatars/./x.png",
+            "/absolute",
+            "trailing/",
+            "double//slash",
+            "back\\slash",
+            "with space",
+            "C:file",
+            "中文.txt",
+            "a/%2e%2e/b"
+    })
+    void rejectsTraversalAndInvalidCharacters(String key) {
+        assertFalse(BlobKeys.isValid(key));
+        assertThrows(IllegalArgumentException.class, () -> BlobKeys.validate(key));
+    }
+
+    @Test
+    void rejectsNullAndOverlongKeys() {
+        assertFalse(BlobKeys.isValid(null));
+        assertTrue(BlobKeys.isValid("a".repeat(512)));
+        assertFalse(BlobKeys.isValid("a".repeat(513)));
+    }
+
+    @Test
+    void joinOmitsEmptyDirectory() {
+        assertEquals("x.png", BlobKeys.join("", "x.png"));
+        assertEquals("x.png", BlobKeys.join(null, "x.png"));
+        assertEquals("avatars/x.png", BlobKeys.join("avatars", "x.png"));
+    }
+}
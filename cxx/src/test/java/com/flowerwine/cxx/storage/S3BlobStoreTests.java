@@ -0,0 +1,220 @@
+package com.flowerwine.cxx.storage;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * S3 对象存储：读取流未读完关闭时中止连接、Range 请求、分段上传及失败中止
+ */
+class S3BlobStoreTests {
+
+    private static final byte[] CONTENT = new byte[100];
+
+    private final S3Client client = mock(S3Client.class);
+    private final StorageProperties.S3 config = new StorageProperties.S3();
+    private final S3BlobStore blobStore;
+
+    private final AtomicInteger aborts = new AtomicInteger();
+    private final AtomicReference<GetObjectRequest> lastGet = new AtomicReference<>();
+
+    S3BlobStoreTests() {
+        config.setBucket("bucket");
+        config.setKeyPrefix("test/");
+        blobStore = new S3BlobStore(client, config);
+        for (int i = 0; i < CONTENT.length; i++) {
+            CONTENT[i] = (byte) i;
+        }
+    }
+
+    /** getObject 返回指定内容，记录请求；中止计入 aborts */
+    private void stubGet(byte[] body) {
+        when(client.getObject(any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<GetObjectRequest.Builder> consumer = invocation.getArgument(0);
+            GetObjectRequest.Builder builder = GetObjectRequest.builder();
+            consumer.accept(builder);
+            lastGet.set(builder.build());
+            GetObjectResponse response = GetObjectResponse.builder().contentLength((long) body.length).build();
+            return new ResponseInputStream<>(response,
+                    AbortableInputStream.create(new ByteArrayInputStream(body), aborts::incrementAndGet));
+        });
+    }
+
+    @Test
+    void closingBeforeEndAbortsRequest() throws IOException {
+        stubGet(CONTENT);
+        try (InputStream in = blobStore.get("a/b.bin")) {
+            assertEquals(10, in.readNBytes(10).length);
+        }
+        assertEquals(1, aborts.get());
+        assertEquals("bucket", lastGet.get().bucket());
+        assertEquals("test/a/b.bin", lastGet.get().key());
+    }
+
+    @Test
+    void fullyReadStreamIsNotAborted() throws IOException {
+        stubGet(CONTENT);
+        try (InputStream in = blobStore.get("a/b.bin")) {
+            assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+        assertEquals(0, aborts.get());
+    }
+
+    @Test
+    void skippingToEndCountsAsFullyRead() throws IOException {
+        stubGet(CONTENT);
+        try (InputStream in = blobStore.get("a/b.bin")) {
+            in.skipNBytes(CONTENT.length);
+        }
+        assertEquals(0, aborts.get());
+    }
+
+    @Test
+    void rangeReadSendsRangeHeader() throws IOException {
+        stubGet(new byte[10]);
+        try (InputStream in = blobStore.get("a/b.bin", 20, 10)) {
+            assertEquals(10, in.readAllBytes().length);
+        }
+        assertEquals("bytes=20-29", lastGet.get().range());
+        assertEquals(0, aborts.get());
+    }
+
+    @Test
+    void emptyRangeDoesNotCallService() throws IOException {
+        try (InputStream in = blobStore.get("a/b.bin", 20, 0)) {
+            assertEquals(-1, in.read());
+        }
+        verify(client, never()).getObject(any(Consumer.class));
+    }
+
+    @Test
+    void missingObjectIsNoSuchFile() {
+        when(client.getObject(any(Consumer.class))).thenThrow(NoSuchKeyException.builder().build());
+        assertThrows(NoSuchFileException.class, () -> blobStore.get("a/missing.bin"));
+    }
+
+    @Test
+    void invalidKeyIsRejectedBeforeRequest() {
+        assertThrows(IllegalArgumentException.class, () -> blobStore.get("../secret"));
+        verify(client, never()).getObject(any(Consumer.class));
+    }
+
+    @Test
+    void smallFileUsesSinglePut() throws IOException {
+        blobStore.put("a/b.bin", new ByteArrayInputStream(CONTENT), CONTENT.length);
+
+        verify(client).putObject(any(Consumer.class), any(RequestBody.class));
+        verify(client, never()).createMultipartUpload(any(Consumer.class));
+    }
+
+    @Test
+    void largeFileIsUploadedInParts() throws IOException {
+        config.setMultipartThreshold(50);
+        config.setPartSize(40);
+        stubCreateMultipart();
+        List<Long> partLengths = new ArrayList<>();
+        when(client.uploadPart(any(Consumer.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            Consumer<UploadPartRequest.Builder> consumer = invocation.getArgument(0);
+            UploadPartRequest.Builder builder = UploadPartRequest.builder();
+            consumer.accept(builder);
+            partLengths.add(builder.build().contentLength());
+            return UploadPartResponse.builder().eTag("etag-" + partLengths.size()).build();
+        });
+        AtomicReference<CompleteMultipartUploadRequest> completed = new AtomicReference<>();
+        when(client.completeMultipartUpload(any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<CompleteMultipartUploadRequest.Builder> consumer = invocation.getArgument(0);
+            CompleteMultipartUploadRequest.Builder builder = CompleteMultipartUploadRequest.builder();
+            consumer.accept(builder);
+            completed.set(builder.build());
+            return null;
+        });
+
+        blobStore.put("a/b.bin", new ByteArrayInputStream(CONTENT), CONTENT.length);
+
+        assertEquals(List.of(40L, 40L, 20L), partLengths);
+        assertEquals("upload-1", completed.get().uploadId());
+        assertEquals(3, completed.get().multipartUpload().parts().size());
+        verify(client, never()).putObject(any(Consumer.class), any(RequestBody.class));
+    }
+
+    @Test
+    void shortStreamAbortsMultipartUpload() {
+        config.setMultipartThreshold(50);
+        config.setPartSize(40);
+        stubCreateMultipart();
+        when(client.uploadPart(any(Consumer.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+        AtomicReference<String> abortedUpload = new AtomicReference<>();
+        when(client.abortMultipartUpload(any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<AbortMultipartUploadRequest.Builder> consumer = invocation.getArgument(0);
+            AbortMultipartUploadRequest.Builder builder = AbortMultipartUploadRequest.builder();
+            consumer.accept(builder);
+            abortedUpload.set(builder.build().uploadId());
+            return null;
+        });
+
+        // 声明 100 字节，实际只有 60 字节
+        assertThrows(IOException.class,
+                () -> blobStore.put("a/b.bin", new ByteArrayInputStream(CONTENT, 0, 60), CONTENT.length));
+        assertEquals("upload-1", abortedUpload.get());
+        verify(client, never()).completeMultipartUpload(any(Consumer.class));
+    }
+
+    @Test
+    void putObjectRequestCarriesLength() throws IOException {
+        AtomicReference<PutObjectRequest> put = new AtomicReference<>();
+        when(client.putObject(any(Consumer.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            Consumer<PutObjectRequest.Builder> consumer = invocation.getArgument(0);
+            PutObjectRequest.Builder builder = PutObjectRequest.builder();
+            consumer.accept(builder);
+            put.set(builder.build());
+            return null;
+        });
+
+        blobStore.put("a/b.bin", new ByteArrayInputStream(CONTENT), CONTENT.length);
+
+        assertEquals("test/a/b.bin", put.get().key());
+        assertEquals(100L, put.get().contentLength());
+    }
+
+    private void stubCreateMultipart() {
+        when(client.createMultipartUpload(any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<CreateMultipartUploadRequest.Builder> consumer = invocation.getArgument(0);
+            CreateMultipartUploadRequest.Builder builder = CreateMultipartUploadRequest.builder();
+            consumer.accept(builder);
+            assertEquals("test/a/b.bin", builder.build().key());
+            return CreateMultipartUploadResponse.builder().uploadId("upload-1").build();
+        });
+    }
+}
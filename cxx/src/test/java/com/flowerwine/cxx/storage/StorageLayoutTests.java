@@ -0,0 +1,99 @@
+package com.flowerwine.cxx.storage;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 存储布局：平铺与哈希目录之间的键映射
+ */
+class StorageLayoutTests {
+
+    private final StorageProperties storageProperties = new StorageProperties();
+    private final BlobStore blobStore = mock(BlobStore.class);
+    private final StorageLayout storageLayout = new StorageLayout(storageProperties, blobStore);
+
+    private static String fanOut(String fileName) {
+        String hash = DigestUtils.md5DigestAsHex(fileName.getBytes(StandardCharsets.UTF_8));
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4);
+    }
+
+    @Test
+    void hashedLayoutFansOutByFileName() {
+        storageProperties.setLayout(StorageProperties.Layout.HASHED);
+        String hashed = "avatars/" + fanOut("a.png") + "/a.png";
+
+        assertEquals(hashed, storageLayout.key("avatars", "a.png"));
+        assertEquals(fanOut("b.txt") + "/b.txt", storageLayout.key("", "b.txt"));
+        assertTrue(storageLayout.isHashed(hashed));
+        assertTrue(BlobKeys.isValid(hashed));
+    }
+
+    @Test
+    void flatLayoutKeepsDirectory() {
+        storageProperties.setLayout(StorageProperties.Layout.FLAT);
+
+        assertEquals("avatars/a.png", storageLayout.key("avatars", "a.png"));
+        assertEquals("b.txt", storageLayout.key("", "b.txt"));
+        assertFalse(storageLayout.isHashed("avatars/a.png"));
+    }
+
+    @Test
+    void alternateKeyRoundTrips() {
+        String flat = "docs/report.pdf";
+        String hashed = "docs/" + fanOut("report.pdf") + "/report.pdf";
+
+        assertEquals(hashed, storageLayout.alternateKey(flat));
+        assertEquals(flat, storageLayout.alternateKey(hashed));
+        assertEquals(fanOut("x.bin") + "/x.bin", storageLayout.alternateKey("x.bin"));
+        assertEquals("x.bin", storageLayout.alternateKey(fanOut("x.bin") + "/x.bin"));
+    }
+
+    @Test
+    void directoriesThatOnlyLookHashedStayFlat() {
+        // 两级两字符目录，但与文件名的哈希不符
+        assertFalse(storageLayout.isHashed("ab/cd/report.pdf"));
+    }
+
+    @Test
+    void targetKeyFollowsCurrentLayout() {
+        String flat = "docs/report.pdf";
+        String hashed = "docs/" + fanOut("report.pdf") + "/report.pdf";
+
+        storageProperties.setLayout(StorageProperties.Layout.HASHED);
+        assertEquals(hashed, storageLayout.targetKey(flat));
+        assertEquals(hashed, storageLayout.targetKey(hashed));
+
+        storageProperties.setLayout(StorageProperties.Layout.FLAT);
+        assertEquals(flat, storageLayout.targetKey(hashed));
+        assertEquals(flat, storageLayout.targetKey(flat));
+    }
+
+    @Test
+    void siblingKeySharesDirectory() {
+        assertEquals("avatars/3f/a1/a_64.webp", storageLayout.siblingKey("avatars/3f/a1/a.png", "a_64.webp"));
+        assertEquals("a_64.webp", storageLayout.siblingKey("a.png", "a_64.webp"));
+    }
+
+    @Test
+    void findFallsBackToAlternateLocation() throws IOException {
+        String flat = "docs/report.pdf";
+        String hashed = "docs/" + fanOut("report.pdf") + "/report.pdf";
+        BlobStat stat = new BlobStat(hashed, 10, Instant.EPOCH);
+        when(blobStore.stat(hashed)).thenReturn(stat);
+
+        assertEquals(stat, storageLayout.find(flat));
+        assertEquals(stat, storageLayout.find(hashed));
+        assertNull(storageLayout.find("docs/missing.pdf"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.flowerwine.cxx.task;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 上传过期时间轮：推进、再次写入后改挂、超过一圈的到期时刻
+ */
+class UploadExpiryIndexTests {
+
+    private static final long TICK = 1000;
+    private static final int WHEEL_SIZE = 8;
+    private static final long START = 100_000;
+
+    private final UploadExpiryIndex index = new UploadExpiryIndex(TICK, WHEEL_SIZE, START);
+    private final UploadExpiryIndex.Key key = new UploadExpiryIndex.Key(UploadExpiryIndex.Kind.TUS, "u1");
+
+    private List<UploadExpiryIndex.Key> advance(long now) {
+        Deque<UploadExpiryIndex.Key> due = new ArrayDeque<>();
+        index.advance(now, due);
+        return List.copyOf(due);
+    }
+
+    @Test
+    void dueOnlyAfterDeadlineTickHasPassed() {
+        index.touch(key, START, 3000);
+
+        assertEquals(List.of(), advance(START + 2500));
+        assertFalse(index.isExpired(key, START + 2500));
+        // 到期刻度（103）整格经过后才检查
+        assertEquals(List.of(), advance(START + 3500));
+        assertEquals(List.of(key), advance(START + 4000));
+        assertTrue(index.isExpired(key, START + 4000));
+        // 已移出格子，不会重复到期
+        assertEquals(List.of(), advance(START + 12_000));
+    }
+
+    @Test
+    void laterWriteMovesToLaterSlot() {
+        index.touch(key, START, 3000);
+        index.touch(key, START + 2000, 3000);
+
+        // 原到期格子经过时按记录判断，引用被丢弃
+        assertEquals(List.of(), advance(START + 4000));
+        assertEquals(List.of(key), advance(START + 6000));
+    }
+
+    @Test
+    void earlierWriteIsIgnored() {
+        index.touch(key, START + 1000, 3000);
+        index.touch(key, START, 3000);
+
+        assertEquals(List.of(), advance(START + 4000));
+        assertEquals(List.of(key), advance(START + 5000));
+    }
+
+    @Test
+    void deadlineBeyondOneRoundWaitsForItsTick() {
+        index.touch(key, START, 20_000);
+
+        assertEquals(List.of(), advance(START + 10_000));
+        assertEquals(List.of(), advance(START + 19_000));
+        assertEquals(List.of(key), advance(START + 21_000));
+    }
+
+    @Test
+    void longPauseChecksEachSlotOnce() {
+        UploadExpiryIndex.Key other = new UploadExpiryIndex.Key(UploadExpiryIndex.Kind.CHUNK, "c1");
+        index.touch(key, START, 2000);
+        index.touch(other, START, 5000);
+
+        List<UploadExpiryIndex.Key> due = advance(START + 60_000);
+        assertEquals(2, due.size());
+        assertTrue(due.containsAll(List.of(key, other)));
+    }
+
+    @Test
+    void rescheduleKeepsUnexpiredEntry() {
+        index.touch(key, START, 3000);
+        assertEquals(List.of(key), advance(START + 4000));
+
+        // 进入待删除后又有写入：清理线程发现未到期，重新挂回时间轮
+        index.touch(key, START + 3500, 3000);
+        assertFalse(index.isExpired(key, START + 4000));
+        index.reschedule(key);
+        assertEquals(List.of(), advance(START + 6000));
+        assertEquals(List.of(key), advance(START + 7000));
+    }
+
+    @Test
+    void forgottenEntriesAreDropped() {
+        index.touch(key, START, 3000);
+        assertTrue(index.contains(key));
+        assertEquals(1, index.size());
+
+        index.forget(key);
+        assertFalse(index.contains(key));
+        assertEquals(0, index.size());
+        assertEquals(List.of(), advance(START + 5000));
+    }
+
+    @Test
+    void pastDeadlineIsCheckedOnNextAdvance() {
+        advance(START + 10_000);
+        // 扫描发现的旧上传，到期时刻早于当前刻度
+        index.touch(key, START, 3000);
+        assertEquals(List.of(key), advance(START + 11_000));
+    }
+}
@@ -0,0 +1,70 @@
+package com.flowerwine.cxx.util;
+
+import com.flowerwine.cxx.config.AppProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证码令牌：答案校验、一次性使用、过期和篡改
+ */
+class CaptchaTokenUtilTests {
+
+    private final AppProperties appProperties = new AppProperties();
+    private final CaptchaTokenUtil captchaTokenUtil = new CaptchaTokenUtil(appProperties);
+
+    @Test
+    void acceptsCorrectAnswerIgnoringCase() {
+        String token = captchaTokenUtil.issue("AbC9");
+        assertTrue(captchaTokenUtil.verify(token, "abc9"));
+    }
+
+    @Test
+    void tokenCanBeVerifiedOnlyOnce() {
+        String token = captchaTokenUtil.issue("abcd");
+        assertTrue(captchaTokenUtil.verify(token, "abcd"));
+        assertFalse(captchaTokenUtil.verify(token, "abcd"));
+
+        // 答错也消耗令牌，不能反复尝试
+        String guessed = captchaTokenUtil.issue("wxyz");
+        assertFalse(captchaTokenUtil.verify(guessed, "aaaa"));
+        assertFalse(captchaTokenUtil.verify(guessed, "wxyz"));
+    }
+
+    @Test
+    void rejectsExpiredToken() throws InterruptedException {
+        appProperties.getCaptcha().setTokenTtlSeconds(0);
+        String token = captchaTokenUtil.issue("abcd");
+        Thread.sleep(5);
+        assertFalse(captchaTokenUtil.verify(token, "abcd"));
+    }
+
+    @Test
+    void rejectsExpiryBeyondTtl() {
+        String token = captchaTokenUtil.issue("abcd");
+        String[] parts = token.split("\\.");
+        long farFuture = Long.parseLong(parts[1]) + 24L * 3600 * 1000;
+        assertFalse(captchaTokenUtil.verify(parts[0] + "." + farFuture + "." + parts[2] + "." + parts[3], "abcd"));
+    }
+
+    @Test
+    void forgedIdIsNotRecordedAsUsed() {
+        String token = captchaTokenUtil.issue("abcd");
+        String[] parts = token.split("\\.");
+        String forgedMac = parts[2].charAt(0) == 'A' ? "B" + parts[2].substring(1) : "A" + parts[2].substring(1);
+
+        assertFalse(captchaTokenUtil.verify(parts[0] + "." + parts[1] + "." + forgedMac + "." + parts[3], "abcd"));
+        // 伪造的令牌没有占用该 ID，真实令牌仍可使用
+        assertTrue(captchaTokenUtil.verify(token, "abcd"));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertFalse(captchaTokenUtil.verify(null, "abcd"));
+        assertFalse(captchaTokenUtil.verify(captchaTokenUtil.issue("abcd"), null));
+        assertFalse(captchaTokenUtil.verify("only.three.parts", "abcd"));
+        assertFalse(captchaTokenUtil.verify("id.notanumber.mac.sig", "abcd"));
+        assertFalse(captchaTokenUtil.verify("id." + (System.currentTimeMillis() + 1000) + ".!!.??", "abcd"));
+    }
+}
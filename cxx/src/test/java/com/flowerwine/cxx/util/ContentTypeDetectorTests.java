@@ -0,0 +1,120 @@
+package com.flowerwine.cxx.util;
+
+import com.flowerwine.cxx.config.FileUploadProperties;
+import com.flowerwine.cxx.exception.ForbiddenContentTypeException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 上传流类型检测：边读边截取开头部分，禁止的类型在读满开头后中止
+ */
+class ContentTypeDetectorTests {
+
+    private static final int SNIFF_LENGTH = 64;
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n',
+            0, 0, 0, 13, 'I', 'H', 'D', 'R', 0, 0, 0, 1, 0, 0, 0, 1, 8, 2, 0, 0, 0};
+
+    private final ContentTypeDetector detector;
+
+    ContentTypeDetectorTests() {
+        FileUploadProperties properties = new FileUploadProperties();
+        properties.getLargeFile().setSniffLength(SNIFF_LENGTH);
+        properties.getLargeFile().setForbiddenTypes(new String[]{
+                "application/x-msdownload", "application/x-executable", "application/x-dosexec"});
+        detector = new ContentTypeDetector(properties);
+    }
+
+    /** Windows 可执行文件头（MZ），后面补足到 length 字节 */
+    private static byte[] executable(int length) {
+        byte[] bytes = new byte[length];
+        bytes[0] = 'M';
+        bytes[1] = 'Z';
+        return bytes;
+    }
+
+    private static byte[] withPadding(byte[] head, int length) {
+        return Arrays.copyOf(head, length);
+    }
+
+    @Test
+    void passesDataThroughAndDetectsType() throws IOException {
+        byte[] content = withPadding(PNG_HEADER, 1000);
+        ContentTypeDetector.SniffingInputStream in = detector.sniff(new ByteArrayInputStream(content), "x.bin", true);
+
+        assertArrayEquals(content, in.readAllBytes());
+        assertEquals("image/png", in.detectedType());
+        assertFalse(in.isRejected());
+    }
+
+    @Test
+    void rejectsForbiddenTypeOnceHeadIsFull() throws IOException {
+        ContentTypeDetector.SniffingInputStream in =
+                detector.sniff(new ByteArrayInputStream(executable(10_000)), "tool", true);
+        byte[] buffer = new byte[16];
+        int total = 0;
+        ForbiddenContentTypeException rejected = null;
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+        } catch (ForbiddenContentTypeException e) {
+            rejected = e;
+        }
+
+        assertTrue(in.isRejected());
+        assertTrue(rejected != null && detector.isForbidden(rejected.getMimeType()));
+        // 开头读满即中止，其余数据不再透传
+        assertEquals(SNIFF_LENGTH - 16, total);
+        assertThrows(ForbiddenContentTypeException.class, in::read);
+    }
+
+    @Test
+    void detectsShortStreamAtEnd() throws IOException {
+        ContentTypeDetector.SniffingInputStream in =
+                detector.sniff(new ByteArrayInputStream(executable(20)), "tool", true);
+
+        assertThrows(ForbiddenContentTypeException.class, in::readAllBytes);
+        assertTrue(in.isRejected());
+    }
+
+    @Test
+    void skippedBytesStillCountTowardsHead() throws IOException {
+        byte[] content = withPadding(PNG_HEADER, 200);
+        ContentTypeDetector.SniffingInputStream in = detector.sniff(new ByteArrayInputStream(content), "x.bin", true);
+
+        long skipped = 0;
+        while (skipped < 100) {
+            skipped += in.skip(100 - skipped);
+        }
+        assertEquals("image/png", in.detectedType());
+        assertEquals(100, in.readAllBytes().length);
+    }
+
+    @Test
+    void reportsWithoutRejectingWhenNotEnforced() throws IOException {
+        ContentTypeDetector.SniffingInputStream in =
+                detector.sniff(new ByteArrayInputStream(executable(500)), "tool", false);
+
+        assertEquals(500, in.readAllBytes().length);
+        assertFalse(in.isRejected());
+        assertTrue(detector.isForbidden(in.detectedType()));
+    }
+
+    @Test
+    void detectReadsOnlyHead() throws IOException {
+        InputStream in = new ByteArrayInputStream(withPadding(PNG_HEADER, 300));
+        assertEquals("image/png", detector.detect(in, null));
+        assertEquals(300 - SNIFF_LENGTH, in.available());
+    }
+}
@@ -0,0 +1,67 @@
+package com.flowerwine.cxx.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 图片头信息探测：格式识别、宽高、截断和伪造的文件头
+ */
+class ImageProbeTests {
+
+    private final ImageProbe imageProbe = new ImageProbe();
+
+    private static byte[] encode(String format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private ImageProbe.ImageInfo probe(byte[] bytes) throws IOException {
+        return imageProbe.probe(new ByteArrayInputStream(bytes));
+    }
+
+    @Test
+    void readsDimensionsOfSupportedFormats() throws IOException {
+        assertEquals(new ImageProbe.ImageInfo("image/png", 37, 21), probe(encode("png", 37, 21)));
+        assertEquals(new ImageProbe.ImageInfo("image/gif", 5, 300), probe(encode("gif", 5, 300)));
+        // ImageIO 写出的 JPEG 在帧头前有 JFIF 段，覆盖跳过标记段
+        assertEquals(new ImageProbe.ImageInfo("image/jpeg", 640, 3), probe(encode("jpg", 640, 3)));
+    }
+
+    @Test
+    void reportsDeclaredSizeWithoutDecoding() throws IOException {
+        // 只有文件头的 PNG，声明 100000 x 100000，不解码即可拦截
+        ByteBuffer png = ByteBuffer.allocate(24);
+        png.put(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+        png.putInt(13).put("IHDR".getBytes(StandardCharsets.US_ASCII));
+        png.putInt(100_000).putInt(100_000);
+
+        assertEquals(new ImageProbe.ImageInfo("image/png", 100_000, 100_000), probe(png.array()));
+    }
+
+    @Test
+    void rejectsTruncatedAndInvalidHeaders() throws IOException {
+        byte[] jpeg = encode("jpg", 8, 8);
+        assertNull(probe(Arrays.copyOf(jpeg, 30)));
+        assertNull(probe(Arrays.copyOf(encode("png", 8, 8), 12)));
+        assertNull(probe("GIF88a".getBytes(StandardCharsets.US_ASCII)));
+        assertNull(probe("plain text".getBytes(StandardCharsets.US_ASCII)));
+        assertNull(probe(new byte[0]));
+        // 扫描数据（SOS）前没有帧头
+        assertNull(probe(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xDA, 0, 2}));
+        // 宽为 0
+        assertNull(probe(new byte[]{'G', 'I', 'F', '8', '9', 'a', 0, 0, 1, 0}));
+    }
+}
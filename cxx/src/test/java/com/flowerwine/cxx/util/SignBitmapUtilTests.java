@@ -0,0 +1,105 @@
+package com.flowerwine.cxx.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 签到位图：跨月拼接、连续天数和统计
+ */
+class SignBitmapUtilTests {
+
+    /** 第 days 天签到的月位图 */
+    private static long days(int... days) {
+        long bitmap = 0;
+        for (int day : days) {
+            bitmap |= 1L << (day - 1);
+        }
+        return bitmap;
+    }
+
+    @Test
+    void mergeMonthClipsToRangeAndMonthLength() {
+        LocalDate start = LocalDate.of(2024, 1, 30);
+        LocalDate end = LocalDate.of(2024, 2, 2);
+        BitSet bits = new BitSet();
+
+        // 1 月 29 日在区间之前
+        SignBitmapUtil.mergeMonth(bits, start, end, YearMonth.of(2024, 1), days(29, 30, 31));
+        // 2024 年 2 月只有 29 天，第 30 位无效；3 日在区间之后
+        SignBitmapUtil.mergeMonth(bits, start, end, YearMonth.of(2024, 2), days(2, 3, 30));
+
+        BitSet expected = new BitSet();
+        expected.set(0); // 1-30
+        expected.set(1); // 1-31
+        expected.set(3); // 2-02
+        assertEquals(expected, bits);
+    }
+
+    @Test
+    void longestStreakSpansMonthBoundary() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 2, 29);
+        BitSet bits = new BitSet();
+        SignBitmapUtil.mergeMonth(bits, start, end, YearMonth.of(2024, 1), days(1, 2, 29, 30, 31));
+        SignBitmapUtil.mergeMonth(bits, start, end, YearMonth.of(2024, 2), days(1, 2, 10));
+
+        assertEquals(5, SignBitmapUtil.longestStreak(bits));
+        assertEquals(0, SignBitmapUtil.longestStreak(new BitSet()));
+    }
+
+    @Test
+    void currentStreakStartsFromYesterdayWhenTodayUnsigned() {
+        BitSet bits = new BitSet();
+        bits.set(2, 6);
+
+        assertEquals(4, SignBitmapUtil.currentStreak(bits, 5));
+        // 今天（6）未签到，仍按截至昨天计算
+        assertEquals(4, SignBitmapUtil.currentStreak(bits, 6));
+        // 昨天也未签到，连续中断
+        assertEquals(0, SignBitmapUtil.currentStreak(bits, 7));
+        assertEquals(0, SignBitmapUtil.currentStreak(bits, -1));
+        assertEquals(0, SignBitmapUtil.currentStreak(new BitSet(), 0));
+    }
+
+    @Test
+    void weekdayHistogramCountsByDayOfWeek() {
+        // 2024-01-01 是周一
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        BitSet bits = new BitSet();
+        bits.set(0);  // 周一
+        bits.set(7);  // 周一
+        bits.set(6);  // 周日
+        bits.set(9);  // 周三
+
+        assertArrayEquals(new int[]{2, 0, 1, 0, 0, 0, 1}, SignBitmapUtil.weekdayHistogram(bits, start, 14));
+    }
+
+    @Test
+    void accumulateDaysIgnoresBitsBeyondArray() {
+        int[] counts = new int[31];
+        SignBitmapUtil.accumulateDays(days(1, 31), counts);
+        SignBitmapUtil.accumulateDays(days(1) | 1L << 40, counts);
+
+        assertEquals(2, counts[0]);
+        assertEquals(1, counts[30]);
+    }
+
+    @Test
+    void fullMonthUsesMonthLength() {
+        YearMonth february = YearMonth.of(2023, 2);
+        long allDays = (1L << 28) - 1;
+
+        assertTrue(SignBitmapUtil.isFullMonth(allDays, february));
+        assertTrue(SignBitmapUtil.isFullMonth(allDays | 1L << 30, february));
+        assertFalse(SignBitmapUtil.isFullMonth(allDays & ~days(14), february));
+        assertFalse(SignBitmapUtil.isFullMonth(allDays, YearMonth.of(2024, 2)));
+    }
+}
@@ -0,0 +1,84 @@
+package com.flowerwine.cxx.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 时间有序ID：单调递增、位布局、跨线程唯一
+ */
+class TimeOrderedIdsTests {
+
+    @AfterEach
+    void resetNode() {
+        TimeOrderedIds.configure(0);
+    }
+
+    @Test
+    void idsAreStrictlyIncreasing() {
+        long previous = TimeOrderedIds.nextId();
+        // 远超每毫秒 256 个，覆盖序号借用下一毫秒的情况
+        for (int i = 0; i < 100_000; i++) {
+            long next = TimeOrderedIds.nextId();
+            assertTrue(next > previous, "ID 未递增: " + previous + " -> " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void layoutCarriesTimestampAndNode() {
+        TimeOrderedIds.configure(5);
+        Instant before = Instant.now();
+        long id = TimeOrderedIds.nextId();
+
+        assertEquals(5, (id >>> 8) & 0xF);
+        // 序号用尽时借用下一毫秒，生成时间可能略晚于当前时间
+        Duration drift = Duration.between(before, TimeOrderedIds.timestampOf(id));
+        assertTrue(drift.abs().toMillis() < 1000, "时间戳偏差过大: " + drift);
+        // 53 位以内，JavaScript Number 可精确表示
+        assertTrue(id > 0 && id < (1L << 53));
+    }
+
+    @Test
+    void idsSortByCreationTime() {
+        long id = TimeOrderedIds.nextId();
+        Instant timestamp = TimeOrderedIds.timestampOf(id);
+        long later = TimeOrderedIds.nextId();
+        assertTrue(!TimeOrderedIds.timestampOf(later).isBefore(timestamp));
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws InterruptedException {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(TimeOrderedIds.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void rejectsNodeOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedIds.configure(-1));
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedIds.configure(TimeOrderedIds.MAX_NODE_ID + 1));
+    }
+}
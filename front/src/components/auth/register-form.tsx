@@ -8,8 +8,9 @@ import { toast } from "sonner";
 import { Button } from "@/components/ui/button";
 import { Form, FormControl, FormField, FormItem, FormLabel, FormMessage } from "@/components/ui/form";
 import { Input } from "@/components/ui/input";
-import { useState } from "react";
+import { useCallback, useEffect, useState } from "react";
 import { useUserStore } from "@/lib/store/user-store";
+import { captchaApi, CaptchaChallenge } from "@/lib/api/captcha";
 
 const registerSchema = z.object({
   username: z.string().min(1, {
@@ -33,7 +34,7 @@ const registerSchema = z.object({
 export function RegisterForm() {
   const router = useRouter();
   const { register, isLoading } = useUserStore();
-  const [captchaKey, setCaptchaKey] = useState<number>(0);
+  const [challenge, setChallenge] = useState<CaptchaChallenge | null>(null);
 
   const form = useForm<z.infer<typeof registerSchema>>({
     resolver: zodResolver(registerSchema),
@@ -46,9 +47,19 @@ export function RegisterForm() {
     },
   });
 
-  const refreshCaptcha = () => {
-    setCaptchaKey(prev => prev + 1);
-  };
+  // 每个验证码令牌只能提交一次，提交失败后需重新获取
+  const refreshCaptcha = useCallback(async () => {
+    try {
+      setChallenge(await captchaApi.getChallenge());
+      form.setValue("captcha", "");
+    } catch (error) {
+      setChallenge(null);
+    }
+  }, [form]);
+
+  useEffect(() => {
+    refreshCaptcha();
+  }, [refreshCaptcha]);
 
   async function onSubmit(values: z.infer<typeof registerSchema>) {
     try {
@@ -56,7 +67,8 @@ export function RegisterForm() {
         username: values.username,
         email: values.email,
         password: values.password,
-        captcha: values.captcha
+        captcha: values.captcha,
+        captchaToken: challenge?.token ?? ""
       });
       toast.success("注册成功，请登录");
       router.push("/auth?mode=login");
@@ -132,11 +144,13 @@ export function RegisterForm() {
                   <Input placeholder="请输入验证码" {...field} className="flex-1" />
                 </FormControl>
                 <div className="relative w-[160px] h-[50px] cursor-pointer" onClick={refreshCaptcha}>
-                  <img
-                    src={`/api/captcha/generate?t=${captchaKey}`}
-                    alt="验证码"
-                    className="w-full h-full"
-                  />
+                  {challenge && (
+                    <img
+                      src={challenge.image}
+                      alt="验证码"
+                      className="w-full h-full"
+                    />
+                  )}
                 </div>
               </div>
               <FormMessage />
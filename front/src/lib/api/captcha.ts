@@ -0,0 +1,16 @@
+import apiClient from "./axios";
+
+// 验证码：图片（data URL）及注册时需一并提交的令牌
+export interface CaptchaChallenge {
+  token: string;
+  image: string;
+}
+
+// 验证码API接口
+export const captchaApi = {
+  // 获取验证码
+  getChallenge: async () => {
+    const response = await apiClient.get<CaptchaChallenge>("/captcha/challenge");
+    return response.data;
+  },
+};
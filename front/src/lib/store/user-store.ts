@@ -10,7 +10,7 @@ interface UserState {
   isLoading: boolean;
   isLoggedIn: boolean;
   login: (username: string, password: string) => Promise<User>;
-  register: (data: { username: string; password: string; email: string; captcha: string }) => Promise<User>;
+  register: (data: { username: string; password: string; email: string; captcha: string; captchaToken: string }) => Promise<User>;
   logout: () => Promise<void>;
   fetchUser: () => Promise<User | null>;
   fetchProfile: () => Promise<UserProfile | null>;
@@ -31,6 +31,8 @@ class WebSocketService {
   private reconnectAttempts: number = 0;
   private readonly MAX_RECONNECT_ATTEMPTS: number = 5;
   private userId: number | null = null;
+  // 建立当前连接时使用的令牌，私信按连接时的令牌识别用户
+  private connectToken: string | null = null;
 
   // 可订阅的消息类型配置
   private readonly SUBSCRIPTIONS: {
@@ -44,12 +46,13 @@ class WebSocketService {
     message: {
       type: "message",
       needAuth: true,
-      formatter: (userId) => `/user/${userId}/message`,
+      // 服务端按连接时的令牌识别用户，多节点部署时也能送达
+      formatter: () => `/user/queue/message`,
     },
   };
 
   // 连接WebSocket
-  connect(): Promise<boolean> {
+  connect(token?: string): Promise<boolean> {
     return new Promise((resolve, reject) => {
       if (this.client && this.connected) {
         resolve(true);
@@ -64,9 +67,11 @@ class WebSocketService {
         // 禁用调试日志以减少控制台噪音
         this.client.debug = () => {};
 
-        // 不需要认证信息就能连接
+        // 已登录时带上令牌，服务端据此投递私信；未登录也可连接并订阅系统消息
+        const connectToken = token ?? localStorage.getItem("token");
+        this.connectToken = connectToken;
         this.client.connect(
-          {}, // 空headers对象
+          connectToken ? { Authorization: `Bearer ${connectToken}` } : {},
           () => {
             console.log("WebSocket连接成功");
             this.connected = true;
@@ -141,6 +146,21 @@ class WebSocketService {
       return false;
     }
 
+    // 连接时未带当前令牌（如连接后才登录），带令牌重新连接后再订阅
+    if (config.needAuth && token && token !== this.connectToken) {
+      const systemSubscribed = !!this.subscriptions[this.SUBSCRIPTIONS.system.formatter(userId)];
+      this.disconnect();
+      this.connect(token)
+        .then(() => {
+          if (systemSubscribed) {
+            this.subscribe("system", userId);
+          }
+          this.subscribe(type, userId, token);
+        })
+        .catch(() => {});
+      return true;
+    }
+
     // 格式化订阅路径
     const destination = config.formatter(userId)
 
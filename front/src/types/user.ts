@@ -21,6 +21,7 @@ export interface UserRegisterData {
   password: string;
   email: string;
   captcha: string;
+  captchaToken: string;
 }
 
 // 用户资料类型